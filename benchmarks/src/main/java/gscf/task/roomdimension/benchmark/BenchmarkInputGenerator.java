@@ -0,0 +1,73 @@
+package gscf.task.roomdimension.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import gscf.task.roomdimension.generator.RoomInputGenerator;
+
+/**
+ * Generates room dimension inputs for the benchmarks through the application's {@link RoomInputGenerator}, so the benchmarks and the scale tests
+ * process the same kind of input. The inputs are deterministic for the same parameters, so the results of different runs and different versions
+ * of the application are comparable.
+ *
+ * @author krisztian.hathazi
+ */
+public final class BenchmarkInputGenerator {
+
+    private BenchmarkInputGenerator() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Writes an input file with the given number of rooms, one {@code LxWxH} line per room.
+     *
+     * @param file
+     *            The path of the file to be written.
+     * @param lines
+     *            The number of rooms.
+     * @param duplicateRatio
+     *            The ratio of the rooms repeating one of a small set of rooms, between 0 and 1.
+     * @param cubicRatio
+     *            The ratio of the cubic rooms, between 0 and 1.
+     * @param seed
+     *            The seed of the random generator.
+     * @return The path of the written file.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public static Path generate(Path file, int lines, double duplicateRatio, double cubicRatio, long seed) throws IOException {
+        generator(lines, duplicateRatio, cubicRatio, seed).generate(file);
+        return file;
+    }
+
+    /**
+     * Returns the lines of an input file with the given parameters, without writing it.
+     *
+     * @param lines
+     *            The number of rooms.
+     * @param duplicateRatio
+     *            The ratio of the rooms repeating one of a small set of rooms, between 0 and 1.
+     * @param cubicRatio
+     *            The ratio of the cubic rooms, between 0 and 1.
+     * @param seed
+     *            The seed of the random generator.
+     * @return The lines in the {@code LxWxH} format.
+     */
+    public static String[] generateLines(int lines, double duplicateRatio, double cubicRatio, long seed) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            generator(lines, duplicateRatio, cubicRatio, seed).generate(output);
+        } catch (IOException e) {
+            // Writing into memory never fails
+            throw new UncheckedIOException(e);
+        }
+        return output.toString(StandardCharsets.US_ASCII).split("\n");
+    }
+
+    private static RoomInputGenerator generator(int lines, double duplicateRatio, double cubicRatio, long seed) {
+        return RoomInputGenerator.builder().seed(seed).roomCount(lines).duplicateRatio(duplicateRatio).cubicRatio(cubicRatio).build();
+    }
+}
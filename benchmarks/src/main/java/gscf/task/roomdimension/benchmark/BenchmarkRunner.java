@@ -0,0 +1,41 @@
+package gscf.task.roomdimension.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The entry point of the benchmarks jar. It accepts the regular JMH command-line options, and enables the {@link GCProfiler} unless other
+ * profilers are requested, so the allocation rate is always reported.
+ *
+ * @author krisztian.hathazi
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Runs the benchmarks selected by the command-line options, every benchmark by default.
+     *
+     * @param args
+     *            The JMH command-line options, e.g. {@code InputFileProcessorBenchmark -p engine=MAPPED}.
+     * @throws CommandLineOptionException
+     *             If the options are malformed.
+     * @throws RunnerException
+     *             If a benchmark fails.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder optionsBuilder = new OptionsBuilder();
+        optionsBuilder.parent(commandLineOptions);
+        if (commandLineOptions.getProfilers().isEmpty()) {
+            optionsBuilder.addProfiler(GCProfiler.class);
+        }
+        new Runner(optionsBuilder.build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package gscf.task.roomdimension.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.Result;
+
+/**
+ * Benchmarks {@link InputFileProcessor#process(String, ProcessingOptions)} on the same generated rooms as a text input file read by the
+ * {@link IngestionEngine#MAPPED} engine and as a binary room file. The primary result is in files/s, the {@link ThroughputCounters} report
+ * lines/s and MB/s, the latter of the processed file, so it is lower for the smaller binary room files.
+ *
+ * @author krisztian.hathazi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BinaryRoomFileBenchmark {
+
+    @Param({ "1000000" })
+    private int lines;
+
+    @Param({ "0.0", "0.5" })
+    private double duplicateRatio;
+
+    @Param({ "TEXT", "BINARY" })
+    private String format;
+
+    private final InputFileProcessor inputFileProcessor = new InputFileProcessor(new RoomConverter());
+
+    private final ProcessingOptions processingOptions = ProcessingOptions.builder()
+            .engine(IngestionEngine.MAPPED)
+            .maxInputSizeBytes(Long.MAX_VALUE)
+            .build();
+
+    private Path textFile;
+
+    private Path inputFile;
+
+    private long inputSize;
+
+    /**
+     * Generates the text input file, and converts it into a binary room file if needed.
+     *
+     * @throws IOException
+     *             If the files cannot be written.
+     */
+    @Setup
+    public void setup() throws IOException {
+        textFile = BenchmarkInputGenerator.generate(Files.createTempFile("room-benchmark-", ".txt"), lines, duplicateRatio, 0.1, 42);
+        inputFile = textFile;
+        if ("BINARY".equals(format)) {
+            inputFile = Files.createTempFile("room-benchmark-", ".rdb");
+            inputFileProcessor.convertToBinary(textFile.toString(), inputFile.toString(), processingOptions);
+        }
+        inputSize = Files.size(inputFile);
+    }
+
+    /**
+     * Deletes the generated files.
+     *
+     * @throws IOException
+     *             If the files cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(inputFile);
+        Files.deleteIfExists(textFile);
+    }
+
+    /**
+     * Processes the whole input file.
+     *
+     * @param counters
+     *            Counts the processed lines and megabytes.
+     * @return The result, so it is not optimized away.
+     * @throws IOException
+     *             If the input file cannot be read.
+     */
+    @Benchmark
+    public Result process(ThroughputCounters counters) throws IOException {
+        Result result = inputFileProcessor.process(inputFile.toString(), processingOptions);
+        counters.record(lines, inputSize);
+        return result;
+    }
+}
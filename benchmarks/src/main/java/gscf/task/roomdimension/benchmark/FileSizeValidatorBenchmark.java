@@ -0,0 +1,72 @@
+package gscf.task.roomdimension.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gscf.task.roomdimension.validation.FileSizeValidator;
+
+/**
+ * Benchmarks {@link FileSizeValidator#validate(String, long)}, which is called once per input file before it is processed. The primary result is
+ * in validations/s.
+ *
+ * @author krisztian.hathazi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileSizeValidatorBenchmark {
+
+    private final FileSizeValidator fileSizeValidator = new FileSizeValidator();
+
+    private Path inputFile;
+
+    /**
+     * Generates the validated input file.
+     *
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    @Setup
+    public void setup() throws IOException {
+        inputFile = BenchmarkInputGenerator.generate(Files.createTempFile("room-benchmark-", ".txt"), 10_000, 0.5, 0.2, 42);
+    }
+
+    /**
+     * Deletes the validated input file.
+     *
+     * @throws IOException
+     *             If the file cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(inputFile);
+    }
+
+    /**
+     * Validates the size of the input file.
+     *
+     * @throws IOException
+     *             If the file cannot be validated.
+     */
+    @Benchmark
+    public void validate() throws IOException {
+        fileSizeValidator.validate(inputFile.toString(), Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,100 @@
+package gscf.task.roomdimension.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.Result;
+
+/**
+ * Benchmarks {@link InputFileProcessor#process(String, ProcessingOptions)} with every {@link IngestionEngine} on generated files of several sizes
+ * and duplicate and cubic room ratios. The primary result is in files/s, the {@link ThroughputCounters} report lines/s and MB/s.
+ *
+ * @author krisztian.hathazi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InputFileProcessorBenchmark {
+
+    @Param({ "100000", "1000000" })
+    private int lines;
+
+    @Param({ "0.0", "0.5" })
+    private double duplicateRatio;
+
+    @Param({ "0.0", "0.2" })
+    private double cubicRatio;
+
+    @Param({ "READER", "MAPPED", "PARALLEL" })
+    private IngestionEngine engine;
+
+    private final InputFileProcessor inputFileProcessor = new InputFileProcessor(new RoomConverter());
+
+    private Path inputFile;
+
+    private long inputSize;
+
+    private ProcessingOptions processingOptions;
+
+    /**
+     * Generates the processed input file.
+     *
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    @Setup
+    public void setup() throws IOException {
+        inputFile = BenchmarkInputGenerator.generate(Files.createTempFile("room-benchmark-", ".txt"), lines, duplicateRatio, cubicRatio, 42);
+        inputSize = Files.size(inputFile);
+        processingOptions = ProcessingOptions.builder().engine(engine).maxInputSizeBytes(Long.MAX_VALUE).build();
+    }
+
+    /**
+     * Deletes the processed input file.
+     *
+     * @throws IOException
+     *             If the file cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(inputFile);
+    }
+
+    /**
+     * Processes the whole input file.
+     *
+     * @param counters
+     *            Counts the processed lines and megabytes.
+     * @return The result, so it is not optimized away.
+     * @throws IOException
+     *             If the input file cannot be read.
+     */
+    @Benchmark
+    public Result process(ThroughputCounters counters) throws IOException {
+        Result result = inputFileProcessor.process(inputFile.toString(), processingOptions);
+        counters.record(lines, inputSize);
+        return result;
+    }
+}
@@ -0,0 +1,99 @@
+package gscf.task.roomdimension.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gscf.task.roomdimension.validation.LimitedSizeInputStream;
+
+/**
+ * Benchmarks reading an in-memory input through a {@link LimitedSizeInputStream}, compared with reading it directly, so the overhead of the size
+ * limit is isolated from any I/O. The {@link ThroughputCounters} report MB/s and lines/s.
+ *
+ * @author krisztian.hathazi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LimitedSizeInputStreamBenchmark {
+
+    private static final int LINES = 100_000;
+
+    @Param({ "1", "8192" })
+    private int readSize;
+
+    private byte[] input;
+
+    /**
+     * Generates the input.
+     */
+    @Setup
+    public void setup() {
+        input = (String.join("\n", BenchmarkInputGenerator.generateLines(LINES, 0.5, 0.2, 42)) + "\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads the input through a {@link LimitedSizeInputStream}.
+     *
+     * @param counters
+     *            Counts the read lines and megabytes.
+     * @return The sum of the read bytes, so the reads are not optimized away.
+     * @throws IOException
+     *             Never, the input is in memory.
+     */
+    @Benchmark
+    public long readLimited(ThroughputCounters counters) throws IOException {
+        return read(new LimitedSizeInputStream(new ByteArrayInputStream(input), Long.MAX_VALUE), counters);
+    }
+
+    /**
+     * Reads the input directly, as the baseline of {@link #readLimited(ThroughputCounters)}.
+     *
+     * @param counters
+     *            Counts the read lines and megabytes.
+     * @return The sum of the read bytes, so the reads are not optimized away.
+     * @throws IOException
+     *             Never, the input is in memory.
+     */
+    @Benchmark
+    public long readDirect(ThroughputCounters counters) throws IOException {
+        return read(new ByteArrayInputStream(input), counters);
+    }
+
+    private long read(InputStream stream, ThroughputCounters counters) throws IOException {
+        long sum = 0;
+        try (stream) {
+            if (readSize == 1) {
+                int b;
+                while ((b = stream.read()) != -1) {
+                    sum += b;
+                }
+            } else {
+                byte[] buffer = new byte[readSize];
+                int read;
+                while ((read = stream.read(buffer, 0, buffer.length)) != -1) {
+                    sum += read;
+                }
+            }
+        }
+        counters.record(LINES, input.length);
+        return sum;
+    }
+}
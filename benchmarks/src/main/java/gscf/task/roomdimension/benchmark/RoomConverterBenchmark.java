@@ -0,0 +1,107 @@
+package gscf.task.roomdimension.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.RoomDimensions;
+
+/**
+ * Benchmarks {@link RoomConverter#convert(String)} and its allocation-free variants over strings and bytes. Every invocation converts a batch of lines, and the batch
+ * size is declared as the operations per invocation, so the primary result is in lines/s.
+ *
+ * @author krisztian.hathazi
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomConverterBenchmark {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({ "0.0", "0.5" })
+    private double duplicateRatio;
+
+    @Param({ "0.0", "0.2" })
+    private double cubicRatio;
+
+    private final RoomConverter roomConverter = new RoomConverter();
+
+    private final RoomDimensions dimensions = new RoomDimensions();
+
+    private String[] lines;
+
+    private byte[][] lineBytes;
+
+    /**
+     * Generates the converted lines.
+     */
+    @Setup
+    public void setup() {
+        lines = BenchmarkInputGenerator.generateLines(BATCH_SIZE, duplicateRatio, cubicRatio, 42);
+        lineBytes = new byte[lines.length][];
+        for (int i = 0; i < lines.length; i++) {
+            lineBytes[i] = lines[i].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Converts every line into a {@link gscf.task.roomdimension.dto.Room}.
+     *
+     * @param blackhole
+     *            Consumes the rooms, so they are not optimized away.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void convertToRoom(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(roomConverter.convert(line));
+        }
+    }
+
+    /**
+     * Converts every line into the same {@link RoomDimensions} holder.
+     *
+     * @param blackhole
+     *            Consumes the dimensions, so they are not optimized away.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void convertToDimensions(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(roomConverter.convert(line, dimensions).length());
+        }
+    }
+
+    /**
+     * Converts the bytes of every line into the same {@link RoomDimensions} holder, without decoding them.
+     *
+     * @param blackhole
+     *            Consumes the wallpaper needed, so it is not optimized away.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void tryConvertBytes(Blackhole blackhole) {
+        for (byte[] line : lineBytes) {
+            RoomConverter.tryConvert(line, 0, line.length, dimensions);
+            blackhole.consume(dimensions.wallpaperNeeded());
+        }
+    }
+}
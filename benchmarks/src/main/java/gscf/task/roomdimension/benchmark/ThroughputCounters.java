@@ -0,0 +1,52 @@
+package gscf.task.roomdimension.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary benchmark results counting the processed lines and megabytes. JMH normalizes them by the measured time, so they are reported as
+ * lines/s and MB/s next to the primary ops/s result.
+ *
+ * @author krisztian.hathazi
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ThroughputCounters {
+
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    /**
+     * The number of processed lines.
+     */
+    public long lines;
+
+    /**
+     * The number of processed megabytes.
+     */
+    public double megabytes;
+
+    /**
+     * Resets the counters before every iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        lines = 0;
+        megabytes = 0;
+    }
+
+    /**
+     * Records a processed input.
+     *
+     * @param processedLines
+     *            The number of lines of the input.
+     * @param processedBytes
+     *            The size of the input in bytes.
+     */
+    public void record(long processedLines, long processedBytes) {
+        lines += processedLines;
+        megabytes += processedBytes / BYTES_PER_MEGABYTE;
+    }
+}
@@ -13,7 +13,9 @@ public class App {
      * The main method that starts the application.
      *
      * @param args
-     *            The command-line arguments, should contain only one argument which is the file path to be processed.
+     *            The command-line arguments: one or more input file paths, directories or glob patterns to be processed as a batch, optionally
+     *            accompanied by {@code --name=value} options, e.g. {@code --engine=mapped}. The server mode, started by {@code --serve}, takes
+     *            no input file. See {@link RoomDimensionAction#process(String[])}.
      */
     public static void main(String[] args) {
         // Instantiate the action that handles the task
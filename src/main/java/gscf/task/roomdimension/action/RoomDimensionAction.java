@@ -1,24 +1,44 @@
 package gscf.task.roomdimension.action;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.MessageFormat;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import gscf.task.roomdimension.action.process.BatchInputProcessor;
 import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.action.process.InputPathResolver;
+import gscf.task.roomdimension.action.process.TailingFileProcessor;
+import gscf.task.roomdimension.converter.CommandLineArgumentsConverter;
 import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.AnalysisMode;
+import gscf.task.roomdimension.dto.BatchResult;
+import gscf.task.roomdimension.dto.CommandLineArguments;
+import gscf.task.roomdimension.dto.FileResult;
+import gscf.task.roomdimension.dto.OutputFormat;
+import gscf.task.roomdimension.dto.ProcessingOptions;
 import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.SketchResult;
 import gscf.task.roomdimension.exception.InvalidMethodParameterException;
 import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
+import gscf.task.roomdimension.jfr.OutputEvent;
+import gscf.task.roomdimension.jfr.RoomDimensionEvents;
 import gscf.task.roomdimension.log.AppLogger;
+import gscf.task.roomdimension.metrics.ProcessingMetrics;
+import gscf.task.roomdimension.metrics.Stage;
+import gscf.task.roomdimension.output.ResultSink;
+import gscf.task.roomdimension.server.AnalysisServer;
 import gscf.task.roomdimension.util.ParamValidatorUtil;
 import gscf.task.roomdimension.util.ResultPrinterUtil;
-import gscf.task.roomdimension.validation.FileSizeValidator;
 
 /**
- * The {@code RoomDimensionAction} class is responsible for processing room dimension data from an input file. It validates the input arguments and
- * file size, and delegates the file processing to {@link InputFileProcessor}. After processing the input file, it prints relevant results using
- * {@link ResultPrinterUtil}.
+ * The {@code RoomDimensionAction} class is responsible for processing room dimension data from an input file. It validates the input arguments, and
+ * delegates the file processing to {@link InputFileProcessor}, or to {@link BatchInputProcessor} in case of several input files, which validate
+ * the file size. After processing the input file, it prints relevant results using {@link ResultPrinterUtil}.
  *
  * @author krisztian.hathazi
  */
@@ -26,64 +46,354 @@ public class RoomDimensionAction implements Action<String[]> {
 
     private static final Logger LOGGER = AppLogger.getLogger();
 
-    private static final long INPUT_FILE_MAX_SIZE_BYTES = 5L * 1024 * 1024;
+    private static final ProcessingMetrics PROCESSING_METRICS = ProcessingMetrics.getInstance();
 
-    private final FileSizeValidator fileSizeValidator;
+    private final RoomConverter roomConverter;
+
+    private final CommandLineArgumentsConverter commandLineArgumentsConverter;
 
     private final InputFileProcessor inputFileProcessor;
 
+    private final InputPathResolver inputPathResolver;
+
+    private final BatchInputProcessor batchInputProcessor;
+
     /**
-     * Constructs a new {@code RoomDimensionAction} instance, initializing the file size validator and input file processor. The
-     * {@code InputFileProcessor} is initialized with a default {@link RoomConverter}.
+     * Constructs a new {@code RoomDimensionAction} instance, initializing the command-line arguments converter, input file processor, input path
+     * resolver and batch input processor. The processors are initialized with a default {@link RoomConverter}.
      */
     public RoomDimensionAction() {
-        this.fileSizeValidator = new FileSizeValidator();
-        this.inputFileProcessor = new InputFileProcessor(new RoomConverter());
+        this.roomConverter = new RoomConverter();
+        this.commandLineArgumentsConverter = new CommandLineArgumentsConverter();
+        this.inputFileProcessor = new InputFileProcessor(roomConverter);
+        this.inputPathResolver = new InputPathResolver();
+        this.batchInputProcessor = new BatchInputProcessor(roomConverter);
     }
 
     /**
-     * Processes the input arguments, validates the file size, and processes the input file based on business requirements. After the file is
-     * processed, it prints the total square footage of wallpaper needed, cubic shaped rooms, and duplicate rooms using {@link ResultPrinterUtil}.
+     * Processes the input arguments, and processes the input file based on business requirements, the size of the input file is validated by
+     * the {@link InputFileProcessor}. After the file is processed, it prints the total square footage of wallpaper needed, cubic shaped rooms, and
+     * duplicate rooms using {@link ResultPrinterUtil}. In the {@link AnalysisMode#APPROXIMATE} mode the estimated number of distinct rooms and the
+     * most repeated rooms are printed instead of the cubic and duplicate rooms.
+     * <p>
+     * If the arguments stand for several input files, they are processed as a batch by the {@link BatchInputProcessor}, and the results of every
+     * input file are printed, followed by the aggregated results of the whole batch.
+     * </p>
+     * <p>
+     * In the watch mode, selected by {@link ProcessingOptions#watchInterval()}, the single input file is processed by a
+     * {@link TailingFileProcessor}, and the refreshed results are printed whenever lines are appended to it, until the application is stopped.
+     * </p>
+     * <p>
+     * With a {@link ProcessingOptions#binaryOutputFile()}, the single text input file is converted into a binary room file instead of being
+     * analysed. Binary room files are recognised and analysed like text input files, but several times faster.
+     * </p>
+     * <p>
+     * With a {@link ProcessingOptions#outputFormat()} or a {@link ProcessingOptions#outputFile()}, the results are streamed room by room into a
+     * {@link ResultSink} instead of being logged, which keeps the memory needed for the output constant whatever the number of reported rooms.
+     * </p>
+     * <p>
+     * With a {@link ProcessingOptions#checkpointFile()}, the exact analysis of a single input file saves checkpoints, and resumes from the last one
+     * when it is restarted, see {@link InputFileProcessor}.
+     * </p>
+     * <p>
+     * With {@link ProcessingOptions#statsReport()}, the {@link ProcessingMetrics} are enabled and published over JMX, and their JSON report is
+     * logged or written into the {@link ProcessingOptions#statsFile()} at the end of the run, even if the processing has failed.
+     * </p>
+     * <p>
+     * With a {@link ProcessingOptions#serverAddress()}, no input file is processed. An {@link AnalysisServer} is started instead, which analyses the
+     * room files uploaded to it until the application is stopped.
+     * </p>
      *
      * @param args
-     *            An array of strings representing the command-line arguments. There should be only one provided argument which should be the file
-     *            path of the input file containing room dimension data.
+     *            An array of strings representing the command-line arguments. There should be at least one argument which is the path of an input
+     *            file containing room dimension data, a directory of input files or a glob pattern of input files, see {@link InputPathResolver},
+     *            optionally accompanied by {@code --name=value} options, e.g. {@code --engine=mapped}.
      *
      * @throws InvalidMethodParameterException
-     *             If the input arguments are null or empty.
+     *             If the input arguments are null or empty, contain no input file path, contain an invalid option, ask for checkpoints in a
+     *             mode not supporting them, or contain input file paths in the server mode.
      */
     @Override
     public void process(String[] args) {
         // Public method, so parameter validation is a must
         ParamValidatorUtil.requireNonEmpty(args, "args");
 
+        CommandLineArguments arguments = commandLineArgumentsConverter.convert(args);
+
+        if (arguments.processingOptions().serverAddress() != null) {
+            serve(arguments);
+            return;
+        }
+
         // Validate input arguments' length
-        if (args.length != 1) {
+        if (arguments.inputFilePaths().isEmpty()) {
             throw new InvalidMethodParameterException(
-                    "Please provide exactly one argument for the application which contains the path of the desired sample.");
+                    "Please provide at least one argument for the application which contains the path of the desired sample.");
         }
 
-        try {
+        long maxInputSizeBytes = arguments.processingOptions().maxInputSizeBytes();
 
-            String filePath = args[0];
+        if (arguments.processingOptions().statsReport()) {
+            PROCESSING_METRICS.enable();
+        }
+        if (PROCESSING_METRICS.isEnabled()) {
+            PROCESSING_METRICS.startRun();
+        }
+
+        try {
+            List<Path> inputFiles = inputPathResolver.resolve(arguments.inputFilePaths());
+            if (arguments.processingOptions().binaryOutputFile() != null) {
+                convertToBinary(inputFiles, arguments.processingOptions());
+                return;
+            }
+            if (arguments.processingOptions().checkpointFile() != null) {
+                validateCheckpointedRun(inputFiles, arguments.processingOptions());
+            }
+            try (ResultSink resultSink = openResultSink(arguments.processingOptions())) {
+                if (arguments.processingOptions().watchInterval() != null) {
+                    watch(inputFiles, arguments.processingOptions(), resultSink);
+                    return;
+                }
+                if (inputFiles.size() > 1) {
+                    processBatch(inputFiles, arguments.processingOptions(), resultSink);
+                    return;
+                }
 
-            // Validate input file size without reading the whole file into the memory
-            fileSizeValidator.validate(filePath, INPUT_FILE_MAX_SIZE_BYTES);
+                // The input file processor validates the size of the input file, without reading a regular file
+                String filePath = inputFiles.get(0).toString();
 
-            // Process the input file per business requirements
-            Result result = inputFileProcessor.process(filePath);
+                if (arguments.processingOptions().mode() == AnalysisMode.APPROXIMATE) {
+                    // Estimate the analytics with sketches of constant size
+                    outputSketchResult(resultSink, filePath, inputFileProcessor.processApproximate(filePath, arguments.processingOptions()), false);
+                    return;
+                }
 
-            ResultPrinterUtil.printTotalSquareFeetOfWallpaperNeeded(result);
-            ResultPrinterUtil.printCubicShapedRooms(result);
-            ResultPrinterUtil.printDuplicatedRooms(result);
+                // Process the input file per business requirements
+                outputResult(resultSink, filePath, inputFileProcessor.process(filePath, arguments.processingOptions()), false);
+            }
         } catch (SizeLimitExceededIOException e) {
             String message = MessageFormat.format(
                     "The processing of the sample has failed due to a providing a too large file. The maximum acceptable size is: [{0}] bytes.",
-                    INPUT_FILE_MAX_SIZE_BYTES);
+                    maxInputSizeBytes);
             LOGGER.severe(message);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "The processing of the sample has failed due to an IOException.", e);
+        } catch (ArithmeticException e) {
+            LOGGER.severe("The processing of the sample has failed, because the total wallpaper needed by the rooms exceeds the maximum of a long.");
+        } finally {
+            reportStats(arguments.processingOptions());
         }
     }
 
+    /**
+     * Runs the {@link AnalysisServer} until the application is stopped, which lets the requests in progress complete before it exits.
+     */
+    private void serve(CommandLineArguments arguments) {
+        if (!arguments.inputFilePaths().isEmpty()) {
+            throw new InvalidMethodParameterException("The server mode takes no input files, the room files are uploaded to the server.");
+        }
+        if (arguments.processingOptions().statsReport()) {
+            PROCESSING_METRICS.enable();
+        }
+
+        try (AnalysisServer analysisServer = AnalysisServer.start(inputFileProcessor, arguments.processingOptions())) {
+            Runtime.getRuntime().addShutdownHook(new Thread(analysisServer::close, "analysis-server-shutdown"));
+            LOGGER.info(
+                    MessageFormat.format(
+                            "The analysis server is listening on [{0}], post the room files to [{1}].",
+                            analysisServer.address(),
+                            AnalysisServer.ANALYSIS_PATH));
+            analysisServer.awaitStop();
+            LOGGER.info("The analysis server has been stopped.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.info("The analysis server has been stopped.");
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "The analysis server could not be started due to an IOException.", e);
+        }
+    }
+
+    /**
+     * Logs the JSON report of the {@link ProcessingMetrics}, or writes it into the stats file, if it has been asked for.
+     */
+    private static void reportStats(ProcessingOptions processingOptions) {
+        if (!processingOptions.statsReport()) {
+            return;
+        }
+        String report = PROCESSING_METRICS.toJson();
+        if (processingOptions.statsFile() == null) {
+            LOGGER.info(report);
+            return;
+        }
+        try {
+            Files.writeString(processingOptions.statsFile(), report + System.lineSeparator());
+        } catch (IOException e) {
+            LOGGER.log(
+                    Level.SEVERE,
+                    MessageFormat.format("The processing metrics could not be written into [{0}].", processingOptions.statsFile()),
+                    e);
+        }
+    }
+
+    private void convertToBinary(List<Path> inputFiles, ProcessingOptions processingOptions) throws IOException {
+        if (inputFiles.size() != 1) {
+            throw new InvalidMethodParameterException("The conversion into a binary room file requires exactly one input file.");
+        }
+        String filePath = inputFiles.get(0).toString();
+        String binaryFilePath = processingOptions.binaryOutputFile().toString();
+
+        long roomCount = inputFileProcessor.convertToBinary(filePath, binaryFilePath, processingOptions);
+        LOGGER.info(
+                MessageFormat.format(
+                        "The [{0}] rooms of the input file [{1}] have been converted into the binary room file [{2}].",
+                        roomCount,
+                        filePath,
+                        binaryFilePath));
+    }
+
+    private static void validateCheckpointedRun(List<Path> inputFiles, ProcessingOptions processingOptions) {
+        // Only the exact analysis of a single input file can be resumed
+        if (inputFiles.size() != 1 || processingOptions.watchInterval() != null || processingOptions.mode() == AnalysisMode.APPROXIMATE) {
+            throw new InvalidMethodParameterException(
+                    "Checkpoints are only supported by the exact analysis of a single input file, not by the batch, watch or approximate modes.");
+        }
+    }
+
+    /**
+     * Opens the {@link ResultSink} the results are streamed into, or returns null if the results are logged.
+     */
+    private static ResultSink openResultSink(ProcessingOptions processingOptions) throws IOException {
+        if (processingOptions.outputFormat() == null && processingOptions.outputFile() == null) {
+            return null;
+        }
+        OutputFormat outputFormat = processingOptions.outputFormat() == null ? OutputFormat.TEXT : processingOptions.outputFormat();
+        return ResultSink.open(outputFormat, processingOptions.outputFile());
+    }
+
+    private void watch(List<Path> inputFiles, ProcessingOptions processingOptions, ResultSink resultSink) throws IOException {
+        if (inputFiles.size() != 1) {
+            throw new InvalidMethodParameterException("The watch mode requires exactly one input file.");
+        }
+        String filePath = inputFiles.get(0).toString();
+
+        try {
+            if (processingOptions.mode() == AnalysisMode.APPROXIMATE) {
+                try (TailingFileProcessor<SketchResult> tailingFileProcessor = TailingFileProcessor
+                        .approximate(roomConverter, filePath, processingOptions)) {
+                    tailingFileProcessor.watch(
+                            processingOptions.watchInterval(),
+                            sketchResult -> outputUnchecked(() -> outputSketchResult(resultSink, filePath, sketchResult, true)));
+                }
+                return;
+            }
+
+            try (TailingFileProcessor<Result> tailingFileProcessor = TailingFileProcessor.exact(roomConverter, filePath, processingOptions)) {
+                tailingFileProcessor
+                        .watch(processingOptions.watchInterval(), result -> outputUnchecked(() -> outputResult(resultSink, filePath, result, true)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.info("Watching the input file has been stopped.");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void processBatch(List<Path> inputFiles, ProcessingOptions processingOptions, ResultSink resultSink) throws IOException {
+        if (processingOptions.mode() == AnalysisMode.APPROXIMATE) {
+            BatchResult<SketchResult> batchResult = batchInputProcessor.processApproximate(inputFiles, processingOptions);
+            for (FileResult<SketchResult> fileResult : batchResult.fileResults()) {
+                outputSketchResult(resultSink, fileResult.inputFilePath(), fileResult.result(), true);
+            }
+            if (resultSink == null) {
+                ResultPrinterUtil.printBatchResultHeader(batchResult);
+            }
+            // The aggregated result has no input file of its own
+            outputSketchResult(resultSink, null, batchResult.aggregate(), false);
+            return;
+        }
+
+        BatchResult<Result> batchResult = batchInputProcessor.process(inputFiles, processingOptions);
+        for (FileResult<Result> fileResult : batchResult.fileResults()) {
+            outputResult(resultSink, fileResult.inputFilePath(), fileResult.result(), true);
+        }
+        if (resultSink == null) {
+            ResultPrinterUtil.printBatchResultHeader(batchResult);
+        }
+        // The aggregated result has no input file of its own
+        outputResult(resultSink, null, batchResult.aggregate(), false);
+    }
+
+    /**
+     * Streams the result into the {@link ResultSink}, or logs it, optionally after the header naming its input file, if there is no sink.
+     */
+    private static void outputResult(ResultSink resultSink, String filePath, Result result, boolean header) throws IOException {
+        OutputEvent outputEvent = RoomDimensionEvents.beginOutput();
+        try (ProcessingMetrics.StageTimer stageTimer = PROCESSING_METRICS.start(Stage.OUTPUT)) {
+            if (resultSink != null) {
+                resultSink.write(filePath, result);
+            } else {
+                if (header) {
+                    ResultPrinterUtil.printFileResultHeader(new FileResult<>(filePath, result));
+                }
+                printResult(result);
+            }
+        }
+        RoomDimensionEvents.commitOutput(outputEvent, filePath, resultSink != null);
+        PROCESSING_METRICS.recordFirstResult();
+    }
+
+    /**
+     * Streams the sketch result into the {@link ResultSink}, or logs it, optionally after the header naming its input file, if there is no sink.
+     */
+    private static void outputSketchResult(ResultSink resultSink, String filePath, SketchResult sketchResult, boolean header) throws IOException {
+        OutputEvent outputEvent = RoomDimensionEvents.beginOutput();
+        try (ProcessingMetrics.StageTimer stageTimer = PROCESSING_METRICS.start(Stage.OUTPUT)) {
+            if (resultSink != null) {
+                resultSink.write(filePath, sketchResult);
+            } else {
+                if (header) {
+                    ResultPrinterUtil.printFileResultHeader(new FileResult<>(filePath, sketchResult));
+                }
+                printSketchResult(sketchResult);
+            }
+        }
+        RoomDimensionEvents.commitOutput(outputEvent, filePath, resultSink != null);
+        PROCESSING_METRICS.recordFirstResult();
+    }
+
+    /**
+     * Runs the output of a watch mode listener, which cannot throw an {@link IOException}.
+     */
+    private static void outputUnchecked(ResultOutput output) {
+        try {
+            output.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void printResult(Result result) {
+        ResultPrinterUtil.printTotalSquareFeetOfWallpaperNeeded(result);
+        ResultPrinterUtil.printCubicShapedRooms(result);
+        ResultPrinterUtil.printDuplicatedRooms(result);
+        ResultPrinterUtil.printInvalidLines(result.invalidLines());
+    }
+
+    private static void printSketchResult(SketchResult sketchResult) {
+        ResultPrinterUtil.printTotalSquareFeetOfWallpaperNeeded(sketchResult);
+        ResultPrinterUtil.printEstimatedDistinctRooms(sketchResult);
+        ResultPrinterUtil.printMostRepeatedRooms(sketchResult);
+        ResultPrinterUtil.printInvalidLines(sketchResult.invalidLines());
+    }
+
+    /**
+     * The output of a result, which may fail with an {@link IOException}.
+     */
+    @FunctionalInterface
+    private interface ResultOutput {
+
+        void run() throws IOException;
+    }
+
 }
@@ -0,0 +1,264 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.BatchResult;
+import gscf.task.roomdimension.dto.FileResult;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.metrics.ProcessingMetrics;
+import gscf.task.roomdimension.metrics.Stage;
+import gscf.task.roomdimension.util.ExecutorUtil;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * Processes several input files as a single batch in one JVM. Every input file is read by the {@link InputFileProcessor} with the engine of the
+ * {@link ProcessingOptions}, on its own virtual thread, at most {@link ProcessingOptions#batchConcurrency()} files at the same time. On JVMs
+ * without virtual threads, a pool of {@link ProcessingOptions#batchConcurrency()} platform threads is used instead.
+ * <p>
+ * The {@link BatchResult} contains the result of every input file and the aggregate of the whole batch. The aggregate is built by merging the
+ * {@link RoomAggregator} of every input file, so rooms repeated across the input files are detected as duplicates as well. The batch fails with
+ * the first failing input file, the input files not started yet are skipped.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class BatchInputProcessor {
+
+    private final RoomConverter roomConverter;
+
+    private final InputFileProcessor inputFileProcessor;
+
+    private final ProcessingMetrics processingMetrics;
+
+    /**
+     * Constructs a {@link BatchInputProcessor} with the specified {@link RoomConverter}.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to convert room dimensions from the input files into
+     *            {@link gscf.task.roomdimension.dto.Room} objects.
+     */
+    public BatchInputProcessor(RoomConverter roomConverter) {
+        this.roomConverter = roomConverter;
+        this.inputFileProcessor = new InputFileProcessor(roomConverter);
+        this.processingMetrics = ProcessingMetrics.getInstance();
+    }
+
+    /**
+     * Processes the given input files, extracting the total wallpaper needed, the cubic rooms and the duplicate rooms of every input file and of
+     * the whole batch.
+     *
+     * @param inputFiles
+     *            The paths of the input files, see {@link InputPathResolver}.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling how the input files are read.
+     * @return A {@link BatchResult} of {@link Result} objects.
+     * @throws IOException
+     *             If an error occurs while reading any of the input files, or while writing or reading the spilled rooms of the duplicate detection.
+     * @throws gscf.task.roomdimension.exception.SizeLimitExceededIOException
+     *             If any of the input files is larger than {@link ProcessingOptions#maxInputSizeBytes()}.
+     * @throws InvalidMethodParameterException
+     *             If the {@code inputFiles} is null or empty, or the {@code processingOptions} is null or has a non-positive batch concurrency.
+     */
+    public BatchResult<Result> process(List<Path> inputFiles, ProcessingOptions processingOptions) throws IOException {
+        // Public method, so parameter validation is a must
+        validate(inputFiles, processingOptions);
+
+        Path spillRoot = InputFileProcessor.createSpillRoot(processingOptions);
+        Supplier<RoomAccumulator> roomAccumulatorFactory = () -> new RoomAccumulator(
+                roomConverter,
+                InputFileProcessor.createDuplicateRoomDetector(processingOptions, spillRoot),
+                processingOptions.cubicRoomLimit(),
+                InputFileProcessor.errorReservoirSize(processingOptions));
+
+        try {
+            return process(inputFiles, processingOptions, roomAccumulatorFactory, RoomAccumulator::toResult);
+        } finally {
+            InputFileProcessor.deleteSpillRoot(spillRoot);
+        }
+    }
+
+    /**
+     * Processes the given input files in the {@link gscf.task.roomdimension.dto.AnalysisMode#APPROXIMATE} mode, estimating the number of distinct
+     * rooms and the most repeated rooms of every input file and of the whole batch.
+     *
+     * @param inputFiles
+     *            The paths of the input files, see {@link InputPathResolver}.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling how the input files are read and how the sketches are sized.
+     * @return A {@link BatchResult} of {@link SketchResult} objects.
+     * @throws IOException
+     *             If an error occurs while reading any of the input files.
+     * @throws gscf.task.roomdimension.exception.SizeLimitExceededIOException
+     *             If any of the input files is larger than {@link ProcessingOptions#maxInputSizeBytes()}.
+     * @throws InvalidMethodParameterException
+     *             If the {@code inputFiles} is null or empty, the {@code processingOptions} is null or has a non-positive batch concurrency, or the
+     *             sketch options are invalid.
+     */
+    public BatchResult<SketchResult> processApproximate(List<Path> inputFiles, ProcessingOptions processingOptions) throws IOException {
+        // Public method, so parameter validation is a must
+        validate(inputFiles, processingOptions);
+        ParamValidatorUtil.requireNonNull(processingOptions.sketchOptions(), "processingOptions.sketchOptions");
+
+        Supplier<SketchAccumulator> sketchAccumulatorFactory = () -> new SketchAccumulator(
+                roomConverter,
+                processingOptions.sketchOptions(),
+                InputFileProcessor.errorReservoirSize(processingOptions));
+
+        return process(inputFiles, processingOptions, sketchAccumulatorFactory, SketchAccumulator::toResult);
+    }
+
+    private static void validate(List<Path> inputFiles, ProcessingOptions processingOptions) {
+        ParamValidatorUtil.requireNonNull(inputFiles, "inputFiles");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+        if (inputFiles.isEmpty()) {
+            throw new InvalidMethodParameterException("[inputFiles] parameter is empty.");
+        }
+        if (processingOptions.batchConcurrency() <= 0) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("The batch concurrency must be positive, got [{0}].", processingOptions.batchConcurrency()));
+        }
+    }
+
+    private <A extends RoomAggregator<A>, R> BatchResult<R> process(List<Path> inputFiles, ProcessingOptions processingOptions,
+            Supplier<A> roomAggregatorFactory, Function<A, R> resultBuilder) throws IOException {
+        BatchAggregate<A> batchAggregate = new BatchAggregate<>();
+        AtomicReferenceArray<FileResult<R>> fileResults = new AtomicReferenceArray<>(inputFiles.size());
+
+        try {
+            runConcurrently(inputFiles.size(), processingOptions.batchConcurrency(), index -> {
+                Path inputFile = inputFiles.get(index);
+                A roomAggregator = inputFileProcessor.aggregate(inputFile, processingOptions, roomAggregatorFactory);
+                try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.RESULT)) {
+                    fileResults.set(index, new FileResult<>(inputFile.toString(), resultBuilder.apply(roomAggregator)));
+                } catch (RuntimeException | Error e) {
+                    roomAggregator.close();
+                    throw e;
+                }
+                // The aggregate takes over the aggregator of the input file, closing it when the batch is done
+                batchAggregate.add(roomAggregator);
+            });
+
+            BatchResult<R> batchResult;
+            try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.RESULT)) {
+                batchResult = new BatchResult<>(toFileResults(fileResults), batchAggregate.toResult(resultBuilder));
+            }
+            // Counted after the result is built, so a spilling duplicate room detector counts the distinct rooms while it resolves the duplicates
+            if (processingMetrics.isEnabled()) {
+                processingMetrics.recordDistinctRooms(batchAggregate.distinctRoomCount());
+            }
+            return batchResult;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            batchAggregate.close();
+        }
+    }
+
+    private static <R> List<FileResult<R>> toFileResults(AtomicReferenceArray<FileResult<R>> fileResults) {
+        List<FileResult<R>> results = new ArrayList<>(fileResults.length());
+        for (int i = 0; i < fileResults.length(); i++) {
+            results.add(fileResults.get(i));
+        }
+        return List.copyOf(results);
+    }
+
+    /**
+     * Runs the task once for every index, at most {@code concurrency} of them at the same time. Once a task fails, no more tasks are started, and
+     * the failure is rethrown after the running tasks have finished. Errors are rethrown as well, so they are never hidden by the missing results of
+     * the failed task.
+     */
+    private static void runConcurrently(int count, int concurrency, IndexedTask task) throws IOException {
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutorService executor = ExecutorUtil.newVirtualThreadExecutor(Math.min(count, concurrency));
+
+        try {
+            for (int i = 0; i < count && failure.get() == null; i++) {
+                permits.acquire();
+                int index = i;
+                executor.execute(() -> {
+                    try {
+                        if (failure.get() == null) {
+                            task.run(index);
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Keep waiting, the tasks are bounded by the size of their input files
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new InterruptedIOException("The processing of the batch has been interrupted.");
+        }
+
+        Throwable throwable = failure.get();
+        if (throwable instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (throwable instanceof Error error) {
+            throw error;
+        }
+        if (throwable != null) {
+            throw (RuntimeException) throwable;
+        }
+    }
+
+    /**
+     * A task processing the input file at the given index.
+     */
+    @FunctionalInterface
+    private interface IndexedTask {
+
+        void run(int index) throws IOException;
+    }
+
+    /**
+     * The aggregate of the batch, merging the {@link RoomAggregator} of every input file as soon as it is done.
+     */
+    private static final class BatchAggregate<A extends RoomAggregator<A>> {
+
+        private A roomAggregator;
+
+        synchronized void add(A fileRoomAggregator) {
+            roomAggregator = roomAggregator == null ? fileRoomAggregator : roomAggregator.merge(fileRoomAggregator);
+        }
+
+        synchronized <R> R toResult(Function<A, R> resultBuilder) {
+            return resultBuilder.apply(roomAggregator);
+        }
+
+        synchronized long distinctRoomCount() {
+            return roomAggregator.distinctRoomCount();
+        }
+
+        synchronized void close() {
+            if (roomAggregator != null) {
+                roomAggregator.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+
+/**
+ * Describes the compact binary room file format, which can be analysed without parsing text. A binary room file consists of the following:
+ * <ul>
+ * <li>A header of {@link #HEADER_SIZE_BYTES} bytes: the {@link #MAGIC} number, the {@link #VERSION} of the format and the number of rooms, as
+ * big-endian {@code int}, {@code int} and {@code long} values</li>
+ * <li>The length, the width and the height of every room, each of them as an unsigned LEB128 varint, i.e. 7 bits per byte with the highest bit
+ * set on every byte but the last one, so a room of dimensions below 128 takes only 3 bytes</li>
+ * </ul>
+ * The first byte of the magic number is not an ASCII character, so a binary room file is never mistaken for a text input file. Binary room files
+ * are written by the {@link BinaryRoomWriter}.
+ *
+ * @author krisztian.hathazi
+ */
+public final class BinaryRoomFormat {
+
+    /**
+     * The magic number at the start of every binary room file, {@code 0x89} followed by {@code RDB}.
+     */
+    public static final int MAGIC = 0x89524442;
+
+    /**
+     * The version of the binary room file format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header of a binary room file.
+     */
+    public static final int HEADER_SIZE_BYTES = 16;
+
+    /**
+     * The maximum size of a single room, 5 bytes per dimension.
+     */
+    public static final int MAX_ROOM_SIZE_BYTES = 15;
+
+    private static final int ROOM_COUNT_OFFSET = 8;
+
+    // The shift of the fifth and last byte of a varint, of which only the lowest 3 bits fit into a positive int
+    private static final int LAST_VARINT_SHIFT = 28;
+
+    private static final int LAST_VARINT_MAX_BITS = 0x07;
+
+    private static final long INCOMPLETE = -1L;
+
+    private BinaryRoomFormat() {
+    }
+
+    /**
+     * Returns whether the given regular file is a binary room file, i.e. it starts with the {@link #MAGIC} number.
+     *
+     * @param path
+     *            The path of the regular file to check.
+     * @return {@code true} if the file is a binary room file.
+     * @throws IOException
+     *             If the file cannot be read.
+     */
+    public static boolean isBinaryRoomFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0) {
+                // Keep reading, a single read may return fewer bytes
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads and validates the header of the binary room file of the given channel.
+     *
+     * @param channel
+     *            The {@link FileChannel} of a binary room file, only positional reads are performed on it.
+     * @param path
+     *            The path of the binary room file, used in the error messages.
+     * @return The number of rooms in the binary room file, according to its header.
+     * @throws IOException
+     *             If the header cannot be read, or it is not a header of this version.
+     */
+    public static long readRoomCount(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // Keep reading, a single read may return fewer bytes
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException(MessageFormat.format("The file [{0}] is not a binary room file of version [{1}].", path, VERSION));
+        }
+        return header.getLong(ROOM_COUNT_OFFSET);
+    }
+
+    /**
+     * Writes the header of a binary room file into the given buffer at its current position.
+     *
+     * @param buffer
+     *            The buffer receiving the header, with at least {@link #HEADER_SIZE_BYTES} remaining bytes.
+     * @param roomCount
+     *            The number of rooms in the binary room file.
+     */
+    static void writeHeader(ByteBuffer buffer, long roomCount) {
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(roomCount);
+    }
+
+    /**
+     * Writes the given room dimensions into the given buffer at its current position.
+     *
+     * @param buffer
+     *            The buffer receiving the room, with at least {@link #MAX_ROOM_SIZE_BYTES} remaining bytes.
+     * @param length
+     *            The positive length of the room.
+     * @param width
+     *            The positive width of the room.
+     * @param height
+     *            The positive height of the room.
+     */
+    static void writeRoom(ByteBuffer buffer, int length, int width, int height) {
+        writeDimension(buffer, length);
+        writeDimension(buffer, width);
+        writeDimension(buffer, height);
+    }
+
+    private static void writeDimension(ByteBuffer buffer, int dimension) {
+        int value = dimension;
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Decodes every complete room in the {@code [from, to)} range of the given buffer and passes the room dimensions to the given consumer. No
+     * object is created per room.
+     *
+     * @param buffer
+     *            The buffer containing the encoded rooms, without the header. Its position and limit are not modified.
+     * @param from
+     *            The index of the first byte of a room.
+     * @param to
+     *            The index after the last byte to be decoded.
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of the decoded rooms.
+     * @return The index after the last decoded room, which is the start of the first incomplete room, or {@code to} if every room was complete.
+     * @throws IllegalStateException
+     *             If a room has a non-positive dimension, or a dimension which does not fit into an {@code int}.
+     */
+    public static int decode(ByteBuffer buffer, int from, int to, RoomDimensionsConsumer consumer) {
+        int position = from;
+
+        while (position < to) {
+            long length = readDimension(buffer, position, to);
+            if (length == INCOMPLETE) {
+                break;
+            }
+            long width = readDimension(buffer, (int) length, to);
+            if (width == INCOMPLETE) {
+                break;
+            }
+            long height = readDimension(buffer, (int) width, to);
+            if (height == INCOMPLETE) {
+                break;
+            }
+            consumer.accept((int) (length >>> Integer.SIZE), (int) (width >>> Integer.SIZE), (int) (height >>> Integer.SIZE));
+            position = (int) height;
+        }
+
+        return position;
+    }
+
+    /**
+     * Reads a single varint, returning the dimension in the upper and the index after the varint in the lower 32 bits, or {@link #INCOMPLETE} if
+     * the varint does not end before {@code to}.
+     */
+    private static long readDimension(ByteBuffer buffer, int from, int to) {
+        int value = 0;
+        int position = from;
+
+        for (int shift = 0; shift <= LAST_VARINT_SHIFT; shift += 7) {
+            if (position == to) {
+                return INCOMPLETE;
+            }
+            byte b = buffer.get(position++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value == 0 || shift == LAST_VARINT_SHIFT && b > LAST_VARINT_MAX_BITS) {
+                    throw invalidDimension(from);
+                }
+                return (long) value << Integer.SIZE | position;
+            }
+        }
+
+        throw invalidDimension(from);
+    }
+
+    private static IllegalStateException invalidDimension(int index) {
+        return new IllegalStateException(MessageFormat.format("The binary room data contains an invalid room dimension at index [{0}].", index));
+    }
+}
@@ -0,0 +1,126 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * Writes rooms into a binary room file, see {@link BinaryRoomFormat}. Producers of room data can write binary room files directly with it, which
+ * are smaller than the text input files and analysed several times faster.
+ * <p>
+ * The header is written when the writer is closed, as it contains the number of rooms, so a binary room file whose writing has not completed is
+ * not recognised as a binary room file. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class BinaryRoomWriter implements RoomDimensionsConsumer, Closeable {
+
+    private static final int BUFFER_SIZE_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer;
+
+    private long roomCount;
+
+    /**
+     * Constructs a {@link BinaryRoomWriter} creating or truncating the given file.
+     *
+     * @param outputFile
+     *            The path of the binary room file to be written.
+     * @throws IOException
+     *             If the file cannot be opened for writing.
+     * @throws InvalidMethodParameterException
+     *             If the {@code outputFile} is null.
+     */
+    public BinaryRoomWriter(Path outputFile) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(outputFile, "outputFile");
+
+        this.channel = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE_BYTES);
+        // The space of the header is reserved, it is filled in by close()
+        this.buffer.position(BinaryRoomFormat.HEADER_SIZE_BYTES);
+    }
+
+    /**
+     * Writes a room with the given dimensions.
+     *
+     * @param length
+     *            The positive length of the room.
+     * @param width
+     *            The positive width of the room.
+     * @param height
+     *            The positive height of the room.
+     * @throws InvalidMethodParameterException
+     *             If any of the dimensions is not positive.
+     * @throws UncheckedIOException
+     *             If the buffered rooms cannot be written into the file.
+     */
+    @Override
+    public void accept(int length, int width, int height) {
+        // Public method, so parameter validation is a must
+        if (length <= 0 || width <= 0 || height <= 0) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("The room dimensions must be positive, got [{0}x{1}x{2}].", length, width, height));
+        }
+
+        if (buffer.remaining() < BinaryRoomFormat.MAX_ROOM_SIZE_BYTES) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        BinaryRoomFormat.writeRoom(buffer, length, width, height);
+        roomCount++;
+    }
+
+    /**
+     * Returns the number of rooms written so far.
+     *
+     * @return The number of rooms written so far.
+     */
+    public long roomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Writes the buffered rooms and the header, and closes the file.
+     *
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(BinaryRoomFormat.HEADER_SIZE_BYTES);
+            BinaryRoomFormat.writeHeader(header, roomCount);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,123 @@
+package gscf.task.roomdimension.action.process;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.dto.RoomDimensions;
+
+/**
+ * Parses room dimension lines straight from a range of a {@link ByteBuffer}, typically a memory-mapped region of the input file. Lines are split on
+ * the same terminators as {@link java.io.BufferedReader#readLine()} ({@code \n}, {@code \r} and {@code \r\n}).
+ * <p>
+ * Lines consisting of ASCII {@code LxWxH} digits are parsed on a fast path by {@link RoomConverter#tryConvert(byte[], int, int, RoomDimensions)},
+ * without charset decoding or any allocation. Every other line is decoded and handed over to the {@link RoomConverter}, so invalid lines are
+ * rejected, or skipped in the lenient mode, exactly the same way as by the reader based engine. The dimensions of the parsed rooms are passed to
+ * a {@link RoomDimensionsConsumer}.
+ * </p>
+ * <p>
+ * Instances are not thread-safe, as they reuse an internal line buffer.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class ByteRangeRoomParser {
+
+    private final RoomConverter roomConverter;
+
+    private byte[] lineBuffer = new byte[64];
+
+    private final RoomDimensions dimensions = new RoomDimensions();
+
+    private long lineCount;
+
+    /**
+     * Constructs a {@link ByteRangeRoomParser} with the specified {@link RoomConverter}.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to convert the lines which are not eligible for the fast path.
+     */
+    public ByteRangeRoomParser(RoomConverter roomConverter) {
+        this.roomConverter = roomConverter;
+    }
+
+    /**
+     * Parses every complete line in the {@code [from, to)} range of the given buffer and passes the room dimensions to the given consumer.
+     * <p>
+     * A line is complete if it is followed by a line terminator. If {@code endOfInput} is {@code true}, the trailing bytes after the last terminator
+     * are parsed as a line as well.
+     * </p>
+     *
+     * @param buffer
+     *            The buffer containing the room dimension lines. Its position and limit are not modified.
+     * @param from
+     *            The index of the first byte to be parsed.
+     * @param to
+     *            The index after the last byte to be parsed.
+     * @param endOfInput
+     *            Whether the range ends at the end of the input.
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of the parsed rooms.
+     * @return The index after the last consumed byte, which is the start of the first incomplete line, or {@code to} if everything was consumed.
+     */
+    public int parse(ByteBuffer buffer, int from, int to, boolean endOfInput, RoomDimensionsConsumer consumer) {
+        int lineStart = from;
+        int position = from;
+
+        while (position < to) {
+            byte b = buffer.get(position);
+            if (b == '\n' || b == '\r') {
+                if (b == '\r') {
+                    if (position + 1 == to && !endOfInput) {
+                        // The '\n' of a possible "\r\n" terminator is out of range, handle the line with the next range
+                        return lineStart;
+                    }
+                    if (position + 1 < to && buffer.get(position + 1) == '\n') {
+                        parseLine(buffer, lineStart, position, consumer);
+                        position += 2;
+                        lineStart = position;
+                        continue;
+                    }
+                }
+                parseLine(buffer, lineStart, position, consumer);
+                position++;
+                lineStart = position;
+            } else {
+                position++;
+            }
+        }
+
+        if (endOfInput && lineStart < to) {
+            parseLine(buffer, lineStart, to, consumer);
+            return to;
+        }
+
+        return lineStart;
+    }
+
+    /**
+     * Returns the number of lines parsed by this parser so far.
+     *
+     * @return The number of parsed lines.
+     */
+    public long lineCount() {
+        return lineCount;
+    }
+
+    private void parseLine(ByteBuffer buffer, int start, int end, RoomDimensionsConsumer consumer) {
+        lineCount++;
+        int length = end - start;
+        if (lineBuffer.length < length) {
+            lineBuffer = new byte[Math.max(length, lineBuffer.length * 2)];
+        }
+        buffer.get(start, lineBuffer, 0, length);
+
+        if (RoomConverter.tryConvert(lineBuffer, 0, length, dimensions) == null) {
+            consumer.accept(dimensions.length(), dimensions.width(), dimensions.height());
+        } else {
+            // Slow path: let the RoomConverter decide, so the line is accepted, skipped or rejected the same way as by the reader based engine
+            roomConverter.convert(new String(lineBuffer, 0, length, Charset.defaultCharset()), dimensions, consumer);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.MessageFormat;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * Saves the state of a {@link RoomAccumulator} processing an input file into a checkpoint file, and restores it after a restart, so a long-running
+ * analysis can resume from the last checkpoint instead of the start of the input file.
+ * <p>
+ * A checkpoint file is a binary snapshot of the following, protected by a CRC32 checksum:
+ * <ul>
+ * <li>The size and the last modification time of the input file, so a checkpoint of another input file, or of a modified one, is not resumed</li>
+ * <li>The cubic room limit, as the kept cubic rooms depend on it</li>
+ * <li>The offset of the first unprocessed byte of the input file, always the start of a line</li>
+ * <li>The total wallpaper needed by the processed rooms</li>
+ * <li>The sides of the kept cubic rooms</li>
+ * <li>The seen and the duplicate rooms, as one packed {@code long} key per room and state, see {@link PackedRoomKeySet}</li>
+ * </ul>
+ * Checkpoints are written to a temporary file next to the checkpoint file, flushed to the disk and then atomically moved in place, so a crash
+ * while writing never leaves a damaged checkpoint behind. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class CheckpointStore {
+
+    private static final int MAGIC = 0x5244434B;
+
+    // Version 2 saves the total wallpaper needed as a long
+    private static final int VERSION = 2;
+
+    // Packed room keys are never 0 or negative, so these values can mark the oversized rooms and the end of the rooms
+    private static final long OVERSIZED_ROOM_MARKER = 0L;
+
+    private static final long END_OF_ROOMS_MARKER = -1L;
+
+    private static final int BUFFER_SIZE_BYTES = 64 * 1024;
+
+    private final Path checkpointFile;
+
+    private final long inputFileSize;
+
+    private final long inputFileLastModifiedMillis;
+
+    private final int cubicRoomLimit;
+
+    /**
+     * Constructs a {@link CheckpointStore} of the given input file.
+     *
+     * @param checkpointFile
+     *            The path of the checkpoint file, its directory must exist.
+     * @param inputFile
+     *            The path of the processed input file, which must be a regular file.
+     * @param cubicRoomLimit
+     *            The cubic room limit of the {@link RoomAccumulator} instances whose state is saved and restored.
+     * @throws IOException
+     *             If the attributes of the input file cannot be read.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If any of the paths is null.
+     */
+    public CheckpointStore(Path checkpointFile, Path inputFile, int cubicRoomLimit) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(checkpointFile, "checkpointFile");
+        ParamValidatorUtil.requireNonNull(inputFile, "inputFile");
+
+        BasicFileAttributes attributes = Files.readAttributes(inputFile, BasicFileAttributes.class);
+        this.checkpointFile = checkpointFile;
+        this.inputFileSize = attributes.size();
+        this.inputFileLastModifiedMillis = attributes.lastModifiedTime().toMillis();
+        this.cubicRoomLimit = cubicRoomLimit;
+    }
+
+    /**
+     * Saves the state of the given accumulator, which has processed the input file up to the given offset.
+     *
+     * @param roomAccumulator
+     *            The {@link RoomAccumulator} to be saved, which must detect the duplicates in memory.
+     * @param offset
+     *            The offset of the first unprocessed byte of the input file.
+     * @throws IOException
+     *             If the checkpoint file cannot be written.
+     * @throws IllegalStateException
+     *             If the accumulator spills its rooms to the disk.
+     */
+    public void save(RoomAccumulator roomAccumulator, long offset) throws IOException {
+        Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(
+                temporaryFile,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckedOutputStream checkedOutput = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE_BYTES),
+                    new CRC32());
+            DataOutputStream output = new DataOutputStream(checkedOutput);
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(inputFileSize);
+            output.writeLong(inputFileLastModifiedMillis);
+            output.writeInt(cubicRoomLimit);
+            output.writeLong(offset);
+            output.writeLong(roomAccumulator.totalWallpaperNeeded());
+
+            output.writeInt(roomAccumulator.cubicRoomCount());
+            roomAccumulator.forEachCubicSide(side -> writeCubicSide(output, side));
+
+            roomAccumulator.forEachRoomOccurrence((length, width, height) -> writeRoom(output, length, width, height));
+            output.writeLong(END_OF_ROOMS_MARKER);
+
+            output.writeLong(checkedOutput.getChecksum().getValue());
+            output.flush();
+            // The checkpoint must be on the disk before it replaces the previous one
+            channel.force(true);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores the state saved by the last checkpoint into the given empty accumulator. Nothing is restored if there is no checkpoint file, or it
+     * belongs to another input file, a modified input file or another cubic room limit.
+     *
+     * @param roomAccumulator
+     *            The empty {@link RoomAccumulator} receiving the saved state.
+     * @return The offset of the first unprocessed byte of the input file, or {@code 0} if nothing has been restored.
+     * @throws IOException
+     *             If the checkpoint file cannot be read, or it is damaged.
+     */
+    public long restore(RoomAccumulator roomAccumulator) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+
+        try (CheckedInputStream checkedInput = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(checkpointFile), BUFFER_SIZE_BYTES),
+                new CRC32())) {
+            DataInputStream input = new DataInputStream(checkedInput);
+
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw damaged("it is not a checkpoint file of this version");
+            }
+            if (input.readLong() != inputFileSize || input.readLong() != inputFileLastModifiedMillis || input.readInt() != cubicRoomLimit) {
+                // The checkpoint belongs to another run, which is started over
+                return 0;
+            }
+
+            long offset = input.readLong();
+            roomAccumulator.restoreTotalWallpaperNeeded(input.readLong());
+
+            int cubicRoomCount = input.readInt();
+            for (int i = 0; i < cubicRoomCount; i++) {
+                roomAccumulator.restoreCubicSide(input.readInt());
+            }
+
+            // Replaying the rooms restores the seen and the duplicate rooms, as every duplicate room is saved once for each state
+            long key;
+            while ((key = input.readLong()) != END_OF_ROOMS_MARKER) {
+                if (key == OVERSIZED_ROOM_MARKER) {
+                    roomAccumulator.restoreRoomOccurrence(input.readInt(), input.readInt(), input.readInt());
+                } else {
+                    roomAccumulator.restoreRoomOccurrence(
+                            PackedRoomKeySet.unpackLength(key),
+                            PackedRoomKeySet.unpackWidth(key),
+                            PackedRoomKeySet.unpackHeight(key));
+                }
+            }
+
+            long checksum = checkedInput.getChecksum().getValue();
+            if (input.readLong() != checksum) {
+                throw damaged("its checksum does not match");
+            }
+            return offset;
+        } catch (EOFException e) {
+            throw damaged("it is truncated");
+        }
+    }
+
+    /**
+     * Deletes the checkpoint file, typically once the input file has been processed completely.
+     *
+     * @throws IOException
+     *             If the checkpoint file cannot be deleted.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(checkpointFile);
+    }
+
+    private IOException damaged(String reason) {
+        return new IOException(
+                MessageFormat.format("The checkpoint file [{0}] cannot be resumed, because {1}. Delete it to start over.", checkpointFile, reason));
+    }
+
+    private static void writeRoom(DataOutputStream output, int length, int width, int height) {
+        try {
+            if (PackedRoomKeySet.isPackable(length, width, height)) {
+                output.writeLong(PackedRoomKeySet.pack(length, width, height));
+            } else {
+                output.writeLong(OVERSIZED_ROOM_MARKER);
+                output.writeInt(length);
+                output.writeInt(width);
+                output.writeInt(height);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCubicSide(DataOutputStream output, int side) {
+        try {
+            output.writeInt(side);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package gscf.task.roomdimension.action.process;
+
+import java.text.MessageFormat;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * A Count-Min sketch, estimating how many times an item has been added to it in constant memory. Items are added as well-distributed 64-bit
+ * hashes, every row of counters is indexed by a different combination of the two halves of the hash. An estimate is never lower than the real
+ * count, and with the configured confidence it exceeds it by at most {@code relativeError} times the number of added items.
+ * <p>
+ * Sketches of the same configuration can be merged, which makes it possible to build them in parallel. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class CountMinSketch {
+
+    // Keeps the counters well within the limits of a single array
+    private static final long MAX_COUNTERS = 1L << 27;
+
+    private final double relativeError;
+
+    private final int width;
+
+    private final int depth;
+
+    private final long[] counters;
+
+    private long totalCount;
+
+    /**
+     * Constructs a {@link CountMinSketch} sized for the given error bounds.
+     *
+     * @param relativeError
+     *            The maximum overestimate of a count relative to the number of added items, e.g. {@code 0.001}.
+     * @param confidence
+     *            The probability of an estimate staying within the error bound, e.g. {@code 0.99}.
+     * @throws InvalidMethodParameterException
+     *             If either parameter is not between 0 and 1, or the resulting sketch would be too large.
+     */
+    public CountMinSketch(double relativeError, double confidence) {
+        // Public method, so parameter validation is a must
+        if (!(relativeError > 0 && relativeError < 1)) {
+            throw new InvalidMethodParameterException(MessageFormat.format("The relative error should be between 0 and 1, got [{0}].", relativeError));
+        }
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new InvalidMethodParameterException(MessageFormat.format("The confidence should be between 0 and 1, got [{0}].", confidence));
+        }
+
+        long requiredWidth = (long) Math.ceil(Math.E / relativeError);
+        int requiredDepth = Math.max(1, (int) Math.ceil(Math.log(1 / (1 - confidence))));
+        if (requiredWidth * requiredDepth > MAX_COUNTERS) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("The error bounds [{0}] and [{1}] would need a too large sketch.", relativeError, confidence));
+        }
+
+        this.relativeError = relativeError;
+        this.width = (int) requiredWidth;
+        this.depth = requiredDepth;
+        this.counters = new long[width * depth];
+    }
+
+    /**
+     * Adds an item to the sketch.
+     *
+     * @param hash
+     *            The 64-bit hash of the item, its bits should be uniformly distributed.
+     * @return The estimated count of the item, including this occurrence.
+     */
+    public long addAndEstimate(long hash) {
+        totalCount++;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            estimate = Math.min(estimate, ++counters[index]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated count of an item.
+     *
+     * @param hash
+     *            The 64-bit hash of the item.
+     * @return The estimated count, never lower than the real count.
+     */
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Merges the counts of the given sketch into this one, so this sketch estimates the counts of the items added to any of them.
+     *
+     * @param other
+     *            The {@link CountMinSketch} to be merged into this one.
+     * @throws InvalidMethodParameterException
+     *             If the other sketch is null or has a different configuration.
+     */
+    public void merge(CountMinSketch other) {
+        // Public method, so parameter validation is a must
+        if (other == null || other.width != width || other.depth != depth) {
+            throw new InvalidMethodParameterException("Only sketches of the same configuration can be merged.");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    /**
+     * Returns the maximum overestimate of any count, which holds with the configured confidence.
+     *
+     * @return The error bound, in number of occurrences.
+     */
+    public long errorBound() {
+        return (long) Math.ceil(relativeError * totalCount);
+    }
+
+    /**
+     * Returns the heap occupied by the counters of this sketch.
+     *
+     * @return The number of bytes.
+     */
+    public long memoryFootprintBytes() {
+        return (long) counters.length * Long.BYTES;
+    }
+
+    /**
+     * Derives the index of the given row from the two halves of the hash, so only one hash has to be computed per item.
+     */
+    private int index(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + (combined & Integer.MAX_VALUE) % width;
+    }
+}
@@ -0,0 +1,150 @@
+package gscf.task.roomdimension.action.process;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * Selects the cubic rooms needing the most wallpaper, keyed by the length of their sides. The wallpaper needed by a cubic room grows with its
+ * side, so the rooms are ordered by their sides alone and no {@link gscf.task.roomdimension.dto.Room} object is kept while the input is processed.
+ * <p>
+ * The sides are kept in a primitive min-heap holding at most {@code limit} entries, with the smallest kept side at its root. Once the heap is full,
+ * a room is only kept if it is larger than the root, so the memory needed is bounded by the limit instead of the number of cubic rooms. With an
+ * unbounded limit every side is kept. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class CubicRoomSelector {
+
+    /**
+     * The limit keeping every cubic room.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Keeps the array within the limits of the virtual machine
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final int limit;
+
+    private int[] sides;
+
+    private int size;
+
+    /**
+     * Constructs an empty {@link CubicRoomSelector}.
+     *
+     * @param limit
+     *            The maximum number of cubic rooms kept, or {@link #UNBOUNDED} to keep every cubic room.
+     * @throws InvalidMethodParameterException
+     *             If the limit is not positive.
+     */
+    public CubicRoomSelector(int limit) {
+        // Public method, so parameter validation is a must
+        if (limit <= 0) {
+            throw new InvalidMethodParameterException(MessageFormat.format("The limit should be positive, got [{0}].", limit));
+        }
+        this.limit = limit;
+        this.sides = new int[Math.min(limit, INITIAL_CAPACITY)];
+    }
+
+    /**
+     * Offers a cubic room, which is kept if fewer rooms than the limit are kept, or if it is larger than the smallest kept room.
+     *
+     * @param side
+     *            The length of the sides of the cubic room.
+     */
+    public void add(int side) {
+        if (size < limit) {
+            if (size == sides.length) {
+                grow();
+            }
+            sides[size] = side;
+            siftUp(size++);
+        } else if (side > sides[0]) {
+            sides[0] = side;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Offers every cubic room kept by the given selector to this one. The given selector must not be used afterwards.
+     *
+     * @param other
+     *            The {@link CubicRoomSelector} to be merged into this one.
+     */
+    public void merge(CubicRoomSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.sides[i]);
+        }
+    }
+
+    /**
+     * Returns the number of cubic rooms kept.
+     *
+     * @return The number of rooms.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Passes the sides of the kept cubic rooms to the given consumer, from the largest to the smallest.
+     *
+     * @param consumer
+     *            The {@link IntConsumer} receiving the sides.
+     */
+    public void forEachDescending(IntConsumer consumer) {
+        int[] sorted = Arrays.copyOf(sides, size);
+        Arrays.sort(sorted);
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            consumer.accept(sorted[i]);
+        }
+    }
+
+    private void grow() {
+        if (sides.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Too many cubic rooms to keep, consider limiting them.");
+        }
+        int capacity = (int) Math.min(Math.min((long) limit, MAX_CAPACITY), (long) sides.length * 2);
+        sides = Arrays.copyOf(sides, capacity);
+    }
+
+    private void siftUp(int index) {
+        int child = index;
+        int side = sides[child];
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+            if (sides[parent] <= side) {
+                break;
+            }
+            sides[child] = sides[parent];
+            child = parent;
+        }
+        sides[child] = side;
+    }
+
+    private void siftDown(int index) {
+        int parent = index;
+        int side = sides[parent];
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && sides[child + 1] < sides[child]) {
+                child++;
+            }
+            if (side <= sides[child]) {
+                break;
+            }
+            sides[parent] = sides[child];
+            parent = child;
+        }
+        sides[parent] = side;
+    }
+}
@@ -0,0 +1,59 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.Closeable;
+
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+
+/**
+ * The {@code DuplicateRoomDetector} interface defines a contract for detecting the rooms occurring more than once, keyed by their dimensions.
+ * Implementations may keep resources, like temporary files, which are released by {@link #close()}.
+ * <p>
+ * Implementations reading or writing files report I/O errors as {@link java.io.UncheckedIOException}.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public interface DuplicateRoomDetector extends Closeable {
+
+    /**
+     * Adds the room with the given dimensions to the seen rooms, or to the duplicate rooms if it has already been seen.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     */
+    void add(int length, int width, int height);
+
+    /**
+     * Merges the rooms tracked by the given detector into this one. Rooms seen by both detectors become duplicates. The given detector must be of
+     * the same type and configuration as this one, and must not be used afterwards.
+     *
+     * @param other
+     *            The {@link DuplicateRoomDetector} to be merged into this one.
+     */
+    void merge(DuplicateRoomDetector other);
+
+    /**
+     * Returns the number of distinct rooms seen so far.
+     *
+     * @return The number of distinct rooms.
+     */
+    long distinctRoomCount();
+
+    /**
+     * Passes the dimensions of every duplicate room to the given consumer, in no particular order.
+     *
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of the duplicate rooms.
+     */
+    void forEachDuplicate(RoomDimensionsConsumer consumer);
+
+    /**
+     * Releases the resources held by this detector.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,102 @@
+package gscf.task.roomdimension.action.process;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import gscf.task.roomdimension.dto.InvalidLineReason;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.LineError;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * Records the invalid lines skipped by the lenient parsing of an input. Every line is counted, but only the first {@code capacity} lines are kept
+ * with their line numbers and reasons, so the memory needed is bounded however dirty the input is. Keeping the first lines instead of a random
+ * sample makes the reported lines the same for every ingestion engine.
+ * <p>
+ * Reservoirs of consecutive parts of the same input can be combined with {@link #merge(ErrorReservoir, long)}, which shifts the line numbers of
+ * the merged part. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class ErrorReservoir {
+
+    private final int capacity;
+
+    private final List<LineError> lineErrors = new ArrayList<>();
+
+    private long count;
+
+    /**
+     * Constructs an empty {@link ErrorReservoir}.
+     *
+     * @param capacity
+     *            The maximum number of invalid lines kept with their line numbers and reasons.
+     * @throws InvalidMethodParameterException
+     *             If the capacity is negative.
+     */
+    public ErrorReservoir(int capacity) {
+        // Public method, so parameter validation is a must
+        if (capacity < 0) {
+            throw new InvalidMethodParameterException(MessageFormat.format("The capacity should not be negative, got [{0}].", capacity));
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Counts an invalid line, and keeps it if fewer lines than the capacity are kept. Long lines are truncated to
+     * {@link LineError#MAX_LINE_LENGTH} characters.
+     *
+     * @param lineNumber
+     *            The 1-based number of the line in the part of the input recorded by this reservoir.
+     * @param reason
+     *            The {@link InvalidLineReason} the line is not a room for.
+     * @param line
+     *            The content of the line.
+     */
+    public void add(long lineNumber, InvalidLineReason reason, String line) {
+        count++;
+        if (lineErrors.size() < capacity) {
+            String keptLine = line.length() > LineError.MAX_LINE_LENGTH ? line.substring(0, LineError.MAX_LINE_LENGTH) : line;
+            lineErrors.add(new LineError(lineNumber, reason, keptLine));
+        }
+    }
+
+    /**
+     * Merges the invalid lines of the given reservoir, which recorded the part of the input following the part of this one, into this reservoir.
+     * The given reservoir must not be used afterwards.
+     *
+     * @param other
+     *            The {@link ErrorReservoir} to be merged into this one.
+     * @param lineOffset
+     *            The number of lines in the part of the input recorded by this reservoir, added to the line numbers of the given one.
+     */
+    public void merge(ErrorReservoir other, long lineOffset) {
+        count += other.count;
+        for (LineError lineError : other.lineErrors) {
+            if (lineErrors.size() == capacity) {
+                break;
+            }
+            lineErrors.add(new LineError(lineError.lineNumber() + lineOffset, lineError.reason(), lineError.line()));
+        }
+    }
+
+    /**
+     * Returns the number of invalid lines counted so far, including the lines of the merged reservoirs.
+     *
+     * @return The number of invalid lines.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Builds the {@link InvalidLines} out of the invalid lines recorded so far.
+     *
+     * @return An {@link InvalidLines} object, {@link InvalidLines#NONE} if no line has been recorded.
+     */
+    public InvalidLines toInvalidLines() {
+        return count == 0 ? InvalidLines.NONE : new InvalidLines(count, List.copyOf(lineErrors));
+    }
+}
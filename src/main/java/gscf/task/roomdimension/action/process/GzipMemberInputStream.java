@@ -0,0 +1,251 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.text.MessageFormat;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import gscf.task.roomdimension.util.GzipUtil;
+
+/**
+ * An {@link InputStream} decompressing the consecutive gzip members of a file which start in the {@code [from, to)} byte range. Unlike
+ * {@link java.util.zip.GZIPInputStream}, it reads the file through positional reads of a {@link FileChannel}, and tells the offset where the last
+ * decompressed member ends, so the members of a file can be decompressed by several streams in parallel.
+ * <p>
+ * The stream ends after the last member starting before {@code to}, or before any trailing bytes which are not a gzip member, like
+ * {@link java.util.zip.GZIPInputStream} does. The CRC32 and the size in the trailer of every member are verified. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class GzipMemberInputStream extends InputStream {
+
+    private static final int INPUT_BUFFER_SIZE_BYTES = 64 * 1024;
+
+    private static final int HEADER_SIZE_BYTES = 10;
+
+    private static final int TRAILER_SIZE_BYTES = 8;
+
+    private static final int DEFLATE = 8;
+
+    private static final int FLAG_HEADER_CRC = 0x02;
+
+    private static final int FLAG_EXTRA = 0x04;
+
+    private static final int FLAG_NAME = 0x08;
+
+    private static final int FLAG_COMMENT = 0x10;
+
+    private static final int RESERVED_FLAGS = 0xE0;
+
+    private final FileChannel channel;
+
+    private final long to;
+
+    private final long size;
+
+    private final Inflater inflater = new Inflater(true);
+
+    private final CRC32 crc = new CRC32();
+
+    private final ByteBuffer input = ByteBuffer.allocate(INPUT_BUFFER_SIZE_BYTES);
+
+    // The offset of the first byte not yet passed to the inflater
+    private long inputPosition;
+
+    private long memberSize;
+
+    private boolean firstMember = true;
+
+    private boolean memberOpen;
+
+    private boolean endOfStream;
+
+    private long endOffset;
+
+    /**
+     * Constructs a {@link GzipMemberInputStream} decompressing the members starting in the given range.
+     *
+     * @param channel
+     *            The {@link FileChannel} of the gzip file, only positional reads are performed on it.
+     * @param from
+     *            The offset of the first member, must be the start of a gzip member.
+     * @param to
+     *            The offset before which the last decompressed member starts.
+     * @throws IOException
+     *             If the size of the file cannot be read.
+     */
+    public GzipMemberInputStream(FileChannel channel, long from, long to) throws IOException {
+        this.channel = channel;
+        this.to = to;
+        this.size = channel.size();
+        this.endOffset = from;
+    }
+
+    /**
+     * Returns whether the given bytes look like the header of a gzip member: the magic bytes, the deflate compression method and no reserved
+     * flags. Compressed data may contain such bytes as well, so a plausible header has to be confirmed by decompressing the member.
+     *
+     * @param buffer
+     *            The buffer containing the bytes.
+     * @param index
+     *            The index of the first byte, followed by at least 3 more bytes.
+     * @return {@code true} if the bytes look like a gzip member header.
+     */
+    public static boolean isPlausibleHeader(ByteBuffer buffer, int index) {
+        return GzipUtil.isGzipMagic(buffer.get(index), buffer.get(index + 1)) && buffer.get(index + 2) == DEFLATE
+                && (buffer.get(index + 3) & RESERVED_FLAGS) == 0;
+    }
+
+    /**
+     * Returns the offset after the last member decompressed so far, which is the end of the range decompressed by this stream once it has ended.
+     *
+     * @return The offset after the last decompressed member.
+     */
+    public long endOffset() {
+        return endOffset;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        while (!endOfStream) {
+            if (!memberOpen && !openNextMember()) {
+                endOfStream = true;
+                break;
+            }
+
+            int inflated = inflate(b, off, len);
+            if (inflated > 0) {
+                crc.update(b, off, inflated);
+                memberSize += inflated;
+                return inflated;
+            }
+            if (inflater.finished()) {
+                closeMember();
+            } else if (inflater.needsDictionary()) {
+                throw new ZipException(MessageFormat.format("The gzip member ending before offset [{0}] needs a preset dictionary.", inputPosition));
+            } else if (inflater.needsInput()) {
+                fillInput();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+
+    private int inflate(byte[] b, int off, int len) throws ZipException {
+        try {
+            return inflater.inflate(b, off, len);
+        } catch (DataFormatException e) {
+            throw new ZipException(MessageFormat.format("The gzip member ending before offset [{0}] is corrupt: {1}", inputPosition, e.getMessage()));
+        }
+    }
+
+    private boolean openNextMember() throws IOException {
+        long position = endOffset;
+        if (position >= to) {
+            return false;
+        }
+
+        ByteBuffer header = position + HEADER_SIZE_BYTES <= size ? readFully(position, HEADER_SIZE_BYTES) : null;
+        if (header == null || !isPlausibleHeader(header, 0)) {
+            if (firstMember) {
+                throw new ZipException(MessageFormat.format("There is no gzip member at offset [{0}].", position));
+            }
+            // Trailing bytes which are not a gzip member are ignored
+            return false;
+        }
+
+        int flags = header.get(3);
+        position += HEADER_SIZE_BYTES;
+        if ((flags & FLAG_EXTRA) != 0) {
+            ByteBuffer extraLength = readFully(position, 2).order(ByteOrder.LITTLE_ENDIAN);
+            position += 2 + Short.toUnsignedInt(extraLength.getShort(0));
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            position = skipZeroTerminated(position);
+        }
+        if ((flags & FLAG_COMMENT) != 0) {
+            position = skipZeroTerminated(position);
+        }
+        if ((flags & FLAG_HEADER_CRC) != 0) {
+            position += 2;
+        }
+
+        inflater.reset();
+        crc.reset();
+        memberSize = 0;
+        inputPosition = position;
+        memberOpen = true;
+        firstMember = false;
+        return true;
+    }
+
+    private void closeMember() throws IOException {
+        long trailerPosition = inputPosition - inflater.getRemaining();
+        ByteBuffer trailer = readFully(trailerPosition, TRAILER_SIZE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (Integer.toUnsignedLong(trailer.getInt(0)) != crc.getValue() || trailer.getInt(Integer.BYTES) != (int) memberSize) {
+            throw new ZipException(MessageFormat.format("The gzip member ending at offset [{0}] fails its CRC32 or size check.", trailerPosition));
+        }
+        endOffset = trailerPosition + TRAILER_SIZE_BYTES;
+        memberOpen = false;
+    }
+
+    private void fillInput() throws IOException {
+        input.clear();
+        int read = channel.read(input, inputPosition);
+        if (read <= 0) {
+            throw new EOFException(MessageFormat.format("The gzip member ending at offset [{0}] is truncated.", inputPosition));
+        }
+        inflater.setInput(input.array(), 0, read);
+        inputPosition += read;
+    }
+
+    private long skipZeroTerminated(long from) throws IOException {
+        long position = from;
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                throw new EOFException(MessageFormat.format("The gzip member header at offset [{0}] is truncated.", from));
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == 0) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) <= 0) {
+                throw new EOFException(MessageFormat.format("The gzip file is truncated at offset [{0}].", position + buffer.position()));
+            }
+        }
+        return buffer;
+    }
+}
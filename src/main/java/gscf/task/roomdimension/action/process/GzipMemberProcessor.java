@@ -0,0 +1,410 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.ZipException;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
+import gscf.task.roomdimension.jfr.ChunkEvent;
+import gscf.task.roomdimension.jfr.RoomDimensionEvents;
+import gscf.task.roomdimension.metrics.ProcessingMetrics;
+import gscf.task.roomdimension.metrics.Stage;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * Processes a gzip compressed input file, decompressing its members with {@link GzipMemberInputStream} and parsing the decompressed lines with a
+ * {@link ByteRangeRoomParser}.
+ * <p>
+ * A gzip stream can only be decompressed from the start of a member, so a file written as several concatenated members, like the output of
+ * {@code pigz} or of the {@code cat} of gzip files, is decompressed in parallel: the file is split into byte ranges, and every range decompresses
+ * the members starting in it. The start of a member is found by scanning for a plausible member header, which compressed data may contain as
+ * well, so a candidate failing to decompress or its CRC32 check is skipped for the next one. The lines split between two ranges are parsed once
+ * every range is done. If the decompressed ranges do not follow each other exactly, the file is decompressed again by a single range, so a file
+ * of a single member or a corrupt member is handled the same way as by a sequential read.
+ * </p>
+ * <p>
+ * The size limit applies to the decompressed bytes, which are counted while they are decompressed, so a small compressed file expanding to a huge
+ * one is rejected without decompressing all of it.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class GzipMemberProcessor {
+
+    private static final long MIN_RANGE_SIZE_BYTES = 1L << 20;
+
+    private static final int RANGES_PER_THREAD = 4;
+
+    private static final int BUFFER_SIZE_BYTES = 64 * 1024;
+
+    // The magic bytes, the compression method and the flags of a member header
+    private static final int HEADER_PREFIX_SIZE_BYTES = 4;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final RoomConverter roomConverter;
+
+    private final ProcessingMetrics processingMetrics = ProcessingMetrics.getInstance();
+
+    /**
+     * Constructs a {@link GzipMemberProcessor} with the specified {@link RoomConverter}.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} used to parse the room dimension strings.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code roomConverter} is null.
+     */
+    public GzipMemberProcessor(RoomConverter roomConverter) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(roomConverter, "roomConverter");
+
+        this.roomConverter = roomConverter;
+    }
+
+    /**
+     * Reads every room of the gzip compressed regular file at the specified path into a single {@link RoomAggregator}.
+     *
+     * @param <A>
+     *            The type of the {@link RoomAggregator}.
+     * @param path
+     *            The path of the gzip compressed regular file.
+     * @param threads
+     *            The number of threads decompressing the members in parallel, {@code 1} decompresses them one after the other.
+     * @param maxDecompressedSizeBytes
+     *            The maximum number of decompressed bytes.
+     * @param roomAggregatorFactory
+     *            Creates the empty {@link RoomAggregator} instances, one per range.
+     * @return The {@link RoomAggregator} of every room of the file, to be closed by the caller.
+     * @throws IOException
+     *             If an error occurs while reading the file, a member is corrupt, or the decompressed content is too large.
+     */
+    <A extends RoomAggregator<A>> A aggregate(Path path, int threads, long maxDecompressedSizeBytes, Supplier<A> roomAggregatorFactory)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int rangeCount = (int) Math.min((long) threads * RANGES_PER_THREAD, Math.max(1, size / MIN_RANGE_SIZE_BYTES));
+
+            if (threads > 1 && rangeCount > 1) {
+                DecompressedSize decompressedSize = new DecompressedSize(path, maxDecompressedSizeBytes);
+                List<DecompressedRange<A>> ranges = decompressInParallel(channel, size, threads, rangeCount, decompressedSize, roomAggregatorFactory);
+                if (isContiguous(channel, ranges)) {
+                    return stitch(ranges);
+                }
+                closeAll(ranges);
+            }
+
+            // Every member is decompressed one after the other
+            DecompressedSize decompressedSize = new DecompressedSize(path, maxDecompressedSizeBytes);
+            return stitch(List.of(decompress(channel, 0, size, true, decompressedSize, roomAggregatorFactory)));
+        }
+    }
+
+    private <A extends RoomAggregator<A>> List<DecompressedRange<A>> decompressInParallel(FileChannel channel, long size, int threads, int rangeCount,
+            DecompressedSize decompressedSize, Supplier<A> roomAggregatorFactory) throws IOException {
+        List<Callable<DecompressedRange<A>>> tasks = new ArrayList<>(rangeCount);
+        for (int i = 0; i < rangeCount; i++) {
+            long from = size * i / rangeCount;
+            long to = size * (i + 1) / rangeCount;
+            boolean first = i == 0;
+            tasks.add(() -> decompressRange(channel, from, to, first, decompressedSize, roomAggregatorFactory));
+        }
+
+        ProcessingMetrics.WorkerThreads workerThreads = processingMetrics.trackWorkerThreads(Stage.INGESTION);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, rangeCount), workerThreads.threadFactory());
+        try {
+            List<DecompressedRange<A>> ranges = new ArrayList<>(rangeCount);
+            Throwable failure = null;
+            for (Future<DecompressedRange<A>> future : executor.invokeAll(tasks)) {
+                try {
+                    ranges.add(future.get());
+                } catch (ExecutionException e) {
+                    // Every range is collected, so the aggregators of the successful ones can be closed
+                    failure = failure == null ? e.getCause() : failure;
+                }
+            }
+
+            if (failure != null) {
+                closeAll(ranges);
+                if (failure instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (failure instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw (Error) failure;
+            }
+            return ranges;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The decompression of the gzip members has been interrupted.");
+        } finally {
+            // The allocations of the workers are read while they are still alive
+            workerThreads.close();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Decompresses the members starting in the given range, or returns null if no member starts in it. The first range starts with a member, the
+     * start of the first member of any other range is found by trying the plausible member headers one after the other.
+     * <p>
+     * The bytes decompressed from a candidate are counted separately, and added to the shared size only once the range has been decompressed, so a
+     * failed candidate does not count against the limit. A candidate reaching the limit on its own returns null: if it was a false member header,
+     * the range is covered by the previous one, and if it was a real member, the ranges are not contiguous and the sequential pass enforces the
+     * limit.
+     * </p>
+     */
+    private <A extends RoomAggregator<A>> DecompressedRange<A> decompressRange(FileChannel channel, long from, long to, boolean first,
+            DecompressedSize decompressedSize, Supplier<A> roomAggregatorFactory) throws IOException {
+        if (first) {
+            return decompress(channel, from, to, true, decompressedSize, roomAggregatorFactory);
+        }
+
+        long candidate = findPlausibleHeader(channel, from, to);
+        while (candidate >= 0) {
+            DecompressedSize candidateSize = decompressedSize.candidate();
+            DecompressedRange<A> range;
+            try {
+                range = decompress(channel, candidate, to, false, candidateSize, roomAggregatorFactory);
+            } catch (ZipException | EOFException | IllegalStateException e) {
+                // The candidate is compressed data looking like a member header, or a member which is left to the sequential fallback
+                candidate = findPlausibleHeader(channel, candidate + 1, to);
+                continue;
+            } catch (SizeLimitExceededIOException e) {
+                return null;
+            }
+            try {
+                candidateSize.confirm();
+            } catch (SizeLimitExceededIOException e) {
+                range.roomAggregator().close();
+                throw e;
+            }
+            return range;
+        }
+        return null;
+    }
+
+    private <A extends RoomAggregator<A>> DecompressedRange<A> decompress(FileChannel channel, long from, long to, boolean first,
+            DecompressedSize decompressedSize, Supplier<A> roomAggregatorFactory) throws IOException {
+        A roomAggregator = roomAggregatorFactory.get();
+        ByteRangeRoomParser parser = new ByteRangeRoomParser(roomConverter);
+        ChunkEvent chunkEvent = RoomDimensionEvents.beginChunk();
+
+        try (GzipMemberInputStream inputStream = new GzipMemberInputStream(channel, from, to)) {
+            byte[] buffer = new byte[BUFFER_SIZE_BYTES];
+            ByteBuffer wrappedBuffer = ByteBuffer.wrap(buffer);
+            int filled = 0;
+            // The first range starts with a line, any other range with the end of a line started by the previous range
+            byte[] head = first ? EMPTY : null;
+
+            int read;
+            while ((read = inputStream.read(buffer, filled, buffer.length - filled)) >= 0) {
+                decompressedSize.add(read);
+                filled += read;
+
+                int lineStart = 0;
+                if (head == null) {
+                    lineStart = findLineStart(buffer, filled);
+                    if (lineStart < 0) {
+                        lineStart = 0;
+                    } else {
+                        head = Arrays.copyOf(buffer, lineStart);
+                    }
+                }
+                if (head != null) {
+                    int consumed = parser.parse(wrappedBuffer, lineStart, filled, false, roomAggregator);
+                    System.arraycopy(buffer, consumed, buffer, 0, filled - consumed);
+                    filled -= consumed;
+                }
+
+                if (filled == buffer.length) {
+                    // A single line does not fit into the buffer
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    wrappedBuffer = ByteBuffer.wrap(buffer);
+                }
+            }
+
+            byte[] rest = Arrays.copyOf(buffer, filled);
+            RoomDimensionEvents.commitChunk(chunkEvent, "gzip", from, inputStream.endOffset() - from, parser.lineCount());
+            if (head == null) {
+                // There is no line terminator in the whole range, so all of it belongs to a line started by a previous range
+                return new DecompressedRange<>(from, inputStream.endOffset(), roomAggregator, rest, false, EMPTY);
+            }
+            return new DecompressedRange<>(from, inputStream.endOffset(), roomAggregator, head, true, rest);
+        } catch (IOException | RuntimeException e) {
+            roomAggregator.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the index after the first line terminator of the buffer, or {@code -1} if it does not contain one yet. A {@code \r} at the end of the
+     * buffer may be followed by a {@code \n}, so it is only accepted once the next byte is known.
+     */
+    private static int findLineStart(byte[] buffer, int to) {
+        for (int i = 0; i < to; i++) {
+            if (buffer[i] == '\n') {
+                return i + 1;
+            }
+            if (buffer[i] == '\r') {
+                if (i + 1 == to) {
+                    return -1;
+                }
+                return buffer[i + 1] == '\n' ? i + 2 : i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static long findPlausibleHeader(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE_BYTES);
+        long position = from;
+
+        while (position < to) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < HEADER_PREFIX_SIZE_BYTES) {
+                return -1;
+            }
+            // The windows overlap, so a header is never split between two of them
+            int candidates = (int) Math.min(read - HEADER_PREFIX_SIZE_BYTES + 1, to - position);
+            for (int i = 0; i < candidates; i++) {
+                if (GzipMemberInputStream.isPlausibleHeader(buffer, i)) {
+                    return position + i;
+                }
+            }
+            position += candidates;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether the decompressed ranges cover every member of the file: every range continues at the end of the previous one, and no member
+     * starts at the end of the last one.
+     */
+    private static <A extends RoomAggregator<A>> boolean isContiguous(FileChannel channel, List<DecompressedRange<A>> ranges) throws IOException {
+        long expectedFrom = 0;
+        for (DecompressedRange<A> range : ranges) {
+            if (range != null) {
+                if (range.from() != expectedFrom) {
+                    return false;
+                }
+                expectedFrom = range.endOffset();
+            }
+        }
+        return findPlausibleHeader(channel, expectedFrom, expectedFrom + 1) < 0;
+    }
+
+    /**
+     * Merges the aggregators of the ranges in order, parsing the lines split between two ranges in between.
+     */
+    private <A extends RoomAggregator<A>> A stitch(List<DecompressedRange<A>> ranges) {
+        ByteRangeRoomParser parser = new ByteRangeRoomParser(roomConverter);
+        ByteArrayOutputStream splitLines = new ByteArrayOutputStream();
+        A roomAggregator = ranges.get(0).roomAggregator();
+
+        int next = 1;
+        try {
+            splitLines.writeBytes(ranges.get(0).tail());
+            for (; next < ranges.size(); next++) {
+                DecompressedRange<A> range = ranges.get(next);
+                if (range == null) {
+                    continue;
+                }
+                splitLines.writeBytes(range.head());
+                if (range.headTerminated()) {
+                    parseSplitLines(parser, splitLines, roomAggregator);
+                    splitLines.reset();
+                    splitLines.writeBytes(range.tail());
+                }
+                roomAggregator = roomAggregator.merge(range.roomAggregator());
+            }
+            parseSplitLines(parser, splitLines, roomAggregator);
+            return roomAggregator;
+        } catch (RuntimeException e) {
+            roomAggregator.close();
+            closeAll(ranges.subList(next, ranges.size()));
+            throw e;
+        }
+    }
+
+    private static void parseSplitLines(ByteRangeRoomParser parser, ByteArrayOutputStream splitLines, RoomAggregator<?> roomAggregator) {
+        byte[] lines = splitLines.toByteArray();
+        parser.parse(ByteBuffer.wrap(lines), 0, lines.length, true, roomAggregator);
+    }
+
+    private static <A extends RoomAggregator<A>> void closeAll(List<DecompressedRange<A>> ranges) {
+        for (DecompressedRange<A> range : ranges) {
+            if (range != null) {
+                range.roomAggregator().close();
+            }
+        }
+    }
+
+    /**
+     * The result of decompressing a range: the rooms of its complete lines, the end of the line started by the previous range, and the start of
+     * the line ended by the next range.
+     */
+    private record DecompressedRange<A extends RoomAggregator<A>>(long from, long endOffset, A roomAggregator, byte[] head, boolean headTerminated,
+            byte[] tail) {
+    }
+
+    /**
+     * The number of bytes decompressed by every range, which must not exceed the size limit. The size of a candidate member is counted by a child
+     * of the shared size, which checks the limit against the bytes of both, and adds its bytes to the shared size once it is confirmed.
+     */
+    private static final class DecompressedSize {
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        private final Path path;
+
+        private final long maxSizeBytes;
+
+        private final DecompressedSize shared;
+
+        DecompressedSize(Path path, long maxSizeBytes) {
+            this(path, maxSizeBytes, null);
+        }
+
+        private DecompressedSize(Path path, long maxSizeBytes, DecompressedSize shared) {
+            this.path = path;
+            this.maxSizeBytes = maxSizeBytes;
+            this.shared = shared;
+        }
+
+        DecompressedSize candidate() {
+            return new DecompressedSize(path, maxSizeBytes, this);
+        }
+
+        void add(long decompressedBytes) throws SizeLimitExceededIOException {
+            long total = bytes.addAndGet(decompressedBytes) + (shared == null ? 0 : shared.bytes.get());
+            if (total > maxSizeBytes) {
+                throw new SizeLimitExceededIOException(MessageFormat.format(
+                        "The decompressed content of the file [{0}] exceeds the maximum size of [{1}] bytes.", path, maxSizeBytes));
+            }
+        }
+
+        void confirm() throws SizeLimitExceededIOException {
+            shared.add(bytes.get());
+        }
+    }
+}
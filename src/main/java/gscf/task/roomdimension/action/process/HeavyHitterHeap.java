@@ -0,0 +1,266 @@
+package gscf.task.roomdimension.action.process;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * A fixed-capacity min-heap keeping the rooms with the largest counts offered to it. The heap is backed by primitive arrays, and the room with the
+ * smallest count is always at its root, so most offers are rejected by a single comparison once the heap is full.
+ * <p>
+ * The kept rooms are indexed by an open-addressing hash table from their room key, see {@link PackedRoomKeySet#pack(int, int, int)}, to their
+ * position in the heap, so an accepted offer finds the room in constant time instead of scanning the heap, whatever the capacity.
+ * </p>
+ * <p>
+ * The counts of a room are expected to be non-decreasing between offers, like the estimates of a {@link CountMinSketch}. Instances are not
+ * thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class HeavyHitterHeap {
+
+    /**
+     * Receives the rooms kept by a {@link HeavyHitterHeap} together with their counts.
+     */
+    @FunctionalInterface
+    public interface HeavyHitterConsumer {
+
+        /**
+         * Accepts a room and its count.
+         *
+         * @param length
+         *            The length of the room.
+         * @param width
+         *            The width of the room.
+         * @param height
+         *            The height of the room.
+         * @param count
+         *            The last count offered for the room.
+         */
+        void accept(int length, int width, int height, long count);
+    }
+
+    /**
+     * The largest capacity of a heap, which keeps the hash table of the positions addressable by an {@code int}.
+     */
+    public static final int MAX_CAPACITY = 1 << 28;
+
+    // Fibonacci hashing multiplier, spreads the structured bits of the packed dimensions over the whole key
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    // The slots hold the position of a room in the heap plus one, so 0 can mark the empty slots
+    private static final int EMPTY_SLOT = 0;
+
+    private final int[] lengths;
+
+    private final int[] widths;
+
+    private final int[] heights;
+
+    private final long[] counts;
+
+    private final int[] slots;
+
+    private final int[] slotIndexes;
+
+    private final int shift;
+
+    private int size;
+
+    /**
+     * Constructs an empty {@link HeavyHitterHeap}.
+     *
+     * @param capacity
+     *            The maximum number of rooms kept.
+     * @throws InvalidMethodParameterException
+     *             If the capacity is not positive, or exceeds {@link #MAX_CAPACITY}.
+     */
+    public HeavyHitterHeap(int capacity) {
+        // Public method, so parameter validation is a must
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("The capacity should be between 1 and [{0}], got [{1}].", MAX_CAPACITY, capacity));
+        }
+        this.lengths = new int[capacity];
+        this.widths = new int[capacity];
+        this.heights = new int[capacity];
+        this.counts = new long[capacity];
+        // At least twice as many slots as rooms, so the probes stay short
+        int slotCount = Integer.highestOneBit(Math.max(1, capacity - 1)) << 2;
+        this.slots = new int[slotCount];
+        this.slotIndexes = new int[capacity];
+        this.shift = Long.numberOfLeadingZeros(slotCount - 1L);
+    }
+
+    /**
+     * Offers a room with its current count. The room is kept if it is already kept, or if its count exceeds the smallest kept count.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @param count
+     *            The current count of the room.
+     */
+    public void offer(int length, int width, int height, long count) {
+        if (size == counts.length && count <= counts[0]) {
+            return;
+        }
+
+        int index = indexOf(length, width, height);
+        if (index >= 0) {
+            counts[index] = count;
+            siftDown(index);
+        } else if (size < counts.length) {
+            set(size, length, width, height, count);
+            addSlot(size);
+            siftUp(size++);
+        } else {
+            // The evicted room is removed from the index while its dimensions are still at the root
+            removeSlot(0);
+            set(0, length, width, height, count);
+            addSlot(0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Returns the number of rooms kept.
+     *
+     * @return The number of rooms.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Passes the kept rooms to the given consumer, in descending order of their counts. Rooms with equal counts are ordered by their dimensions.
+     *
+     * @param consumer
+     *            The {@link HeavyHitterConsumer} receiving the rooms.
+     */
+    public void forEachDescending(HeavyHitterConsumer consumer) {
+        Integer[] order = new Integer[size];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(
+                order,
+                Comparator.<Integer> comparingLong(i -> counts[i])
+                        .reversed()
+                        .thenComparingInt(i -> lengths[i])
+                        .thenComparingInt(i -> widths[i])
+                        .thenComparingInt(i -> heights[i]));
+        for (int i : order) {
+            consumer.accept(lengths[i], widths[i], heights[i], counts[i]);
+        }
+    }
+
+    private int indexOf(int length, int width, int height) {
+        int mask = slots.length - 1;
+        int slot = homeSlot(length, width, height);
+        while (slots[slot] != EMPTY_SLOT) {
+            int index = slots[slot] - 1;
+            if (lengths[index] == length && widths[index] == width && heights[index] == height) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first slot probed for a room. Rooms too large to be packed are hashed all the same, as the slots are verified by the dimensions.
+     */
+    private int homeSlot(int length, int width, int height) {
+        return (int) ((PackedRoomKeySet.pack(length, width, height) * HASH_MULTIPLIER) >>> shift);
+    }
+
+    private void addSlot(int index) {
+        int mask = slots.length - 1;
+        int slot = homeSlot(lengths[index], widths[index], heights[index]);
+        while (slots[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+        slotIndexes[index] = slot;
+    }
+
+    /**
+     * Removes the room at the given position of the heap from the index, and shifts the following slots of the probe back into the freed slot, so
+     * no probe is cut short by it.
+     */
+    private void removeSlot(int index) {
+        int mask = slots.length - 1;
+        int freeSlot = slotIndexes[index];
+        slots[freeSlot] = EMPTY_SLOT;
+        for (int slot = (freeSlot + 1) & mask; slots[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            int movedIndex = slots[slot] - 1;
+            int homeSlot = homeSlot(lengths[movedIndex], widths[movedIndex], heights[movedIndex]);
+            // A room may move back unless its home slot lies between the free slot and its current slot
+            if (((slot - homeSlot) & mask) >= ((slot - freeSlot) & mask)) {
+                slots[freeSlot] = slots[slot];
+                slotIndexes[movedIndex] = freeSlot;
+                slots[slot] = EMPTY_SLOT;
+                freeSlot = slot;
+            }
+        }
+    }
+
+    private void siftUp(int index) {
+        int child = index;
+        while (child > 0) {
+            int parent = (child - 1) / 2;
+            if (counts[parent] <= counts[child]) {
+                return;
+            }
+            swap(parent, child);
+            child = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        int parent = index;
+        while (true) {
+            int smallest = parent;
+            int left = 2 * parent + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == parent) {
+                return;
+            }
+            swap(parent, smallest);
+            parent = smallest;
+        }
+    }
+
+    private void set(int index, int length, int width, int height, long count) {
+        lengths[index] = length;
+        widths[index] = width;
+        heights[index] = height;
+        counts[index] = count;
+    }
+
+    private void swap(int first, int second) {
+        int length = lengths[first];
+        int width = widths[first];
+        int height = heights[first];
+        long count = counts[first];
+        set(first, lengths[second], widths[second], heights[second], counts[second]);
+        set(second, length, width, height, count);
+
+        int slot = slotIndexes[first];
+        slotIndexes[first] = slotIndexes[second];
+        slotIndexes[second] = slot;
+        slots[slotIndexes[first]] = first + 1;
+        slots[slotIndexes[second]] = second + 1;
+    }
+}
@@ -0,0 +1,149 @@
+package gscf.task.roomdimension.action.process;
+
+import java.text.MessageFormat;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * A HyperLogLog cardinality sketch, estimating the number of distinct items added to it in constant memory. Items are added as well-distributed
+ * 64-bit hashes: the first bits of a hash select one of the {@code 2^precision} registers and the register keeps the longest run of leading zeros
+ * seen in the remaining bits. The relative standard error of the estimate is {@code 1.04 / sqrt(2^precision)}.
+ * <p>
+ * Sketches of the same precision can be merged, which makes it possible to build them in parallel. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class HyperLogLog {
+
+    private static final int MIN_PRECISION = 4;
+
+    private static final int MAX_PRECISION = 18;
+
+    private static final double STANDARD_ERROR_FACTOR = 1.04;
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    /**
+     * Constructs a {@link HyperLogLog} with the smallest precision whose relative standard error does not exceed the given one.
+     *
+     * @param relativeStandardError
+     *            The desired relative standard error of the estimate, e.g. {@code 0.01} for 1%.
+     * @throws InvalidMethodParameterException
+     *             If the error is not between 0 and 1, or is smaller than the error of the largest supported precision.
+     */
+    public HyperLogLog(double relativeStandardError) {
+        // Public method, so parameter validation is a must
+        if (!(relativeStandardError > 0 && relativeStandardError < 1)) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("The relative standard error should be between 0 and 1, got [{0}].", relativeStandardError));
+        }
+
+        int requiredPrecision = (int) Math.ceil(2 * log2(STANDARD_ERROR_FACTOR / relativeStandardError));
+        if (requiredPrecision > MAX_PRECISION) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format(
+                            "The relative standard error should be at least [{0}], got [{1}].",
+                            standardErrorOf(MAX_PRECISION),
+                            relativeStandardError));
+        }
+        this.precision = Math.max(MIN_PRECISION, requiredPrecision);
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds an item to the sketch.
+     *
+     * @param hash
+     *            The 64-bit hash of the item, its bits should be uniformly distributed.
+     */
+    public void add(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // The sentinel bit caps the rank when the remaining bits are all zero
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Merges the items of the given sketch into this one, so this sketch estimates the number of distinct items added to any of them.
+     *
+     * @param other
+     *            The {@link HyperLogLog} to be merged into this one.
+     * @throws InvalidMethodParameterException
+     *             If the other sketch is null or has a different precision.
+     */
+    public void merge(HyperLogLog other) {
+        // Public method, so parameter validation is a must
+        if (other == null || other.precision != precision) {
+            throw new InvalidMethodParameterException("Only sketches of the same precision can be merged.");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct items added so far.
+     *
+     * @return The estimated cardinality.
+     */
+    public long estimate() {
+        int registerCount = registers.length;
+        double sum = 0;
+        int emptyRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                emptyRegisters++;
+            }
+        }
+
+        double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && emptyRegisters > 0) {
+            // Linear counting is more accurate for small cardinalities
+            estimate = registerCount * Math.log((double) registerCount / emptyRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Returns the relative standard error of the estimates of this sketch.
+     *
+     * @return The relative standard error, e.g. {@code 0.01} for 1%.
+     */
+    public double relativeStandardError() {
+        return standardErrorOf(precision);
+    }
+
+    /**
+     * Returns the heap occupied by the registers of this sketch.
+     *
+     * @return The number of bytes.
+     */
+    public long memoryFootprintBytes() {
+        return registers.length;
+    }
+
+    private static double standardErrorOf(int precision) {
+        return STANDARD_ERROR_FACTOR / Math.sqrt(1 << precision);
+    }
+
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    private static double alpha(int registerCount) {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package gscf.task.roomdimension.action.process;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+
+/**
+ * A {@link DuplicateRoomDetector} which keeps every room in memory. The rooms are tracked in two {@link PackedRoomKeySet} instances, one for the
+ * seen rooms and one for the duplicate rooms, so no object is allocated per room.
+ * <p>
+ * Rooms with a dimension larger than {@link PackedRoomKeySet#MAX_PACKABLE_DIMENSION} cannot be packed, these are tracked in regular hash sets.
+ * Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class InMemoryDuplicateRoomDetector implements DuplicateRoomDetector {
+
+    // A rough estimate of a hash set node plus the record it holds
+    private static final long OVERSIZED_ROOM_MEMORY_BYTES = 64;
+
+    private final PackedRoomKeySet seenRoomKeys = new PackedRoomKeySet();
+
+    private final PackedRoomKeySet duplicateRoomKeys = new PackedRoomKeySet();
+
+    private final Set<OversizedRoomKey> seenOversizedRooms = new HashSet<>();
+
+    private final Set<OversizedRoomKey> duplicateOversizedRooms = new HashSet<>();
+
+    /**
+     * Passes the dimensions of every seen room to the given consumer, in no particular order. Rooms which are duplicates are passed twice, once for
+     * every state they have been in.
+     *
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of the rooms.
+     */
+    void forEachOccurrence(RoomDimensionsConsumer consumer) {
+        seenRoomKeys.forEach(
+                key -> consumer.accept(PackedRoomKeySet.unpackLength(key), PackedRoomKeySet.unpackWidth(key), PackedRoomKeySet.unpackHeight(key)));
+        duplicateRoomKeys.forEach(
+                key -> consumer.accept(PackedRoomKeySet.unpackLength(key), PackedRoomKeySet.unpackWidth(key), PackedRoomKeySet.unpackHeight(key)));
+        seenOversizedRooms.forEach(room -> consumer.accept(room.length(), room.width(), room.height()));
+        duplicateOversizedRooms.forEach(room -> consumer.accept(room.length(), room.width(), room.height()));
+    }
+
+    /**
+     * Returns an estimate of the heap occupied by the tracked rooms.
+     *
+     * @return The estimated number of bytes.
+     */
+    long estimatedMemoryBytes() {
+        return seenRoomKeys.memoryFootprintBytes()
+                + duplicateRoomKeys.memoryFootprintBytes()
+                + (long) (seenOversizedRooms.size() + duplicateOversizedRooms.size()) * OVERSIZED_ROOM_MEMORY_BYTES;
+    }
+
+    @Override
+    public void add(int length, int width, int height) {
+        if (PackedRoomKeySet.isPackable(length, width, height)) {
+            addKey(PackedRoomKeySet.pack(length, width, height));
+        } else {
+            addOversizedRoom(new OversizedRoomKey(length, width, height));
+        }
+    }
+
+    @Override
+    public void merge(DuplicateRoomDetector detector) {
+        InMemoryDuplicateRoomDetector other = (InMemoryDuplicateRoomDetector) detector;
+        other.seenRoomKeys.forEach(this::addKey);
+        other.duplicateRoomKeys.forEach(duplicateRoomKeys::add);
+        other.seenOversizedRooms.forEach(this::addOversizedRoom);
+        duplicateOversizedRooms.addAll(other.duplicateOversizedRooms);
+    }
+
+    @Override
+    public long distinctRoomCount() {
+        return (long) seenRoomKeys.size() + seenOversizedRooms.size();
+    }
+
+    @Override
+    public void forEachDuplicate(RoomDimensionsConsumer consumer) {
+        duplicateRoomKeys.forEach(
+                key -> consumer.accept(PackedRoomKeySet.unpackLength(key), PackedRoomKeySet.unpackWidth(key), PackedRoomKeySet.unpackHeight(key)));
+        duplicateOversizedRooms.forEach(room -> consumer.accept(room.length(), room.width(), room.height()));
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release, everything is kept on the heap
+    }
+
+    private void addKey(long key) {
+        if (!seenRoomKeys.add(key)) {
+            duplicateRoomKeys.add(key);
+        }
+    }
+
+    private void addOversizedRoom(OversizedRoomKey room) {
+        if (!seenOversizedRooms.add(room)) {
+            duplicateOversizedRooms.add(room);
+        }
+    }
+
+    private record OversizedRoomKey(int length, int width, int height) {
+    }
+}
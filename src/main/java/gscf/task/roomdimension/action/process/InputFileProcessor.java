@@ -1,35 +1,102 @@
 package gscf.task.roomdimension.action.process;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
 import java.util.Comparator;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.ProcessingOptions;
 import gscf.task.roomdimension.dto.Result;
 import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomDimensions;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.jfr.ChunkEvent;
+import gscf.task.roomdimension.jfr.RoomDimensionEvents;
+import gscf.task.roomdimension.metrics.ProcessingMetrics;
+import gscf.task.roomdimension.metrics.Stage;
+import gscf.task.roomdimension.util.GzipUtil;
 import gscf.task.roomdimension.util.ParamValidatorUtil;
+import gscf.task.roomdimension.validation.FileSizeValidator;
 
 /**
- * Processes input data from a file and extracts business-related information. This class uses a {@link RoomConverter} to convert room dimension
- * strings into {@link Room} objects. It reads the input file line-by-line, processes each room's data, and then returns a {@link Result} containing
- * the following:
+ * Processes input data from a file and extracts business-related information. This class uses a {@link RoomConverter} to parse room dimension
+ * strings. It reads the input file line-by-line, processes each room's data with a {@link RoomAccumulator}, and then returns a {@link Result}
+ * containing the following:
  * <ul>
  * <li>Total wallpaper needed for all rooms</li>
- * <li>A list of cubic rooms, sorted by wallpaper needed</li>
+ * <li>A list of cubic rooms, sorted by wallpaper needed in descending order, optionally limited to the top ones</li>
  * <li>A list of duplicate room dimensions</li>
  * </ul>
+ * The way the input file is read is selected by the {@link gscf.task.roomdimension.dto.IngestionEngine} of the {@link ProcessingOptions}, every
+ * engine produces the same {@link Result}. The input file is read only once, its size limit is enforced by the {@link FileSizeValidator} while it
+ * is opened and read. Files which cannot be mapped into memory, like pipes, are always read by the reader based engine.
+ * <p>
+ * For dashboards, {@link #processApproximate(String, ProcessingOptions)} estimates the number of distinct rooms and the most repeated rooms in
+ * constant memory instead, reading the input file with the same engines. Repeated questions about the same input file are answered by the
+ * {@link RoomColumnStore} of {@link #load(String, ProcessingOptions)}, which keeps the rooms in memory instead of only the {@link Result}.
+ * </p>
+ * <p>
+ * Input files in the binary room format, see {@link BinaryRoomFormat}, are recognised by their header, and are always mapped into memory and
+ * decoded without parsing, regardless of the engine. Text input files are converted into binary room files by
+ * {@link #convertToBinary(String, String, ProcessingOptions)}.
+ * </p>
+ * <p>
+ * Gzip compressed input files are recognised by their magic bytes and decompressed while they are read, the size limit applies to their
+ * decompressed bytes. The reader based engine decompresses them as a stream, the other engines with a {@link GzipMemberProcessor}, which the
+ * {@link IngestionEngine#PARALLEL} engine lets decompress the members of a multi-member gzip file in parallel.
+ * </p>
  *
  * @author krisztian.hathazi
  */
 public class InputFileProcessor {
 
+    // The size of a single mapped region, a MappedByteBuffer cannot be larger than Integer.MAX_VALUE bytes
+    private static final long DEFAULT_MAPPING_WINDOW_SIZE_BYTES = 1L << 30;
+
+    // The smallest range worth a separate task of the parallel engine
+    private static final long MIN_PARALLEL_RANGE_SIZE_BYTES = 1L << 20;
+
+    private static final int RANGES_PER_THREAD = 4;
+
+    private static final String SPILL_ROOT_PREFIX = "room-analysis-";
+
+    // The largest window mapped at once with checkpoints, small enough for the time based checkpoints to be checked frequently
+    private static final long CHECKPOINT_WINDOW_SIZE_BYTES = 64L * 1024 * 1024;
+
+    // The number of lines read by the reader based engine per chunk event
+    private static final int READER_CHUNK_LINES = 64 * 1024;
+
+    private static final String TEXT_FORMAT = "text";
+
     private final RoomConverter roomConverter;
 
+    private final FileSizeValidator fileSizeValidator;
+
+    private final GzipMemberProcessor gzipMemberProcessor;
+
+    private final ProcessingMetrics processingMetrics;
+
+    private final long mappingWindowSizeBytes;
+
     /**
      * Constructs an {@link InputFileProcessor} with the specified {@link RoomConverter}.
      *
@@ -37,54 +104,691 @@ public class InputFileProcessor {
      *            The {@link RoomConverter} instance used to convert room dimensions from the input file into {@link Room} objects.
      */
     public InputFileProcessor(RoomConverter roomConverter) {
+        this(roomConverter, DEFAULT_MAPPING_WINDOW_SIZE_BYTES);
+    }
+
+    /**
+     * Constructs an {@link InputFileProcessor} with the specified {@link RoomConverter} and size of the regions mapped at once by the
+     * {@link gscf.task.roomdimension.dto.IngestionEngine#MAPPED} engine.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to convert room dimensions from the input file into {@link Room} objects.
+     * @param mappingWindowSizeBytes
+     *            The maximum number of bytes mapped into memory at once, must not exceed {@link Integer#MAX_VALUE}. It also limits the size of the
+     *            ranges processed by a single task of the {@link gscf.task.roomdimension.dto.IngestionEngine#PARALLEL} engine.
+     */
+    public InputFileProcessor(RoomConverter roomConverter, long mappingWindowSizeBytes) {
         this.roomConverter = roomConverter;
+        this.fileSizeValidator = new FileSizeValidator();
+        this.gzipMemberProcessor = new GzipMemberProcessor(roomConverter);
+        this.processingMetrics = ProcessingMetrics.getInstance();
+        this.mappingWindowSizeBytes = mappingWindowSizeBytes;
+    }
+
+    /**
+     * Processes the input file at the specified path with the default {@link ProcessingOptions}.
+     *
+     * @param inputFilePath
+     *            The path to the input file containing room dimension data.
+     * @return A {@link Result} object.
+     * @throws IOException
+     *             If an error occurs while reading the input file.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code inputFilePath} is null or blank.
+     * @see #process(String, ProcessingOptions)
+     */
+    public Result process(String inputFilePath) throws IOException {
+        return process(inputFilePath, ProcessingOptions.defaults());
     }
 
     /**
      * Processes the input file at the specified path, extracting relevant data about rooms, including total wallpaper needed, cubic rooms, and
      * duplicate rooms. The input file should contain room dimension data in a format that the {@link RoomConverter} can understand. Each line in the
      * file represents one room.
+     * <p>
+     * If a {@link ProcessingOptions#checkpointFile()} is given, the progress is periodically saved by a {@link CheckpointStore}, and a restarted
+     * analysis of the same input file resumes from the last checkpoint. With checkpoints, the input file is always read sequentially by mapping it
+     * into memory, regardless of the engine, and the duplicates are detected in memory.
+     * </p>
      *
      * @param inputFilePath
      *            The path to the input file containing room dimension data.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling how the input file is read.
      * @return A {@link Result} object.
      * @throws IOException
+     *             If an error occurs while reading the input file, or while writing or reading the spilled rooms of the duplicate detection.
+     * @throws gscf.task.roomdimension.exception.SizeLimitExceededIOException
+     *             If the input file is larger than {@link ProcessingOptions#maxInputSizeBytes()}.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code inputFilePath} is null or blank, or the {@code processingOptions} is null or has a non-positive cubic room limit, or
+     *             has checkpoints together with spilling duplicate detection, the lenient mode or non-positive checkpoint intervals.
+     */
+    public Result process(String inputFilePath, ProcessingOptions processingOptions) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonBlank(inputFilePath, "inputFilePath");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+
+        if (processingOptions.checkpointFile() != null) {
+            return processWithCheckpoints(Paths.get(inputFilePath), processingOptions);
+        }
+
+        Path spillRoot = createSpillRoot(processingOptions);
+        Supplier<RoomAccumulator> roomAccumulatorFactory = () -> new RoomAccumulator(
+                roomConverter,
+                createDuplicateRoomDetector(processingOptions, spillRoot),
+                processingOptions.cubicRoomLimit(),
+                errorReservoirSize(processingOptions));
+
+        try {
+            return process(Paths.get(inputFilePath), processingOptions, roomAccumulatorFactory, RoomAccumulator::toResult);
+        } finally {
+            deleteSpillRoot(spillRoot);
+        }
+    }
+
+    /**
+     * Processes the input file at the specified path in the {@link gscf.task.roomdimension.dto.AnalysisMode#APPROXIMATE} mode. Instead of listing
+     * the exact cubic and duplicate rooms, the number of distinct rooms and the most repeated rooms are estimated with sketches of constant size,
+     * sized by the {@link ProcessingOptions#sketchOptions()}. The total wallpaper needed stays exact. The input file is read by the same engines as
+     * in {@link #process(String, ProcessingOptions)}.
+     *
+     * @param inputFilePath
+     *            The path to the input file containing room dimension data.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling how the input file is read and how the sketches are sized.
+     * @return A {@link SketchResult} object.
+     * @throws IOException
      *             If an error occurs while reading the input file.
-     * @throws IllegalArgumentException
-     *             If the {@code inputFilePath} is null or blank.
+     * @throws gscf.task.roomdimension.exception.SizeLimitExceededIOException
+     *             If the input file is larger than {@link ProcessingOptions#maxInputSizeBytes()}.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code inputFilePath} is null or blank, the {@code processingOptions} is null, or the sketch options are invalid.
      */
-    public Result process(String inputFilePath) throws IOException {
+    public SketchResult processApproximate(String inputFilePath, ProcessingOptions processingOptions) throws IOException {
         // Public method, so parameter validation is a must
         ParamValidatorUtil.requireNonBlank(inputFilePath, "inputFilePath");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+        ParamValidatorUtil.requireNonNull(processingOptions.sketchOptions(), "processingOptions.sketchOptions");
+
+        Supplier<SketchAccumulator> sketchAccumulatorFactory = () -> new SketchAccumulator(
+                roomConverter,
+                processingOptions.sketchOptions(),
+                errorReservoirSize(processingOptions));
+
+        return process(Paths.get(inputFilePath), processingOptions, sketchAccumulatorFactory, SketchAccumulator::toResult);
+    }
+
+    /**
+     * Loads every room of the input file at the specified path into a {@link RoomColumnStore}, which answers further questions about the rooms,
+     * like {@link RoomColumnStore#toResult(int)} with several cubic room limits, without reading the input file again. The input file is read by
+     * the engine of the {@link ProcessingOptions}, and its invalid lines are skipped in the lenient mode.
+     *
+     * @param inputFilePath
+     *            The path to the input file containing room dimension data.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling how the input file is read.
+     * @return The {@link RoomColumnStore} of every room of the input file, in input order, to be closed by the caller.
+     * @throws IOException
+     *             If an error occurs while reading the input file.
+     * @throws gscf.task.roomdimension.exception.SizeLimitExceededIOException
+     *             If the input file is larger than {@link ProcessingOptions#maxInputSizeBytes()}.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code inputFilePath} is null or blank, or the {@code processingOptions} is null.
+     */
+    public RoomColumnStore load(String inputFilePath, ProcessingOptions processingOptions) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonBlank(inputFilePath, "inputFilePath");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+
+        try {
+            return aggregate(
+                    Paths.get(inputFilePath),
+                    processingOptions,
+                    () -> new RoomColumnStore(roomConverter, errorReservoirSize(processingOptions)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Converts the text input file at the specified path into a binary room file, see {@link BinaryRoomFormat}, which is analysed by
+     * {@link #process(String, ProcessingOptions)} and {@link #processApproximate(String, ProcessingOptions)} without parsing. The text input file
+     * is read by the engine of the {@link ProcessingOptions}, but sequentially, so the rooms keep their order. If the conversion fails, the binary
+     * room file is deleted.
+     *
+     * @param inputFilePath
+     *            The path to the text input file containing room dimension data.
+     * @param outputFilePath
+     *            The path of the binary room file to be written, an existing file is overwritten.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling how the text input file is read.
+     * @return The number of converted rooms.
+     * @throws IOException
+     *             If an error occurs while reading the text input file or writing the binary room file.
+     * @throws gscf.task.roomdimension.exception.SizeLimitExceededIOException
+     *             If the text input file is larger than {@link ProcessingOptions#maxInputSizeBytes()}.
+     * @throws InvalidMethodParameterException
+     *             If any of the file paths is null or blank, the file paths are the same, or the {@code processingOptions} is null.
+     */
+    public long convertToBinary(String inputFilePath, String outputFilePath, ProcessingOptions processingOptions) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonBlank(inputFilePath, "inputFilePath");
+        ParamValidatorUtil.requireNonBlank(outputFilePath, "outputFilePath");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+
+        Path path = Paths.get(inputFilePath);
+        Path outputPath = Paths.get(outputFilePath);
+        if (path.toAbsolutePath().normalize().equals(outputPath.toAbsolutePath().normalize())) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("The binary room file must differ from the text input file [{0}].", inputFilePath));
+        }
+        // Gzip files are decompressed by the reader based engine
+        boolean mapped = processingOptions.engine() != IngestionEngine.READER && Files.isRegularFile(path) && !GzipUtil.isGzipFile(path);
+        if (mapped) {
+            fileSizeValidator.validate(inputFilePath, processingOptions.maxInputSizeBytes());
+        }
+
+        try {
+            try (BinaryRoomWriter binaryRoomWriter = new BinaryRoomWriter(outputPath)) {
+                if (mapped) {
+                    processMapped(path, binaryRoomWriter);
+                } else {
+                    processWithReader(inputFilePath, processingOptions.maxInputSizeBytes(), binaryRoomWriter);
+                }
+                return binaryRoomWriter.roomCount();
+            }
+        } catch (IOException | RuntimeException e) {
+            // The header is written when the writer is closed, so a partial binary room file would look complete
+            Files.deleteIfExists(outputPath);
+            if (e instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Processes the rooms read from the given stream, e.g. the body of a request, like {@link #process(String, ProcessingOptions)} processes the
+     * rooms of an input file. The stream is read line by line as it arrives, without being stored, and it is closed once it has been read. Its size
+     * is unknown upfront, so {@link ProcessingOptions#maxInputSizeBytes()} is enforced while it is read, and a gzip compressed stream is decompressed.
+     * The engine and the checkpoints of the {@link ProcessingOptions} are ignored, a stream can only be read sequentially, once.
+     *
+     * @param inputStream
+     *            The stream of room dimension data, one room per line.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling the size limit and the duplicate detection.
+     * @return A {@link Result} object.
+     * @throws IOException
+     *             If an error occurs while reading the stream, or while writing or reading the spilled rooms of the duplicate detection.
+     * @throws gscf.task.roomdimension.exception.SizeLimitExceededIOException
+     *             If the stream delivers more than {@link ProcessingOptions#maxInputSizeBytes()} bytes.
+     * @throws InvalidMethodParameterException
+     *             If the {@code inputStream} or the {@code processingOptions} is null.
+     */
+    public Result process(InputStream inputStream, ProcessingOptions processingOptions) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(inputStream, "inputStream");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+
+        Path spillRoot = createSpillRoot(processingOptions);
+        try (RoomAccumulator roomAccumulator = new RoomAccumulator(
+                roomConverter,
+                createDuplicateRoomDetector(processingOptions, spillRoot),
+                processingOptions.cubicRoomLimit(),
+                errorReservoirSize(processingOptions))) {
+            aggregateStream(inputStream, processingOptions, roomAccumulator);
+            return buildResult(roomAccumulator, RoomAccumulator::toResult);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            deleteSpillRoot(spillRoot);
+        }
+    }
+
+    /**
+     * Processes the rooms read from the given stream in the {@link gscf.task.roomdimension.dto.AnalysisMode#APPROXIMATE} mode, like
+     * {@link #processApproximate(String, ProcessingOptions)} processes the rooms of an input file. The stream is read like in
+     * {@link #process(InputStream, ProcessingOptions)}.
+     *
+     * @param inputStream
+     *            The stream of room dimension data, one room per line.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling the size limit and how the sketches are sized.
+     * @return A {@link SketchResult} object.
+     * @throws IOException
+     *             If an error occurs while reading the stream.
+     * @throws gscf.task.roomdimension.exception.SizeLimitExceededIOException
+     *             If the stream delivers more than {@link ProcessingOptions#maxInputSizeBytes()} bytes.
+     * @throws InvalidMethodParameterException
+     *             If the {@code inputStream} or the {@code processingOptions} is null, or the sketch options are invalid.
+     */
+    public SketchResult processApproximate(InputStream inputStream, ProcessingOptions processingOptions) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(inputStream, "inputStream");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+        ParamValidatorUtil.requireNonNull(processingOptions.sketchOptions(), "processingOptions.sketchOptions");
+
+        try (SketchAccumulator sketchAccumulator = new SketchAccumulator(
+                roomConverter,
+                processingOptions.sketchOptions(),
+                errorReservoirSize(processingOptions))) {
+            aggregateStream(inputStream, processingOptions, sketchAccumulator);
+            return buildResult(sketchAccumulator, SketchAccumulator::toResult);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void aggregateStream(InputStream inputStream, ProcessingOptions processingOptions, RoomAggregator<?> roomAggregator) throws IOException {
+        try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.INGESTION)) {
+            processStream(fileSizeValidator.limit(inputStream, processingOptions.maxInputSizeBytes()), roomAggregator);
+        }
+        if (processingMetrics.isEnabled()) {
+            // The size of a stream is unknown, its bytes are not counted
+            processingMetrics.recordInput(roomAggregator.roomCount() + roomAggregator.invalidLines().count(), 0);
+        }
+    }
+
+    private Result processWithCheckpoints(Path path, ProcessingOptions processingOptions) throws IOException {
+        if (isSpillingEnabled(processingOptions)) {
+            throw new InvalidMethodParameterException("Checkpoints cannot be combined with spilling duplicate detection.");
+        }
+        if (processingOptions.lenient()) {
+            // The skipped lines are not saved with the checkpoints, a resumed analysis would lose them
+            throw new InvalidMethodParameterException("Checkpoints cannot be combined with the lenient mode.");
+        }
+        if (processingOptions.checkpointIntervalBytes() <= 0 || processingOptions.checkpointInterval() == null
+                || processingOptions.checkpointInterval().isNegative() || processingOptions.checkpointInterval().isZero()) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format(
+                            "The checkpoint intervals must be positive, got [{0}] bytes and [{1}].",
+                            processingOptions.checkpointIntervalBytes(),
+                            processingOptions.checkpointInterval()));
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IOException(MessageFormat.format("Checkpoints require a regular input file, which [{0}] is not.", path));
+        }
+        if (BinaryRoomFormat.isBinaryRoomFile(path)) {
+            throw new IOException(MessageFormat.format("Checkpoints require a text input file, but [{0}] is a binary room file.", path));
+        }
+        if (GzipUtil.isGzipFile(path)) {
+            throw new IOException(MessageFormat.format("Checkpoints require an uncompressed input file, but [{0}] is gzip compressed.", path));
+        }
+        fileSizeValidator.validate(path.toString(), processingOptions.maxInputSizeBytes());
+
+        CheckpointStore checkpointStore = new CheckpointStore(processingOptions.checkpointFile(), path, processingOptions.cubicRoomLimit());
+        long checkpointIntervalNanos = processingOptions.checkpointInterval().toNanos();
+
+        try (RoomAccumulator roomAccumulator = new RoomAccumulator(
+                roomConverter,
+                new InMemoryDuplicateRoomDetector(),
+                processingOptions.cubicRoomLimit());
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long from = checkpointStore.restore(roomAccumulator);
+            long[] lastCheckpoint = { from, System.nanoTime() };
 
-        Set<Room> seenRooms = new HashSet<>();
-        Set<Room> duplicateRooms = new HashSet<>();
-        List<Room> cubicRooms = new ArrayList<>();
+            // Smaller windows let the time based checkpoints be saved in time
+            long windowSizeBytes = Math.min(mappingWindowSizeBytes, Math.min(processingOptions.checkpointIntervalBytes(), CHECKPOINT_WINDOW_SIZE_BYTES));
+            long size = channel.size();
+            try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.INGESTION)) {
+                parseMappedRange(channel, from, size, windowSizeBytes, new ByteRangeRoomParser(roomConverter), roomAccumulator, position -> {
+                    long now = System.nanoTime();
+                    if (position < size && (position - lastCheckpoint[0] >= processingOptions.checkpointIntervalBytes()
+                            || now - lastCheckpoint[1] >= checkpointIntervalNanos)) {
+                        saveCheckpoint(checkpointStore, roomAccumulator, position);
+                        lastCheckpoint[0] = position;
+                        lastCheckpoint[1] = now;
+                    }
+                });
+            }
+            // Only the part of the input file read by this run is counted
+            processingMetrics.recordInput(roomAccumulator.roomCount(), size - from);
 
-        int totalWallpaperNeeded = 0;
+            Result result = buildResult(roomAccumulator, RoomAccumulator::toResult);
+            checkpointStore.delete();
+            return result;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-        // Stream the input file and extract business required data
-        try (BufferedReader br = new BufferedReader(new FileReader(inputFilePath))) {
+    private static void saveCheckpoint(CheckpointStore checkpointStore, RoomAccumulator roomAccumulator, long position) {
+        try {
+            checkpointStore.save(roomAccumulator, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <A extends RoomAggregator<A>, R> R process(Path path, ProcessingOptions processingOptions, Supplier<A> roomAggregatorFactory,
+            Function<A, R> resultBuilder) throws IOException {
+        try (A roomAggregator = aggregate(path, processingOptions, roomAggregatorFactory)) {
+            return buildResult(roomAggregator, resultBuilder);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <A extends RoomAggregator<A>, R> R buildResult(A roomAggregator, Function<A, R> resultBuilder) {
+        R result;
+        try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.RESULT)) {
+            result = resultBuilder.apply(roomAggregator);
+        }
+        // Counted after the result is built, so a spilling duplicate room detector counts the distinct rooms while it resolves the duplicates
+        if (processingMetrics.isEnabled()) {
+            processingMetrics.recordDistinctRooms(roomAggregator.distinctRoomCount());
+        }
+        return result;
+    }
+
+    /**
+     * Reads every room of the input file at the specified path into a single {@link RoomAggregator}, with the engine selected by the
+     * {@link ProcessingOptions}.
+     *
+     * @param <A>
+     *            The type of the {@link RoomAggregator}.
+     * @param path
+     *            The path of the input file.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling how the input file is read.
+     * @param roomAggregatorFactory
+     *            Creates the empty {@link RoomAggregator} instances, several of them in case of the parallel engine.
+     * @return The {@link RoomAggregator} of every room of the input file, to be closed by the caller.
+     * @throws IOException
+     *             If an error occurs while reading the input file, or the input file is too large.
+     */
+    <A extends RoomAggregator<A>> A aggregate(Path path, ProcessingOptions processingOptions, Supplier<A> roomAggregatorFactory) throws IOException {
+        long maxInputSizeBytes = processingOptions.maxInputSizeBytes();
+        IngestionEngine engine = processingOptions.engine();
+        boolean regularFile = Files.isRegularFile(path);
+        // Binary room files are always mapped, there is nothing to parse in parallel
+        boolean binary = regularFile && BinaryRoomFormat.isBinaryRoomFile(path);
+        // The reader based engine decompresses gzip files with the stream of the FileSizeValidator
+        boolean gzip = regularFile && !binary && engine != IngestionEngine.READER && GzipUtil.isGzipFile(path);
+        boolean mapped = binary || engine != IngestionEngine.READER && regularFile && !gzip;
+
+        if (gzip) {
+            int threads = engine == IngestionEngine.PARALLEL ? processingOptions.threads() : 1;
+            try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.INGESTION)) {
+                return recordInput(path, gzipMemberProcessor.aggregate(path, threads, maxInputSizeBytes, roomAggregatorFactory));
+            }
+        }
+        if (mapped) {
+            // The size of a regular file is known upfront, so it is validated before the file is mapped
+            fileSizeValidator.validate(path.toString(), maxInputSizeBytes);
+
+            if (engine == IngestionEngine.PARALLEL && !binary) {
+                try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.INGESTION)) {
+                    return recordInput(path, processParallel(path, processingOptions.threads(), roomAggregatorFactory));
+                }
+            }
+        }
+
+        A roomAggregator = roomAggregatorFactory.get();
+        try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.INGESTION)) {
+            if (binary) {
+                processBinary(path, roomAggregator);
+            } else if (mapped) {
+                processMapped(path, roomAggregator);
+            } else {
+                processWithReader(path.toString(), maxInputSizeBytes, roomAggregator);
+            }
+            return recordInput(path, roomAggregator);
+        } catch (IOException | RuntimeException e) {
+            roomAggregator.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds the rooms and the size of the input file to the metrics, the size of a pipe is unknown.
+     */
+    private <A extends RoomAggregator<A>> A recordInput(Path path, A roomAggregator) throws IOException {
+        if (processingMetrics.isEnabled()) {
+            long lines = roomAggregator.roomCount() + roomAggregator.invalidLines().count();
+            processingMetrics.recordInput(lines, Files.isRegularFile(path) ? Files.size(path) : 0);
+        }
+        return roomAggregator;
+    }
+
+    private static boolean isSpillingEnabled(ProcessingOptions processingOptions) {
+        long memoryBytes = processingOptions.duplicateDetectionMemoryBytes();
+        return memoryBytes > 0 && memoryBytes < Long.MAX_VALUE;
+    }
+
+    static DuplicateRoomDetector createDuplicateRoomDetector(ProcessingOptions processingOptions, Path spillRoot) {
+        if (isSpillingEnabled(processingOptions)) {
+            return new SpillingDuplicateRoomDetector(processingOptions.duplicateDetectionMemoryBytes(), spillRoot);
+        }
+        return new InMemoryDuplicateRoomDetector();
+    }
+
+    /**
+     * Returns the error reservoir size of the aggregators, which skip the invalid lines only in the lenient mode.
+     */
+    static int errorReservoirSize(ProcessingOptions processingOptions) {
+        return processingOptions.lenient() ? processingOptions.errorReservoirSize() : RoomAggregator.STRICT_PARSING;
+    }
+
+    /**
+     * Every spilled file of a run is placed under a single directory, so nothing is left behind even if a run fails before its detectors are
+     * closed.
+     */
+    static Path createSpillRoot(ProcessingOptions processingOptions) throws IOException {
+        if (!isSpillingEnabled(processingOptions)) {
+            return null;
+        }
+        Path spillDirectory = processingOptions.spillDirectory();
+        return spillDirectory == null ? Files.createTempDirectory(SPILL_ROOT_PREFIX) : Files.createTempDirectory(spillDirectory, SPILL_ROOT_PREFIX);
+    }
+
+    static void deleteSpillRoot(Path spillRoot) throws IOException {
+        if (spillRoot == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(spillRoot)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void processWithReader(String inputFilePath, long maxInputSizeBytes, RoomDimensionsConsumer consumer) throws IOException {
+        processStream(fileSizeValidator.newInputStream(inputFilePath, maxInputSizeBytes), consumer);
+    }
+
+    private void processStream(InputStream inputStream, RoomDimensionsConsumer consumer) throws IOException {
+        // Stream the input and extract business required data
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, Charset.defaultCharset()))) {
 
             String roomDimensons;
+            RoomDimensions dimensions = new RoomDimensions();
+            // The characters are counted instead of the bytes, which are the same for the ASCII room dimensions
+            long chunkOffset = 0;
+            long chunkCharacters = 0;
+            int chunkLines = 0;
+            ChunkEvent chunkEvent = RoomDimensionEvents.beginChunk();
 
             while ((roomDimensons = br.readLine()) != null) {
-                Room room = roomConverter.convert(roomDimensons);
-                totalWallpaperNeeded += room.wallpaperNeeded();
-                if (room.isCubic()) {
-                    cubicRooms.add(room);
+                roomConverter.convert(roomDimensons, dimensions, consumer);
+
+                chunkCharacters += roomDimensons.length() + 1;
+                if (++chunkLines == READER_CHUNK_LINES) {
+                    RoomDimensionEvents.commitChunk(chunkEvent, TEXT_FORMAT, chunkOffset, chunkCharacters, chunkLines);
+                    chunkOffset += chunkCharacters;
+                    chunkCharacters = 0;
+                    chunkLines = 0;
+                    chunkEvent = RoomDimensionEvents.beginChunk();
+                }
+            }
+            RoomDimensionEvents.commitChunk(chunkEvent, TEXT_FORMAT, chunkOffset, chunkCharacters, chunkLines);
+
+        }
+    }
+
+    private void processMapped(Path inputFilePath, RoomDimensionsConsumer consumer) throws IOException {
+        ByteRangeRoomParser parser = new ByteRangeRoomParser(roomConverter);
+
+        try (FileChannel channel = FileChannel.open(inputFilePath, StandardOpenOption.READ)) {
+            parseMappedRange(channel, 0, channel.size(), mappingWindowSizeBytes, parser, consumer);
+        }
+    }
+
+    private void processBinary(Path inputFilePath, RoomDimensionsConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputFilePath, StandardOpenOption.READ)) {
+            long roomCount = BinaryRoomFormat.readRoomCount(channel, inputFilePath);
+            long[] decodedRoomCount = { 0 };
+            RoomDimensionsConsumer countingConsumer = (length, width, height) -> {
+                decodedRoomCount[0]++;
+                consumer.accept(length, width, height);
+            };
+
+            // Map the rooms window by window, a window always continues at the first room which was incomplete in the previous one
+            long size = channel.size();
+            long position = BinaryRoomFormat.HEADER_SIZE_BYTES;
+            // A window must fit at least a single room
+            long windowSizeLimit = Math.max(mappingWindowSizeBytes, BinaryRoomFormat.MAX_ROOM_SIZE_BYTES);
+            while (position < size) {
+                long windowSize = Math.min(windowSizeLimit, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+
+                ChunkEvent chunkEvent = RoomDimensionEvents.beginChunk();
+                long windowStartRoomCount = decodedRoomCount[0];
+
+                int consumed = BinaryRoomFormat.decode(buffer, 0, (int) windowSize, countingConsumer);
+                if (consumed == 0) {
+                    throw new IOException(MessageFormat.format("The binary room file [{0}] ends with an incomplete room.", inputFilePath));
                 }
-                if (!seenRooms.add(room)) {
-                    duplicateRooms.add(room);
+                RoomDimensionEvents.commitChunk(chunkEvent, "binary", position, consumed, decodedRoomCount[0] - windowStartRoomCount);
+                position += consumed;
+            }
+
+            if (decodedRoomCount[0] != roomCount) {
+                throw new IOException(
+                        MessageFormat.format(
+                                "The binary room file [{0}] contains [{1}] rooms instead of the [{2}] rooms of its header.",
+                                inputFilePath,
+                                decodedRoomCount[0],
+                                roomCount));
+            }
+        }
+    }
+
+    private <A extends RoomAggregator<A>> A processParallel(Path inputFilePath, int threads, Supplier<A> roomAggregatorFactory) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputFilePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            // Create a few ranges per thread so the work stealing can balance uneven ranges, but never exceed a single mapping window
+            long leafSizeBytes = Math.min(mappingWindowSizeBytes, Math.max(MIN_PARALLEL_RANGE_SIZE_BYTES, size / ((long) threads * RANGES_PER_THREAD)));
+
+            ProcessingMetrics.WorkerThreads workerThreads = processingMetrics.trackWorkerThreads(Stage.INGESTION);
+            ForkJoinPool pool = new ForkJoinPool(threads, workerThreads.forkJoinWorkerThreadFactory(), null, false);
+            try {
+                return pool.invoke(new ParallelRangeTask<>(channel, roomConverter, roomAggregatorFactory, 0, size, leafSizeBytes));
+            } catch (RuntimeException e) {
+                RuntimeException exception = unwrapForkJoinException(e);
+                if (exception instanceof UncheckedIOException uncheckedIOException) {
+                    throw uncheckedIOException.getCause();
                 }
+                throw exception;
+            } finally {
+                // The allocations of the workers are read while they are still alive
+                workerThreads.close();
+                pool.shutdown();
             }
+        }
+    }
 
+    /**
+     * A {@link ForkJoinPool} may rethrow an exception of a worker thread wrapped into a new exception of the same type, once per joined task. The
+     * original exception is preferred so the caller gets the same message as in the sequential engines.
+     */
+    private static RuntimeException unwrapForkJoinException(RuntimeException exception) {
+        RuntimeException original = exception;
+        while (original.getCause() != null && original.getCause().getClass() == original.getClass()) {
+            original = (RuntimeException) original.getCause();
         }
+        return original;
+    }
+
+    /**
+     * Parses the {@code [from, to)} range of the given channel by mapping it into memory window by window. The range must start at the start of a
+     * line and end at the end of a line or at the end of the file.
+     *
+     * @param channel
+     *            The {@link FileChannel} of the input file.
+     * @param from
+     *            The offset of the first byte of the range.
+     * @param to
+     *            The offset after the last byte of the range.
+     * @param windowSizeBytes
+     *            The maximum number of bytes mapped at once, grown automatically if a single line does not fit into it.
+     * @param parser
+     *            The {@link ByteRangeRoomParser} parsing the mapped windows.
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of the parsed rooms.
+     * @throws IOException
+     *             If an error occurs while mapping the input file, or a line is longer than {@link Integer#MAX_VALUE} bytes.
+     */
+    static void parseMappedRange(FileChannel channel, long from, long to, long windowSizeBytes, ByteRangeRoomParser parser,
+            RoomDimensionsConsumer consumer) throws IOException {
+        parseMappedRange(channel, from, to, windowSizeBytes, parser, consumer, position -> {
+            // Progress is not tracked
+        });
+    }
 
-        // Sort the cubic rooms accordingly
-        cubicRooms.sort(Comparator.comparing(Room::wallpaperNeeded));
+    /**
+     * Parses the {@code [from, to)} range of the given channel like {@link #parseMappedRange(FileChannel, long, long, long, ByteRangeRoomParser,
+     * RoomDimensionsConsumer)}, reporting the progress after every window.
+     *
+     * @param channel
+     *            The {@link FileChannel} of the input file.
+     * @param from
+     *            The offset of the first byte of the range.
+     * @param to
+     *            The offset after the last byte of the range.
+     * @param windowSizeBytes
+     *            The maximum number of bytes mapped at once, grown automatically if a single line does not fit into it.
+     * @param parser
+     *            The {@link ByteRangeRoomParser} parsing the mapped windows.
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of the parsed rooms.
+     * @param progressListener
+     *            Receives the offset of the first unparsed byte after every parsed window, which is always the start of a line.
+     * @throws IOException
+     *             If an error occurs while mapping the input file, or a line is longer than {@link Integer#MAX_VALUE} bytes.
+     */
+    static void parseMappedRange(FileChannel channel, long from, long to, long windowSizeBytes, ByteRangeRoomParser parser,
+            RoomDimensionsConsumer consumer, LongConsumer progressListener) throws IOException {
+        long position = from;
+        long windowSizeLimit = windowSizeBytes;
 
-        return new Result(totalWallpaperNeeded, cubicRooms, duplicateRooms.stream().toList());
+        // Map the range window by window, a window always continues at the first line which was incomplete in the previous one
+        while (position < to) {
+            long windowSize = Math.min(windowSizeLimit, to - position);
+            boolean endOfInput = position + windowSize == to;
+            ChunkEvent chunkEvent = RoomDimensionEvents.beginChunk();
+            long windowStartLineCount = parser.lineCount();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+
+            int consumed = parser.parse(buffer, 0, (int) windowSize, endOfInput, consumer);
+            if (consumed > 0) {
+                RoomDimensionEvents.commitChunk(chunkEvent, TEXT_FORMAT, position, consumed, parser.lineCount() - windowStartLineCount);
+            }
+            if (consumed == 0) {
+                // Not even a single line fits into the window, so retry with a larger one
+                if (windowSizeLimit >= Integer.MAX_VALUE) {
+                    throw new IOException(
+                            MessageFormat.format("The input file contains a line longer than [{0}] bytes at offset [{1}].", windowSize, position));
+                }
+                windowSizeLimit = Math.min(windowSizeLimit * 2, Integer.MAX_VALUE);
+            }
+            position += consumed;
+            if (consumed > 0) {
+                progressListener.accept(position);
+            }
+        }
     }
 
 }
@@ -0,0 +1,117 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * Resolves the input file arguments of the application into the paths of the input files to be processed. Every argument can be one of the
+ * following:
+ * <ul>
+ * <li>A directory, standing for every regular file under it, recursively</li>
+ * <li>A glob pattern, e.g. {@code data/*.txt} or {@code data/**&#47;rooms-*.txt}, standing for every regular file it matches</li>
+ * <li>Any other path, standing for itself, even if it does not exist, so it is reported when it is processed</li>
+ * </ul>
+ * The files of a directory or a pattern are listed in lexicographic order, and a file is only listed once even if several arguments stand for
+ * it, so its rooms are never counted twice.
+ *
+ * @author krisztian.hathazi
+ */
+public class InputPathResolver {
+
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    /**
+     * Resolves the given arguments into the paths of the input files.
+     *
+     * @param arguments
+     *            The paths, directories and glob patterns of the input files.
+     * @return The paths of the input files, in the order of the arguments.
+     * @throws IOException
+     *             If a directory cannot be listed, or a glob pattern matches no file.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code arguments} or one of its elements is null or blank.
+     */
+    public List<Path> resolve(List<String> arguments) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(arguments, "arguments");
+
+        // Keyed by the normalized absolute path, so the same file given twice is processed only once
+        Map<Path, Path> inputFiles = new LinkedHashMap<>();
+        for (String argument : arguments) {
+            ParamValidatorUtil.requireNonBlank(argument, "argument");
+            for (Path inputFile : resolve(argument)) {
+                inputFiles.putIfAbsent(inputFile.toAbsolutePath().normalize(), inputFile);
+            }
+        }
+        return List.copyOf(inputFiles.values());
+    }
+
+    /**
+     * Returns whether the given argument is a glob pattern, i.e. it contains any of the {@code *?[{} characters.
+     *
+     * @param argument
+     *            The argument to check.
+     * @return {@code true} if the argument is a glob pattern.
+     */
+    static boolean isGlobPattern(String argument) {
+        for (int i = 0; i < argument.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(argument.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Path> resolve(String argument) throws IOException {
+        if (isGlobPattern(argument)) {
+            return resolvePattern(argument);
+        }
+        Path path = Paths.get(argument);
+        if (Files.isDirectory(path)) {
+            return listRegularFiles(path, path, null);
+        }
+        return List.of(path);
+    }
+
+    private List<Path> resolvePattern(String pattern) throws IOException {
+        // The pattern is matched relative to its longest leading part without glob characters, which is the only directory to be walked
+        String separator = FileSystems.getDefault().getSeparator();
+        int globIndex = 0;
+        while (GLOB_CHARACTERS.indexOf(pattern.charAt(globIndex)) < 0) {
+            globIndex++;
+        }
+        int baseEndIndex = Math.max(pattern.lastIndexOf('/', globIndex), pattern.lastIndexOf(separator, globIndex));
+
+        Path baseDirectory = baseEndIndex < 0 ? Paths.get("") : Paths.get(baseEndIndex == 0 ? separator : pattern.substring(0, baseEndIndex));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(baseEndIndex + 1));
+
+        List<Path> inputFiles = Files.isDirectory(baseDirectory) ? listRegularFiles(baseDirectory, baseDirectory, matcher) : List.of();
+        if (inputFiles.isEmpty()) {
+            throw new NoSuchFileException(pattern, null, "No input file matches the pattern");
+        }
+        return inputFiles;
+    }
+
+    private static List<Path> listRegularFiles(Path directory, Path baseDirectory, PathMatcher matcher) throws IOException {
+        List<Path> regularFiles = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher == null || matcher.matches(baseDirectory.relativize(path)))
+                    .sorted()
+                    .forEach(regularFiles::add);
+        }
+        return regularFiles;
+    }
+}
@@ -0,0 +1,228 @@
+package gscf.task.roomdimension.action.process;
+
+import java.util.function.LongConsumer;
+
+import gscf.task.roomdimension.jfr.DedupeTableResizeEvent;
+import gscf.task.roomdimension.jfr.RoomDimensionEvents;
+
+/**
+ * An open-addressing hash set of room keys, where a room key is the three dimensions of a room packed into a single {@code long}. The keys are
+ * stored in a plain {@code long[]} with linear probing, so no object is allocated per entry.
+ * <p>
+ * Only rooms whose every dimension is at most {@link #MAX_PACKABLE_DIMENSION} can be packed, see {@link #isPackable(int, int, int)}. Instances are
+ * not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class PackedRoomKeySet {
+
+    private static final int BITS_PER_DIMENSION = 21;
+
+    /**
+     * The largest dimension which can be packed into a room key.
+     */
+    public static final int MAX_PACKABLE_DIMENSION = (1 << BITS_PER_DIMENSION) - 1;
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 10;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final double MAX_LOAD_FACTOR = 0.65;
+
+    // Fibonacci hashing multiplier, spreads the structured bits of the packed dimensions over the whole key
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    // Dimensions are positive, so a packed key is never 0 and 0 can mark the empty slots
+    private static final long EMPTY = 0L;
+
+    private long[] keys;
+
+    private int shift;
+
+    private int size;
+
+    private int resizeThreshold;
+
+    /**
+     * Constructs an empty {@link PackedRoomKeySet} with a default initial capacity.
+     */
+    public PackedRoomKeySet() {
+        allocate(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns whether the room with the given dimensions can be packed into a room key.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @return {@code true} if every dimension is between 1 and {@link #MAX_PACKABLE_DIMENSION}, {@code false} otherwise.
+     */
+    public static boolean isPackable(int length, int width, int height) {
+        return length > 0 && width > 0 && height > 0 && (length | width | height) <= MAX_PACKABLE_DIMENSION;
+    }
+
+    /**
+     * Packs the given room dimensions into a room key. The dimensions must be packable, see {@link #isPackable(int, int, int)}.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @return The room key.
+     */
+    public static long pack(int length, int width, int height) {
+        return ((long) length << (2 * BITS_PER_DIMENSION)) | ((long) width << BITS_PER_DIMENSION) | height;
+    }
+
+    /**
+     * Returns the length packed into the given room key.
+     *
+     * @param key
+     *            The room key.
+     * @return The length of the room.
+     */
+    public static int unpackLength(long key) {
+        return (int) (key >>> (2 * BITS_PER_DIMENSION));
+    }
+
+    /**
+     * Returns the width packed into the given room key.
+     *
+     * @param key
+     *            The room key.
+     * @return The width of the room.
+     */
+    public static int unpackWidth(long key) {
+        return (int) (key >>> BITS_PER_DIMENSION) & MAX_PACKABLE_DIMENSION;
+    }
+
+    /**
+     * Returns the height packed into the given room key.
+     *
+     * @param key
+     *            The room key.
+     * @return The height of the room.
+     */
+    public static int unpackHeight(long key) {
+        return (int) key & MAX_PACKABLE_DIMENSION;
+    }
+
+    /**
+     * Adds the given room key to this set if it is not already present.
+     *
+     * @param key
+     *            The room key, created by {@link #pack(int, int, int)}.
+     * @return {@code true} if the key was added, {@code false} if it was already present.
+     * @throws IllegalStateException
+     *             If the key is absent and the set has reached its maximum capacity.
+     */
+    public boolean add(long key) {
+        int index = slotOf(key);
+        if (keys[index] == key) {
+            return false;
+        }
+        // The table grows before the key is written, so a full table keeps an empty slot and every probe terminates
+        if (size >= resizeThreshold) {
+            resize();
+            index = slotOf(key);
+        }
+        keys[index] = key;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns whether this set contains the given room key.
+     *
+     * @param key
+     *            The room key, created by {@link #pack(int, int, int)}.
+     * @return {@code true} if the key is present, {@code false} otherwise.
+     */
+    public boolean contains(long key) {
+        return keys[slotOf(key)] == key;
+    }
+
+    /**
+     * Returns the number of room keys in this set.
+     *
+     * @return The number of room keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes occupied by the key array of this set.
+     *
+     * @return The size of the key array in bytes.
+     */
+    public long memoryFootprintBytes() {
+        return (long) keys.length * Long.BYTES;
+    }
+
+    /**
+     * Performs the given action for each room key of this set, in no particular order.
+     *
+     * @param action
+     *            The action to be performed for each room key.
+     */
+    public void forEach(LongConsumer action) {
+        for (long key : keys) {
+            if (key != EMPTY) {
+                action.accept(key);
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> shift);
+    }
+
+    /**
+     * Returns the slot of the given key, or the empty slot where its probe ends if the key is absent.
+     */
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int index = indexOf(key);
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        shift = Long.numberOfLeadingZeros(capacity - 1L);
+        // The threshold stays below the table length, so a set of the maximum capacity still keeps an empty slot
+        resizeThreshold = capacity == MAX_CAPACITY ? MAX_CAPACITY - 1 : (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    private void resize() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("The room key set has reached its maximum capacity.");
+        }
+        DedupeTableResizeEvent resizeEvent = RoomDimensionEvents.beginDedupeTableResize();
+
+        long[] oldKeys = keys;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int index = indexOf(key);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+
+        RoomDimensionEvents.commitDedupeTableResize(resizeEvent, oldKeys.length, keys.length, size, memoryFootprintBytes());
+    }
+}
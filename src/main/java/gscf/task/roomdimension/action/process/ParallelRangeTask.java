@@ -0,0 +1,124 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+
+/**
+ * A {@link RecursiveTask} which processes the {@code [from, to)} byte range of an input file. Ranges larger than the leaf size are split into two
+ * newline-aligned halves which are processed as separate tasks, smaller ranges are mapped into memory and parsed by a {@link ByteRangeRoomParser}.
+ * The partial {@link RoomAggregator} of the halves are merged in order, so the result is the same as the result of a sequential run.
+ * <p>
+ * I/O errors are reported as {@link UncheckedIOException}.
+ * </p>
+ *
+ * @param <A>
+ *            The type of the {@link RoomAggregator} aggregating the rooms of the ranges.
+ * @author krisztian.hathazi
+ */
+public class ParallelRangeTask<A extends RoomAggregator<A>> extends RecursiveTask<A> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int LINE_TERMINATOR_SCAN_BUFFER_SIZE = 256;
+
+    private final transient FileChannel channel;
+
+    private final transient RoomConverter roomConverter;
+
+    private final transient Supplier<A> roomAggregatorFactory;
+
+    private final long from;
+
+    private final long to;
+
+    private final long leafSizeBytes;
+
+    /**
+     * Constructs a {@link ParallelRangeTask} for the given byte range.
+     *
+     * @param channel
+     *            The {@link FileChannel} of the input file, only positional reads and mappings are performed on it.
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used by the {@link ByteRangeRoomParser} of the leaf tasks.
+     * @param roomAggregatorFactory
+     *            Creates the partial {@link RoomAggregator} of the leaf tasks.
+     * @param from
+     *            The offset of the first byte of the range, must be the start of a line.
+     * @param to
+     *            The offset after the last byte of the range, must be the end of a line or the end of the file.
+     * @param leafSizeBytes
+     *            The maximum size of a range which is not split further, must not exceed {@link Integer#MAX_VALUE}.
+     */
+    public ParallelRangeTask(FileChannel channel, RoomConverter roomConverter, Supplier<A> roomAggregatorFactory, long from, long to,
+            long leafSizeBytes) {
+        this.channel = channel;
+        this.roomConverter = roomConverter;
+        this.roomAggregatorFactory = roomAggregatorFactory;
+        this.from = from;
+        this.to = to;
+        this.leafSizeBytes = leafSizeBytes;
+    }
+
+    @Override
+    protected A compute() {
+        try {
+            if (to - from > leafSizeBytes) {
+                long split = findLineStart(from + (to - from) / 2);
+                if (split < to) {
+                    ParallelRangeTask<A> left = new ParallelRangeTask<>(channel, roomConverter, roomAggregatorFactory, from, split, leafSizeBytes);
+                    ParallelRangeTask<A> right = new ParallelRangeTask<>(channel, roomConverter, roomAggregatorFactory, split, to, leafSizeBytes);
+                    right.fork();
+                    A leftAggregator = left.compute();
+                    return leftAggregator.merge(right.join());
+                }
+            }
+            return computeLeaf();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private A computeLeaf() throws IOException {
+        A roomAggregator = roomAggregatorFactory.get();
+        ByteRangeRoomParser parser = new ByteRangeRoomParser(roomConverter);
+        InputFileProcessor.parseMappedRange(channel, from, to, leafSizeBytes, parser, roomAggregator);
+        return roomAggregator;
+    }
+
+    /**
+     * Finds the start of the first line beginning after the given offset, i.e. the offset after the next line terminator. A {@code \r\n}
+     * terminator is never split.
+     */
+    private long findLineStart(long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(LINE_TERMINATOR_SCAN_BUFFER_SIZE);
+        long position = offset;
+        boolean carriageReturnSeen = false;
+
+        while (position < to) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), to - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (carriageReturnSeen) {
+                    return b == '\n' ? position + i + 1 : position + i;
+                }
+                if (b == '\n') {
+                    return position + i + 1;
+                }
+                carriageReturnSeen = b == '\r';
+            }
+            position += read;
+        }
+        return to;
+    }
+}
@@ -0,0 +1,310 @@
+package gscf.task.roomdimension.action.process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.dto.InvalidLineReason;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.jfr.ResultEvent;
+import gscf.task.roomdimension.jfr.RoomDimensionEvents;
+
+/**
+ * Accumulates the business-related information of the processed rooms, independently of how the rooms were read from the input. Once every room
+ * has been accepted, {@link #toResult()} builds the {@link Result} containing the following:
+ * <ul>
+ * <li>Total wallpaper needed for all rooms</li>
+ * <li>A list of cubic rooms, sorted by wallpaper needed in descending order, optionally limited to the top ones</li>
+ * <li>A list of duplicate room dimensions</li>
+ * <li>The invalid lines skipped by the lenient parsing, if the accumulator has an {@link ErrorReservoir}</li>
+ * </ul>
+ * Rooms are accepted as primitive dimensions, cubic rooms are selected by a {@link CubicRoomSelector} and duplicates are detected by a
+ * {@link DuplicateRoomDetector}, so {@link Room} objects are only created for the rooms which are actually reported.
+ * <p>
+ * Accumulators of consecutive parts of the same input can be combined with {@link #merge(RoomAccumulator)}, which makes it possible to process the
+ * parts in parallel. The accumulator should be closed once it is no longer needed, to release the resources of its detector. Instances are not
+ * thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class RoomAccumulator implements RoomAggregator<RoomAccumulator> {
+
+    private final RoomConverter roomConverter;
+
+    private final DuplicateRoomDetector duplicateRoomDetector;
+
+    private final CubicRoomSelector cubicRoomSelector;
+
+    private final ErrorReservoir errorReservoir;
+
+    private long totalWallpaperNeeded;
+
+    private long roomCount;
+
+    /**
+     * Constructs a {@link RoomAccumulator} with the specified {@link RoomConverter}, detecting the duplicates in memory.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects of the reported rooms.
+     */
+    public RoomAccumulator(RoomConverter roomConverter) {
+        this(roomConverter, new InMemoryDuplicateRoomDetector());
+    }
+
+    /**
+     * Constructs a {@link RoomAccumulator} with the specified {@link RoomConverter} and {@link DuplicateRoomDetector}.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects of the reported rooms.
+     * @param duplicateRoomDetector
+     *            The {@link DuplicateRoomDetector} tracking the accepted rooms, owned by the accumulator from now on.
+     */
+    public RoomAccumulator(RoomConverter roomConverter, DuplicateRoomDetector duplicateRoomDetector) {
+        this(roomConverter, duplicateRoomDetector, CubicRoomSelector.UNBOUNDED);
+    }
+
+    /**
+     * Constructs a {@link RoomAccumulator} with the specified {@link RoomConverter} and {@link DuplicateRoomDetector}, reporting only the cubic
+     * rooms needing the most wallpaper.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects of the reported rooms.
+     * @param duplicateRoomDetector
+     *            The {@link DuplicateRoomDetector} tracking the accepted rooms, owned by the accumulator from now on.
+     * @param cubicRoomLimit
+     *            The maximum number of cubic rooms reported, or {@link CubicRoomSelector#UNBOUNDED} to report every cubic room.
+     */
+    public RoomAccumulator(RoomConverter roomConverter, DuplicateRoomDetector duplicateRoomDetector, int cubicRoomLimit) {
+        this(roomConverter, duplicateRoomDetector, cubicRoomLimit, STRICT_PARSING);
+    }
+
+    /**
+     * Constructs a {@link RoomAccumulator} with the specified {@link RoomConverter} and {@link DuplicateRoomDetector}, reporting only the cubic
+     * rooms needing the most wallpaper, and skipping the invalid lines if an error reservoir size is given.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects of the reported rooms.
+     * @param duplicateRoomDetector
+     *            The {@link DuplicateRoomDetector} tracking the accepted rooms, owned by the accumulator from now on.
+     * @param cubicRoomLimit
+     *            The maximum number of cubic rooms reported, or {@link CubicRoomSelector#UNBOUNDED} to report every cubic room.
+     * @param errorReservoirSize
+     *            The maximum number of skipped lines reported with their line numbers and reasons, or {@link #STRICT_PARSING} to reject the
+     *            invalid lines.
+     */
+    public RoomAccumulator(RoomConverter roomConverter, DuplicateRoomDetector duplicateRoomDetector, int cubicRoomLimit,
+            int errorReservoirSize) {
+        this.roomConverter = roomConverter;
+        this.duplicateRoomDetector = duplicateRoomDetector;
+        this.cubicRoomSelector = new CubicRoomSelector(cubicRoomLimit);
+        this.errorReservoir = errorReservoirSize == STRICT_PARSING ? null : new ErrorReservoir(errorReservoirSize);
+    }
+
+    /**
+     * Adds the room with the given dimensions to the accumulated data.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     */
+    @Override
+    public void accept(int length, int width, int height) {
+        // The total fails instead of overflowing silently, like the wallpaper of a single room
+        totalWallpaperNeeded = Math.addExact(totalWallpaperNeeded, RoomConverter.calculateWallpaperNeeded(length, width, height));
+        roomCount++;
+        if (RoomConverter.isCubic(length, width, height)) {
+            cubicRoomSelector.add(length);
+        }
+        duplicateRoomDetector.add(length, width, height);
+    }
+
+    /**
+     * Records the given invalid line in the error reservoir and skips it, or rejects it if the accumulator has no error reservoir.
+     *
+     * @param reason
+     *            The {@link InvalidLineReason} the line is not a room for.
+     * @param line
+     *            The content of the invalid line.
+     * @return {@code true} if the line is skipped, {@code false} if it is rejected.
+     */
+    @Override
+    public boolean skipInvalidLine(InvalidLineReason reason, String line) {
+        if (errorReservoir == null) {
+            return false;
+        }
+        // Every line is either a room or an invalid line, which gives the number of the line without counting the lines separately
+        errorReservoir.add(roomCount + errorReservoir.count() + 1, reason, line);
+        return true;
+    }
+
+    /**
+     * Merges the rooms accumulated by the given accumulator into this one. Rooms seen by both accumulators are detected as duplicates, so merging
+     * partial accumulators gives the same result as accumulating every room into a single accumulator. The given accumulator must be created with
+     * the same cubic room limit, and must not be used afterwards.
+     *
+     * @param other
+     *            The {@link RoomAccumulator} to be merged into this one.
+     * @return This accumulator.
+     */
+    @Override
+    public RoomAccumulator merge(RoomAccumulator other) {
+        if (errorReservoir != null) {
+            // The lines of the other accumulator follow every line of this one
+            errorReservoir.merge(other.errorReservoir, roomCount + errorReservoir.count());
+        }
+        totalWallpaperNeeded = Math.addExact(totalWallpaperNeeded, other.totalWallpaperNeeded);
+        roomCount += other.roomCount;
+        cubicRoomSelector.merge(other.cubicRoomSelector);
+        duplicateRoomDetector.merge(other.duplicateRoomDetector);
+        return this;
+    }
+
+    /**
+     * Returns the number of rooms accepted so far. The rooms restored from a checkpoint are not included.
+     *
+     * @return The number of rooms.
+     */
+    @Override
+    public long roomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Returns the number of distinct rooms accepted so far. If the rooms have been spilled to disk, every spilled run is read to count them.
+     *
+     * @return The number of distinct rooms.
+     * @throws java.io.UncheckedIOException
+     *             If the {@link DuplicateRoomDetector} fails to read its spilled rooms.
+     */
+    @Override
+    public long distinctRoomCount() {
+        return duplicateRoomDetector.distinctRoomCount();
+    }
+
+    /**
+     * Returns the invalid lines skipped so far.
+     *
+     * @return The {@link InvalidLines}, {@link InvalidLines#NONE} if the accumulator has no error reservoir.
+     */
+    @Override
+    public InvalidLines invalidLines() {
+        return errorReservoir == null ? InvalidLines.NONE : errorReservoir.toInvalidLines();
+    }
+
+    /**
+     * Builds a {@link Result} out of the rooms accumulated so far.
+     *
+     * @return A {@link Result} object.
+     * @throws java.io.UncheckedIOException
+     *             If the {@link DuplicateRoomDetector} fails to read its spilled rooms.
+     */
+    public Result toResult() {
+        ResultEvent resultEvent = RoomDimensionEvents.beginResult();
+
+        // Rooms with the same dimensions share a single instance, even across the lists
+        RoomPool roomPool = new RoomPool(roomConverter);
+
+        List<Room> sortedCubicRooms = new ArrayList<>(cubicRoomSelector.size());
+        cubicRoomSelector.forEachDescending(side -> sortedCubicRooms.add(roomPool.get(side, side, side)));
+
+        List<Room> duplicateRooms = new ArrayList<>();
+        duplicateRoomDetector.forEachDuplicate((length, width, height) -> duplicateRooms.add(roomPool.get(length, width, height)));
+
+        RoomDimensionEvents.commitResult(resultEvent, "exact", roomCount, sortedCubicRooms.size() + duplicateRooms.size());
+        return new Result(totalWallpaperNeeded, sortedCubicRooms, duplicateRooms, invalidLines());
+    }
+
+    /**
+     * Returns the total wallpaper needed by the rooms accumulated so far.
+     *
+     * @return The total wallpaper needed.
+     */
+    long totalWallpaperNeeded() {
+        return totalWallpaperNeeded;
+    }
+
+    /**
+     * Returns the number of kept cubic rooms.
+     *
+     * @return The number of cubic rooms.
+     */
+    int cubicRoomCount() {
+        return cubicRoomSelector.size();
+    }
+
+    /**
+     * Passes the sides of the kept cubic rooms to the given consumer, from the largest to the smallest.
+     *
+     * @param consumer
+     *            The {@link IntConsumer} receiving the sides.
+     */
+    void forEachCubicSide(IntConsumer consumer) {
+        cubicRoomSelector.forEachDescending(consumer);
+    }
+
+    /**
+     * Passes the dimensions of every seen room to the given consumer, duplicate rooms twice, so adding them to an empty accumulator restores the
+     * seen and the duplicate rooms.
+     *
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of the rooms.
+     * @throws IllegalStateException
+     *             If the duplicates are not detected in memory.
+     */
+    void forEachRoomOccurrence(RoomDimensionsConsumer consumer) {
+        if (!(duplicateRoomDetector instanceof InMemoryDuplicateRoomDetector inMemoryDuplicateRoomDetector)) {
+            throw new IllegalStateException("Only the rooms of an in-memory duplicate detection can be listed.");
+        }
+        inMemoryDuplicateRoomDetector.forEachOccurrence(consumer);
+    }
+
+    /**
+     * Adds the given total wallpaper needed of restored rooms, without adding the rooms themselves.
+     *
+     * @param wallpaperNeeded
+     *            The wallpaper needed by the restored rooms.
+     */
+    void restoreTotalWallpaperNeeded(long wallpaperNeeded) {
+        totalWallpaperNeeded += wallpaperNeeded;
+    }
+
+    /**
+     * Offers a restored cubic room to the kept cubic rooms, without adding its wallpaper or detecting it as a duplicate.
+     *
+     * @param side
+     *            The length of the sides of the cubic room.
+     */
+    void restoreCubicSide(int side) {
+        cubicRoomSelector.add(side);
+    }
+
+    /**
+     * Adds a restored room to the duplicate detection, without adding its wallpaper or offering it to the cubic rooms.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     */
+    void restoreRoomOccurrence(int length, int width, int height) {
+        duplicateRoomDetector.add(length, width, height);
+    }
+
+    /**
+     * Releases the resources of the {@link DuplicateRoomDetector}.
+     */
+    @Override
+    public void close() {
+        duplicateRoomDetector.close();
+    }
+}
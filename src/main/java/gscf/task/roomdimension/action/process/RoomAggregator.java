@@ -0,0 +1,63 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.Closeable;
+
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.dto.InvalidLines;
+
+/**
+ * The {@code RoomAggregator} interface defines a contract for aggregating the rooms of an input, independently of how the rooms were read. Every
+ * ingestion engine feeds the parsed dimensions into an aggregator, and the parallel engine combines the aggregators of its ranges with
+ * {@link #merge(RoomAggregator)}. Aggregators created with an error reservoir skip the invalid lines of the input, see
+ * {@link RoomDimensionsConsumer#skipInvalidLine(gscf.task.roomdimension.dto.InvalidLineReason, String)}, the others reject them.
+ *
+ * @param <A>
+ *            The type of the aggregator itself, so aggregators are only merged with aggregators of the same type.
+ *
+ * @author krisztian.hathazi
+ */
+public interface RoomAggregator<A extends RoomAggregator<A>> extends RoomDimensionsConsumer, Closeable {
+
+    /**
+     * The error reservoir size of the aggregators rejecting the invalid lines of the input.
+     */
+    int STRICT_PARSING = -1;
+
+    /**
+     * Merges the rooms aggregated by the given aggregator into this one. The given aggregator should contain the rooms following the rooms of this
+     * one, and must not be used afterwards.
+     *
+     * @param other
+     *            The aggregator to be merged into this one.
+     * @return This aggregator.
+     */
+    A merge(A other);
+
+    /**
+     * Returns the number of rooms aggregated so far, including the rooms of the merged aggregators.
+     *
+     * @return The number of rooms.
+     */
+    long roomCount();
+
+    /**
+     * Returns the number of distinct rooms aggregated so far, exact or estimated depending on the aggregator.
+     *
+     * @return The number of distinct rooms.
+     */
+    long distinctRoomCount();
+
+    /**
+     * Returns the invalid lines skipped so far, including the lines of the merged aggregators, with line numbers counted from the first line
+     * aggregated by this aggregator.
+     *
+     * @return The {@link InvalidLines}, {@link InvalidLines#NONE} for an aggregator rejecting the invalid lines.
+     */
+    InvalidLines invalidLines();
+
+    /**
+     * Releases the resources held by this aggregator.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,324 @@
+package gscf.task.roomdimension.action.process;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.dto.InvalidLineReason;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.jfr.ResultEvent;
+import gscf.task.roomdimension.jfr.RoomDimensionEvents;
+
+/**
+ * Keeps every room of an input in memory as columns, so further questions about the input are answered without reading it again. The rooms are
+ * stored in input order as a struct of arrays: the length, the width and the height as {@code int} columns, the wallpaper needed as a
+ * {@code long} column and the cubic flag as a bitset, which takes about 20 bytes per room instead of a {@link Room} object and its key.
+ * <p>
+ * The columns grow in chunks of {@value #CHUNK_SIZE} rooms, so they are never copied while the store grows. The analyses, like
+ * {@link #totalWallpaperNeeded()}, {@link #cubicRoomCount()} or {@link #toResult(int)}, run as loops over the columns of the chunks, and any other
+ * analysis can replay the rooms with {@link #forEach(RoomDimensionsConsumer)}.
+ * </p>
+ * <p>
+ * Stores of consecutive parts of the same input can be combined with {@link #merge(RoomColumnStore)}, which appends the rooms of the merged store,
+ * so the store is filled by every ingestion engine. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class RoomColumnStore implements RoomAggregator<RoomColumnStore> {
+
+    /**
+     * The number of rooms in a chunk of the columns.
+     */
+    public static final int CHUNK_SIZE = 1 << 14;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final RoomConverter roomConverter;
+
+    private final ErrorReservoir errorReservoir;
+
+    private final List<Chunk> chunks = new ArrayList<>();
+
+    private Chunk lastChunk;
+
+    private long roomCount;
+
+    /**
+     * Constructs an empty {@link RoomColumnStore} rejecting the invalid lines of the input.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects of the reported rooms.
+     */
+    public RoomColumnStore(RoomConverter roomConverter) {
+        this(roomConverter, STRICT_PARSING);
+    }
+
+    /**
+     * Constructs an empty {@link RoomColumnStore}, skipping the invalid lines if an error reservoir size is given.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects of the reported rooms.
+     * @param errorReservoirSize
+     *            The maximum number of skipped lines reported with their line numbers and reasons, or {@link #STRICT_PARSING} to reject the
+     *            invalid lines.
+     */
+    public RoomColumnStore(RoomConverter roomConverter, int errorReservoirSize) {
+        this.roomConverter = roomConverter;
+        this.errorReservoir = errorReservoirSize == STRICT_PARSING ? null : new ErrorReservoir(errorReservoirSize);
+    }
+
+    /**
+     * Appends the room with the given dimensions to the columns.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @throws ArithmeticException
+     *             If the wallpaper needed by the room exceeds {@link Long#MAX_VALUE}.
+     */
+    @Override
+    public void accept(int length, int width, int height) {
+        append(length, width, height, RoomConverter.calculateWallpaperNeeded(length, width, height));
+    }
+
+    /**
+     * Records the given invalid line in the error reservoir and skips it, or rejects it if the store has no error reservoir.
+     *
+     * @param reason
+     *            The {@link InvalidLineReason} the line is not a room for.
+     * @param line
+     *            The content of the invalid line.
+     * @return {@code true} if the line is skipped, {@code false} if it is rejected.
+     */
+    @Override
+    public boolean skipInvalidLine(InvalidLineReason reason, String line) {
+        if (errorReservoir == null) {
+            return false;
+        }
+        // Every line is either a room or an invalid line, which gives the number of the line without counting the lines separately
+        errorReservoir.add(roomCount + errorReservoir.count() + 1, reason, line);
+        return true;
+    }
+
+    /**
+     * Appends the rooms of the given store to this one, after the rooms of this store. The wallpaper of the appended rooms is copied, not
+     * calculated again. The given store must not be used afterwards.
+     *
+     * @param other
+     *            The {@link RoomColumnStore} to be merged into this one.
+     * @return This store.
+     */
+    @Override
+    public RoomColumnStore merge(RoomColumnStore other) {
+        if (errorReservoir != null) {
+            // The lines of the other store follow every line of this one
+            errorReservoir.merge(other.errorReservoir, roomCount + errorReservoir.count());
+        }
+        long remaining = other.roomCount;
+        for (Chunk chunk : other.chunks) {
+            int size = (int) Math.min(remaining, CHUNK_SIZE);
+            for (int i = 0; i < size; i++) {
+                append(chunk.lengths[i], chunk.widths[i], chunk.heights[i], chunk.wallpapers[i]);
+            }
+            remaining -= size;
+        }
+        other.close();
+        return this;
+    }
+
+    /**
+     * Returns the number of rooms in the store.
+     *
+     * @return The number of rooms.
+     */
+    @Override
+    public long roomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Returns the number of distinct rooms in the store. The rooms are not indexed, so every call detects the duplicates again, see
+     * {@link InMemoryDuplicateRoomDetector}.
+     *
+     * @return The number of distinct rooms.
+     */
+    @Override
+    public long distinctRoomCount() {
+        try (InMemoryDuplicateRoomDetector duplicateRoomDetector = detectDuplicates()) {
+            return duplicateRoomDetector.distinctRoomCount();
+        }
+    }
+
+    /**
+     * Returns the invalid lines skipped while the store was filled.
+     *
+     * @return The {@link InvalidLines}, {@link InvalidLines#NONE} if the store has no error reservoir.
+     */
+    @Override
+    public InvalidLines invalidLines() {
+        return errorReservoir == null ? InvalidLines.NONE : errorReservoir.toInvalidLines();
+    }
+
+    /**
+     * Sums the wallpaper column.
+     *
+     * @return The total wallpaper needed by the rooms in the store, in square feet.
+     * @throws ArithmeticException
+     *             If the total wallpaper needed exceeds {@link Long#MAX_VALUE}.
+     */
+    public long totalWallpaperNeeded() {
+        long totalWallpaperNeeded = 0;
+        long remaining = roomCount;
+        for (Chunk chunk : chunks) {
+            int size = (int) Math.min(remaining, CHUNK_SIZE);
+            long[] wallpapers = chunk.wallpapers;
+            for (int i = 0; i < size; i++) {
+                totalWallpaperNeeded = Math.addExact(totalWallpaperNeeded, wallpapers[i]);
+            }
+            remaining -= size;
+        }
+        return totalWallpaperNeeded;
+    }
+
+    /**
+     * Counts the set bits of the cubic bitset.
+     *
+     * @return The number of cubic rooms in the store, duplicates included.
+     */
+    public long cubicRoomCount() {
+        long cubicRoomCount = 0;
+        for (Chunk chunk : chunks) {
+            // The bits after the last room of the last chunk are never set
+            for (long word : chunk.cubicBits) {
+                cubicRoomCount += Long.bitCount(word);
+            }
+        }
+        return cubicRoomCount;
+    }
+
+    /**
+     * Builds a {@link Result} of the rooms in the store, the same as {@link RoomAccumulator#toResult()} of the same rooms. The store is not
+     * changed, so results with other cubic room limits can be built without reading the input again.
+     *
+     * @param cubicRoomLimit
+     *            The maximum number of cubic rooms reported, or {@link CubicRoomSelector#UNBOUNDED} to report every cubic room.
+     * @return A {@link Result} object.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code cubicRoomLimit} is not positive.
+     */
+    public Result toResult(int cubicRoomLimit) {
+        CubicRoomSelector cubicRoomSelector = new CubicRoomSelector(cubicRoomLimit);
+        ResultEvent resultEvent = RoomDimensionEvents.beginResult();
+
+        for (Chunk chunk : chunks) {
+            long[] cubicBits = chunk.cubicBits;
+            // Only the set bits are visited, most rooms are not cubic
+            for (int wordIndex = 0; wordIndex < cubicBits.length; wordIndex++) {
+                long word = cubicBits[wordIndex];
+                while (word != 0) {
+                    cubicRoomSelector.add(chunk.lengths[wordIndex * Long.SIZE + Long.numberOfTrailingZeros(word)]);
+                    word &= word - 1;
+                }
+            }
+        }
+
+        // Rooms with the same dimensions share a single instance, even across the lists
+        RoomPool roomPool = new RoomPool(roomConverter);
+        List<Room> sortedCubicRooms = new ArrayList<>(cubicRoomSelector.size());
+        cubicRoomSelector.forEachDescending(side -> sortedCubicRooms.add(roomPool.get(side, side, side)));
+
+        List<Room> duplicateRooms = new ArrayList<>();
+        try (InMemoryDuplicateRoomDetector duplicateRoomDetector = detectDuplicates()) {
+            duplicateRoomDetector.forEachDuplicate((length, width, height) -> duplicateRooms.add(roomPool.get(length, width, height)));
+        }
+
+        RoomDimensionEvents.commitResult(resultEvent, "exact", roomCount, sortedCubicRooms.size() + duplicateRooms.size());
+        return new Result(totalWallpaperNeeded(), sortedCubicRooms, duplicateRooms, invalidLines());
+    }
+
+    /**
+     * Passes the dimensions of every room in the store to the given consumer, in input order.
+     *
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of the rooms.
+     */
+    public void forEach(RoomDimensionsConsumer consumer) {
+        long remaining = roomCount;
+        for (Chunk chunk : chunks) {
+            int size = (int) Math.min(remaining, CHUNK_SIZE);
+            int[] lengths = chunk.lengths;
+            int[] widths = chunk.widths;
+            int[] heights = chunk.heights;
+            for (int i = 0; i < size; i++) {
+                consumer.accept(lengths[i], widths[i], heights[i]);
+            }
+            remaining -= size;
+        }
+    }
+
+    /**
+     * Returns the heap occupied by the columns, including the unused part of the last chunk.
+     *
+     * @return The number of bytes of the column arrays.
+     */
+    public long memoryFootprintBytes() {
+        return (long) chunks.size() * Chunk.MEMORY_FOOTPRINT_BYTES;
+    }
+
+    /**
+     * Releases the columns. The store is empty afterwards.
+     */
+    @Override
+    public void close() {
+        chunks.clear();
+        lastChunk = null;
+        roomCount = 0;
+    }
+
+    private void append(int length, int width, int height, long wallpaperNeeded) {
+        int index = (int) (roomCount & CHUNK_MASK);
+        if (index == 0) {
+            lastChunk = new Chunk();
+            chunks.add(lastChunk);
+        }
+        lastChunk.lengths[index] = length;
+        lastChunk.widths[index] = width;
+        lastChunk.heights[index] = height;
+        lastChunk.wallpapers[index] = wallpaperNeeded;
+        if (RoomConverter.isCubic(length, width, height)) {
+            lastChunk.cubicBits[index / Long.SIZE] |= 1L << index;
+        }
+        roomCount++;
+    }
+
+    private InMemoryDuplicateRoomDetector detectDuplicates() {
+        InMemoryDuplicateRoomDetector duplicateRoomDetector = new InMemoryDuplicateRoomDetector();
+        forEach(duplicateRoomDetector::add);
+        return duplicateRoomDetector;
+    }
+
+    /**
+     * The columns of {@value RoomColumnStore#CHUNK_SIZE} consecutive rooms.
+     */
+    private static final class Chunk {
+
+        private static final long MEMORY_FOOTPRINT_BYTES = (long) CHUNK_SIZE * (3 * Integer.BYTES + Long.BYTES) + CHUNK_SIZE / Byte.SIZE;
+
+        private final int[] lengths = new int[CHUNK_SIZE];
+
+        private final int[] widths = new int[CHUNK_SIZE];
+
+        private final int[] heights = new int[CHUNK_SIZE];
+
+        private final long[] wallpapers = new long[CHUNK_SIZE];
+
+        private final long[] cubicBits = new long[CHUNK_SIZE / Long.SIZE];
+    }
+}
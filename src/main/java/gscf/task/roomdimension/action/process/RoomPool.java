@@ -0,0 +1,65 @@
+package gscf.task.roomdimension.action.process;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.Room;
+
+/**
+ * Hands out a single canonical {@link Room} instance per dimensions, so the rooms reported by a result share their instances, e.g. a cubic room
+ * occurring several times is represented by the same object in every list. Rooms are keyed by their packed dimensions, see
+ * {@link PackedRoomKeySet}, and the room returned last is checked first, which makes runs of equal rooms cheap.
+ * <p>
+ * A pool is meant to live only while a single result is built, so it never retains rooms which are not reported. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+class RoomPool {
+
+    private final RoomConverter roomConverter;
+
+    private final Map<Long, Room> packedRooms = new HashMap<>();
+
+    // Rooms too large to be packed are rare, so they are keyed by themselves
+    private final Map<Room, Room> oversizedRooms = new HashMap<>();
+
+    private Room lastRoom;
+
+    /**
+     * Constructs an empty {@link RoomPool}.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects.
+     */
+    RoomPool(RoomConverter roomConverter) {
+        this.roomConverter = roomConverter;
+    }
+
+    /**
+     * Returns the canonical {@link Room} with the given dimensions, creating it on first request.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @return The canonical {@link Room} instance.
+     */
+    Room get(int length, int width, int height) {
+        if (lastRoom != null && lastRoom.hasDimensions(length, width, height)) {
+            return lastRoom;
+        }
+
+        if (PackedRoomKeySet.isPackable(length, width, height)) {
+            lastRoom = packedRooms.computeIfAbsent(
+                    PackedRoomKeySet.pack(length, width, height),
+                    key -> roomConverter.convert(length, width, height));
+        } else {
+            lastRoom = oversizedRooms.computeIfAbsent(roomConverter.convert(length, width, height), room -> room);
+        }
+        return lastRoom;
+    }
+}
@@ -0,0 +1,238 @@
+package gscf.task.roomdimension.action.process;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.InvalidLineReason;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchOptions;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.jfr.ResultEvent;
+import gscf.task.roomdimension.jfr.RoomDimensionEvents;
+
+/**
+ * Accumulates the approximate analytics of the processed rooms in constant memory, independently of how the rooms were read from the input. Once
+ * every room has been accepted, {@link #toResult()} builds the {@link SketchResult} containing the following:
+ * <ul>
+ * <li>Total wallpaper needed for all rooms, which is exact</li>
+ * <li>The estimated number of distinct rooms, tracked by a {@link HyperLogLog}</li>
+ * <li>The most repeated rooms, counted by a {@link CountMinSketch} and kept by a {@link HeavyHitterHeap}</li>
+ * <li>The invalid lines skipped by the lenient parsing, if the accumulator has an {@link ErrorReservoir}</li>
+ * </ul>
+ * Every room is hashed only once, and the same hash feeds both sketches. Accumulators created with the same {@link SketchOptions} can be merged,
+ * so the input can be processed in parallel. Instances are not thread-safe.
+ *
+ * @author krisztian.hathazi
+ */
+public class SketchAccumulator implements RoomAggregator<SketchAccumulator> {
+
+    private static final long MIX_MULTIPLIER_1 = 0xFF51AFD7ED558CCDL;
+
+    private static final long MIX_MULTIPLIER_2 = 0xC4CEB9FE1A85EC53L;
+
+    private final RoomConverter roomConverter;
+
+    private final int mostRepeatedRoomCount;
+
+    private final HyperLogLog distinctRooms;
+
+    private final CountMinSketch roomFrequencies;
+
+    private HeavyHitterHeap mostRepeatedRooms;
+
+    private final ErrorReservoir errorReservoir;
+
+    private long totalWallpaperNeeded;
+
+    private long roomCount;
+
+    /**
+     * Constructs a {@link SketchAccumulator} with sketches sized for the error bounds of the given {@link SketchOptions}.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects of the reported rooms.
+     * @param sketchOptions
+     *            The {@link SketchOptions} holding the error bounds of the sketches.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the sketch options contain an invalid error bound or room count.
+     */
+    public SketchAccumulator(RoomConverter roomConverter, SketchOptions sketchOptions) {
+        this(roomConverter, sketchOptions, STRICT_PARSING);
+    }
+
+    /**
+     * Constructs a {@link SketchAccumulator} with sketches sized for the error bounds of the given {@link SketchOptions}, skipping the invalid
+     * lines if an error reservoir size is given.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to create the {@link Room} objects of the reported rooms.
+     * @param sketchOptions
+     *            The {@link SketchOptions} holding the error bounds of the sketches.
+     * @param errorReservoirSize
+     *            The maximum number of skipped lines reported with their line numbers and reasons, or {@link #STRICT_PARSING} to reject the
+     *            invalid lines.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the sketch options contain an invalid error bound or room count, or the error reservoir size is invalid.
+     */
+    public SketchAccumulator(RoomConverter roomConverter, SketchOptions sketchOptions, int errorReservoirSize) {
+        this.roomConverter = roomConverter;
+        this.mostRepeatedRoomCount = sketchOptions.mostRepeatedRoomCount();
+        this.distinctRooms = new HyperLogLog(sketchOptions.distinctRoomsError());
+        this.roomFrequencies = new CountMinSketch(sketchOptions.frequencyError(), sketchOptions.frequencyConfidence());
+        this.mostRepeatedRooms = new HeavyHitterHeap(mostRepeatedRoomCount);
+        this.errorReservoir = errorReservoirSize == STRICT_PARSING ? null : new ErrorReservoir(errorReservoirSize);
+    }
+
+    /**
+     * Adds the room with the given dimensions to the sketches.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     */
+    @Override
+    public void accept(int length, int width, int height) {
+        // The total fails instead of overflowing silently, like the wallpaper of a single room
+        totalWallpaperNeeded = Math.addExact(totalWallpaperNeeded, RoomConverter.calculateWallpaperNeeded(length, width, height));
+        roomCount++;
+
+        long hash = hash(length, width, height);
+        distinctRooms.add(hash);
+        mostRepeatedRooms.offer(length, width, height, roomFrequencies.addAndEstimate(hash));
+    }
+
+    /**
+     * Records the given invalid line in the error reservoir and skips it, or rejects it if the accumulator has no error reservoir.
+     *
+     * @param reason
+     *            The {@link InvalidLineReason} the line is not a room for.
+     * @param line
+     *            The content of the invalid line.
+     * @return {@code true} if the line is skipped, {@code false} if it is rejected.
+     */
+    @Override
+    public boolean skipInvalidLine(InvalidLineReason reason, String line) {
+        if (errorReservoir == null) {
+            return false;
+        }
+        // Every line is either a room or an invalid line, which gives the number of the line without counting the lines separately
+        errorReservoir.add(roomCount + errorReservoir.count() + 1, reason, line);
+        return true;
+    }
+
+    /**
+     * Merges the sketches of the given accumulator into this one. The candidates for the most repeated rooms of both accumulators are re-counted
+     * against the merged {@link CountMinSketch}.
+     *
+     * @param other
+     *            The {@link SketchAccumulator} to be merged into this one, created with the same {@link SketchOptions}.
+     * @return This accumulator.
+     */
+    @Override
+    public SketchAccumulator merge(SketchAccumulator other) {
+        if (errorReservoir != null) {
+            // The lines of the other accumulator follow every line of this one
+            errorReservoir.merge(other.errorReservoir, roomCount + errorReservoir.count());
+        }
+        totalWallpaperNeeded = Math.addExact(totalWallpaperNeeded, other.totalWallpaperNeeded);
+        roomCount += other.roomCount;
+        distinctRooms.merge(other.distinctRooms);
+        roomFrequencies.merge(other.roomFrequencies);
+
+        HeavyHitterHeap mergedMostRepeatedRooms = new HeavyHitterHeap(mostRepeatedRoomCount);
+        HeavyHitterHeap.HeavyHitterConsumer recount = (length, width, height, count) -> mergedMostRepeatedRooms
+                .offer(length, width, height, roomFrequencies.estimate(hash(length, width, height)));
+        mostRepeatedRooms.forEachDescending(recount);
+        other.mostRepeatedRooms.forEachDescending(recount);
+        mostRepeatedRooms = mergedMostRepeatedRooms;
+        return this;
+    }
+
+    /**
+     * Returns the number of rooms accepted so far.
+     *
+     * @return The number of rooms.
+     */
+    @Override
+    public long roomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Returns the estimated number of distinct rooms accepted so far.
+     *
+     * @return The estimated number of distinct rooms.
+     */
+    @Override
+    public long distinctRoomCount() {
+        return distinctRooms.estimate();
+    }
+
+    /**
+     * Returns the invalid lines skipped so far.
+     *
+     * @return The {@link InvalidLines}, {@link InvalidLines#NONE} if the accumulator has no error reservoir.
+     */
+    @Override
+    public InvalidLines invalidLines() {
+        return errorReservoir == null ? InvalidLines.NONE : errorReservoir.toInvalidLines();
+    }
+
+    /**
+     * Builds a {@link SketchResult} out of the rooms accumulated so far. Only rooms estimated to occur more than once are reported as repeated.
+     *
+     * @return A {@link SketchResult} object.
+     */
+    public SketchResult toResult() {
+        ResultEvent resultEvent = RoomDimensionEvents.beginResult();
+
+        List<RoomFrequency> repeatedRooms = new ArrayList<>();
+        mostRepeatedRooms.forEachDescending((length, width, height, count) -> {
+            if (count > 1) {
+                repeatedRooms.add(new RoomFrequency(roomConverter.convert(length, width, height), count));
+            }
+        });
+
+        RoomDimensionEvents.commitResult(resultEvent, "approximate", roomCount, repeatedRooms.size());
+        return new SketchResult(
+                totalWallpaperNeeded,
+                roomCount,
+                distinctRooms.estimate(),
+                distinctRooms.relativeStandardError(),
+                repeatedRooms,
+                roomFrequencies.errorBound(),
+                invalidLines());
+    }
+
+    /**
+     * Sketches hold no resources besides heap memory, so there is nothing to release.
+     */
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    /**
+     * Hashes the dimensions with two rounds of the MurmurHash3 finalizer, so every bit of the hash depends on every dimension.
+     */
+    private static long hash(int length, int width, int height) {
+        long hash = mix(((long) length << 32) | (width & 0xFFFFFFFFL));
+        return mix(hash ^ (height & 0xFFFFFFFFL));
+    }
+
+    private static long mix(long value) {
+        long mixed = value;
+        mixed ^= mixed >>> 33;
+        mixed *= MIX_MULTIPLIER_1;
+        mixed ^= mixed >>> 33;
+        mixed *= MIX_MULTIPLIER_2;
+        mixed ^= mixed >>> 33;
+        return mixed;
+    }
+}
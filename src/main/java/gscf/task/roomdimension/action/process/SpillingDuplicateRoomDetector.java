@@ -0,0 +1,386 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+
+/**
+ * A {@link DuplicateRoomDetector} which works within a fixed memory budget, regardless of the number of distinct rooms.
+ * <p>
+ * Rooms are tracked by an {@link InMemoryDuplicateRoomDetector} until its estimated footprint passes the budget. Then every tracked room is
+ * hash-partitioned into temporary run files, the in-memory detector is cleared and the processing continues. As identical rooms always fall into
+ * the same partition, the duplicates are resolved partition by partition: the runs of a partition are loaded into a fresh in-memory detector, and a
+ * partition which does not fit into the budget is split into sub-partitions with a different hash first, streaming all of its runs into a single
+ * run per sub-partition. The reported duplicates are the same as the ones of an {@link InMemoryDuplicateRoomDetector}.
+ * </p>
+ * <p>
+ * The budget applies to the tracked rooms; the in-memory detector may briefly exceed it by a single table growth before it is spilled. Instances are
+ * not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class SpillingDuplicateRoomDetector implements DuplicateRoomDetector {
+
+    private static final int PARTITION_COUNT = 16;
+
+    // Partitions are split recursively at most this many times, deeper levels would not separate more rooms anyway
+    private static final int MAX_PARTITION_LEVEL = 6;
+
+    private static final int RUN_BUFFER_SIZE_BYTES = 8 * 1024;
+
+    /**
+     * The smallest accepted memory budget, below this an empty in-memory detector would already exceed the budget.
+     */
+    public static final long MIN_MEMORY_BUDGET_BYTES = 64L * 1024;
+
+    private final long memoryBudgetBytes;
+
+    private final Path spillDirectory;
+
+    private final List<List<Path>> partitionRuns = new ArrayList<>();
+
+    private InMemoryDuplicateRoomDetector inMemoryDetector = new InMemoryDuplicateRoomDetector();
+
+    // The run directories of the merged detectors are owned by this detector as well
+    private final List<Path> runDirectories = new ArrayList<>();
+
+    private Path runDirectory;
+
+    private int runCounter;
+
+    // The number of distinct rooms counted while the duplicates were last resolved, -1 once rooms have been added since
+    private long resolvedDistinctRoomCount = -1;
+
+    /**
+     * Constructs a {@link SpillingDuplicateRoomDetector} with the specified memory budget.
+     *
+     * @param memoryBudgetBytes
+     *            The number of bytes the tracked rooms may occupy on the heap before they are spilled to disk, at least
+     *            {@link #MIN_MEMORY_BUDGET_BYTES}.
+     * @param spillDirectory
+     *            The directory in which the temporary run files are created, or {@code null} to use the default temporary-file directory.
+     */
+    public SpillingDuplicateRoomDetector(long memoryBudgetBytes, Path spillDirectory) {
+        this.memoryBudgetBytes = Math.max(memoryBudgetBytes, MIN_MEMORY_BUDGET_BYTES);
+        this.spillDirectory = spillDirectory;
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            partitionRuns.add(new ArrayList<>());
+        }
+    }
+
+    @Override
+    public void add(int length, int width, int height) {
+        resolvedDistinctRoomCount = -1;
+        inMemoryDetector.add(length, width, height);
+        if (inMemoryDetector.estimatedMemoryBytes() > memoryBudgetBytes) {
+            spill();
+        }
+    }
+
+    @Override
+    public void merge(DuplicateRoomDetector detector) {
+        SpillingDuplicateRoomDetector other = (SpillingDuplicateRoomDetector) detector;
+        resolvedDistinctRoomCount = -1;
+        // Duplicates are passed twice, so they stay duplicates
+        other.inMemoryDetector.forEachOccurrence(this::add);
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            partitionRuns.get(i).addAll(other.partitionRuns.get(i));
+            other.partitionRuns.get(i).clear();
+        }
+        runDirectories.addAll(other.runDirectories);
+        other.runDirectories.clear();
+        other.runDirectory = null;
+        other.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If rooms have been spilled to disk, they are counted while {@link #forEachDuplicate(RoomDimensionsConsumer)} resolves the partitions. If no
+     * room has been resolved that way since the last one was added, the partitions are resolved to count them, which reads every run file.
+     * </p>
+     */
+    @Override
+    public long distinctRoomCount() {
+        if (!hasSpilled()) {
+            return inMemoryDetector.distinctRoomCount();
+        }
+        if (resolvedDistinctRoomCount >= 0) {
+            return resolvedDistinctRoomCount;
+        }
+        spill();
+        long distinctRoomCount = 0;
+        for (List<Path> runs : partitionRuns) {
+            distinctRoomCount += resolve(runs, 0, (length, width, height) -> {
+                // Only the number of distinct rooms is needed
+            });
+        }
+        return distinctRoomCount;
+    }
+
+    @Override
+    public void forEachDuplicate(RoomDimensionsConsumer consumer) {
+        if (!hasSpilled()) {
+            inMemoryDetector.forEachDuplicate(consumer);
+            return;
+        }
+        // Spilling the remaining rooms as well lets every partition be resolved the same way
+        spill();
+        long distinctRoomCount = 0;
+        for (List<Path> runs : partitionRuns) {
+            distinctRoomCount += resolve(runs, 0, consumer);
+        }
+        resolvedDistinctRoomCount = distinctRoomCount;
+    }
+
+    /**
+     * Deletes every temporary run file.
+     */
+    @Override
+    public void close() {
+        try {
+            for (List<Path> runs : partitionRuns) {
+                for (Path run : runs) {
+                    Files.deleteIfExists(run);
+                }
+                runs.clear();
+            }
+            for (Path directory : runDirectories) {
+                Files.deleteIfExists(directory);
+            }
+            runDirectories.clear();
+            runDirectory = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        inMemoryDetector = new InMemoryDuplicateRoomDetector();
+        resolvedDistinctRoomCount = -1;
+    }
+
+    private boolean hasSpilled() {
+        return partitionRuns.stream().anyMatch(runs -> !runs.isEmpty());
+    }
+
+    private void spill() {
+        try {
+            List<Path> runs = writeRuns(inMemoryDetector, 0);
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                if (runs.get(i) != null) {
+                    partitionRuns.get(i).add(runs.get(i));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        inMemoryDetector = new InMemoryDuplicateRoomDetector();
+    }
+
+    /**
+     * Loads the runs of a partition into a fresh in-memory detector and passes its duplicates to the consumer. A partition exceeding the budget is
+     * split into sub-partitions which are resolved one by one.
+     */
+    private long resolve(List<Path> runs, int level, RoomDimensionsConsumer consumer) {
+        if (runs.isEmpty()) {
+            return 0;
+        }
+        try {
+            InMemoryDuplicateRoomDetector partitionDetector = new InMemoryDuplicateRoomDetector();
+            for (Path run : runs) {
+                if (!readRun(run, partitionDetector, level)) {
+                    return resolveSubPartitions(runs, level + 1, consumer);
+                }
+            }
+            partitionDetector.forEachDuplicate(consumer);
+            return partitionDetector.distinctRoomCount();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long resolveSubPartitions(List<Path> runs, int level, RoomDimensionsConsumer consumer) throws IOException {
+        // The runs are split as a single stream, so an oversized partition yields one run per sub-partition whatever its number of runs
+        RunWriter runWriter = new RunWriter(level);
+        try {
+            for (Path run : runs) {
+                forEachRecord(run, runWriter::write);
+            }
+        } finally {
+            runWriter.close();
+        }
+
+        long distinctRoomCount = 0;
+        try {
+            for (Path subRun : runWriter.runs()) {
+                if (subRun != null) {
+                    distinctRoomCount += resolve(List.of(subRun), level, consumer);
+                }
+            }
+        } finally {
+            for (Path subRun : runWriter.runs()) {
+                if (subRun != null) {
+                    Files.deleteIfExists(subRun);
+                }
+            }
+        }
+        return distinctRoomCount;
+    }
+
+    /**
+     * Reads every room of the run into the detector. Returns {@code false} as soon as the detector exceeds the budget, unless the deepest level
+     * has been reached.
+     */
+    private boolean readRun(Path run, InMemoryDuplicateRoomDetector detector, int level) throws IOException {
+        try (DataInputStream input = openRun(run)) {
+            while (true) {
+                int length;
+                try {
+                    length = input.readInt();
+                } catch (EOFException e) {
+                    return true;
+                }
+                detector.add(length, input.readInt(), input.readInt());
+                if (level < MAX_PARTITION_LEVEL && detector.estimatedMemoryBytes() > memoryBudgetBytes) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes every room record of the run to the consumer, in the order they were written.
+     */
+    private static void forEachRecord(Path run, RoomRecordConsumer consumer) throws IOException {
+        try (DataInputStream input = openRun(run)) {
+            while (true) {
+                int length;
+                try {
+                    length = input.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                consumer.accept(length, input.readInt(), input.readInt());
+            }
+        }
+    }
+
+    private static DataInputStream openRun(Path run) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(run), RUN_BUFFER_SIZE_BYTES));
+    }
+
+    /**
+     * Writes every room tracked by the detector into one run file per partition. Duplicate rooms are written twice, so they are detected again when
+     * the run is read back. Returns the run files indexed by partition, {@code null} for empty partitions.
+     */
+    private List<Path> writeRuns(InMemoryDuplicateRoomDetector detector, int level) throws IOException {
+        RunWriter runWriter = new RunWriter(level);
+        try {
+            IOException[] failure = new IOException[1];
+            detector.forEachOccurrence((length, width, height) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    runWriter.write(length, width, height);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        } finally {
+            runWriter.close();
+        }
+        return runWriter.runs();
+    }
+
+    private Path createRunFile() throws IOException {
+        if (runDirectory == null) {
+            runDirectory = spillDirectory == null
+                    ? Files.createTempDirectory("room-duplicates-")
+                    : Files.createTempDirectory(spillDirectory, "room-duplicates-");
+            runDirectories.add(runDirectory);
+        }
+        return runDirectory.resolve("run-" + runCounter++ + ".bin");
+    }
+
+    private static int partitionOf(int length, int width, int height, int level) {
+        // MurmurHash3 finalizer over the dimensions, salted by the level so sub-partitions use independent bits
+        long hash = length * 0x9E3779B97F4A7C15L ^ width * 0xC2B2AE3D27D4EB4FL ^ height * 0x165667B19E3779F9L ^ (level + 1) * 0xD6E8FEB86659FD93L;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return (int) ((hash >>> 1) % PARTITION_COUNT);
+    }
+
+    /**
+     * Receives the room records of a run file.
+     */
+    @FunctionalInterface
+    private interface RoomRecordConsumer {
+
+        void accept(int length, int width, int height) throws IOException;
+    }
+
+    /**
+     * Writes room records into one run file per partition of a level, creating the run files of the partitions on their first record.
+     */
+    private final class RunWriter {
+
+        private final int level;
+
+        private final List<Path> runs = new ArrayList<>();
+
+        private final List<DataOutputStream> outputs = new ArrayList<>();
+
+        private RunWriter(int level) {
+            this.level = level;
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                runs.add(null);
+                outputs.add(null);
+            }
+        }
+
+        private void write(int length, int width, int height) throws IOException {
+            int partition = partitionOf(length, width, height, level);
+            DataOutputStream output = outputs.get(partition);
+            if (output == null) {
+                Path run = createRunFile();
+                runs.set(partition, run);
+                output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), RUN_BUFFER_SIZE_BYTES));
+                outputs.set(partition, output);
+            }
+            output.writeInt(length);
+            output.writeInt(width);
+            output.writeInt(height);
+        }
+
+        /**
+         * Returns the run files indexed by partition, {@code null} for empty partitions.
+         */
+        private List<Path> runs() {
+            return runs;
+        }
+
+        private void close() throws IOException {
+            for (DataOutputStream output : outputs) {
+                if (output != null) {
+                    output.close();
+                }
+            }
+        }
+    }
+}
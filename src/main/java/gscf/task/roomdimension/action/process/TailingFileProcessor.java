@@ -0,0 +1,329 @@
+package gscf.task.roomdimension.action.process;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * Processes an append-only input file incrementally, e.g. a log file new rooms are appended to all day. The processor remembers the offset of the
+ * first unprocessed byte, and {@link #update()} parses only the complete lines appended since the previous update into a {@link RoomAggregator}
+ * kept between the updates, so the cost of an update depends on the number of new lines instead of the size of the file. A trailing line without
+ * a line terminator is considered to be still written, it is processed once its terminator is appended.
+ * <p>
+ * {@link #result()} builds the refreshed result of every room processed so far, and {@link #watch(Duration, Consumer)} keeps updating the result
+ * whenever the file changes. If the file is truncated or replaced by another file, e.g. by a log rotation, the processor starts over from the
+ * start of the new file.
+ * </p>
+ * <p>
+ * The cost of building the result depends on the number of reported rooms, so limiting the cubic rooms with
+ * {@link ProcessingOptions#cubicRoomLimit()} keeps the refreshes cheap for files with many cubic rooms. With spilling duplicate detection, every
+ * refresh reads back the spilled rooms, so it is only recommended if the tracked rooms do not fit into the heap. Instances are not thread-safe.
+ * </p>
+ *
+ * @param <R>
+ *            The type of the result, {@link Result} or {@link SketchResult} depending on the analysis mode.
+ *
+ * @author krisztian.hathazi
+ */
+public final class TailingFileProcessor<R> implements Closeable {
+
+    private static final int INITIAL_BUFFER_SIZE_BYTES = 64 * 1024;
+
+    private final Path inputFilePath;
+
+    private final long maxInputSizeBytes;
+
+    private final Supplier<Aggregation<R>> aggregationFactory;
+
+    private final Path spillRoot;
+
+    private final ByteRangeRoomParser parser;
+
+    private Aggregation<R> aggregation;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE_BYTES);
+
+    private Object fileKey;
+
+    private long processedBytes;
+
+    private TailingFileProcessor(RoomConverter roomConverter, Path inputFilePath, long maxInputSizeBytes, Supplier<Aggregation<R>> aggregationFactory,
+            Path spillRoot) {
+        this.inputFilePath = inputFilePath;
+        this.maxInputSizeBytes = maxInputSizeBytes;
+        this.aggregationFactory = aggregationFactory;
+        this.spillRoot = spillRoot;
+        this.parser = new ByteRangeRoomParser(roomConverter);
+        this.aggregation = aggregationFactory.get();
+    }
+
+    /**
+     * Creates a processor of the given input file, extracting the total wallpaper needed, the cubic rooms and the duplicate rooms. No byte of the
+     * input file is processed until the first {@link #update()}.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to convert room dimensions from the input file into
+     *            {@link gscf.task.roomdimension.dto.Room} objects.
+     * @param inputFilePath
+     *            The path to the input file containing room dimension data.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling the analysis. The ingestion engine is ignored, the appended bytes are always parsed
+     *            straight from the file.
+     * @return A new {@code TailingFileProcessor}, to be closed by the caller.
+     * @throws IOException
+     *             If the directory of the spilled rooms of the duplicate detection cannot be created.
+     * @throws InvalidMethodParameterException
+     *             If any of the parameters is null, or the {@code inputFilePath} is blank.
+     */
+    public static TailingFileProcessor<Result> exact(RoomConverter roomConverter, String inputFilePath, ProcessingOptions processingOptions)
+            throws IOException {
+        // Public method, so parameter validation is a must
+        validate(roomConverter, inputFilePath, processingOptions);
+
+        Path spillRoot = InputFileProcessor.createSpillRoot(processingOptions);
+        Supplier<RoomAccumulator> roomAccumulatorFactory = () -> new RoomAccumulator(
+                roomConverter,
+                InputFileProcessor.createDuplicateRoomDetector(processingOptions, spillRoot),
+                processingOptions.cubicRoomLimit(),
+                InputFileProcessor.errorReservoirSize(processingOptions));
+
+        return new TailingFileProcessor<>(
+                roomConverter,
+                Paths.get(inputFilePath),
+                processingOptions.maxInputSizeBytes(),
+                aggregations(roomAccumulatorFactory, RoomAccumulator::toResult),
+                spillRoot);
+    }
+
+    /**
+     * Creates a processor of the given input file in the {@link gscf.task.roomdimension.dto.AnalysisMode#APPROXIMATE} mode, estimating the number
+     * of distinct rooms and the most repeated rooms with sketches of constant size. No byte of the input file is processed until the first
+     * {@link #update()}.
+     *
+     * @param roomConverter
+     *            The {@link RoomConverter} instance used to convert room dimensions from the input file into
+     *            {@link gscf.task.roomdimension.dto.Room} objects.
+     * @param inputFilePath
+     *            The path to the input file containing room dimension data.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} controlling the analysis and how the sketches are sized. The ingestion engine is ignored, the
+     *            appended bytes are always parsed straight from the file.
+     * @return A new {@code TailingFileProcessor}, to be closed by the caller.
+     * @throws InvalidMethodParameterException
+     *             If any of the parameters is null, the {@code inputFilePath} is blank, or the sketch options are invalid.
+     */
+    public static TailingFileProcessor<SketchResult> approximate(RoomConverter roomConverter, String inputFilePath,
+            ProcessingOptions processingOptions) {
+        // Public method, so parameter validation is a must
+        validate(roomConverter, inputFilePath, processingOptions);
+        ParamValidatorUtil.requireNonNull(processingOptions.sketchOptions(), "processingOptions.sketchOptions");
+
+        Supplier<SketchAccumulator> sketchAccumulatorFactory = () -> new SketchAccumulator(
+                roomConverter,
+                processingOptions.sketchOptions(),
+                InputFileProcessor.errorReservoirSize(processingOptions));
+
+        return new TailingFileProcessor<>(
+                roomConverter,
+                Paths.get(inputFilePath),
+                processingOptions.maxInputSizeBytes(),
+                aggregations(sketchAccumulatorFactory, SketchAccumulator::toResult),
+                null);
+    }
+
+    private static void validate(RoomConverter roomConverter, String inputFilePath, ProcessingOptions processingOptions) {
+        ParamValidatorUtil.requireNonNull(roomConverter, "roomConverter");
+        ParamValidatorUtil.requireNonBlank(inputFilePath, "inputFilePath");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+    }
+
+    private static <A extends RoomAggregator<A>, R> Supplier<Aggregation<R>> aggregations(Supplier<A> roomAggregatorFactory,
+            Function<A, R> resultBuilder) {
+        return () -> {
+            A roomAggregator = roomAggregatorFactory.get();
+            return new Aggregation<>(roomAggregator, () -> resultBuilder.apply(roomAggregator));
+        };
+    }
+
+    /**
+     * Processes the complete lines appended to the input file since the previous update. If the file has been truncated or replaced since the
+     * previous update, every room processed so far is discarded and the new file is processed from its start.
+     *
+     * @return {@code true} if any new line has been processed, or the processed rooms have been discarded.
+     * @throws IOException
+     *             If an error occurs while reading the input file.
+     * @throws SizeLimitExceededIOException
+     *             If the input file has grown larger than {@link ProcessingOptions#maxInputSizeBytes()}.
+     */
+    public boolean update() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(inputFilePath, BasicFileAttributes.class);
+        long size = attributes.size();
+
+        // The file key identifies the file on platforms supporting it, so a replaced file is detected even if it is larger than the previous one
+        Object currentFileKey = attributes.fileKey();
+        boolean restarted = size < processedBytes || fileKey != null && !fileKey.equals(currentFileKey);
+        if (restarted) {
+            restart();
+        }
+        fileKey = currentFileKey;
+
+        if (size == processedBytes) {
+            return restarted;
+        }
+        if (size > maxInputSizeBytes) {
+            throw new SizeLimitExceededIOException(
+                    MessageFormat.format("The file [{0}] of [{1}] bytes exceeds the maximum size of [{2}] bytes.", inputFilePath, size, maxInputSizeBytes));
+        }
+
+        long previouslyProcessedBytes = processedBytes;
+        try (FileChannel channel = FileChannel.open(inputFilePath, StandardOpenOption.READ)) {
+            processAppendedBytes(channel, size);
+        }
+        return restarted || processedBytes > previouslyProcessedBytes;
+    }
+
+    private void restart() {
+        aggregation.roomAggregator().close();
+        aggregation = aggregationFactory.get();
+        processedBytes = 0;
+    }
+
+    private void processAppendedBytes(FileChannel channel, long size) throws IOException {
+        while (processedBytes < size) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), size - processedBytes));
+            int read = channel.read(buffer, processedBytes);
+            if (read <= 0) {
+                // The file has been truncated while it was read, the next update starts over
+                return;
+            }
+
+            int consumed = parser.parse(buffer, 0, read, false, aggregation.roomAggregator());
+            if (consumed == 0) {
+                if (read < buffer.capacity()) {
+                    // Only the line still being written is left
+                    return;
+                }
+                // Not even a single line fits into the buffer, so retry with a larger one
+                buffer = ByteBuffer.allocate(Math.multiplyExact(buffer.capacity(), 2));
+            }
+            processedBytes += consumed;
+        }
+    }
+
+    /**
+     * Builds the result of every room processed so far.
+     *
+     * @return The refreshed result.
+     * @throws IOException
+     *             If the spilled rooms of the duplicate detection cannot be read.
+     */
+    public R result() throws IOException {
+        try {
+            return aggregation.resultBuilder().get();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the number of bytes processed so far, i.e. the offset of the first unprocessed byte of the input file.
+     *
+     * @return The number of processed bytes.
+     */
+    public long processedBytes() {
+        return processedBytes;
+    }
+
+    /**
+     * Processes the input file, then keeps processing the lines appended to it until the current thread is interrupted. The listener receives the
+     * initial result and the refreshed result after every change. Changes are detected through a {@link WatchService} of the directory of the file,
+     * which is also polled with the given interval, as some platforms deliver file system events with a considerable delay.
+     *
+     * @param pollInterval
+     *            The maximum time between two checks of the input file.
+     * @param listener
+     *            The listener receiving the results.
+     * @throws IOException
+     *             If an error occurs while reading the input file or watching its directory.
+     * @throws InterruptedException
+     *             If the current thread is interrupted, which is the regular way to stop watching.
+     * @throws InvalidMethodParameterException
+     *             If any of the parameters is null, or the {@code pollInterval} is not positive.
+     */
+    public void watch(Duration pollInterval, Consumer<R> listener) throws IOException, InterruptedException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(pollInterval, "pollInterval");
+        ParamValidatorUtil.requireNonNull(listener, "listener");
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new InvalidMethodParameterException(MessageFormat.format("[pollInterval] parameter must be positive, got [{0}].", pollInterval));
+        }
+
+        Path directory = inputFilePath.toAbsolutePath().getParent();
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+
+            update();
+            listener.accept(result());
+
+            while (!Thread.interrupted()) {
+                WatchKey watchKey = watchService.poll(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (watchKey != null) {
+                    // Events of other files of the directory are drained as well, the size of the input file tells whether it has changed
+                    watchKey.pollEvents();
+                    watchKey.reset();
+                }
+                if (Files.exists(inputFilePath) && update()) {
+                    listener.accept(result());
+                }
+            }
+            throw new InterruptedException("Watching the input file has been interrupted.");
+        }
+    }
+
+    /**
+     * Releases the resources of the {@link RoomAggregator}, and deletes the spilled rooms of the duplicate detection.
+     *
+     * @throws IOException
+     *             If the spilled rooms cannot be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        aggregation.roomAggregator().close();
+        InputFileProcessor.deleteSpillRoot(spillRoot);
+    }
+
+    /**
+     * The {@link RoomAggregator} of the processed rooms, together with the function building its result.
+     */
+    private record Aggregation<R>(RoomAggregator<?> roomAggregator, Supplier<R> resultBuilder) {
+    }
+}
@@ -0,0 +1,232 @@
+package gscf.task.roomdimension.converter;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import gscf.task.roomdimension.dto.AnalysisMode;
+import gscf.task.roomdimension.dto.CommandLineArguments;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.OutputFormat;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.SketchOptions;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * The {@code CommandLineArgumentsConverter} class implements the {@link Converter} interface to convert the raw command-line arguments into
+ * {@link CommandLineArguments}. Arguments starting with {@code --} are treated as options in the {@code --name=value} form, every other argument is
+ * treated as an input file path.
+ *
+ * @author krisztian.hathazi
+ */
+public class CommandLineArgumentsConverter implements Converter<CommandLineArguments, String[]> {
+
+    private static final String OPTION_PREFIX = "--";
+
+    private static final String UNLIMITED = "unlimited";
+
+    private static final int DEFAULT_SERVER_PORT = 8080;
+
+    private static final int MAX_PORT = 65535;
+
+    /**
+     * Converts the given command-line arguments into a {@link CommandLineArguments} object.
+     *
+     * @param args
+     *            The raw command-line arguments.
+     * @return A {@link CommandLineArguments} object containing the input file paths and the {@link ProcessingOptions}.
+     * @throws InvalidMethodParameterException
+     *             If the arguments are null or empty, contain a blank argument, or contain an unknown or malformed option.
+     */
+    @Override
+    public CommandLineArguments convert(String[] args) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonEmpty(args, "args");
+
+        List<String> inputFilePaths = new ArrayList<>();
+        ProcessingOptions.Builder optionsBuilder = ProcessingOptions.builder();
+        SketchOptions.Builder sketchOptionsBuilder = SketchOptions.builder();
+
+        for (String arg : args) {
+            ParamValidatorUtil.requireNonBlank(arg, "arg");
+            if (arg.startsWith(OPTION_PREFIX)) {
+                applyOption(arg, optionsBuilder, sketchOptionsBuilder);
+            } else {
+                inputFilePaths.add(arg);
+            }
+        }
+
+        return new CommandLineArguments(List.copyOf(inputFilePaths), optionsBuilder.sketchOptions(sketchOptionsBuilder.build()).build());
+    }
+
+    private void applyOption(String arg, ProcessingOptions.Builder optionsBuilder, SketchOptions.Builder sketchOptionsBuilder) {
+        int separatorIndex = arg.indexOf('=');
+        String name = separatorIndex < 0 ? arg.substring(OPTION_PREFIX.length()) : arg.substring(OPTION_PREFIX.length(), separatorIndex);
+        String value = separatorIndex < 0 ? null : arg.substring(separatorIndex + 1);
+
+        if ("engine".equals(name)) {
+            optionsBuilder.engine(parseEngine(requireValue(name, value)));
+        } else if ("threads".equals(name)) {
+            optionsBuilder.threads(parsePositiveInt(name, requireValue(name, value)));
+        } else if ("max-input-size".equals(name)) {
+            optionsBuilder.maxInputSizeBytes(parseSizeLimit(name, requireValue(name, value)));
+        } else if ("dedupe-memory".equals(name)) {
+            optionsBuilder.duplicateDetectionMemoryBytes(parseSizeLimit(name, requireValue(name, value)));
+        } else if ("spill-directory".equals(name)) {
+            optionsBuilder.spillDirectory(Paths.get(requireValue(name, value)));
+        } else if ("top-cubic".equals(name)) {
+            optionsBuilder.cubicRoomLimit(parseLimit(name, requireValue(name, value)));
+        } else if ("concurrency".equals(name)) {
+            optionsBuilder.batchConcurrency(parsePositiveInt(name, requireValue(name, value)));
+        } else if ("watch".equals(name)) {
+            // The interval is optional, a bare --watch checks the input file with the default interval
+            optionsBuilder.watchInterval(
+                    value == null ? ProcessingOptions.DEFAULT_WATCH_INTERVAL : Duration.ofMillis(parsePositiveInt(name, requireValue(name, value))));
+        } else if ("checkpoint".equals(name)) {
+            optionsBuilder.checkpointFile(Paths.get(requireValue(name, value)));
+        } else if ("checkpoint-bytes".equals(name)) {
+            optionsBuilder.checkpointIntervalBytes(parseSizeLimit(name, requireValue(name, value)));
+        } else if ("checkpoint-interval".equals(name)) {
+            optionsBuilder.checkpointInterval(Duration.ofMillis(parsePositiveInt(name, requireValue(name, value))));
+        } else if ("to-binary".equals(name)) {
+            optionsBuilder.binaryOutputFile(Paths.get(requireValue(name, value)));
+        } else if ("lenient".equals(name)) {
+            // The size of the error reservoir is optional, a bare --lenient reports the default number of skipped lines
+            int errorReservoirSize = value == null ? ProcessingOptions.DEFAULT_ERROR_RESERVOIR_SIZE : parsePositiveInt(name, requireValue(name, value));
+            optionsBuilder.lenient(true).errorReservoirSize(errorReservoirSize);
+        } else if ("format".equals(name)) {
+            optionsBuilder.outputFormat(parseOutputFormat(requireValue(name, value)));
+        } else if ("output".equals(name)) {
+            optionsBuilder.outputFile(Paths.get(requireValue(name, value)));
+        } else if ("stats".equals(name)) {
+            // The file is optional, a bare --stats logs the report
+            optionsBuilder.statsReport(true).statsFile(value == null ? null : Paths.get(requireValue(name, value)));
+        } else if ("serve".equals(name)) {
+            // The address is optional, a bare --serve listens on the default port of every interface
+            optionsBuilder.serverAddress(value == null ? new InetSocketAddress(DEFAULT_SERVER_PORT) : parseAddress(name, requireValue(name, value)));
+        } else if ("max-requests".equals(name)) {
+            optionsBuilder.maxConcurrentRequests(parsePositiveInt(name, requireValue(name, value)));
+        } else if ("shutdown-timeout".equals(name)) {
+            optionsBuilder.shutdownTimeout(Duration.ofMillis(parsePositiveInt(name, requireValue(name, value))));
+        } else if ("mode".equals(name)) {
+            optionsBuilder.mode(parseMode(requireValue(name, value)));
+        } else if ("distinct-error".equals(name)) {
+            sketchOptionsBuilder.distinctRoomsError(parseFraction(name, requireValue(name, value)));
+        } else if ("frequency-error".equals(name)) {
+            sketchOptionsBuilder.frequencyError(parseFraction(name, requireValue(name, value)));
+        } else if ("frequency-confidence".equals(name)) {
+            sketchOptionsBuilder.frequencyConfidence(parseFraction(name, requireValue(name, value)));
+        } else if ("top-repeated".equals(name)) {
+            sketchOptionsBuilder.mostRepeatedRoomCount(parsePositiveInt(name, requireValue(name, value)));
+        } else {
+            throw new InvalidMethodParameterException(MessageFormat.format("Unknown option [{0}].", arg));
+        }
+    }
+
+    private String requireValue(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new InvalidMethodParameterException(MessageFormat.format("The [--{0}] option requires a value, e.g. --{0}=value.", name));
+        }
+        return value;
+    }
+
+    private int parsePositiveInt(String name, String value) {
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below, together with the non-positive numbers
+        }
+        throw new InvalidMethodParameterException(MessageFormat.format("The [--{0}] option requires a positive integer, got [{1}].", name, value));
+    }
+
+    private int parseLimit(String name, String value) {
+        if (UNLIMITED.equalsIgnoreCase(value.trim())) {
+            return Integer.MAX_VALUE;
+        }
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below, together with the non-positive numbers
+        }
+        throw new InvalidMethodParameterException(
+                MessageFormat.format("The [--{0}] option requires a positive integer or \"{1}\", got [{2}].", name, UNLIMITED, value));
+    }
+
+    private long parseSizeLimit(String name, String value) {
+        if (UNLIMITED.equalsIgnoreCase(value.trim())) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below, together with the non-positive numbers
+        }
+        throw new InvalidMethodParameterException(
+                MessageFormat.format("The [--{0}] option requires a positive number of bytes or \"{1}\", got [{2}].", name, UNLIMITED, value));
+    }
+
+    private InetSocketAddress parseAddress(String name, String value) {
+        int separatorIndex = value.lastIndexOf(':');
+        String host = separatorIndex < 0 ? null : value.substring(0, separatorIndex).trim();
+        try {
+            int port = Integer.parseInt(value.substring(separatorIndex + 1).trim());
+            if (port >= 0 && port <= MAX_PORT && (host == null || !host.isEmpty())) {
+                return host == null ? new InetSocketAddress(port) : new InetSocketAddress(host, port);
+            }
+        } catch (NumberFormatException e) {
+            // Handled below, together with the ports out of range
+        }
+        throw new InvalidMethodParameterException(
+                MessageFormat.format("The [--{0}] option requires a port or a host:port address, got [{1}].", name, value));
+    }
+
+    private double parseFraction(String name, String value) {
+        try {
+            double number = Double.parseDouble(value.trim());
+            if (number > 0 && number < 1) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below, together with the numbers out of range
+        }
+        throw new InvalidMethodParameterException(
+                MessageFormat.format("The [--{0}] option requires a number between 0 and 1, got [{1}].", name, value));
+    }
+
+    private IngestionEngine parseEngine(String value) {
+        try {
+            return IngestionEngine.fromName(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMethodParameterException(MessageFormat.format("Unknown ingestion engine [{0}].", value));
+        }
+    }
+
+    private OutputFormat parseOutputFormat(String value) {
+        try {
+            return OutputFormat.fromName(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMethodParameterException(MessageFormat.format("Unknown output format [{0}].", value));
+        }
+    }
+
+    private AnalysisMode parseMode(String value) {
+        try {
+            return AnalysisMode.fromName(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidMethodParameterException(MessageFormat.format("Unknown analysis mode [{0}].", value));
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package gscf.task.roomdimension.converter;
 
 import java.text.MessageFormat;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import gscf.task.roomdimension.dto.InvalidLineReason;
 import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomDimensions;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
 import gscf.task.roomdimension.util.ParamValidatorUtil;
 
 /**
  * The {@code RoomConverter} class implements the {@link Converter} interface to convert room dimension strings into {@link Room} objects.
+ * <p>
+ * Every conversion is backed by a single hand-written pass over the line, which accepts the {@code LxWxH} pattern of positive ASCII integers. The
+ * dimensions are parsed into a reusable {@link RoomDimensions} holder along with the wallpaper the room needs, or passed to a
+ * {@link RoomDimensionsConsumer}, so no object is allocated per line. Lines can be parsed from a {@link CharSequence} or straight from a range of
+ * bytes. Dimensions above {@link Integer#MAX_VALUE} and rooms whose wallpaper would exceed {@link Long#MAX_VALUE} are rejected instead of
+ * overflowing silently.
+ * </p>
  *
  * @author krisztian.hathazi
  */
 public class RoomConverter implements Converter<Room, String> {
 
+    private static final int DIMENSION_COUNT = 3;
+
+    // Returned instead of the wallpaper of a room which does not fit into a long, so the parsing needs no exception
+    private static final long WALLPAPER_OVERFLOW = -1;
+
     /**
      * Converts a room dimension string in the format "LxWxH" to a {@code Room} object.
      *
@@ -22,34 +35,293 @@ public class RoomConverter implements Converter<Room, String> {
      * @return A {@code Room} object representing the room with the specified dimensions, wallpaper needed, and cubic status.
      * @throws IllegalStateException
      *             If the given room dimension string does not match the expected pattern "LxWxH".
+     * @throws NumberFormatException
+     *             If a dimension exceeds {@link Integer#MAX_VALUE}, or the wallpaper needed exceeds {@link Long#MAX_VALUE}.
      */
     @Override
     public Room convert(String roomDimensions) {
+        RoomDimensions dimensions = convert(roomDimensions, new RoomDimensions());
+        return new Room(dimensions.length(), dimensions.width(), dimensions.height(), dimensions.wallpaperNeeded(), dimensions.isCubic());
+    }
+
+    /**
+     * Converts a room dimension string in the format "LxWxH" into the given {@link RoomDimensions} holder, without creating a {@code Room} object.
+     *
+     * @param roomDimensions
+     *            A string representing the room's dimensions in the format "LxWxH".
+     * @param target
+     *            The {@link RoomDimensions} holder receiving the parsed dimensions.
+     * @return The {@code target} holder.
+     * @throws IllegalStateException
+     *             If the given room dimension string does not match the expected pattern "LxWxH".
+     * @throws NumberFormatException
+     *             If a dimension exceeds {@link Integer#MAX_VALUE}, or the wallpaper needed exceeds {@link Long#MAX_VALUE}.
+     */
+    public RoomDimensions convert(String roomDimensions, RoomDimensions target) {
         // Public method, so parameter validation is a must
         ParamValidatorUtil.requireNonBlank(roomDimensions, "roomDimensions");
+        ParamValidatorUtil.requireNonNull(target, "target");
+
+        InvalidLineReason invalidLineReason = parse(roomDimensions, target);
+        if (invalidLineReason == InvalidLineReason.OVERFLOW) {
+            throw new NumberFormatException(MessageFormat.format("The given room dimension [{0}] is too large to be processed.", roomDimensions));
+        } else if (invalidLineReason != null) {
+            throw new IllegalStateException(MessageFormat.format("The given room dimension [{0}] does not match the LxWxH pattern.", roomDimensions));
+        }
+        return target;
+    }
+
+    /**
+     * Converts a room dimension line and passes the dimensions to the given consumer. An invalid line is offered to
+     * {@link RoomDimensionsConsumer#skipInvalidLine(InvalidLineReason, String)} instead, and only if the consumer does not skip it, is it rejected
+     * the same way as by {@link #convert(String, RoomDimensions)}. The line is parsed as by {@link #tryConvert(CharSequence, RoomDimensions)}, so no
+     * exception is created for a skipped line.
+     *
+     * @param roomDimensions
+     *            A string representing the room's dimensions in the format "LxWxH".
+     * @param target
+     *            The {@link RoomDimensions} holder the dimensions are parsed into, reused between the lines.
+     * @param consumer
+     *            The {@link RoomDimensionsConsumer} receiving the dimensions of a valid line, or deciding whether an invalid line is skipped.
+     * @throws IllegalStateException
+     *             If the given line does not match the expected pattern "LxWxH" and the consumer does not skip it.
+     * @throws NumberFormatException
+     *             If the given line is too large to be processed and the consumer does not skip it.
+     */
+    public void convert(String roomDimensions, RoomDimensions target, RoomDimensionsConsumer consumer) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(roomDimensions, "roomDimensions");
+        ParamValidatorUtil.requireNonNull(target, "target");
+        ParamValidatorUtil.requireNonNull(consumer, "consumer");
+
+        InvalidLineReason invalidLineReason = parse(roomDimensions, target);
+        if (invalidLineReason == null) {
+            consumer.accept(target.length(), target.width(), target.height());
+        } else if (!consumer.skipInvalidLine(invalidLineReason, roomDimensions)) {
+            // The strict parsing fails with the exception of the holder based conversion, which rejects every invalid line
+            convert(roomDimensions, target);
+        }
+    }
+
+    /**
+     * Converts a room dimension line in the format "LxWxH" into the given {@link RoomDimensions} holder, or tells why it is not a room, without
+     * throwing an exception. The same lines are accepted as by {@link #convert(String, RoomDimensions)}, so invalid lines are as cheap as valid
+     * ones.
+     *
+     * @param roomDimensions
+     *            A character sequence representing the room's dimensions in the format "LxWxH".
+     * @param target
+     *            The {@link RoomDimensions} holder receiving the parsed dimensions, left unchanged if the line is invalid.
+     * @return {@code null} if the line has been converted, otherwise the {@link InvalidLineReason} the line is not a room for.
+     */
+    public InvalidLineReason tryConvert(CharSequence roomDimensions, RoomDimensions target) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(roomDimensions, "roomDimensions");
+        ParamValidatorUtil.requireNonNull(target, "target");
+
+        return parse(roomDimensions, target);
+    }
+
+    /**
+     * Converts a room dimension line given as the {@code [from, to)} range of a byte array, e.g. straight from a buffer of the input file, the same
+     * way as {@link #tryConvert(CharSequence, RoomDimensions)}, without decoding it first. Only ASCII bytes are accepted, a line with any other
+     * byte is reported as {@link InvalidLineReason#MALFORMED}, and should be decoded by the caller if it may contain whitespace of another charset.
+     *
+     * @param line
+     *            The bytes containing the room dimension line.
+     * @param from
+     *            The index of the first byte of the line.
+     * @param to
+     *            The index after the last byte of the line, excluding its terminator.
+     * @param target
+     *            The {@link RoomDimensions} holder receiving the parsed dimensions, left unchanged if the line is invalid.
+     * @return {@code null} if the line has been converted, otherwise the {@link InvalidLineReason} the line is not a room for.
+     * @throws InvalidMethodParameterException
+     *             If the {@code line} or the {@code target} is null, or the range is out of the bounds of the {@code line}.
+     */
+    public static InvalidLineReason tryConvert(byte[] line, int from, int to, RoomDimensions target) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(line, "line");
+        ParamValidatorUtil.requireNonNull(target, "target");
+        if (from < 0 || from > to || to > line.length) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("The range [{0}, {1}) is out of the bounds of a line of [{2}] bytes.", from, to, line.length));
+        }
+
+        int position = from;
+        long length = 0;
+        long width = 0;
+        for (int dimensionIndex = 0; dimensionIndex < DIMENSION_COUNT; dimensionIndex++) {
+            if (dimensionIndex > 0) {
+                if (position >= to || line[position] != 'x') {
+                    return invalidLineReason(line, from, to);
+                }
+                position++;
+            }
+            if (position >= to || line[position] < '1' || line[position] > '9') {
+                return invalidLineReason(line, from, to);
+            }
+            long value = 0;
+            while (position < to && line[position] >= '0' && line[position] <= '9') {
+                value = appendDigit(value, line[position] - '0');
+                position++;
+            }
+
+            if (dimensionIndex == 0) {
+                length = value;
+            } else if (dimensionIndex == 1) {
+                width = value;
+            } else if (position < to) {
+                return invalidLineReason(line, from, to);
+            } else {
+                return set(length, width, value, target);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a {@code Room} object from room dimensions which have already been parsed, e.g. straight from the bytes of an input file. The key of
+     * the room is only built when it is output.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @return A {@code Room} object representing the room with the specified dimensions, wallpaper needed, and cubic status.
+     * @throws ArithmeticException
+     *             If the wallpaper needed exceeds {@link Long#MAX_VALUE}.
+     */
+    public Room convert(int length, int width, int height) {
+        return new Room(length, width, height, calculateWallpaperNeeded(length, width, height), isCubic(length, width, height));
+    }
+
+    /**
+     * Calculates the wallpaper needed to cover the room with the given dimensions: the surface area of the room plus the area of its smallest side.
+     * The areas are calculated as {@code long} values, so they cannot overflow for any {@code int} dimension, and only the wallpaper of rooms with
+     * sides above a billion can exceed {@link Long#MAX_VALUE}.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @return The wallpaper needed, in square feet.
+     * @throws ArithmeticException
+     *             If the wallpaper needed exceeds {@link Long#MAX_VALUE}.
+     */
+    public static long calculateWallpaperNeeded(int length, int width, int height) {
+        long wallpaperNeeded = wallpaperNeeded(length, width, height);
+        if (wallpaperNeeded == WALLPAPER_OVERFLOW) {
+            throw new ArithmeticException(
+                    MessageFormat.format("The wallpaper needed by the room [{0}x{1}x{2}] exceeds the maximum of a long.", length, width, height));
+        }
+        return wallpaperNeeded;
+    }
 
-        // Define the regex pattern for matching room dimensions
-        String regex = "([1-9]\\d*)x([1-9]\\d*)x([1-9]\\d*)";
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(roomDimensions);
+    /**
+     * Checks whether the room with the given dimensions is cubic.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @return {@code true} if all dimensions are equal, {@code false} otherwise.
+     */
+    public static boolean isCubic(int length, int width, int height) {
+        return length == width && width == height;
+    }
+
+    private static InvalidLineReason parse(CharSequence roomDimensions, RoomDimensions target) {
+        int lineLength = roomDimensions.length();
+        int position = 0;
+        long length = 0;
+        long width = 0;
+        for (int dimensionIndex = 0; dimensionIndex < DIMENSION_COUNT; dimensionIndex++) {
+            if (dimensionIndex > 0) {
+                if (position >= lineLength || roomDimensions.charAt(position) != 'x') {
+                    return invalidLineReason(roomDimensions);
+                }
+                position++;
+            }
+            // Positive integers without leading zeros, made of ASCII digits only
+            if (position >= lineLength || roomDimensions.charAt(position) < '1' || roomDimensions.charAt(position) > '9') {
+                return invalidLineReason(roomDimensions);
+            }
+            long value = 0;
+            while (position < lineLength && roomDimensions.charAt(position) >= '0' && roomDimensions.charAt(position) <= '9') {
+                value = appendDigit(value, roomDimensions.charAt(position) - '0');
+                position++;
+            }
+
+            if (dimensionIndex == 0) {
+                length = value;
+            } else if (dimensionIndex == 1) {
+                width = value;
+            } else if (position < lineLength) {
+                return invalidLineReason(roomDimensions);
+            } else {
+                return set(length, width, value, target);
+            }
+        }
+        return null;
+    }
 
-        // If the roomDimensions matches the pattern, extract the dimensions
-        if (matcher.matches()) {
-            int length = Integer.parseInt(matcher.group(1));
-            int width = Integer.parseInt(matcher.group(2));
-            int height = Integer.parseInt(matcher.group(3));
+    private static long appendDigit(long value, int digit) {
+        // The value stops growing once it is too large, so a long run of digits cannot overflow the long
+        return value > Integer.MAX_VALUE ? value : value * 10 + digit;
+    }
 
-            // Calculate wallpaper needed to cover the room
-            int surfaceArea = 2 * (length * width + width * height + height * length);
-            int smallestSideArea = Math.min(length * width, Math.min(width * height, height * length));
-            int wallpaperNeeded = surfaceArea + smallestSideArea;
+    private static InvalidLineReason set(long length, long width, long height, RoomDimensions target) {
+        if (length > Integer.MAX_VALUE || width > Integer.MAX_VALUE || height > Integer.MAX_VALUE) {
+            return InvalidLineReason.OVERFLOW;
+        }
+        long wallpaperNeeded = wallpaperNeeded((int) length, (int) width, (int) height);
+        if (wallpaperNeeded == WALLPAPER_OVERFLOW) {
+            return InvalidLineReason.OVERFLOW;
+        }
+        target.set((int) length, (int) width, (int) height, wallpaperNeeded);
+        return null;
+    }
 
-            // Check whether the room is cubic
-            boolean isCubic = length == width && width == height;
+    private static long wallpaperNeeded(int length, int width, int height) {
+        // Each area is below 2^62, so the sum of two of them still fits into a long, only the further additions have to be checked
+        long lengthWidthArea = (long) length * width;
+        long widthHeightArea = (long) width * height;
+        long heightLengthArea = (long) height * length;
+        long sideAreaSum = lengthWidthArea + widthHeightArea;
+        if (sideAreaSum > Long.MAX_VALUE - heightLengthArea) {
+            return WALLPAPER_OVERFLOW;
+        }
+        sideAreaSum += heightLengthArea;
+        long smallestSideArea = Math.min(lengthWidthArea, Math.min(widthHeightArea, heightLengthArea));
+        if (sideAreaSum > (Long.MAX_VALUE - smallestSideArea) / 2) {
+            return WALLPAPER_OVERFLOW;
+        }
+        return 2 * sideAreaSum + smallestSideArea;
+    }
 
-            return new Room(roomDimensions, wallpaperNeeded, isCubic);
+    private static InvalidLineReason invalidLineReason(CharSequence roomDimensions) {
+        for (int index = 0; index < roomDimensions.length(); index++) {
+            if (!Character.isWhitespace(roomDimensions.charAt(index))) {
+                return InvalidLineReason.MALFORMED;
+            }
         }
+        return InvalidLineReason.BLANK;
+    }
 
-        throw new IllegalStateException(MessageFormat.format("The given room dimension [{0}] does not match the LxWxH pattern.", roomDimensions));
+    private static InvalidLineReason invalidLineReason(byte[] line, int from, int to) {
+        for (int index = from; index < to; index++) {
+            // Non-ASCII bytes are never whitespace on their own
+            if (line[index] < 0 || !Character.isWhitespace(line[index])) {
+                return InvalidLineReason.MALFORMED;
+            }
+        }
+        return InvalidLineReason.BLANK;
     }
 }
@@ -0,0 +1,39 @@
+package gscf.task.roomdimension.converter;
+
+import gscf.task.roomdimension.dto.InvalidLineReason;
+
+/**
+ * The {@code RoomDimensionsConsumer} interface represents an operation which accepts the dimensions of a room as primitive values, so that no
+ * object has to be created per room.
+ *
+ * @author krisztian.hathazi
+ */
+@FunctionalInterface
+public interface RoomDimensionsConsumer {
+
+    /**
+     * Performs this operation on the given room dimensions.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     */
+    void accept(int length, int width, int height);
+
+    /**
+     * Decides whether an invalid line of the input is skipped instead of failing the processing. Consumers in the lenient mode record the line and
+     * skip it, the others reject it, which is the default.
+     *
+     * @param reason
+     *            The {@link InvalidLineReason} the line is not a room for.
+     * @param line
+     *            The content of the invalid line.
+     * @return {@code true} if the line is skipped, {@code false} if it is rejected.
+     */
+    default boolean skipInvalidLine(InvalidLineReason reason, String line) {
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package gscf.task.roomdimension.dto;
+
+import java.util.Locale;
+
+/**
+ * The {@code AnalysisMode} enum lists the available kinds of analysis of an input file.
+ *
+ * @author krisztian.hathazi
+ */
+public enum AnalysisMode {
+
+    /**
+     * Reports the exact cubic and duplicate rooms in a {@link Result}. The memory needed grows with the number of distinct rooms.
+     */
+    EXACT,
+
+    /**
+     * Estimates the number of distinct rooms and the most repeated rooms with sketches of constant size, and reports them in a
+     * {@link SketchResult}. The total wallpaper needed stays exact.
+     */
+    APPROXIMATE;
+
+    /**
+     * Returns the {@code AnalysisMode} matching the given name, ignoring case.
+     *
+     * @param name
+     *            The name of the mode, e.g. {@code exact} or {@code approximate}.
+     * @return The matching {@code AnalysisMode}.
+     * @throws IllegalArgumentException
+     *             If there is no mode with the given name.
+     */
+    public static AnalysisMode fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,19 @@
+package gscf.task.roomdimension.dto;
+
+import java.util.List;
+
+/**
+ * The {@code BatchResult} record represents the result of processing several input files as a single batch.
+ *
+ * @param <R>
+ *            The type of the results, {@link Result} or {@link SketchResult} depending on the {@link AnalysisMode}.
+ * @param fileResults
+ *            A list of {@link FileResult} objects, one per input file, in the order of the input files.
+ * @param aggregate
+ *            The result of every room of every input file, as if they were read from a single input file. Rooms repeated across the input files
+ *            are therefore reported as duplicates as well.
+ *
+ * @author krisztian.hathazi
+ */
+public record BatchResult<R>(List<FileResult<R>> fileResults, R aggregate) {
+}
@@ -0,0 +1,16 @@
+package gscf.task.roomdimension.dto;
+
+import java.util.List;
+
+/**
+ * The {@code CommandLineArguments} record represents the parsed command-line arguments of the application.
+ *
+ * @param inputFilePaths
+ *            The positional arguments, i.e. the paths of the input files to be processed.
+ * @param processingOptions
+ *            The {@link ProcessingOptions} assembled from the {@code --option} style arguments.
+ *
+ * @author krisztian.hathazi
+ */
+public record CommandLineArguments(List<String> inputFilePaths, ProcessingOptions processingOptions) {
+}
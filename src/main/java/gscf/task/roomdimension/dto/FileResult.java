@@ -0,0 +1,16 @@
+package gscf.task.roomdimension.dto;
+
+/**
+ * The {@code FileResult} record represents the result of processing a single input file of a batch.
+ *
+ * @param <R>
+ *            The type of the result, {@link Result} or {@link SketchResult} depending on the {@link AnalysisMode}.
+ * @param inputFilePath
+ *            The path of the processed input file.
+ * @param result
+ *            The result of the input file.
+ *
+ * @author krisztian.hathazi
+ */
+public record FileResult<R>(String inputFilePath, R result) {
+}
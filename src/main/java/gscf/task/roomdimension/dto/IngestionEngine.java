@@ -0,0 +1,41 @@
+package gscf.task.roomdimension.dto;
+
+import java.util.Locale;
+
+/**
+ * The {@code IngestionEngine} enum lists the available strategies for reading and parsing an input file.
+ *
+ * @author krisztian.hathazi
+ */
+public enum IngestionEngine {
+
+    /**
+     * Reads the input file line-by-line through a {@link java.io.BufferedReader} and converts every line with the
+     * {@link gscf.task.roomdimension.converter.RoomConverter}.
+     */
+    READER,
+
+    /**
+     * Maps the input file into memory and parses the room dimensions straight from the mapped bytes, with an ASCII-only fast path.
+     */
+    MAPPED,
+
+    /**
+     * Splits the input file into newline-aligned byte ranges and parses them like the {@link #MAPPED} engine, in parallel on a
+     * {@link java.util.concurrent.ForkJoinPool}. The partial results of the ranges are merged into the final result.
+     */
+    PARALLEL;
+
+    /**
+     * Returns the {@code IngestionEngine} matching the given name, ignoring case.
+     *
+     * @param name
+     *            The name of the engine, e.g. {@code reader} or {@code mapped}.
+     * @return The matching {@code IngestionEngine}.
+     * @throws IllegalArgumentException
+     *             If there is no engine with the given name.
+     */
+    public static IngestionEngine fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
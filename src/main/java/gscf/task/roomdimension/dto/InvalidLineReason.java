@@ -0,0 +1,35 @@
+package gscf.task.roomdimension.dto;
+
+import java.util.Locale;
+
+/**
+ * The {@code InvalidLineReason} enum lists the reasons a line of an input file is not accepted as a room.
+ *
+ * @author krisztian.hathazi
+ */
+public enum InvalidLineReason {
+
+    /**
+     * The line is empty or consists of whitespace only.
+     */
+    BLANK,
+
+    /**
+     * The line does not match the {@code LxWxH} pattern of positive integers.
+     */
+    MALFORMED,
+
+    /**
+     * The line matches the {@code LxWxH} pattern, but one of its dimensions exceeds {@link Integer#MAX_VALUE}.
+     */
+    OVERFLOW;
+
+    /**
+     * Returns the name of the reason in the outputs of the results.
+     *
+     * @return The lower case name of the reason.
+     */
+    public String reportName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,22 @@
+package gscf.task.roomdimension.dto;
+
+import java.util.List;
+
+/**
+ * The {@code InvalidLines} record summarises the lines skipped by the lenient parsing of an input.
+ *
+ * @param count
+ *            The number of skipped lines.
+ * @param samples
+ *            The {@link LineError} objects of the first skipped lines, at most {@link ProcessingOptions#errorReservoirSize()} of them, in the
+ *            order of the lines.
+ *
+ * @author krisztian.hathazi
+ */
+public record InvalidLines(long count, List<LineError> samples) {
+
+    /**
+     * The {@code InvalidLines} of an input without skipped lines, which is the case of every strictly parsed input.
+     */
+    public static final InvalidLines NONE = new InvalidLines(0, List.of());
+}
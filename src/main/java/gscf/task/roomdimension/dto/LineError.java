@@ -0,0 +1,21 @@
+package gscf.task.roomdimension.dto;
+
+/**
+ * The {@code LineError} record describes a line of an input file which has been skipped by the lenient parsing.
+ *
+ * @param lineNumber
+ *            The 1-based number of the line in the input file, counting the lines of every input of a batch or a watched file.
+ * @param reason
+ *            The {@link InvalidLineReason} the line has been skipped for.
+ * @param line
+ *            The content of the line, truncated to {@link #MAX_LINE_LENGTH} characters.
+ *
+ * @author krisztian.hathazi
+ */
+public record LineError(long lineNumber, InvalidLineReason reason, String line) {
+
+    /**
+     * The maximum number of characters kept of a skipped line, so a huge garbage line does not stay on the heap.
+     */
+    public static final int MAX_LINE_LENGTH = 120;
+}
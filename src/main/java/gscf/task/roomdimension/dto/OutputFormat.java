@@ -0,0 +1,39 @@
+package gscf.task.roomdimension.dto;
+
+import java.util.Locale;
+
+/**
+ * The {@code OutputFormat} enum lists the formats the results can be streamed in by a {@link gscf.task.roomdimension.output.ResultSink}.
+ *
+ * @author krisztian.hathazi
+ */
+public enum OutputFormat {
+
+    /**
+     * Human readable sentences, with a single room per line.
+     */
+    TEXT,
+
+    /**
+     * Comma-separated values with a header row and a single record per row, see {@link gscf.task.roomdimension.output.CsvResultSink}.
+     */
+    CSV,
+
+    /**
+     * JSON Lines, a single JSON object per record and line, see {@link gscf.task.roomdimension.output.JsonLinesResultSink}.
+     */
+    JSONL;
+
+    /**
+     * Returns the {@code OutputFormat} matching the given name, ignoring case.
+     *
+     * @param name
+     *            The name of the format, e.g. {@code text} or {@code jsonl}.
+     * @return The matching {@code OutputFormat}.
+     * @throws IllegalArgumentException
+     *             If there is no format with the given name.
+     */
+    public static OutputFormat fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
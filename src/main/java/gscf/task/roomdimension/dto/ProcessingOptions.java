@@ -0,0 +1,550 @@
+package gscf.task.roomdimension.dto;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The {@code ProcessingOptions} record holds the settings which control how an input file is processed. Instances are usually created through the
+ * {@link Builder} returned by {@link #builder()}, so that only the non-default settings have to be provided.
+ *
+ * @param engine
+ *            The {@link IngestionEngine} used to read and parse the input file.
+ * @param threads
+ *            The number of threads used by the {@link IngestionEngine#PARALLEL} engine.
+ * @param maxInputSizeBytes
+ *            The maximum accepted size of an input file in bytes.
+ * @param duplicateDetectionMemoryBytes
+ *            The heap budget of the duplicate detection in bytes. Once the tracked rooms exceed it, they are spilled to temporary files on disk.
+ *            {@code 0} keeps every room in memory.
+ * @param spillDirectory
+ *            The directory of the temporary files of the duplicate detection, or {@code null} to use the default temporary-file directory.
+ * @param cubicRoomLimit
+ *            The maximum number of cubic rooms reported, the ones needing the most wallpaper. {@link Integer#MAX_VALUE} reports every cubic room.
+ * @param mode
+ *            The {@link AnalysisMode} selecting between the exact and the approximate analysis.
+ * @param sketchOptions
+ *            The {@link SketchOptions} of the {@link AnalysisMode#APPROXIMATE} analysis.
+ * @param batchConcurrency
+ *            The maximum number of input files of a batch processed at the same time.
+ * @param watchInterval
+ *            The maximum time between two checks of the input file in the watch mode, or {@code null} to process the input file only once.
+ * @param checkpointFile
+ *            The file the progress of the exact analysis is periodically saved to and resumed from after a restart, or {@code null} to turn
+ *            checkpoints off.
+ * @param checkpointIntervalBytes
+ *            The number of processed bytes after which a checkpoint is saved.
+ * @param checkpointInterval
+ *            The time after which a checkpoint is saved, whichever of the intervals elapses first.
+ * @param binaryOutputFile
+ *            The binary room file the input file is converted into instead of being analysed, or {@code null} to analyse the input file.
+ * @param outputFormat
+ *            The {@link OutputFormat} the results are streamed in, or {@code null} to log the results.
+ * @param outputFile
+ *            The file the results are streamed into, or {@code null} to stream them to the standard output.
+ * @param statsReport
+ *            Whether the processing metrics are collected and reported as JSON at the end of the run.
+ * @param statsFile
+ *            The file the JSON report of the processing metrics is written into, or {@code null} to log it.
+ * @param serverAddress
+ *            The address the analysis server listens on, or {@code null} to process the input files instead of serving requests.
+ * @param maxConcurrentRequests
+ *            The maximum number of requests the analysis server processes at the same time, the further ones are rejected.
+ * @param shutdownTimeout
+ *            The maximum time the analysis server waits for the requests in progress when it is stopped.
+ * @param lenient
+ *            Whether the invalid lines of the input files are skipped and reported instead of failing the processing.
+ * @param errorReservoirSize
+ *            The maximum number of skipped lines reported with their line numbers and reasons in the lenient mode, the further ones are only
+ *            counted.
+ *
+ * @author krisztian.hathazi
+ */
+public record ProcessingOptions(
+        IngestionEngine engine,
+        int threads,
+        long maxInputSizeBytes,
+        long duplicateDetectionMemoryBytes,
+        Path spillDirectory,
+        int cubicRoomLimit,
+        AnalysisMode mode,
+        SketchOptions sketchOptions,
+        int batchConcurrency,
+        Duration watchInterval,
+        Path checkpointFile,
+        long checkpointIntervalBytes,
+        Duration checkpointInterval,
+        Path binaryOutputFile,
+        OutputFormat outputFormat,
+        Path outputFile,
+        boolean statsReport,
+        Path statsFile,
+        InetSocketAddress serverAddress,
+        int maxConcurrentRequests,
+        Duration shutdownTimeout,
+        boolean lenient,
+        int errorReservoirSize) {
+
+    /**
+     * The default maximum accepted size of an input file in bytes.
+     */
+    public static final long DEFAULT_MAX_INPUT_SIZE_BYTES = 5L * 1024 * 1024;
+
+    /**
+     * The default maximum number of input files of a batch processed at the same time. Small input files are mostly waiting for I/O, so it is
+     * deliberately higher than the number of processors.
+     */
+    public static final int DEFAULT_BATCH_CONCURRENCY = 64;
+
+    /**
+     * The default maximum time between two checks of the input file in the watch mode.
+     */
+    public static final Duration DEFAULT_WATCH_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * The default number of processed bytes after which a checkpoint is saved.
+     */
+    public static final long DEFAULT_CHECKPOINT_INTERVAL_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * The default time after which a checkpoint is saved.
+     */
+    public static final Duration DEFAULT_CHECKPOINT_INTERVAL = Duration.ofMinutes(1);
+
+    /**
+     * The default maximum number of requests the analysis server processes at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+
+    /**
+     * The default maximum time the analysis server waits for the requests in progress when it is stopped.
+     */
+    public static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * The default maximum number of skipped lines reported with their line numbers and reasons in the lenient mode.
+     */
+    public static final int DEFAULT_ERROR_RESERVOIR_SIZE = 100;
+
+    /**
+     * Returns the default processing options.
+     *
+     * @return A {@code ProcessingOptions} instance with every setting on its default value.
+     */
+    public static ProcessingOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Returns a new {@link Builder} initialized with the default settings.
+     *
+     * @return A new {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a new {@link Builder} initialized with the settings of this instance.
+     *
+     * @return A new {@link Builder} instance.
+     */
+    public Builder toBuilder() {
+        return new Builder().engine(engine)
+                .threads(threads)
+                .maxInputSizeBytes(maxInputSizeBytes)
+                .duplicateDetectionMemoryBytes(duplicateDetectionMemoryBytes)
+                .spillDirectory(spillDirectory)
+                .cubicRoomLimit(cubicRoomLimit)
+                .mode(mode)
+                .sketchOptions(sketchOptions)
+                .batchConcurrency(batchConcurrency)
+                .watchInterval(watchInterval)
+                .checkpointFile(checkpointFile)
+                .checkpointIntervalBytes(checkpointIntervalBytes)
+                .checkpointInterval(checkpointInterval)
+                .binaryOutputFile(binaryOutputFile)
+                .outputFormat(outputFormat)
+                .outputFile(outputFile)
+                .statsReport(statsReport)
+                .statsFile(statsFile)
+                .serverAddress(serverAddress)
+                .maxConcurrentRequests(maxConcurrentRequests)
+                .shutdownTimeout(shutdownTimeout)
+                .lenient(lenient)
+                .errorReservoirSize(errorReservoirSize);
+    }
+
+    /**
+     * Builder for {@link ProcessingOptions}.
+     */
+    public static final class Builder {
+
+        private IngestionEngine engine = IngestionEngine.READER;
+
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        private long maxInputSizeBytes = DEFAULT_MAX_INPUT_SIZE_BYTES;
+
+        private long duplicateDetectionMemoryBytes;
+
+        private Path spillDirectory;
+
+        private int cubicRoomLimit = Integer.MAX_VALUE;
+
+        private AnalysisMode mode = AnalysisMode.EXACT;
+
+        private SketchOptions sketchOptions = SketchOptions.defaults();
+
+        private int batchConcurrency = DEFAULT_BATCH_CONCURRENCY;
+
+        private Duration watchInterval;
+
+        private Path checkpointFile;
+
+        private long checkpointIntervalBytes = DEFAULT_CHECKPOINT_INTERVAL_BYTES;
+
+        private Duration checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+        private Path binaryOutputFile;
+
+        private OutputFormat outputFormat;
+
+        private Path outputFile;
+
+        private boolean statsReport;
+
+        private Path statsFile;
+
+        private InetSocketAddress serverAddress;
+
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+
+        private Duration shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+
+        private boolean lenient;
+
+        private int errorReservoirSize = DEFAULT_ERROR_RESERVOIR_SIZE;
+
+        private Builder() {
+            // Use ProcessingOptions.builder() instead
+        }
+
+        /**
+         * Sets the {@link IngestionEngine} used to read and parse the input file.
+         *
+         * @param engine
+         *            The desired engine.
+         * @return This builder.
+         */
+        public Builder engine(IngestionEngine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads used by the {@link IngestionEngine#PARALLEL} engine.
+         *
+         * @param threads
+         *            The desired number of threads, should be positive.
+         * @return This builder.
+         */
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the maximum accepted size of an input file in bytes. Use {@link Long#MAX_VALUE} to accept inputs of any size.
+         *
+         * @param maxInputSizeBytes
+         *            The desired maximum size in bytes, should be positive.
+         * @return This builder.
+         */
+        public Builder maxInputSizeBytes(long maxInputSizeBytes) {
+            this.maxInputSizeBytes = maxInputSizeBytes;
+            return this;
+        }
+
+        /**
+         * Sets the heap budget of the duplicate detection in bytes. Once the tracked rooms exceed it, they are spilled to temporary files on disk.
+         *
+         * @param duplicateDetectionMemoryBytes
+         *            The desired budget in bytes, or {@code 0} to keep every room in memory.
+         * @return This builder.
+         */
+        public Builder duplicateDetectionMemoryBytes(long duplicateDetectionMemoryBytes) {
+            this.duplicateDetectionMemoryBytes = duplicateDetectionMemoryBytes;
+            return this;
+        }
+
+        /**
+         * Sets the directory of the temporary files of the duplicate detection.
+         *
+         * @param spillDirectory
+         *            The desired directory, or {@code null} to use the default temporary-file directory.
+         * @return This builder.
+         */
+        public Builder spillDirectory(Path spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cubic rooms reported. Only the cubic rooms needing the most wallpaper are kept while the input file is
+         * processed.
+         *
+         * @param cubicRoomLimit
+         *            The desired number of rooms, should be positive. Use {@link Integer#MAX_VALUE} to report every cubic room.
+         * @return This builder.
+         */
+        public Builder cubicRoomLimit(int cubicRoomLimit) {
+            this.cubicRoomLimit = cubicRoomLimit;
+            return this;
+        }
+
+        /**
+         * Sets the {@link AnalysisMode} selecting between the exact and the approximate analysis.
+         *
+         * @param mode
+         *            The desired mode.
+         * @return This builder.
+         */
+        public Builder mode(AnalysisMode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * Sets the {@link SketchOptions} of the {@link AnalysisMode#APPROXIMATE} analysis.
+         *
+         * @param sketchOptions
+         *            The desired sketch options.
+         * @return This builder.
+         */
+        public Builder sketchOptions(SketchOptions sketchOptions) {
+            this.sketchOptions = sketchOptions;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of input files of a batch processed at the same time.
+         *
+         * @param batchConcurrency
+         *            The desired number of input files, should be positive.
+         * @return This builder.
+         */
+        public Builder batchConcurrency(int batchConcurrency) {
+            this.batchConcurrency = batchConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time between two checks of the input file in the watch mode. Setting it turns on the watch mode, in which the lines
+         * appended to the input file are processed until the application is stopped.
+         *
+         * @param watchInterval
+         *            The desired interval, should be positive, or {@code null} to process the input file only once.
+         * @return This builder.
+         */
+        public Builder watchInterval(Duration watchInterval) {
+            this.watchInterval = watchInterval;
+            return this;
+        }
+
+        /**
+         * Sets the file the progress of the exact analysis is periodically saved to. If the file exists when the analysis starts, the analysis
+         * resumes from the saved progress, and the file is deleted once the analysis completes.
+         *
+         * @param checkpointFile
+         *            The desired checkpoint file, or {@code null} to turn checkpoints off.
+         * @return This builder.
+         */
+        public Builder checkpointFile(Path checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        /**
+         * Sets the number of processed bytes after which a checkpoint is saved.
+         *
+         * @param checkpointIntervalBytes
+         *            The desired number of bytes, should be positive.
+         * @return This builder.
+         */
+        public Builder checkpointIntervalBytes(long checkpointIntervalBytes) {
+            this.checkpointIntervalBytes = checkpointIntervalBytes;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a checkpoint is saved, even if fewer bytes than the checkpoint interval have been processed.
+         *
+         * @param checkpointInterval
+         *            The desired interval, should be positive.
+         * @return This builder.
+         */
+        public Builder checkpointInterval(Duration checkpointInterval) {
+            this.checkpointInterval = checkpointInterval;
+            return this;
+        }
+
+        /**
+         * Sets the binary room file the input file is converted into. Setting it turns on the conversion, in which the text input file is converted
+         * into a binary room file instead of being analysed.
+         *
+         * @param binaryOutputFile
+         *            The desired binary room file, or {@code null} to analyse the input file.
+         * @return This builder.
+         */
+        public Builder binaryOutputFile(Path binaryOutputFile) {
+            this.binaryOutputFile = binaryOutputFile;
+            return this;
+        }
+
+        /**
+         * Sets the {@link OutputFormat} the results are streamed in. Setting it turns on the streaming of the results, which are logged otherwise.
+         *
+         * @param outputFormat
+         *            The desired format, or {@code null} to log the results.
+         * @return This builder.
+         */
+        public Builder outputFormat(OutputFormat outputFormat) {
+            this.outputFormat = outputFormat;
+            return this;
+        }
+
+        /**
+         * Sets the file the results are streamed into, an existing file is overwritten.
+         *
+         * @param outputFile
+         *            The desired file, or {@code null} to stream the results to the standard output.
+         * @return This builder.
+         */
+        public Builder outputFile(Path outputFile) {
+            this.outputFile = outputFile;
+            return this;
+        }
+
+        /**
+         * Sets whether the processing metrics are collected and reported as JSON at the end of the run.
+         *
+         * @param statsReport
+         *            {@code true} to collect and report the processing metrics.
+         * @return This builder.
+         */
+        public Builder statsReport(boolean statsReport) {
+            this.statsReport = statsReport;
+            return this;
+        }
+
+        /**
+         * Sets the file the JSON report of the processing metrics is written into, an existing file is overwritten. It is only written if the
+         * {@link #statsReport(boolean)} is turned on.
+         *
+         * @param statsFile
+         *            The desired file, or {@code null} to log the report.
+         * @return This builder.
+         */
+        public Builder statsFile(Path statsFile) {
+            this.statsFile = statsFile;
+            return this;
+        }
+
+        /**
+         * Sets the address the analysis server listens on. Setting it turns on the server mode, in which room files are analysed as they are
+         * uploaded, until the application is stopped.
+         *
+         * @param serverAddress
+         *            The desired address, or {@code null} to process the input files instead of serving requests.
+         * @return This builder.
+         */
+        public Builder serverAddress(InetSocketAddress serverAddress) {
+            this.serverAddress = serverAddress;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests the analysis server processes at the same time. The requests arriving while the server is busy are
+         * rejected instead of being queued.
+         *
+         * @param maxConcurrentRequests
+         *            The desired number of requests, should be positive.
+         * @return This builder.
+         */
+        public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time the analysis server waits for the requests in progress when it is stopped.
+         *
+         * @param shutdownTimeout
+         *            The desired timeout, should not be negative.
+         * @return This builder.
+         */
+        public Builder shutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+            return this;
+        }
+
+        /**
+         * Sets whether the invalid lines of the input files are skipped instead of failing the processing. The skipped lines are counted, and the
+         * first ones are reported with their line numbers and reasons along with the results.
+         *
+         * @param lenient
+         *            {@code true} to skip the invalid lines, {@code false} to fail on the first one.
+         * @return This builder.
+         */
+        public Builder lenient(boolean lenient) {
+            this.lenient = lenient;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of skipped lines reported with their line numbers and reasons in the lenient mode. The further skipped lines are
+         * only counted, so a file full of invalid lines cannot exhaust the heap.
+         *
+         * @param errorReservoirSize
+         *            The desired number of lines, should not be negative.
+         * @return This builder.
+         */
+        public Builder errorReservoirSize(int errorReservoirSize) {
+            this.errorReservoirSize = errorReservoirSize;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ProcessingOptions} instance.
+         *
+         * @return A new {@link ProcessingOptions} instance.
+         */
+        public ProcessingOptions build() {
+            return new ProcessingOptions(
+                    engine,
+                    threads,
+                    maxInputSizeBytes,
+                    duplicateDetectionMemoryBytes,
+                    spillDirectory,
+                    cubicRoomLimit,
+                    mode,
+                    sketchOptions,
+                    batchConcurrency,
+                    watchInterval,
+                    checkpointFile,
+                    checkpointIntervalBytes,
+                    checkpointInterval,
+                    binaryOutputFile,
+                    outputFormat,
+                    outputFile,
+                    statsReport,
+                    statsFile,
+                    serverAddress,
+                    maxConcurrentRequests,
+                    shutdownTimeout,
+                    lenient,
+                    errorReservoirSize);
+        }
+    }
+}
@@ -11,8 +11,24 @@ import java.util.List;
  *            A list of {@link Room} objects that represent rooms that are cubic.
  * @param duplicateRooms
  *            A list of {@link Room} objects that represent rooms with duplicate dimensions.
+ * @param invalidLines
+ *            The {@link InvalidLines} skipped by the lenient parsing, {@link InvalidLines#NONE} for a strictly parsed input.
  *
  * @author krisztian.hathazi
  */
-public record Result(int totalSquareFeetOfWallpaper, List<Room> cubicRooms, List<Room> duplicateRooms) {
+public record Result(long totalSquareFeetOfWallpaper, List<Room> cubicRooms, List<Room> duplicateRooms, InvalidLines invalidLines) {
+
+    /**
+     * Constructs a {@link Result} of an input without skipped lines.
+     *
+     * @param totalSquareFeetOfWallpaper
+     *            The total square feet of wallpaper needed to cover all rooms.
+     * @param cubicRooms
+     *            A list of {@link Room} objects that represent rooms that are cubic.
+     * @param duplicateRooms
+     *            A list of {@link Room} objects that represent rooms with duplicate dimensions.
+     */
+    public Result(long totalSquareFeetOfWallpaper, List<Room> cubicRooms, List<Room> duplicateRooms) {
+        this(totalSquareFeetOfWallpaper, cubicRooms, duplicateRooms, InvalidLines.NONE);
+    }
 }
@@ -1,17 +1,142 @@
 package gscf.task.roomdimension.dto;
 
+import java.util.Objects;
+
 /**
- * The {@code Room} record represents the characteristics of a room, including its unique identifier, the wallpaper needed to cover the room, and
- * whether the room is cubic.
- *
- * @param key
- *            A unique identifier for the room (e.g., a string representing room dimensions).
- * @param wallpaperNeeded
- *            The total amount of wallpaper needed to cover the room, in square feet.
- * @param isCubic
- *            A boolean value indicating whether the room is cubic (i.e., if length, width, and height are equal).
+ * The {@code Room} class represents the characteristics of a room, including its dimensions, the wallpaper needed to cover the room, and whether the
+ * room is cubic.
+ * <p>
+ * A room holds only its primitive dimensions. Its key, the dimensions in the {@code LxWxH} format, is built lazily when it is first output, and is
+ * cached afterwards. Rooms are equal if their dimensions are equal, so a single instance can stand for every room with the same dimensions.
+ * Instances are immutable.
+ * </p>
  *
  * @author krisztian.hathazi
  */
-public record Room(String key, int wallpaperNeeded, boolean isCubic) {
+public final class Room {
+
+    private final int length;
+
+    private final int width;
+
+    private final int height;
+
+    private final long wallpaperNeeded;
+
+    private final boolean cubic;
+
+    // Built on first use, a racing thread at worst builds an equal string
+    private String key;
+
+    /**
+     * Constructs a {@code Room} with the given dimensions and characteristics.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @param wallpaperNeeded
+     *            The total amount of wallpaper needed to cover the room, in square feet.
+     * @param isCubic
+     *            A boolean value indicating whether the room is cubic (i.e., if length, width, and height are equal).
+     */
+    public Room(int length, int width, int height, long wallpaperNeeded, boolean isCubic) {
+        this.length = length;
+        this.width = width;
+        this.height = height;
+        this.wallpaperNeeded = wallpaperNeeded;
+        this.cubic = isCubic;
+    }
+
+    /**
+     * Returns the length of the room.
+     *
+     * @return The length.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the width of the room.
+     *
+     * @return The width.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the room.
+     *
+     * @return The height.
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Returns the unique identifier of the room, i.e. its dimensions in the {@code LxWxH} format.
+     *
+     * @return The key of the room.
+     */
+    public String key() {
+        String result = key;
+        if (result == null) {
+            result = length + "x" + width + "x" + height;
+            key = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total amount of wallpaper needed to cover the room.
+     *
+     * @return The wallpaper needed, in square feet.
+     */
+    public long wallpaperNeeded() {
+        return wallpaperNeeded;
+    }
+
+    /**
+     * Returns whether the room is cubic.
+     *
+     * @return {@code true} if all dimensions are equal, {@code false} otherwise.
+     */
+    public boolean isCubic() {
+        return cubic;
+    }
+
+    /**
+     * Checks whether the dimensions of the given room are the same as the dimensions of this one.
+     *
+     * @param length
+     *            The length of the other room.
+     * @param width
+     *            The width of the other room.
+     * @param height
+     *            The height of the other room.
+     * @return {@code true} if all dimensions are equal, {@code false} otherwise.
+     */
+    public boolean hasDimensions(int length, int width, int height) {
+        return this.length == length && this.width == width && this.height == height;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        // The wallpaper needed and the cubic flag are derived from the dimensions, so they are not compared
+        return this == other || other instanceof Room room && hasDimensions(room.length, room.width, room.height);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(length, width, height);
+    }
+
+    @Override
+    public String toString() {
+        return "Room[key=" + key() + ", wallpaperNeeded=" + wallpaperNeeded + ", isCubic=" + cubic + "]";
+    }
 }
@@ -0,0 +1,85 @@
+package gscf.task.roomdimension.dto;
+
+/**
+ * The {@code RoomDimensions} class is a mutable holder of the dimensions of a single room and of the wallpaper it needs. It is meant to be reused
+ * while a large number of rooms are parsed, so that no object has to be allocated per room. Instances are not thread-safe.
+ *
+ * @author krisztian.hathazi
+ */
+public class RoomDimensions {
+
+    private int length;
+
+    private int width;
+
+    private int height;
+
+    private long wallpaperNeeded;
+
+    /**
+     * Sets the dimensions of the room and the wallpaper it needs, as calculated by
+     * {@link gscf.task.roomdimension.converter.RoomConverter#calculateWallpaperNeeded(int, int, int)}.
+     *
+     * @param length
+     *            The length of the room.
+     * @param width
+     *            The width of the room.
+     * @param height
+     *            The height of the room.
+     * @param wallpaperNeeded
+     *            The wallpaper needed to cover the room, in square feet.
+     * @return This instance.
+     */
+    public RoomDimensions set(int length, int width, int height, long wallpaperNeeded) {
+        this.length = length;
+        this.width = width;
+        this.height = height;
+        this.wallpaperNeeded = wallpaperNeeded;
+        return this;
+    }
+
+    /**
+     * Returns the length of the room.
+     *
+     * @return The length of the room.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the width of the room.
+     *
+     * @return The width of the room.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the room.
+     *
+     * @return The height of the room.
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Returns the wallpaper needed to cover the room.
+     *
+     * @return The wallpaper needed, in square feet.
+     */
+    public long wallpaperNeeded() {
+        return wallpaperNeeded;
+    }
+
+    /**
+     * Checks whether the room is cubic.
+     *
+     * @return {@code true} if all dimensions are equal, {@code false} otherwise.
+     */
+    public boolean isCubic() {
+        return length == width && width == height;
+    }
+}
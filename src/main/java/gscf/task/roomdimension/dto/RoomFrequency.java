@@ -0,0 +1,14 @@
+package gscf.task.roomdimension.dto;
+
+/**
+ * The {@code RoomFrequency} record pairs a {@link Room} with the estimated number of its occurrences.
+ *
+ * @param room
+ *            The {@link Room} object.
+ * @param estimatedCount
+ *            The estimated number of occurrences of the room, never lower than the real number.
+ *
+ * @author krisztian.hathazi
+ */
+public record RoomFrequency(Room room, long estimatedCount) {
+}
@@ -0,0 +1,113 @@
+package gscf.task.roomdimension.dto;
+
+/**
+ * The {@code SketchOptions} record holds the error bounds of the sketches used by the {@link AnalysisMode#APPROXIMATE} analysis. Instances are
+ * usually created through the {@link Builder} returned by {@link #builder()}, so that only the non-default settings have to be provided.
+ *
+ * @param distinctRoomsError
+ *            The relative standard error of the estimated number of distinct rooms.
+ * @param frequencyError
+ *            The maximum overestimate of the count of a room, relative to the number of rooms.
+ * @param frequencyConfidence
+ *            The probability of the estimated count of a room staying within the {@code frequencyError} bound.
+ * @param mostRepeatedRoomCount
+ *            The number of most repeated rooms to report.
+ *
+ * @author krisztian.hathazi
+ */
+public record SketchOptions(double distinctRoomsError, double frequencyError, double frequencyConfidence, int mostRepeatedRoomCount) {
+
+    /**
+     * Returns the default sketch options.
+     *
+     * @return A {@code SketchOptions} instance with every setting on its default value.
+     */
+    public static SketchOptions defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Returns a new {@link Builder} initialized with the default settings.
+     *
+     * @return A new {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link SketchOptions}.
+     */
+    public static final class Builder {
+
+        private double distinctRoomsError = 0.01;
+
+        private double frequencyError = 0.0001;
+
+        private double frequencyConfidence = 0.99;
+
+        private int mostRepeatedRoomCount = 10;
+
+        private Builder() {
+            // Use SketchOptions.builder() instead
+        }
+
+        /**
+         * Sets the relative standard error of the estimated number of distinct rooms.
+         *
+         * @param distinctRoomsError
+         *            The desired error, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder distinctRoomsError(double distinctRoomsError) {
+            this.distinctRoomsError = distinctRoomsError;
+            return this;
+        }
+
+        /**
+         * Sets the maximum overestimate of the count of a room, relative to the number of rooms.
+         *
+         * @param frequencyError
+         *            The desired error, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder frequencyError(double frequencyError) {
+            this.frequencyError = frequencyError;
+            return this;
+        }
+
+        /**
+         * Sets the probability of the estimated count of a room staying within the frequency error bound.
+         *
+         * @param frequencyConfidence
+         *            The desired probability, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder frequencyConfidence(double frequencyConfidence) {
+            this.frequencyConfidence = frequencyConfidence;
+            return this;
+        }
+
+        /**
+         * Sets the number of most repeated rooms to report.
+         *
+         * @param mostRepeatedRoomCount
+         *            The desired number of rooms, should be positive and at most
+         *            {@link gscf.task.roomdimension.action.process.HeavyHitterHeap#MAX_CAPACITY}.
+         * @return This builder.
+         */
+        public Builder mostRepeatedRoomCount(int mostRepeatedRoomCount) {
+            this.mostRepeatedRoomCount = mostRepeatedRoomCount;
+            return this;
+        }
+
+        /**
+         * Builds the {@link SketchOptions} instance.
+         *
+         * @return A new {@link SketchOptions} instance.
+         */
+        public SketchOptions build() {
+            return new SketchOptions(distinctRoomsError, frequencyError, frequencyConfidence, mostRepeatedRoomCount);
+        }
+    }
+}
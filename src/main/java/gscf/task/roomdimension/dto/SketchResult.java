@@ -0,0 +1,66 @@
+package gscf.task.roomdimension.dto;
+
+import java.util.List;
+
+/**
+ * The {@code SketchResult} record represents the result of the {@link AnalysisMode#APPROXIMATE} analysis of room dimension data.
+ *
+ * @param totalSquareFeetOfWallpaper
+ *            The exact total square feet of wallpaper needed to cover all rooms.
+ * @param roomCount
+ *            The exact number of processed rooms.
+ * @param estimatedDistinctRooms
+ *            The estimated number of rooms with distinct dimensions.
+ * @param distinctRoomsError
+ *            The relative standard error of {@code estimatedDistinctRooms}.
+ * @param mostRepeatedRooms
+ *            A list of {@link RoomFrequency} objects that represent the most repeated rooms, in descending order of their estimated counts.
+ * @param frequencyErrorBound
+ *            The maximum overestimate of the counts of {@code mostRepeatedRooms}, which holds with the configured confidence.
+ * @param invalidLines
+ *            The {@link InvalidLines} skipped by the lenient parsing, {@link InvalidLines#NONE} for a strictly parsed input.
+ *
+ * @author krisztian.hathazi
+ */
+public record SketchResult(
+        long totalSquareFeetOfWallpaper,
+        long roomCount,
+        long estimatedDistinctRooms,
+        double distinctRoomsError,
+        List<RoomFrequency> mostRepeatedRooms,
+        long frequencyErrorBound,
+        InvalidLines invalidLines) {
+
+    /**
+     * Constructs a {@link SketchResult} of an input without skipped lines.
+     *
+     * @param totalSquareFeetOfWallpaper
+     *            The exact total square feet of wallpaper needed to cover all rooms.
+     * @param roomCount
+     *            The exact number of processed rooms.
+     * @param estimatedDistinctRooms
+     *            The estimated number of rooms with distinct dimensions.
+     * @param distinctRoomsError
+     *            The relative standard error of {@code estimatedDistinctRooms}.
+     * @param mostRepeatedRooms
+     *            A list of {@link RoomFrequency} objects that represent the most repeated rooms, in descending order of their estimated counts.
+     * @param frequencyErrorBound
+     *            The maximum overestimate of the counts of {@code mostRepeatedRooms}, which holds with the configured confidence.
+     */
+    public SketchResult(
+            long totalSquareFeetOfWallpaper,
+            long roomCount,
+            long estimatedDistinctRooms,
+            double distinctRoomsError,
+            List<RoomFrequency> mostRepeatedRooms,
+            long frequencyErrorBound) {
+        this(
+                totalSquareFeetOfWallpaper,
+                roomCount,
+                estimatedDistinctRooms,
+                distinctRoomsError,
+                mostRepeatedRooms,
+                frequencyErrorBound,
+                InvalidLines.NONE);
+    }
+}
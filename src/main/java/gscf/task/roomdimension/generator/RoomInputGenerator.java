@@ -0,0 +1,316 @@
+package gscf.task.roomdimension.generator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.SplittableRandom;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * Generates room dimension input files, one {@code LxWxH} line per room, for testing and benchmarking the application at scale. The generated
+ * content only depends on the settings, so the same seed always produces the same file.
+ * <p>
+ * Every room is one of the following:
+ * <ul>
+ * <li>A cubic room, with the probability of the cubic ratio</li>
+ * <li>A room drawn from a small pool of rooms, with the probability of the duplicate ratio, so these rooms repeat many times</li>
+ * <li>A room with random dimensions from the dimension range</li>
+ * </ul>
+ * The lines are formatted straight into a byte buffer, so gigabytes can be generated quickly. Instances are created through the {@link Builder}
+ * returned by {@link #builder()}, and are immutable.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public final class RoomInputGenerator {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // The longest line: three 10 digit dimensions, two separators and a newline
+    private static final int MAX_LINE_LENGTH = 33;
+
+    private final long seed;
+
+    private final long roomCount;
+
+    private final long sizeBytes;
+
+    private final double duplicateRatio;
+
+    private final double cubicRatio;
+
+    private final int minDimension;
+
+    private final int maxDimension;
+
+    private final int duplicatePoolSize;
+
+    private RoomInputGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.roomCount = builder.roomCount;
+        this.sizeBytes = builder.sizeBytes;
+        this.duplicateRatio = builder.duplicateRatio;
+        this.cubicRatio = builder.cubicRatio;
+        this.minDimension = builder.minDimension;
+        this.maxDimension = builder.maxDimension;
+        this.duplicatePoolSize = builder.duplicatePoolSize;
+    }
+
+    /**
+     * Returns a new {@link Builder} initialized with the default settings.
+     *
+     * @return A new {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Writes the generated rooms into the given file, replacing its content.
+     *
+     * @param file
+     *            The path of the file to be written.
+     * @return The number of generated rooms.
+     * @throws IOException
+     *             If the file cannot be written.
+     * @throws InvalidMethodParameterException
+     *             If the file is null.
+     */
+    public long generate(Path file) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(file, "file");
+
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            return generate(outputStream);
+        }
+    }
+
+    /**
+     * Writes the generated rooms into the given stream, which is left open.
+     *
+     * @param outputStream
+     *            The stream receiving the rooms.
+     * @return The number of generated rooms.
+     * @throws IOException
+     *             If the stream cannot be written.
+     * @throws InvalidMethodParameterException
+     *             If the stream is null.
+     */
+    public long generate(OutputStream outputStream) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(outputStream, "outputStream");
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] duplicatePool = createDuplicatePool(random.split());
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int position = 0;
+        long rooms = 0;
+        long bytes = 0;
+
+        while (rooms < roomCount && bytes < sizeBytes) {
+            if (position > BUFFER_SIZE - MAX_LINE_LENGTH) {
+                outputStream.write(buffer, 0, position);
+                position = 0;
+            }
+
+            int start = position;
+            double draw = random.nextDouble();
+            if (draw < cubicRatio) {
+                int side = nextDimension(random);
+                position = writeRoom(buffer, position, side, side, side);
+            } else if (draw < cubicRatio + duplicateRatio) {
+                int room = random.nextInt(duplicatePoolSize) * 3;
+                position = writeRoom(buffer, position, duplicatePool[room], duplicatePool[room + 1], duplicatePool[room + 2]);
+            } else {
+                position = writeRoom(buffer, position, nextDimension(random), nextDimension(random), nextDimension(random));
+            }
+            bytes += position - start;
+            rooms++;
+        }
+        outputStream.write(buffer, 0, position);
+        outputStream.flush();
+        return rooms;
+    }
+
+    private int[] createDuplicatePool(SplittableRandom random) {
+        int[] pool = new int[duplicatePoolSize * 3];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = nextDimension(random);
+        }
+        return pool;
+    }
+
+    private int nextDimension(SplittableRandom random) {
+        return maxDimension == Integer.MAX_VALUE ? random.nextInt(minDimension - 1, maxDimension) + 1 : random.nextInt(minDimension, maxDimension + 1);
+    }
+
+    private static int writeRoom(byte[] buffer, int position, int length, int width, int height) {
+        int next = writeInt(buffer, position, length);
+        buffer[next++] = 'x';
+        next = writeInt(buffer, next, width);
+        buffer[next++] = 'x';
+        next = writeInt(buffer, next, height);
+        buffer[next++] = '\n';
+        return next;
+    }
+
+    private static int writeInt(byte[] buffer, int position, int value) {
+        int digits = 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        int remaining = value;
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return position + digits;
+    }
+
+    /**
+     * Builder for {@link RoomInputGenerator}. Generation stops at whichever of the room count and the size limit is reached first, both are
+     * unlimited by default, so at least one of them has to be set.
+     */
+    public static final class Builder {
+
+        private long seed;
+
+        private long roomCount = Long.MAX_VALUE;
+
+        private long sizeBytes = Long.MAX_VALUE;
+
+        private double duplicateRatio;
+
+        private double cubicRatio;
+
+        private int minDimension = 1;
+
+        private int maxDimension = 1_000;
+
+        private int duplicatePoolSize = 1_000;
+
+        private Builder() {
+            // Use RoomInputGenerator.builder() instead
+        }
+
+        /**
+         * Sets the seed of the random generator.
+         *
+         * @param seed
+         *            The desired seed.
+         * @return This builder.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the number of generated rooms.
+         *
+         * @param roomCount
+         *            The desired number of rooms, should not be negative.
+         * @return This builder.
+         */
+        public Builder roomCount(long roomCount) {
+            this.roomCount = roomCount;
+            return this;
+        }
+
+        /**
+         * Sets the size of the generated input. Generation stops with the first room reaching the size, so the input may be a single line longer.
+         *
+         * @param sizeBytes
+         *            The desired size in bytes, should not be negative.
+         * @return This builder.
+         */
+        public Builder sizeBytes(long sizeBytes) {
+            this.sizeBytes = sizeBytes;
+            return this;
+        }
+
+        /**
+         * Sets the ratio of the rooms drawn from the pool of repeating rooms.
+         *
+         * @param duplicateRatio
+         *            The desired ratio, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder duplicateRatio(double duplicateRatio) {
+            this.duplicateRatio = duplicateRatio;
+            return this;
+        }
+
+        /**
+         * Sets the ratio of the cubic rooms.
+         *
+         * @param cubicRatio
+         *            The desired ratio, between 0 and 1.
+         * @return This builder.
+         */
+        public Builder cubicRatio(double cubicRatio) {
+            this.cubicRatio = cubicRatio;
+            return this;
+        }
+
+        /**
+         * Sets the range of the generated dimensions, both ends inclusive. A narrow range makes accidental duplicates more likely.
+         *
+         * @param minDimension
+         *            The smallest dimension, should be positive.
+         * @param maxDimension
+         *            The largest dimension, should not be smaller than the smallest one.
+         * @return This builder.
+         */
+        public Builder dimensionRange(int minDimension, int maxDimension) {
+            this.minDimension = minDimension;
+            this.maxDimension = maxDimension;
+            return this;
+        }
+
+        /**
+         * Sets the number of distinct rooms the duplicates are drawn from.
+         *
+         * @param duplicatePoolSize
+         *            The desired number of rooms, should be positive.
+         * @return This builder.
+         */
+        public Builder duplicatePoolSize(int duplicatePoolSize) {
+            this.duplicatePoolSize = duplicatePoolSize;
+            return this;
+        }
+
+        /**
+         * Builds the {@link RoomInputGenerator} instance.
+         *
+         * @return A new {@link RoomInputGenerator} instance.
+         * @throws InvalidMethodParameterException
+         *             If any of the settings is invalid, or neither the room count nor the size is limited.
+         */
+        public RoomInputGenerator build() {
+            if (roomCount < 0 || sizeBytes < 0 || roomCount == Long.MAX_VALUE && sizeBytes == Long.MAX_VALUE) {
+                throw new InvalidMethodParameterException("Either the room count or the size of the generated input should be limited.");
+            }
+            if (duplicateRatio < 0 || cubicRatio < 0 || duplicateRatio + cubicRatio > 1) {
+                throw new InvalidMethodParameterException(
+                        MessageFormat.format(
+                                "The duplicate ratio [{0}] and the cubic ratio [{1}] should not be negative, and their sum should not exceed 1.",
+                                duplicateRatio,
+                                cubicRatio));
+            }
+            if (minDimension <= 0 || maxDimension < minDimension) {
+                throw new InvalidMethodParameterException(
+                        MessageFormat.format("The dimension range [{0}, {1}] is invalid.", minDimension, maxDimension));
+            }
+            if (duplicatePoolSize <= 0) {
+                throw new InvalidMethodParameterException(
+                        MessageFormat.format("The duplicate pool size should be positive, got [{0}].", duplicatePoolSize));
+            }
+            return new RoomInputGenerator(this);
+        }
+    }
+}
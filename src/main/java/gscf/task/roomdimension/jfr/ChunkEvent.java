@@ -0,0 +1,59 @@
+package gscf.task.roomdimension.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event of reading and parsing a single chunk of an input file: a mapped window, a range of a gzip file, or a fixed number
+ * of lines read by the reader based engine.
+ *
+ * @author krisztian.hathazi
+ */
+@Name(ChunkEvent.NAME)
+@Label("Input Chunk")
+@Description("Reads and parses a chunk of an input file")
+@Category(RoomDimensionEvents.CATEGORY)
+@Threshold(ChunkEvent.DEFAULT_THRESHOLD)
+@StackTrace(false)
+public final class ChunkEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the event, to be configured in the {@code .jfc} settings.
+     */
+    public static final String NAME = RoomDimensionEvents.NAME_PREFIX + "Chunk";
+
+    /**
+     * The default threshold, shorter chunks are not recorded.
+     */
+    public static final String DEFAULT_THRESHOLD = "20 ms";
+
+    /**
+     * The format of the input file: {@code text}, {@code binary} or {@code gzip}.
+     */
+    @Label("Format")
+    public String format;
+
+    /**
+     * The offset of the chunk in the input file.
+     */
+    @Label("Offset")
+    public long offset;
+
+    /**
+     * The size of the chunk, the compressed size of a gzip range, or the number of characters read by the reader based engine.
+     */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * The number of parsed lines, or decoded rooms of a binary room file.
+     */
+    @Label("Lines")
+    public long lines;
+}
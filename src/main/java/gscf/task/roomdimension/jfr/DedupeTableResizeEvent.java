@@ -0,0 +1,57 @@
+package gscf.task.roomdimension.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event of growing a hash table of the duplicate detection, see
+ * {@link gscf.task.roomdimension.action.process.PackedRoomKeySet}. Its stack trace tells which detector has grown.
+ *
+ * @author krisztian.hathazi
+ */
+@Name(DedupeTableResizeEvent.NAME)
+@Label("Dedupe Table Resize")
+@Description("Doubles the capacity of a room key table of the duplicate detection")
+@Category(RoomDimensionEvents.CATEGORY)
+@Threshold(DedupeTableResizeEvent.DEFAULT_THRESHOLD)
+public final class DedupeTableResizeEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the event, to be configured in the {@code .jfc} settings.
+     */
+    public static final String NAME = RoomDimensionEvents.NAME_PREFIX + "DedupeTableResize";
+
+    /**
+     * The default threshold, the small tables are resized faster and are not recorded.
+     */
+    public static final String DEFAULT_THRESHOLD = "1 ms";
+
+    /**
+     * The number of slots before the resize.
+     */
+    @Label("Old Capacity")
+    public int oldCapacity;
+
+    /**
+     * The number of slots after the resize.
+     */
+    @Label("New Capacity")
+    public int newCapacity;
+
+    /**
+     * The number of room keys in the table.
+     */
+    @Label("Size")
+    public int size;
+
+    /**
+     * The size of the new key array.
+     */
+    @Label("Memory")
+    @DataAmount
+    public long memoryBytes;
+}
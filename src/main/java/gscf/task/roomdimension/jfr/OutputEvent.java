@@ -0,0 +1,45 @@
+package gscf.task.roomdimension.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event of outputting a result, by logging it or by streaming it into a
+ * {@link gscf.task.roomdimension.output.ResultSink}.
+ *
+ * @author krisztian.hathazi
+ */
+@Name(OutputEvent.NAME)
+@Label("Result Output")
+@Description("Logs a result or streams it into a result sink")
+@Category(RoomDimensionEvents.CATEGORY)
+@Threshold(OutputEvent.DEFAULT_THRESHOLD)
+@StackTrace(false)
+public final class OutputEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the event, to be configured in the {@code .jfc} settings.
+     */
+    public static final String NAME = RoomDimensionEvents.NAME_PREFIX + "Output";
+
+    /**
+     * The default threshold, faster outputs are not recorded.
+     */
+    public static final String DEFAULT_THRESHOLD = "10 ms";
+
+    /**
+     * The path of the input file of the result, {@code null} for the aggregated result of a batch.
+     */
+    @Label("Source")
+    public String source;
+
+    /**
+     * Whether the result is streamed into a result sink instead of being logged.
+     */
+    @Label("Streamed")
+    public boolean streamed;
+}
@@ -0,0 +1,51 @@
+package gscf.task.roomdimension.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event of building a result out of the aggregated rooms: sorting the cubic rooms and listing the duplicate rooms, or reading
+ * the most repeated rooms off the sketches.
+ *
+ * @author krisztian.hathazi
+ */
+@Name(ResultEvent.NAME)
+@Label("Result Building")
+@Description("Sorts and lists the reported rooms of a result")
+@Category(RoomDimensionEvents.CATEGORY)
+@Threshold(ResultEvent.DEFAULT_THRESHOLD)
+@StackTrace(false)
+public final class ResultEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the event, to be configured in the {@code .jfc} settings.
+     */
+    public static final String NAME = RoomDimensionEvents.NAME_PREFIX + "Result";
+
+    /**
+     * The default threshold, faster results are not recorded.
+     */
+    public static final String DEFAULT_THRESHOLD = "10 ms";
+
+    /**
+     * The analysis of the result: {@code exact} or {@code approximate}.
+     */
+    @Label("Mode")
+    public String mode;
+
+    /**
+     * The number of aggregated rooms.
+     */
+    @Label("Rooms")
+    public long rooms;
+
+    /**
+     * The number of reported rooms: the cubic and the duplicate rooms, or the most repeated rooms.
+     */
+    @Label("Reported Rooms")
+    public int reportedRooms;
+}
@@ -0,0 +1,243 @@
+package gscf.task.roomdimension.jfr;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Constants and emitters shared by the Java Flight Recorder events of the application.
+ * <p>
+ * Every event has a default threshold, so only the slow validations, chunks, resizes, results and outputs are recorded, and a continuous recording
+ * stays cheap. The events and their thresholds are configured like the events of the JDK, by their name in a {@code .jfc} settings file, e.g. in
+ * the {@code jfr/room-dimension.jfc} file of the project.
+ * </p>
+ * <p>
+ * The events are emitted through the {@code begin...} and {@code commit...} methods of this class. Loading the first event class initialises the
+ * whole Flight Recorder, which takes longer than the analysis of a small input file, so an event is only created once the Flight Recorder has
+ * been initialised, i.e. a recording has been started on the command line, by {@code jcmd} or by the application itself. Until then the
+ * {@code begin...} methods return {@code null}, which the {@code commit...} methods ignore, and an event costs a single check.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public final class RoomDimensionEvents {
+
+    /**
+     * The category of every event of the application.
+     */
+    public static final String CATEGORY = "Room Dimension Analysis";
+
+    /**
+     * The prefix of the name of every event of the application.
+     */
+    public static final String NAME_PREFIX = "gscf.task.roomdimension.";
+
+    private RoomDimensionEvents() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Checks whether the events of the application may be recorded, i.e. the Flight Recorder has been initialised.
+     *
+     * @return {@code true} if the Flight Recorder has been initialised.
+     */
+    public static boolean isRecorderInitialized() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Begins a {@link ValidationEvent}.
+     *
+     * @return The begun {@link ValidationEvent}, or {@code null} if the Flight Recorder has not been initialised.
+     */
+    public static ValidationEvent beginValidation() {
+        if (!isRecorderInitialized()) {
+            return null;
+        }
+        ValidationEvent validationEvent = new ValidationEvent();
+        validationEvent.begin();
+        return validationEvent;
+    }
+
+    /**
+     * Ends a {@link ValidationEvent}, and commits it if it passes its threshold.
+     *
+     * @param validationEvent
+     *            The {@link ValidationEvent} returned by {@link #beginValidation()}, {@code null} is ignored.
+     * @param path
+     *            The path of the validated input file.
+     * @param size
+     *            The size of the input file, {@code 0} if it is not a regular file.
+     * @param regularFile
+     *            Whether the input file is a regular file.
+     */
+    public static void commitValidation(ValidationEvent validationEvent, String path, long size, boolean regularFile) {
+        if (validationEvent == null) {
+            return;
+        }
+        validationEvent.end();
+        if (validationEvent.shouldCommit()) {
+            validationEvent.path = path;
+            validationEvent.size = size;
+            validationEvent.regularFile = regularFile;
+            validationEvent.commit();
+        }
+    }
+
+    /**
+     * Begins a {@link ChunkEvent}.
+     *
+     * @return The begun {@link ChunkEvent}, or {@code null} if the Flight Recorder has not been initialised.
+     */
+    public static ChunkEvent beginChunk() {
+        if (!isRecorderInitialized()) {
+            return null;
+        }
+        ChunkEvent chunkEvent = new ChunkEvent();
+        chunkEvent.begin();
+        return chunkEvent;
+    }
+
+    /**
+     * Ends a {@link ChunkEvent}, and commits it if it passes its threshold.
+     *
+     * @param chunkEvent
+     *            The {@link ChunkEvent} returned by {@link #beginChunk()}, {@code null} is ignored.
+     * @param format
+     *            The format of the input file.
+     * @param offset
+     *            The offset of the chunk in the input file.
+     * @param bytes
+     *            The size of the chunk.
+     * @param lines
+     *            The number of lines or rooms of the chunk.
+     */
+    public static void commitChunk(ChunkEvent chunkEvent, String format, long offset, long bytes, long lines) {
+        if (chunkEvent == null) {
+            return;
+        }
+        chunkEvent.end();
+        if (chunkEvent.shouldCommit()) {
+            chunkEvent.format = format;
+            chunkEvent.offset = offset;
+            chunkEvent.bytes = bytes;
+            chunkEvent.lines = lines;
+            chunkEvent.commit();
+        }
+    }
+
+    /**
+     * Begins a {@link DedupeTableResizeEvent}.
+     *
+     * @return The begun {@link DedupeTableResizeEvent}, or {@code null} if the Flight Recorder has not been initialised.
+     */
+    public static DedupeTableResizeEvent beginDedupeTableResize() {
+        if (!isRecorderInitialized()) {
+            return null;
+        }
+        DedupeTableResizeEvent resizeEvent = new DedupeTableResizeEvent();
+        resizeEvent.begin();
+        return resizeEvent;
+    }
+
+    /**
+     * Ends a {@link DedupeTableResizeEvent}, and commits it if it passes its threshold.
+     *
+     * @param resizeEvent
+     *            The {@link DedupeTableResizeEvent} returned by {@link #beginDedupeTableResize()}, {@code null} is ignored.
+     * @param oldCapacity
+     *            The capacity of the table before the resize.
+     * @param newCapacity
+     *            The capacity of the table after the resize.
+     * @param size
+     *            The number of keys in the table.
+     * @param memoryBytes
+     *            The memory footprint of the table after the resize.
+     */
+    public static void commitDedupeTableResize(DedupeTableResizeEvent resizeEvent, int oldCapacity, int newCapacity, int size, long memoryBytes) {
+        if (resizeEvent == null) {
+            return;
+        }
+        resizeEvent.end();
+        if (resizeEvent.shouldCommit()) {
+            resizeEvent.oldCapacity = oldCapacity;
+            resizeEvent.newCapacity = newCapacity;
+            resizeEvent.size = size;
+            resizeEvent.memoryBytes = memoryBytes;
+            resizeEvent.commit();
+        }
+    }
+
+    /**
+     * Begins a {@link ResultEvent}.
+     *
+     * @return The begun {@link ResultEvent}, or {@code null} if the Flight Recorder has not been initialised.
+     */
+    public static ResultEvent beginResult() {
+        if (!isRecorderInitialized()) {
+            return null;
+        }
+        ResultEvent resultEvent = new ResultEvent();
+        resultEvent.begin();
+        return resultEvent;
+    }
+
+    /**
+     * Ends a {@link ResultEvent}, and commits it if it passes its threshold.
+     *
+     * @param resultEvent
+     *            The {@link ResultEvent} returned by {@link #beginResult()}, {@code null} is ignored.
+     * @param mode
+     *            The analysis mode: {@code exact} or {@code approximate}.
+     * @param rooms
+     *            The number of analysed rooms.
+     * @param reportedRooms
+     *            The number of rooms reported in the result.
+     */
+    public static void commitResult(ResultEvent resultEvent, String mode, long rooms, int reportedRooms) {
+        if (resultEvent == null) {
+            return;
+        }
+        resultEvent.end();
+        if (resultEvent.shouldCommit()) {
+            resultEvent.mode = mode;
+            resultEvent.rooms = rooms;
+            resultEvent.reportedRooms = reportedRooms;
+            resultEvent.commit();
+        }
+    }
+
+    /**
+     * Begins an {@link OutputEvent}.
+     *
+     * @return The begun {@link OutputEvent}, or {@code null} if the Flight Recorder has not been initialised.
+     */
+    public static OutputEvent beginOutput() {
+        if (!isRecorderInitialized()) {
+            return null;
+        }
+        OutputEvent outputEvent = new OutputEvent();
+        outputEvent.begin();
+        return outputEvent;
+    }
+
+    /**
+     * Ends an {@link OutputEvent}, and commits it if it passes its threshold.
+     *
+     * @param outputEvent
+     *            The {@link OutputEvent} returned by {@link #beginOutput()}, {@code null} is ignored.
+     * @param source
+     *            The source of the written result.
+     * @param streamed
+     *            Whether the result has been written into a result sink.
+     */
+    public static void commitOutput(OutputEvent outputEvent, String source, boolean streamed) {
+        if (outputEvent == null) {
+            return;
+        }
+        outputEvent.end();
+        if (outputEvent.shouldCommit()) {
+            outputEvent.source = source;
+            outputEvent.streamed = streamed;
+            outputEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package gscf.task.roomdimension.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event of the size validation of an input file, see
+ * {@link gscf.task.roomdimension.validation.FileSizeValidator#validate(String, long)}.
+ *
+ * @author krisztian.hathazi
+ */
+@Name(ValidationEvent.NAME)
+@Label("Input File Validation")
+@Description("Validates the size of an input file before it is read")
+@Category(RoomDimensionEvents.CATEGORY)
+@Threshold(ValidationEvent.DEFAULT_THRESHOLD)
+@StackTrace(false)
+public final class ValidationEvent extends jdk.jfr.Event {
+
+    /**
+     * The name of the event, to be configured in the {@code .jfc} settings.
+     */
+    public static final String NAME = RoomDimensionEvents.NAME_PREFIX + "Validation";
+
+    /**
+     * The default threshold, shorter validations are not recorded.
+     */
+    public static final String DEFAULT_THRESHOLD = "10 ms";
+
+    /**
+     * The path of the validated input file.
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * The size of the input file, {@code 0} if it is not a regular file.
+     */
+    @Label("Size")
+    @DataAmount
+    public long size;
+
+    /**
+     * Whether the input file is a regular file, whose size is validated upfront.
+     */
+    @Label("Regular File")
+    public boolean regularFile;
+}
@@ -1,33 +1,43 @@
 package gscf.task.roomdimension.log;
 
 import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * A utility class for configuring and providing a global logger instance for the application.
+ * <p>
+ * The records are written to the console by an {@link AsyncLogHandler}, so the logging threads never wait for the console. Its buffer size and
+ * {@link OverflowPolicy} can be configured by the {@value #BUFFER_SIZE_PROPERTY} and {@value #OVERFLOW_POLICY_PROPERTY} system properties, e.g.
+ * {@code -Droomdimension.log.overflowPolicy=drop-oldest}. The buffered records are written when the JVM shuts down. The console handler and its
+ * writer thread are only set up when the first record is logged, which keeps them off the startup path.
+ * </p>
  *
  * @author krisztian.hathazi
  */
 public final class AppLogger {
 
+    /**
+     * The system property of the maximum number of log records buffered for the console.
+     */
+    public static final String BUFFER_SIZE_PROPERTY = "roomdimension.log.bufferSize";
+
+    /**
+     * The system property of the {@link OverflowPolicy} applied when the buffer is full.
+     */
+    public static final String OVERFLOW_POLICY_PROPERTY = "roomdimension.log.overflowPolicy";
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
     private static final Logger LOGGER = Logger.getLogger(AppLogger.class.getName());
 
     static {
         // Set the log level to FINE
         LOGGER.setLevel(Level.FINE);
 
-        // Create a ConsoleHandler
-        ConsoleHandler consoleHandler = new ConsoleHandler();
-
-        // Set the custom formatter for the console handler
-        consoleHandler.setFormatter(new CustomConsoleLogFormatter());
-
-        // Set the console handler log level
-        consoleHandler.setLevel(Level.FINE);
-
-        // Add the handler to the logger
-        LOGGER.addHandler(consoleHandler);
+        // The console handler is only set up when the first record is published, a run streaming its results into a file may never need it
+        LOGGER.addHandler(new DeferredHandler(AppLogger::createConsoleHandler));
     }
 
     private AppLogger() {
@@ -43,5 +53,24 @@ public final class AppLogger {
         return LOGGER;
     }
 
+    private static Handler createConsoleHandler() {
+        // Create a ConsoleHandler
+        ConsoleHandler consoleHandler = new ConsoleHandler();
+
+        // Set the custom formatter for the console handler
+        consoleHandler.setFormatter(new CustomConsoleLogFormatter());
+
+        // Set the console handler log level
+        consoleHandler.setLevel(Level.FINE);
+
+        // Write to the console on a background thread, the results are logged as well, so by default no record is dropped
+        AsyncLogHandler asyncLogHandler = new AsyncLogHandler(
+                consoleHandler,
+                Integer.getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE),
+                OverflowPolicy.fromName(System.getProperty(OVERFLOW_POLICY_PROPERTY, OverflowPolicy.BLOCK.name())));
+        Runtime.getRuntime().addShutdownHook(new Thread(asyncLogHandler::close, "async-log-shutdown"));
+        return asyncLogHandler;
+    }
+
     // Can be further extended to have more versatility over application logging
 }
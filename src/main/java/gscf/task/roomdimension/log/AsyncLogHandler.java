@@ -0,0 +1,225 @@
+package gscf.task.roomdimension.log;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * A {@link Handler} publishing the log records on a background thread, so the logging threads never wait for the console or any other slow
+ * output. The records are buffered in a bounded ring buffer, and a daemon writer thread passes them in batches to the delegate handler, which is
+ * flushed once per batch instead of once per record.
+ * <p>
+ * When the buffer is full, the {@link OverflowPolicy} decides whether the logging thread waits or a record is dropped. The number of dropped records
+ * is logged as a warning once the writer catches up. {@link #flush()} waits until every record published before it has been written, and
+ * {@link #close()} writes the buffered records before closing the delegate, so no record is lost at shutdown. Records published after the handler
+ * is closed are passed to the delegate directly.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public class AsyncLogHandler extends Handler {
+
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final Handler delegate;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final ArrayBlockingQueue<LogRecord> buffer;
+
+    private final Thread writer;
+
+    private final AtomicLong droppedRecords = new AtomicLong();
+
+    private final AtomicLong bufferedRecords = new AtomicLong();
+
+    // The number of buffered records which are written or dropped, guarded by itself
+    private final Object progressLock = new Object();
+
+    private long completedRecords;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs an {@link AsyncLogHandler} and starts its writer thread.
+     *
+     * @param delegate
+     *            The {@link Handler} the records are passed to on the writer thread.
+     * @param capacity
+     *            The maximum number of buffered records.
+     * @param overflowPolicy
+     *            The {@link OverflowPolicy} applied to the records published while the buffer is full.
+     * @throws InvalidMethodParameterException
+     *             If the {@code delegate} or the {@code overflowPolicy} is null, or the {@code capacity} is not positive.
+     */
+    public AsyncLogHandler(Handler delegate, int capacity, OverflowPolicy overflowPolicy) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(delegate, "delegate");
+        ParamValidatorUtil.requireNonNull(overflowPolicy, "overflowPolicy");
+        if (capacity <= 0) {
+            throw new InvalidMethodParameterException(MessageFormat.format("[capacity] parameter must be positive, got [{0}].", capacity));
+        }
+
+        this.delegate = delegate;
+        this.overflowPolicy = overflowPolicy;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::writeRecords, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Buffers the given record for the writer thread, applying the {@link OverflowPolicy} if the buffer is full.
+     *
+     * @param logRecord
+     *            The record to be published, ignored if it is null or not loggable by this handler.
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (logRecord == null || !isLoggable(logRecord)) {
+            return;
+        }
+        if (closed) {
+            delegate.publish(logRecord);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> enqueueWaiting(logRecord);
+            case DROP_NEWEST -> {
+                if (buffer.offer(logRecord)) {
+                    bufferedRecords.incrementAndGet();
+                } else {
+                    droppedRecords.incrementAndGet();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!buffer.offer(logRecord)) {
+                    if (buffer.poll() != null) {
+                        droppedRecords.incrementAndGet();
+                        complete(1);
+                    }
+                }
+                bufferedRecords.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Waits until every record published before this call has been written, and flushes the delegate.
+     */
+    @Override
+    public void flush() {
+        if (Thread.currentThread() == writer) {
+            // The delegate itself logged, the records are written by this very thread
+            return;
+        }
+
+        long target = bufferedRecords.get();
+        synchronized (progressLock) {
+            while (completedRecords < target && writer.isAlive()) {
+                try {
+                    progressLock.wait(POLL_INTERVAL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Writes every buffered record, stops the writer thread and closes the delegate. Calling it more than once has no further effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A record may have been buffered while the writer was stopping
+        List<LogRecord> batch = new ArrayList<>();
+        buffer.drainTo(batch);
+        writeBatch(batch);
+        delegate.close();
+    }
+
+    private void enqueueWaiting(LogRecord logRecord) {
+        try {
+            buffer.put(logRecord);
+            bufferedRecords.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // The record is not lost, it is written by the interrupted thread instead
+            delegate.publish(logRecord);
+        }
+    }
+
+    private void writeRecords() {
+        List<LogRecord> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            LogRecord first;
+            try {
+                first = buffer.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // The writer is only stopped by close()
+                continue;
+            }
+            if (first == null) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+
+            batch.add(first);
+            buffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<LogRecord> batch) {
+        for (LogRecord logRecord : batch) {
+            try {
+                delegate.publish(logRecord);
+            } catch (RuntimeException e) {
+                reportError("The log record could not be written by the delegate handler.", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+
+        long dropped = droppedRecords.getAndSet(0);
+        if (dropped > 0) {
+            delegate.publish(
+                    new LogRecord(Level.WARNING, MessageFormat.format("[{0}] log records have been dropped, because the log buffer was full.", dropped)));
+        }
+        delegate.flush();
+        complete(batch.size());
+    }
+
+    private void complete(int records) {
+        synchronized (progressLock) {
+            completedRecords += records;
+            progressLock.notifyAll();
+        }
+    }
+}
@@ -1,24 +1,34 @@
 package gscf.task.roomdimension.log;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.logging.Formatter;
 import java.util.logging.LogRecord;
 
 /**
  * A custom log formatter that formats log messages with a timestamp, log level, and message.
+ * <p>
+ * The timestamp has a precision of a second, so it is formatted once per second and reused by every record of the same second. Instances are
+ * thread-safe.
+ * </p>
  *
  * @author krisztian.hathazi
  */
 public class CustomConsoleLogFormatter extends Formatter {
 
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // Replaced as a whole, so a racing thread at worst formats the same second again
+    private volatile CachedTimestamp cachedTimestamp = new CachedTimestamp(Long.MIN_VALUE, "");
+
     /**
      * Formats a log record into a string with a custom format.
      * <p>
      * The format includes:
      * <ul>
      * <li>Timestamp (formatted as {@code yyyy-MM-dd HH:mm:ss})</li>
-     * <li>Log level (e.g., INFO, SEVERE, WARNING)</li>
+     * <li>Log level (e.g., INFO, WARNING, SEVERE)</li>
      * <li>Log message</li>
      * </ul>
      * </p>
@@ -29,21 +39,39 @@ public class CustomConsoleLogFormatter extends Formatter {
      */
     @Override
     public String format(LogRecord logRecord) {
+        String message = formatMessage(logRecord);
+
         // Custom log format
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(message.length() + 40);
 
         // Add a timestamp to the log entry
-        sb.append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(logRecord.getMillis())));
+        sb.append(timestamp(logRecord.getMillis()));
 
         // Add the log level (e.g., INFO, WARNING, SEVERE)
         sb.append(" [").append(logRecord.getLevel()).append("]");
 
         // Add the message
-        sb.append(" - ").append(formatMessage(logRecord));
+        sb.append(" - ").append(message);
 
         // Add a newline at the end
         sb.append("\n");
 
         return sb.toString();
     }
+
+    private String timestamp(long millis) {
+        long epochSecond = Math.floorDiv(millis, 1000);
+        CachedTimestamp cached = cachedTimestamp;
+        if (cached.epochSecond() != epochSecond) {
+            cached = new CachedTimestamp(epochSecond, TIMESTAMP_FORMATTER.format(Instant.ofEpochSecond(epochSecond)));
+            cachedTimestamp = cached;
+        }
+        return cached.formatted();
+    }
+
+    /**
+     * The formatted timestamp of a second.
+     */
+    private record CachedTimestamp(long epochSecond, String formatted) {
+    }
 }
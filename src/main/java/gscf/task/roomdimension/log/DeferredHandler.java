@@ -0,0 +1,89 @@
+package gscf.task.roomdimension.log;
+
+import java.util.function.Supplier;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Handler} creating its delegate handler only when the first record is published to it, so the output, the formatter and the threads of
+ * the delegate are not set up at startup, nor at all by a run which logs nothing. Flushing or closing the handler before the first record has no
+ * effect, and records published after it is closed are dropped.
+ *
+ * @author krisztian.hathazi
+ */
+class DeferredHandler extends Handler {
+
+    private final Supplier<Handler> delegateFactory;
+
+    private volatile Handler delegate;
+
+    private boolean closed;
+
+    /**
+     * Constructs a {@link DeferredHandler}.
+     *
+     * @param delegateFactory
+     *            Creates the {@link Handler} the records are passed to, called at most once.
+     */
+    DeferredHandler(Supplier<Handler> delegateFactory) {
+        this.delegateFactory = delegateFactory;
+    }
+
+    /**
+     * Passes the record to the delegate handler, which is created first if it does not exist yet.
+     *
+     * @param logRecord
+     *            The {@link LogRecord} to be published.
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        Handler handler = delegate();
+        if (handler != null) {
+            handler.publish(logRecord);
+        }
+    }
+
+    /**
+     * Flushes the delegate handler, if it has been created.
+     */
+    @Override
+    public void flush() {
+        Handler handler = delegate;
+        if (handler != null) {
+            handler.flush();
+        }
+    }
+
+    /**
+     * Closes the delegate handler, if it has been created, and prevents its creation otherwise.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Checks whether the delegate handler has been created.
+     *
+     * @return {@code true} if the first record has been published.
+     */
+    boolean isInitialized() {
+        return delegate != null;
+    }
+
+    private Handler delegate() {
+        Handler handler = delegate;
+        if (handler == null) {
+            synchronized (this) {
+                if (delegate == null && !closed) {
+                    delegate = delegateFactory.get();
+                }
+                handler = delegate;
+            }
+        }
+        return handler;
+    }
+}
@@ -0,0 +1,40 @@
+package gscf.task.roomdimension.log;
+
+import java.util.Locale;
+
+/**
+ * The {@code OverflowPolicy} enum lists what an {@link AsyncLogHandler} does with a log record published while its buffer is full.
+ *
+ * @author krisztian.hathazi
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Waits until the background writer makes room for the record, so no record is lost. The logging thread only waits if records are published
+     * faster than they can be written.
+     */
+    BLOCK,
+
+    /**
+     * Drops the published record, so the logging thread never waits.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Drops the oldest buffered record to make room for the published one, so the logging thread never waits and the latest records are kept.
+     */
+    DROP_OLDEST;
+
+    /**
+     * Returns the {@code OverflowPolicy} matching the given name, ignoring case, with dashes standing for underscores.
+     *
+     * @param name
+     *            The name of the policy, e.g. {@code block} or {@code drop-oldest}.
+     * @return The matching {@code OverflowPolicy}.
+     * @throws IllegalArgumentException
+     *             If there is no policy with the given name.
+     */
+    public static OverflowPolicy fromName(String name) {
+        return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
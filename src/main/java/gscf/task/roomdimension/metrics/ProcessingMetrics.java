@@ -0,0 +1,468 @@
+package gscf.task.roomdimension.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import gscf.task.roomdimension.log.AppLogger;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * Collects the timing and throughput metrics of the processing: the wall time and the allocated heap memory of every {@link Stage}, the number of
+ * parsed lines and read bytes, the number of distinct rooms and the garbage collection time of the run, and the time to the first result of the
+ * JVM, which tracks the startup of the application. The allocations of a stage include the worker threads tracked by
+ * {@link #trackWorkerThreads(Stage)}.
+ * <p>
+ * The metrics are collected by the single instance returned by {@link #getInstance()}, once it has been enabled by {@link #enable()} or by the
+ * {@value #ENABLED_PROPERTY} system property. Enabling it publishes it as a JMX MBean under {@value #OBJECT_NAME}. While it is disabled, every
+ * recording method returns after reading a single volatile field, and {@link #start(Stage)} returns a shared timer, so the instrumented code pays
+ * practically nothing, and no JMX infrastructure is loaded. The stages are timed as a whole and the lines are counted by the aggregators anyway,
+ * so nothing is measured per line even while it is enabled. Instances are thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public final class ProcessingMetrics implements ProcessingMetricsMXBean {
+
+    /**
+     * The system property enabling the metrics from the start, e.g. to watch them over JMX without a report.
+     */
+    public static final String ENABLED_PROPERTY = "roomdimension.metrics.enabled";
+
+    /**
+     * The JMX object name the metrics are published under.
+     */
+    public static final String OBJECT_NAME = "gscf.task.roomdimension:type=ProcessingMetrics";
+
+    private static final Logger LOGGER = AppLogger.getLogger();
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final ProcessingMetrics INSTANCE = createInstance();
+
+    private final StageTimer noopTimer = new StageTimer(this, null, 0, 0);
+
+    private final LongAdder[] stageNanos = newAdders();
+
+    private final LongAdder[] stageAllocatedBytes = newAdders();
+
+    private final LongAdder lines = new LongAdder();
+
+    private final LongAdder bytes = new LongAdder();
+
+    private volatile long distinctRooms;
+
+    private volatile boolean enabled;
+
+    private volatile long runStartNanos = System.nanoTime();
+
+    // The garbage collectors are only looked up once a run starts, so a disabled instance does not load the JMX infrastructure at startup
+    private volatile long runStartGcTimeMillis;
+
+    private volatile long timeToFirstResultMillis = -1;
+
+    private boolean published;
+
+    /**
+     * Constructs a disabled {@link ProcessingMetrics}, which is not published over JMX. The application uses the instance of {@link #getInstance()}.
+     */
+    ProcessingMetrics() {
+        // Use ProcessingMetrics.getInstance() instead
+    }
+
+    /**
+     * Returns the instance collecting the metrics of the application.
+     *
+     * @return The single {@link ProcessingMetrics} instance.
+     */
+    public static ProcessingMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enables the collection of the metrics, and publishes them over JMX unless they have been published already. A failed publication is logged,
+     * the metrics are collected regardless.
+     */
+    public synchronized void enable() {
+        enabled = true;
+        if (this != INSTANCE || published) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+            published = true;
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "The processing metrics could not be published over JMX.", e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a new run: every metric is reset, and the elapsed time and the garbage collection time are measured from now on.
+     */
+    public void startRun() {
+        for (Stage stage : Stage.values()) {
+            stageNanos[stage.ordinal()].reset();
+            stageAllocatedBytes[stage.ordinal()].reset();
+        }
+        lines.reset();
+        bytes.reset();
+        distinctRooms = 0;
+        runStartGcTimeMillis = totalGcTimeMillis();
+        runStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts timing the given stage on the current thread, until the returned timer is closed by the same thread.
+     *
+     * @param stage
+     *            The {@link Stage} to be timed.
+     * @return A {@link StageTimer}, to be closed once the stage is over. It measures nothing if the metrics are disabled.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code stage} is null.
+     */
+    public StageTimer start(Stage stage) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(stage, "stage");
+
+        if (!enabled) {
+            return noopTimer;
+        }
+        return new StageTimer(this, stage, System.nanoTime(), currentThreadAllocatedBytes());
+    }
+
+    /**
+     * Starts tracking the worker threads created for the given stage by the thread factories of the returned {@link WorkerThreads}, so the heap
+     * memory they allocate is added to the stage. Their wall time is not added, the stage is timed by the thread waiting for them.
+     *
+     * @param stage
+     *            The {@link Stage} run by the worker threads.
+     * @return A {@link WorkerThreads}, to be closed once the workers are done, but before their pool is shut down. It tracks nothing if the
+     *         metrics are disabled.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code stage} is null.
+     */
+    public WorkerThreads trackWorkerThreads(Stage stage) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(stage, "stage");
+
+        return new WorkerThreads(this, enabled ? stage : null);
+    }
+
+    /**
+     * Adds the lines and the bytes of a processed input file.
+     *
+     * @param lineCount
+     *            The number of parsed lines.
+     * @param byteCount
+     *            The number of read bytes.
+     */
+    public void recordInput(long lineCount, long byteCount) {
+        if (enabled) {
+            lines.add(lineCount);
+            bytes.add(byteCount);
+        }
+    }
+
+    /**
+     * Records the number of distinct rooms of a result, replacing the previously recorded one.
+     *
+     * @param distinctRoomCount
+     *            The exact or the estimated number of distinct rooms.
+     */
+    public void recordDistinctRooms(long distinctRoomCount) {
+        if (enabled) {
+            distinctRooms = distinctRoomCount;
+        }
+    }
+
+    @Override
+    public double getElapsedTimeMillis() {
+        return (System.nanoTime() - runStartNanos) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public Map<String, Double> getStageTimeMillis() {
+        Map<String, Double> stageTimeMillis = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            stageTimeMillis.put(stage.reportName(), stageNanos[stage.ordinal()].sum() / NANOS_PER_MILLI);
+        }
+        return stageTimeMillis;
+    }
+
+    @Override
+    public Map<String, Long> getStageAllocatedBytes() {
+        Map<String, Long> allocatedBytes = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            allocatedBytes.put(stage.reportName(), stageAllocatedBytes[stage.ordinal()].sum());
+        }
+        return allocatedBytes;
+    }
+
+    @Override
+    public long getLines() {
+        return lines.sum();
+    }
+
+    @Override
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public double getLinesPerSecond() {
+        return perSecond(lines.sum(), getElapsedTimeMillis());
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return perSecond(bytes.sum(), getElapsedTimeMillis());
+    }
+
+    @Override
+    public long getDistinctRooms() {
+        return distinctRooms;
+    }
+
+    @Override
+    public long getGcTimeMillis() {
+        return totalGcTimeMillis() - runStartGcTimeMillis;
+    }
+
+    /**
+     * Records that the first result of the application has been output, once per JVM. The time is measured from the start of the JVM, so it
+     * covers the startup of the JVM and the class loading as well. Later calls, and the calls while the metrics are disabled, have no effect.
+     */
+    public void recordFirstResult() {
+        if (enabled && timeToFirstResultMillis < 0) {
+            long now = System.currentTimeMillis();
+            // The runtime MXBean is only looked up after the clock has been read, so its loading is not measured
+            synchronized (this) {
+                if (timeToFirstResultMillis < 0) {
+                    timeToFirstResultMillis = Math.max(0, now - ManagementFactory.getRuntimeMXBean().getStartTime());
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getTimeToFirstResultMillis() {
+        return timeToFirstResultMillis;
+    }
+
+    /**
+     * Builds the JSON report of the metrics of the current run, in a single line.
+     *
+     * @return The JSON report.
+     */
+    public String toJson() {
+        double elapsedTimeMillis = getElapsedTimeMillis();
+        long lineCount = lines.sum();
+        long byteCount = bytes.sum();
+
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"elapsed_ms\":").append(format(elapsedTimeMillis));
+        json.append(",\"lines\":").append(lineCount);
+        json.append(",\"bytes\":").append(byteCount);
+        json.append(",\"lines_per_second\":").append(format(perSecond(lineCount, elapsedTimeMillis)));
+        json.append(",\"bytes_per_second\":").append(format(perSecond(byteCount, elapsedTimeMillis)));
+        json.append(",\"distinct_rooms\":").append(distinctRooms);
+
+        long totalAllocatedBytes = 0;
+        StringBuilder stages = new StringBuilder(256);
+        for (Stage stage : Stage.values()) {
+            long allocatedBytes = stageAllocatedBytes[stage.ordinal()].sum();
+            totalAllocatedBytes += allocatedBytes;
+            stages.append(stage.ordinal() == 0 ? "" : ",").append('"').append(stage.reportName()).append("\":{\"wall_time_ms\":");
+            stages.append(format(stageNanos[stage.ordinal()].sum() / NANOS_PER_MILLI)).append(",\"allocated_bytes\":").append(allocatedBytes);
+            stages.append('}');
+        }
+        json.append(",\"allocated_bytes\":").append(totalAllocatedBytes);
+        json.append(",\"gc_time_ms\":").append(getGcTimeMillis());
+        json.append(",\"time_to_first_result_ms\":").append(timeToFirstResultMillis);
+        json.append(",\"stages\":{").append(stages).append("}}");
+        return json.toString();
+    }
+
+    private void stop(Stage stage, long startNanos, long startAllocatedBytes) {
+        stageNanos[stage.ordinal()].add(System.nanoTime() - startNanos);
+        stageAllocatedBytes[stage.ordinal()].add(Math.max(0, currentThreadAllocatedBytes() - startAllocatedBytes));
+    }
+
+    private static ProcessingMetrics createInstance() {
+        ProcessingMetrics processingMetrics = new ProcessingMetrics();
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            processingMetrics.enable();
+        }
+        return processingMetrics;
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[Stage.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static double perSecond(long count, double elapsedTimeMillis) {
+        return elapsedTimeMillis <= 0 ? 0 : count * (double) TimeUnit.SECONDS.toMillis(1) / elapsedTimeMillis;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static long totalGcTimeMillis() {
+        long gcTimeMillis = 0;
+        for (GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // A collector not measuring its time returns -1
+            gcTimeMillis += Math.max(0, garbageCollectorMXBean.getCollectionTime());
+        }
+        return gcTimeMillis;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean allocationMXBean = AllocationMXBeanHolder.ALLOCATION_MX_BEAN;
+        return allocationMXBean == null ? 0 : allocationMXBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static long allocatedBytes(List<Thread> threads) {
+        com.sun.management.ThreadMXBean allocationMXBean = AllocationMXBeanHolder.ALLOCATION_MX_BEAN;
+        if (allocationMXBean == null || threads.isEmpty()) {
+            return 0;
+        }
+        long[] threadIds = threads.stream().mapToLong(Thread::getId).toArray();
+        long allocatedBytes = 0;
+        for (long threadAllocatedBytes : allocationMXBean.getThreadAllocatedBytes(threadIds)) {
+            // A thread which has already terminated returns -1
+            allocatedBytes += Math.max(0, threadAllocatedBytes);
+        }
+        return allocatedBytes;
+    }
+
+    /**
+     * Looks up the MXBean measuring the allocations when the first enabled stage is timed, instead of when the application starts.
+     */
+    private static final class AllocationMXBeanHolder {
+
+        // The allocations are measured by a HotSpot specific extension, which may be missing or turned off
+        private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = findAllocationMXBean();
+
+        private static com.sun.management.ThreadMXBean findAllocationMXBean() {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean allocationMXBean && allocationMXBean.isThreadAllocatedMemorySupported()
+                    && allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationMXBean;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Times a {@link Stage} from its creation until it is closed, adding the wall time and the heap memory allocated by the timing thread to the
+     * metrics. Closing a timer created while the metrics were disabled has no effect.
+     */
+    public static final class StageTimer implements AutoCloseable {
+
+        private final ProcessingMetrics processingMetrics;
+
+        private final Stage stage;
+
+        private final long startNanos;
+
+        private final long startAllocatedBytes;
+
+        private StageTimer(ProcessingMetrics processingMetrics, Stage stage, long startNanos, long startAllocatedBytes) {
+            this.processingMetrics = processingMetrics;
+            this.stage = stage;
+            this.startNanos = startNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+
+        /**
+         * Stops timing the stage.
+         */
+        @Override
+        public void close() {
+            if (stage != null) {
+                processingMetrics.stop(stage, startNanos, startAllocatedBytes);
+            }
+        }
+    }
+
+    /**
+     * Tracks the worker threads of a pool running a {@link Stage}, and adds the heap memory they have allocated since they were created to the
+     * stage once it is closed. The threads are created by the default factories, and are not tracked if the metrics were disabled.
+     */
+    public static final class WorkerThreads implements AutoCloseable {
+
+        private final ProcessingMetrics processingMetrics;
+
+        private final Stage stage;
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        private WorkerThreads(ProcessingMetrics processingMetrics, Stage stage) {
+            this.processingMetrics = processingMetrics;
+            this.stage = stage;
+        }
+
+        /**
+         * Returns a {@link ThreadFactory} creating tracked threads, e.g. for a thread pool of the {@link Executors}.
+         *
+         * @return The {@link ThreadFactory}.
+         */
+        public ThreadFactory threadFactory() {
+            ThreadFactory threadFactory = Executors.defaultThreadFactory();
+            return runnable -> track(threadFactory.newThread(runnable));
+        }
+
+        /**
+         * Returns a {@link ForkJoinPool.ForkJoinWorkerThreadFactory} creating tracked worker threads.
+         *
+         * @return The {@link ForkJoinPool.ForkJoinWorkerThreadFactory}.
+         */
+        public ForkJoinPool.ForkJoinWorkerThreadFactory forkJoinWorkerThreadFactory() {
+            return pool -> track(ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool));
+        }
+
+        /**
+         * Adds the heap memory allocated by the tracked threads to the stage. The threads must still be alive, the allocations of a terminated thread
+         * are no longer known.
+         */
+        @Override
+        public void close() {
+            if (stage != null) {
+                processingMetrics.stageAllocatedBytes[stage.ordinal()].add(allocatedBytes(threads));
+                threads.clear();
+            }
+        }
+
+        private <T extends Thread> T track(T thread) {
+            if (stage != null) {
+                threads.add(thread);
+            }
+            return thread;
+        }
+    }
+}
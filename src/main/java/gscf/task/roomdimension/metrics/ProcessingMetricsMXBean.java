@@ -0,0 +1,90 @@
+package gscf.task.roomdimension.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of the {@link ProcessingMetrics}, published on the platform MBean server under
+ * {@link ProcessingMetrics#OBJECT_NAME}. Every value belongs to the current run, or to the last one if no run is in progress.
+ *
+ * @author krisztian.hathazi
+ */
+public interface ProcessingMetricsMXBean {
+
+    /**
+     * Returns whether the metrics are collected.
+     *
+     * @return {@code true} if the metrics are collected.
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns the wall time elapsed since the start of the run.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    double getElapsedTimeMillis();
+
+    /**
+     * Returns the wall time spent in each {@link Stage}, summed over the input files processed at the same time.
+     *
+     * @return The time in milliseconds by {@link Stage#reportName()}.
+     */
+    Map<String, Double> getStageTimeMillis();
+
+    /**
+     * Returns the heap memory allocated by the threads running each {@link Stage}, including the worker threads of the parallel engines.
+     *
+     * @return The allocated bytes by {@link Stage#reportName()}, {@code 0} if the JVM does not measure the allocations of threads.
+     */
+    Map<String, Long> getStageAllocatedBytes();
+
+    /**
+     * Returns the number of parsed lines.
+     *
+     * @return The number of lines.
+     */
+    long getLines();
+
+    /**
+     * Returns the number of read input bytes, the compressed bytes of compressed input files.
+     *
+     * @return The number of bytes.
+     */
+    long getBytes();
+
+    /**
+     * Returns the number of parsed lines per second of the elapsed time.
+     *
+     * @return The lines per second.
+     */
+    double getLinesPerSecond();
+
+    /**
+     * Returns the number of read input bytes per second of the elapsed time.
+     *
+     * @return The bytes per second.
+     */
+    double getBytesPerSecond();
+
+    /**
+     * Returns the number of distinct rooms of the last result, estimated by the approximate analysis.
+     *
+     * @return The number of distinct rooms.
+     */
+    long getDistinctRooms();
+
+    /**
+     * Returns the time spent on garbage collection by the whole JVM since the start of the run.
+     *
+     * @return The garbage collection time in milliseconds.
+     */
+    long getGcTimeMillis();
+
+    /**
+     * Returns the time from the start of the JVM until the first result of the application has been output, which includes the startup of the JVM
+     * and the loading of the classes of the application. It is measured once per JVM, and is not reset by a new run.
+     *
+     * @return The time to the first result in milliseconds, or {@code -1} if no result has been output yet.
+     */
+    long getTimeToFirstResultMillis();
+}
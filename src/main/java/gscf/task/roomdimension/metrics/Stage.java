@@ -0,0 +1,40 @@
+package gscf.task.roomdimension.metrics;
+
+import java.util.Locale;
+
+/**
+ * The {@code Stage} enum lists the stages of the processing timed by the {@link ProcessingMetrics}.
+ *
+ * @author krisztian.hathazi
+ */
+public enum Stage {
+
+    /**
+     * Validating the size of the input files before they are read.
+     */
+    VALIDATION,
+
+    /**
+     * Reading the input files, parsing their lines and detecting the duplicate rooms, which are done together in a single pass.
+     */
+    INGESTION,
+
+    /**
+     * Building the results: sorting the cubic rooms, listing the duplicate rooms, or reading the most repeated rooms off the sketches.
+     */
+    RESULT,
+
+    /**
+     * Logging the results, or streaming them into a {@link gscf.task.roomdimension.output.ResultSink}.
+     */
+    OUTPUT;
+
+    /**
+     * Returns the name of the stage in the JSON report and the JMX attributes of the {@link ProcessingMetrics}.
+     *
+     * @return The lower case name of the stage.
+     */
+    public String reportName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
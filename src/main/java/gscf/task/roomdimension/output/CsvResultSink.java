@@ -0,0 +1,122 @@
+package gscf.task.roomdimension.output;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.LineError;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchResult;
+
+/**
+ * A {@link ResultSink} writing the results as comma-separated values, following RFC 4180. The header row {@value #HEADER} is followed by a single
+ * record per row:
+ * <ul>
+ * <li>{@code total_wallpaper}: the total square feet of wallpaper in the {@code value} column</li>
+ * <li>{@code cubic} and {@code duplicate}: a room, with the wallpaper it needs in the {@code value} column</li>
+ * <li>{@code distinct_estimate}: the estimated number of distinct rooms in the {@code value} column</li>
+ * <li>{@code repeated}: one of the most repeated rooms, with its estimated count in the {@code value} column</li>
+ * <li>{@code invalid_lines}: the number of lines skipped by the lenient parsing in the {@code value} column, only if any has been skipped</li>
+ * <li>{@code invalid_blank}, {@code invalid_malformed} and {@code invalid_overflow}: one of the first skipped lines by its reason, with the
+ * content of the line in the {@code room} column and its line number in the {@code value} column</li>
+ * </ul>
+ * The {@code source} column is empty for the aggregated result of a batch.
+ *
+ * @author krisztian.hathazi
+ */
+public class CsvResultSink extends ResultSink {
+
+    /**
+     * The header row of the output.
+     */
+    public static final String HEADER = "source,type,room,value";
+
+    private boolean headerWritten;
+
+    /**
+     * Constructs a {@link CsvResultSink} writing into the given writer.
+     *
+     * @param writer
+     *            The buffered writer the results are written into.
+     * @param closeWriter
+     *            Whether the writer is closed together with the sink, or only flushed.
+     */
+    public CsvResultSink(Writer writer, boolean closeWriter) {
+        super(writer, closeWriter);
+    }
+
+    @Override
+    protected void writeResult(String source, Result result) throws IOException {
+        String escapedSource = escape(source);
+        writeRecord(escapedSource, "total_wallpaper", null, result.totalSquareFeetOfWallpaper());
+        for (Room room : result.cubicRooms()) {
+            writeRecord(escapedSource, "cubic", room, room.wallpaperNeeded());
+        }
+        for (Room room : result.duplicateRooms()) {
+            writeRecord(escapedSource, "duplicate", room, room.wallpaperNeeded());
+        }
+    }
+
+    @Override
+    protected void writeSketchResult(String source, SketchResult sketchResult) throws IOException {
+        String escapedSource = escape(source);
+        writeRecord(escapedSource, "total_wallpaper", null, sketchResult.totalSquareFeetOfWallpaper());
+        writeRecord(escapedSource, "distinct_estimate", null, sketchResult.estimatedDistinctRooms());
+        for (RoomFrequency roomFrequency : sketchResult.mostRepeatedRooms()) {
+            writeRecord(escapedSource, "repeated", roomFrequency.room(), roomFrequency.estimatedCount());
+        }
+    }
+
+    @Override
+    protected void writeInvalidLines(String source, InvalidLines invalidLines) throws IOException {
+        String escapedSource = escape(source);
+        writeRecord(escapedSource, "invalid_lines", null, invalidLines.count());
+        // The room column holds the content of the skipped line, the value column its line number
+        for (LineError lineError : invalidLines.samples()) {
+            writeRecordStart(escapedSource, "invalid_" + lineError.reason().reportName());
+            writer.write(escape(lineError.line()));
+            writeRecordEnd(lineError.lineNumber());
+        }
+    }
+
+    private void writeRecord(String escapedSource, String type, Room room, long value) throws IOException {
+        writeRecordStart(escapedSource, type);
+        if (room != null) {
+            writeDimensions(room);
+        }
+        writeRecordEnd(value);
+    }
+
+    private void writeRecordStart(String escapedSource, String type) throws IOException {
+        if (!headerWritten) {
+            writer.write(HEADER);
+            writer.write("\r\n");
+            headerWritten = true;
+        }
+        writer.write(escapedSource);
+        writer.write(',');
+        writer.write(type);
+        writer.write(',');
+    }
+
+    private void writeRecordEnd(long value) throws IOException {
+        writer.write(',');
+        writer.write(Long.toString(value));
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quotes the given field if it contains a separator, a quote or a line break, doubling its quotes.
+     */
+    private static String escape(String field) {
+        if (field == null) {
+            return "";
+        }
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
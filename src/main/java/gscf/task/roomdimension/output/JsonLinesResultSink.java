@@ -0,0 +1,154 @@
+package gscf.task.roomdimension.output;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.LineError;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchResult;
+
+/**
+ * A {@link ResultSink} writing the results as JSON Lines, a single JSON object per record and line. Every object has a {@code source}, which is
+ * {@code null} for the aggregated result of a batch, and a {@code type}:
+ * <ul>
+ * <li>{@code total_wallpaper}: the total square feet of wallpaper as {@code value}</li>
+ * <li>{@code cubic} and {@code duplicate}: a room as {@code room}, {@code length}, {@code width} and {@code height}, and the wallpaper it needs
+ * as {@code wallpaper}</li>
+ * <li>{@code distinct_estimate}: the estimated number of distinct rooms as {@code value}, out of {@code room_count} rooms, with its
+ * {@code relative_error}</li>
+ * <li>{@code repeated}: one of the most repeated rooms, with its {@code estimated_count} overestimated by at most {@code error_bound}</li>
+ * <li>{@code invalid_lines}: the number of lines skipped by the lenient parsing as {@code value}, only if any has been skipped</li>
+ * <li>{@code invalid_line}: one of the first skipped lines, with its {@code line_number}, {@code reason} and the content of the {@code line}</li>
+ * </ul>
+ *
+ * @author krisztian.hathazi
+ */
+public class JsonLinesResultSink extends ResultSink {
+
+    /**
+     * Constructs a {@link JsonLinesResultSink} writing into the given writer.
+     *
+     * @param writer
+     *            The buffered writer the results are written into.
+     * @param closeWriter
+     *            Whether the writer is closed together with the sink, or only flushed.
+     */
+    public JsonLinesResultSink(Writer writer, boolean closeWriter) {
+        super(writer, closeWriter);
+    }
+
+    @Override
+    protected void writeResult(String source, Result result) throws IOException {
+        String prefix = recordPrefix(source);
+        writeTotalWallpaper(prefix, result.totalSquareFeetOfWallpaper());
+        for (Room room : result.cubicRooms()) {
+            writeRoom(prefix, "cubic", room);
+        }
+        for (Room room : result.duplicateRooms()) {
+            writeRoom(prefix, "duplicate", room);
+        }
+    }
+
+    @Override
+    protected void writeSketchResult(String source, SketchResult sketchResult) throws IOException {
+        String prefix = recordPrefix(source);
+        writeTotalWallpaper(prefix, sketchResult.totalSquareFeetOfWallpaper());
+
+        writer.write(prefix);
+        writer.write("\"distinct_estimate\",\"value\":");
+        writer.write(Long.toString(sketchResult.estimatedDistinctRooms()));
+        writer.write(",\"room_count\":");
+        writer.write(Long.toString(sketchResult.roomCount()));
+        writer.write(",\"relative_error\":");
+        writer.write(Double.toString(sketchResult.distinctRoomsError()));
+        writer.write("}\n");
+
+        String errorBound = Long.toString(sketchResult.frequencyErrorBound());
+        for (RoomFrequency roomFrequency : sketchResult.mostRepeatedRooms()) {
+            writer.write(prefix);
+            writer.write("\"repeated\",\"room\":\"");
+            writeDimensions(roomFrequency.room());
+            writer.write("\",\"estimated_count\":");
+            writer.write(Long.toString(roomFrequency.estimatedCount()));
+            writer.write(",\"error_bound\":");
+            writer.write(errorBound);
+            writer.write("}\n");
+        }
+    }
+
+    @Override
+    protected void writeInvalidLines(String source, InvalidLines invalidLines) throws IOException {
+        String prefix = recordPrefix(source);
+        writer.write(prefix);
+        writer.write("\"invalid_lines\",\"value\":");
+        writer.write(Long.toString(invalidLines.count()));
+        writer.write("}\n");
+
+        for (LineError lineError : invalidLines.samples()) {
+            writer.write(prefix);
+            writer.write("\"invalid_line\",\"line_number\":");
+            writer.write(Long.toString(lineError.lineNumber()));
+            writer.write(",\"reason\":\"");
+            writer.write(lineError.reason().reportName());
+            writer.write("\",\"line\":");
+            writer.write(quote(lineError.line()));
+            writer.write("}\n");
+        }
+    }
+
+    private void writeTotalWallpaper(String prefix, long totalSquareFeetOfWallpaper) throws IOException {
+        writer.write(prefix);
+        writer.write("\"total_wallpaper\",\"value\":");
+        writer.write(Long.toString(totalSquareFeetOfWallpaper));
+        writer.write("}\n");
+    }
+
+    private void writeRoom(String prefix, String type, Room room) throws IOException {
+        writer.write(prefix);
+        writer.write('"');
+        writer.write(type);
+        writer.write("\",\"room\":\"");
+        writeDimensions(room);
+        writer.write("\",\"length\":");
+        writer.write(Integer.toString(room.length()));
+        writer.write(",\"width\":");
+        writer.write(Integer.toString(room.width()));
+        writer.write(",\"height\":");
+        writer.write(Integer.toString(room.height()));
+        writer.write(",\"wallpaper\":");
+        writer.write(Long.toString(room.wallpaperNeeded()));
+        writer.write("}\n");
+    }
+
+    /**
+     * Returns the start of every object of a result, up to the value of its type, so the source is escaped only once per result.
+     */
+    private static String recordPrefix(String source) {
+        return "{\"source\":" + (source == null ? "null" : quote(source)) + ",\"type\":";
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
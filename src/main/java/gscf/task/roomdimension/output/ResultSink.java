@@ -0,0 +1,215 @@
+package gscf.task.roomdimension.output;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.OutputFormat;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * A {@code ResultSink} streams results to the standard output or into a file, in one of the {@link OutputFormat}s. Every room of a result is
+ * written on its own through a fixed size buffer, so the memory needed for the output does not depend on the number of reported rooms.
+ * <p>
+ * Every result is written together with its source, the path of its input file, or {@code null} for the aggregated result of a batch. The output is
+ * flushed after every result, so the results of the watch mode appear as soon as they are refreshed. Instances are not thread-safe.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public abstract class ResultSink implements Closeable {
+
+    private static final int BUFFER_SIZE_BYTES = 64 * 1024;
+
+    /**
+     * The buffered writer the results are written into.
+     */
+    protected final Writer writer;
+
+    private final boolean closeWriter;
+
+    /**
+     * Constructs a {@code ResultSink} writing into the given writer.
+     *
+     * @param writer
+     *            The buffered writer the results are written into.
+     * @param closeWriter
+     *            Whether the writer is closed together with the sink, or only flushed, like the standard output.
+     */
+    protected ResultSink(Writer writer, boolean closeWriter) {
+        this.writer = writer;
+        this.closeWriter = closeWriter;
+    }
+
+    /**
+     * Opens a {@code ResultSink} of the given format, writing into the given file or to the standard output.
+     *
+     * @param outputFormat
+     *            The {@link OutputFormat} of the results.
+     * @param outputFile
+     *            The file the results are written into, an existing file is overwritten, or {@code null} to write them to the standard output.
+     * @return A new {@code ResultSink}, to be closed by the caller.
+     * @throws IOException
+     *             If the file cannot be opened for writing.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code outputFormat} is null.
+     */
+    public static ResultSink open(OutputFormat outputFormat, Path outputFile) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(outputFormat, "outputFormat");
+
+        if (outputFile == null) {
+            // The standard output is flushed, but never closed
+            return of(outputFormat, new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE_BYTES), false);
+        }
+        return of(outputFormat, Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8), true);
+    }
+
+    /**
+     * Creates a {@code ResultSink} of the given format, writing into the given writer.
+     *
+     * @param outputFormat
+     *            The {@link OutputFormat} of the results.
+     * @param writer
+     *            The writer the results are written into, which should be buffered.
+     * @param closeWriter
+     *            Whether the writer is closed together with the sink, or only flushed.
+     * @return A new {@code ResultSink}.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code outputFormat} or the {@code writer} is null.
+     */
+    public static ResultSink of(OutputFormat outputFormat, Writer writer, boolean closeWriter) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(outputFormat, "outputFormat");
+        ParamValidatorUtil.requireNonNull(writer, "writer");
+
+        return switch (outputFormat) {
+            case TEXT -> new TextResultSink(writer, closeWriter);
+            case CSV -> new CsvResultSink(writer, closeWriter);
+            case JSONL -> new JsonLinesResultSink(writer, closeWriter);
+        };
+    }
+
+    /**
+     * Writes the result of an exact analysis and flushes the output.
+     *
+     * @param source
+     *            The path of the input file of the result, or {@code null} for the aggregated result of a batch.
+     * @param result
+     *            The {@link Result} to be written.
+     * @throws IOException
+     *             If the result cannot be written.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code result} is null.
+     */
+    public void write(String source, Result result) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(result, "result");
+
+        writeResult(source, result);
+        if (result.invalidLines().count() > 0) {
+            writeInvalidLines(source, result.invalidLines());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes the result of an approximate analysis and flushes the output.
+     *
+     * @param source
+     *            The path of the input file of the result, or {@code null} for the aggregated result of a batch.
+     * @param sketchResult
+     *            The {@link SketchResult} to be written.
+     * @throws IOException
+     *             If the result cannot be written.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the {@code sketchResult} is null.
+     */
+    public void write(String source, SketchResult sketchResult) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(sketchResult, "sketchResult");
+
+        writeSketchResult(source, sketchResult);
+        if (sketchResult.invalidLines().count() > 0) {
+            writeInvalidLines(source, sketchResult.invalidLines());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Flushes the output, and closes it unless it is the standard output.
+     *
+     * @throws IOException
+     *             If the output cannot be flushed or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closeWriter) {
+            writer.close();
+        } else {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Writes the result of an exact analysis, without flushing the output.
+     *
+     * @param source
+     *            The path of the input file of the result, or {@code null} for the aggregated result of a batch.
+     * @param result
+     *            The {@link Result} to be written.
+     * @throws IOException
+     *             If the result cannot be written.
+     */
+    protected abstract void writeResult(String source, Result result) throws IOException;
+
+    /**
+     * Writes the result of an approximate analysis, without flushing the output.
+     *
+     * @param source
+     *            The path of the input file of the result, or {@code null} for the aggregated result of a batch.
+     * @param sketchResult
+     *            The {@link SketchResult} to be written.
+     * @throws IOException
+     *             If the result cannot be written.
+     */
+    protected abstract void writeSketchResult(String source, SketchResult sketchResult) throws IOException;
+
+    /**
+     * Writes the invalid lines skipped by the lenient parsing after the rest of a result, without flushing the output. It is only called if at
+     * least one line has been skipped.
+     *
+     * @param source
+     *            The path of the input file of the result, or {@code null} for the aggregated result of a batch.
+     * @param invalidLines
+     *            The {@link InvalidLines} of the result.
+     * @throws IOException
+     *             If the invalid lines cannot be written.
+     */
+    protected abstract void writeInvalidLines(String source, InvalidLines invalidLines) throws IOException;
+
+    /**
+     * Writes the dimensions of the given room in the {@code LxWxH} format, without building its key, which would be cached by the room.
+     *
+     * @param room
+     *            The {@link Room} whose dimensions are written.
+     * @throws IOException
+     *             If the dimensions cannot be written.
+     */
+    protected void writeDimensions(Room room) throws IOException {
+        writer.write(Integer.toString(room.length()));
+        writer.write('x');
+        writer.write(Integer.toString(room.width()));
+        writer.write('x');
+        writer.write(Integer.toString(room.height()));
+    }
+}
@@ -0,0 +1,110 @@
+package gscf.task.roomdimension.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.MessageFormat;
+
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.LineError;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchResult;
+
+/**
+ * A {@link ResultSink} writing the results as the sentences of the logged results, but with every room on its own line instead of a single list.
+ *
+ * @author krisztian.hathazi
+ */
+public class TextResultSink extends ResultSink {
+
+    /**
+     * Constructs a {@link TextResultSink} writing into the given writer.
+     *
+     * @param writer
+     *            The buffered writer the results are written into.
+     * @param closeWriter
+     *            Whether the writer is closed together with the sink, or only flushed.
+     */
+    public TextResultSink(Writer writer, boolean closeWriter) {
+        super(writer, closeWriter);
+    }
+
+    @Override
+    protected void writeResult(String source, Result result) throws IOException {
+        writeSource(source);
+        writeLine(
+                MessageFormat.format(
+                        "The number of total square feet of wallpaper the company should order for all rooms is: [{0}]m2.",
+                        result.totalSquareFeetOfWallpaper()));
+        writeLine(MessageFormat.format("Cubic shaped room dimensions are ([{0}] rooms):", result.cubicRooms().size()));
+        writeRooms(result.cubicRooms());
+        writeLine(MessageFormat.format("Duplicated room dimensions are ([{0}] rooms):", result.duplicateRooms().size()));
+        writeRooms(result.duplicateRooms());
+    }
+
+    @Override
+    protected void writeSketchResult(String source, SketchResult sketchResult) throws IOException {
+        writeSource(source);
+        writeLine(
+                MessageFormat.format(
+                        "The number of total square feet of wallpaper the company should order for all rooms is: [{0}]m2.",
+                        sketchResult.totalSquareFeetOfWallpaper()));
+        writeLine(
+                MessageFormat.format(
+                        "The estimated number of distinct rooms out of [{0}] rooms is: [{1}] (relative standard error: {2,number,percent}).",
+                        sketchResult.roomCount(),
+                        sketchResult.estimatedDistinctRooms(),
+                        sketchResult.distinctRoomsError()));
+        writeLine(
+                MessageFormat.format(
+                        "The most repeated room dimensions with their estimated counts (overestimated by at most [{0}]) are:",
+                        sketchResult.frequencyErrorBound()));
+        for (RoomFrequency roomFrequency : sketchResult.mostRepeatedRooms()) {
+            writer.write("  ");
+            writeDimensions(roomFrequency.room());
+            writer.write('=');
+            writer.write(Long.toString(roomFrequency.estimatedCount()));
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    @Override
+    protected void writeInvalidLines(String source, InvalidLines invalidLines) throws IOException {
+        writeLine(
+                MessageFormat.format(
+                        "[{0}] invalid lines have been skipped, the first [{1}] are:",
+                        invalidLines.count(),
+                        invalidLines.samples().size()));
+        for (LineError lineError : invalidLines.samples()) {
+            writer.write("  line ");
+            writer.write(Long.toString(lineError.lineNumber()));
+            writer.write(" (");
+            writer.write(lineError.reason().reportName());
+            writer.write("): ");
+            writer.write(lineError.line());
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    private void writeSource(String source) throws IOException {
+        if (source == null) {
+            writeLine("The aggregated results of all the input files:");
+        } else {
+            writeLine(MessageFormat.format("The results of the input file [{0}]:", source));
+        }
+    }
+
+    private void writeRooms(Iterable<Room> rooms) throws IOException {
+        for (Room room : rooms) {
+            writer.write("  ");
+            writeDimensions(room);
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        writer.write(line);
+        writer.write(System.lineSeparator());
+    }
+}
@@ -0,0 +1,275 @@
+package gscf.task.roomdimension.server;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.dto.AnalysisMode;
+import gscf.task.roomdimension.dto.OutputFormat;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
+import gscf.task.roomdimension.log.AppLogger;
+import gscf.task.roomdimension.output.ResultSink;
+
+/**
+ * Handles the requests of the {@link AnalysisServer}. A room file is posted as the body of the request, optionally gzip compressed, and the
+ * result is streamed back in the response as JSON Lines by default, see {@link gscf.task.roomdimension.output.JsonLinesResultSink}. The query
+ * of the request may select the analysis with {@code mode=exact} or {@code mode=approximate}, the format of the response with
+ * {@code format=jsonl}, {@code format=csv} or {@code format=text}, and the {@code source} reported with the result, {@code upload} by default.
+ * <p>
+ * The request is rejected with
+ * </p>
+ * <ul>
+ * <li>{@code 400} if its query is invalid, a line of its body is not a room and the server is not lenient, see
+ * {@link ProcessingOptions#lenient()}, or the total wallpaper needed by its rooms exceeds {@link Long#MAX_VALUE}</li>
+ * <li>{@code 405} if it is not a {@code POST} request</li>
+ * <li>{@code 413} if its body is larger than {@link ProcessingOptions#maxInputSizeBytes()}</li>
+ * <li>{@code 503} if the maximum number of requests are processed already</li>
+ * </ul>
+ *
+ * @author krisztian.hathazi
+ */
+class AnalysisHandler implements HttpHandler {
+
+    private static final Logger LOGGER = AppLogger.getLogger();
+
+    private static final int BAD_REQUEST = 400;
+
+    private static final int METHOD_NOT_ALLOWED = 405;
+
+    private static final int PAYLOAD_TOO_LARGE = 413;
+
+    private static final int INTERNAL_SERVER_ERROR = 500;
+
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private static final int OK = 200;
+
+    // A response length of 0 sends the response in chunks, so the result is streamed without knowing its size upfront
+    private static final long CHUNKED_RESPONSE = 0;
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    // The source of a result without a source parameter, a null source would stand for the aggregated result of a batch
+    private static final String DEFAULT_SOURCE = "upload";
+
+    private static final String TOTAL_OVERFLOW_MESSAGE = "The total wallpaper needed by the rooms exceeds the maximum of a long.";
+
+    private final InputFileProcessor inputFileProcessor;
+
+    private final ProcessingOptions processingOptions;
+
+    private final Semaphore requestPermits;
+
+    private volatile boolean draining;
+
+    /**
+     * Constructs an {@link AnalysisHandler} analysing the request bodies with the given processor.
+     *
+     * @param inputFileProcessor
+     *            The {@link InputFileProcessor} analysing the request bodies.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} of the analysis, and the limits of the requests.
+     */
+    AnalysisHandler(InputFileProcessor inputFileProcessor, ProcessingOptions processingOptions) {
+        this.inputFileProcessor = inputFileProcessor;
+        this.processingOptions = processingOptions;
+        this.requestPermits = new Semaphore(processingOptions.maxConcurrentRequests());
+    }
+
+    /**
+     * Returns the number of requests being processed.
+     *
+     * @return The number of acquired request permits.
+     */
+    int activeRequests() {
+        return processingOptions.maxConcurrentRequests() - requestPermits.availablePermits();
+    }
+
+    /**
+     * Analyses the body of the request, and streams the result into the response.
+     *
+     * @param exchange
+     *            The {@link HttpExchange} of the request.
+     * @throws IOException
+     *             If the response cannot be sent.
+     */
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        boolean permitted = false;
+        // The permit is released once the exchange has been closed, so a drained server has sent every response
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, METHOD_NOT_ALLOWED, "Room files must be posted.");
+                return;
+            }
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (contentLength != null && parseContentLength(contentLength) > processingOptions.maxInputSizeBytes()) {
+                sendError(exchange, PAYLOAD_TOO_LARGE, sizeLimitMessage());
+                return;
+            }
+
+            Request request;
+            try {
+                request = parseQuery(exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, BAD_REQUEST, e.getMessage());
+                return;
+            }
+
+            // Requests over the limit are rejected instead of queued, so a burst cannot exhaust the heap
+            permitted = !draining && requestPermits.tryAcquire();
+            if (!permitted) {
+                exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+                sendError(exchange, SERVICE_UNAVAILABLE, "The server is busy or shutting down, please retry later.");
+                return;
+            }
+            analyse(exchange, request);
+        } finally {
+            if (permitted) {
+                requestPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Waits until the requests in progress have been completed, and rejects every further request. The handler cannot accept requests afterwards.
+     *
+     * @param timeout
+     *            The maximum time to wait.
+     * @return {@code true} if every request has been completed, {@code false} if the timeout has elapsed first.
+     * @throws InterruptedException
+     *             If the calling thread is interrupted while waiting.
+     */
+    boolean drain(Duration timeout) throws InterruptedException {
+        draining = true;
+        // Holding every permit shows that no request is in progress, the permits are never released
+        return requestPermits.tryAcquire(processingOptions.maxConcurrentRequests(), timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void analyse(HttpExchange exchange, Request request) throws IOException {
+        ResultOutput resultOutput;
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            if (request.mode() == AnalysisMode.APPROXIMATE) {
+                SketchResult sketchResult = inputFileProcessor.processApproximate(requestBody, processingOptions);
+                resultOutput = resultSink -> resultSink.write(request.source(), sketchResult);
+            } else {
+                Result result = inputFileProcessor.process(requestBody, processingOptions);
+                resultOutput = resultSink -> resultSink.write(request.source(), result);
+            }
+        } catch (SizeLimitExceededIOException e) {
+            sendError(exchange, PAYLOAD_TOO_LARGE, sizeLimitMessage());
+            return;
+        } catch (IllegalStateException | InvalidMethodParameterException | NumberFormatException e) {
+            // The room converter rejects the malformed, the blank and the too large lines
+            sendError(exchange, BAD_REQUEST, e.getMessage());
+            return;
+        } catch (ArithmeticException e) {
+            // Every room fits, but their total wallpaper does not
+            sendError(exchange, BAD_REQUEST, TOTAL_OVERFLOW_MESSAGE);
+            return;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "The analysis of an uploaded room file has failed due to an IOException.", e);
+            sendError(exchange, INTERNAL_SERVER_ERROR, "The room file could not be read.");
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", contentType(request.format()));
+        exchange.sendResponseHeaders(OK, CHUNKED_RESPONSE);
+        try (ResultSink resultSink = ResultSink
+                .of(request.format(), new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)), true)) {
+            resultOutput.writeTo(resultSink);
+        }
+    }
+
+    private long parseContentLength(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            // The HTTP server rejects malformed lengths anyway, the body is limited while it is read
+            return 0;
+        }
+    }
+
+    private String sizeLimitMessage() {
+        return MessageFormat.format("The room file exceeds the maximum size of [{0}] bytes.", processingOptions.maxInputSizeBytes());
+    }
+
+    /**
+     * Parses the query of the request, the analysis mode defaults to the mode of the server.
+     */
+    private Request parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery != null && !rawQuery.isEmpty()) {
+            for (String parameter : rawQuery.split("&")) {
+                int separatorIndex = parameter.indexOf('=');
+                String name = separatorIndex < 0 ? parameter : parameter.substring(0, separatorIndex);
+                String value = separatorIndex < 0 ? "" : parameter.substring(separatorIndex + 1);
+                parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+
+        String mode = parameters.get("mode");
+        String format = parameters.get("format");
+        try {
+            return new Request(
+                    mode == null ? processingOptions.mode() : AnalysisMode.fromName(mode),
+                    format == null ? OutputFormat.JSONL : OutputFormat.fromName(format),
+                    parameters.getOrDefault("source", DEFAULT_SOURCE));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(MessageFormat.format("Unknown analysis mode [{0}] or output format [{1}].", mode, format), e);
+        }
+    }
+
+    private static String contentType(OutputFormat outputFormat) {
+        return switch (outputFormat) {
+            case CSV -> "text/csv; charset=utf-8";
+            case JSONL -> "application/jsonl; charset=utf-8";
+            case TEXT -> "text/plain; charset=utf-8";
+        };
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    /**
+     * The output of the result of a request into a {@link ResultSink}.
+     */
+    @FunctionalInterface
+    private interface ResultOutput {
+
+        void writeTo(ResultSink resultSink) throws IOException;
+    }
+
+    /**
+     * The settings of a single request, parsed from its query.
+     */
+    private record Request(AnalysisMode mode, OutputFormat format, String source) {
+    }
+}
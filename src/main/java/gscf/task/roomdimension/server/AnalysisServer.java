@@ -0,0 +1,155 @@
+package gscf.task.roomdimension.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpServer;
+
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.log.AppLogger;
+import gscf.task.roomdimension.util.ExecutorUtil;
+import gscf.task.roomdimension.util.ParamValidatorUtil;
+
+/**
+ * A long-running HTTP server analysing the room files uploaded to it, so the startup and the warm-up of the JVM are paid only once instead of for
+ * every analysed file. The room files are posted to {@value #ANALYSIS_PATH} as the body of the request, which is streamed into the
+ * {@link InputFileProcessor} as it arrives, without being stored, and the result is streamed back in the response, see {@link AnalysisHandler}.
+ * <p>
+ * Every request runs on its own virtual thread, or on a bounded pool of platform threads on JVMs without virtual threads, see
+ * {@link ExecutorUtil}. At most {@link ProcessingOptions#maxConcurrentRequests()} requests are processed at the same time, the further ones are
+ * rejected right away, and every request body is limited to {@link ProcessingOptions#maxInputSizeBytes()}.
+ * </p>
+ * <p>
+ * {@link #close()} stops the server gracefully: every new request is rejected, and the requests in progress are given
+ * {@link ProcessingOptions#shutdownTimeout()} to complete before they are interrupted.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public final class AnalysisServer implements AutoCloseable {
+
+    /**
+     * The path the room files are posted to.
+     */
+    public static final String ANALYSIS_PATH = "/analysis";
+
+    private static final Logger LOGGER = AppLogger.getLogger();
+
+    private final HttpServer httpServer;
+
+    private final ExecutorService executor;
+
+    private final AnalysisHandler analysisHandler;
+
+    private final Duration shutdownTimeout;
+
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private AnalysisServer(HttpServer httpServer, ExecutorService executor, AnalysisHandler analysisHandler, Duration shutdownTimeout) {
+        this.httpServer = httpServer;
+        this.executor = executor;
+        this.analysisHandler = analysisHandler;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    /**
+     * Starts an {@link AnalysisServer} listening on the {@link ProcessingOptions#serverAddress()}.
+     *
+     * @param inputFileProcessor
+     *            The {@link InputFileProcessor} analysing the uploaded room files.
+     * @param processingOptions
+     *            The {@link ProcessingOptions} of the server and of the analysis of every request.
+     * @return The started {@link AnalysisServer}, to be closed by the caller.
+     * @throws IOException
+     *             If the server cannot listen on its address.
+     * @throws InvalidMethodParameterException
+     *             If any of the parameters is null, or the {@code processingOptions} has no server address, a non-positive number of concurrent
+     *             requests or a negative shutdown timeout.
+     */
+    public static AnalysisServer start(InputFileProcessor inputFileProcessor, ProcessingOptions processingOptions) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(inputFileProcessor, "inputFileProcessor");
+        ParamValidatorUtil.requireNonNull(processingOptions, "processingOptions");
+        ParamValidatorUtil.requireNonNull(processingOptions.serverAddress(), "processingOptions.serverAddress");
+        ParamValidatorUtil.requireNonNull(processingOptions.shutdownTimeout(), "processingOptions.shutdownTimeout");
+        if (processingOptions.maxConcurrentRequests() <= 0 || processingOptions.shutdownTimeout().isNegative()) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format(
+                            "The maximum number of concurrent requests must be positive and the shutdown timeout must not be negative, got [{0}] and [{1}].",
+                            processingOptions.maxConcurrentRequests(),
+                            processingOptions.shutdownTimeout()));
+        }
+
+        HttpServer httpServer = HttpServer.create(processingOptions.serverAddress(), 0);
+        // The fallback pool has a thread more than the requests processed at the same time, which rejects the further requests instead of queueing
+        ExecutorService executor = ExecutorUtil.newVirtualThreadExecutor(processingOptions.maxConcurrentRequests() + 1);
+        AnalysisHandler analysisHandler = new AnalysisHandler(inputFileProcessor, processingOptions);
+        httpServer.createContext(ANALYSIS_PATH, analysisHandler);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+
+        return new AnalysisServer(httpServer, executor, analysisHandler, processingOptions.shutdownTimeout());
+    }
+
+    /**
+     * Returns the address the server listens on, with the actual port if the server was started on an ephemeral port.
+     *
+     * @return The {@link InetSocketAddress} of the server.
+     */
+    public InetSocketAddress address() {
+        return httpServer.getAddress();
+    }
+
+    /**
+     * Returns the number of requests being processed.
+     *
+     * @return The number of requests holding a slot of the concurrency limit.
+     */
+    public int activeRequests() {
+        return analysisHandler.activeRequests();
+    }
+
+    /**
+     * Blocks the calling thread until the server has been stopped by {@link #close()}.
+     *
+     * @throws InterruptedException
+     *             If the calling thread is interrupted while waiting.
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stops the server gracefully. The server rejects the further requests right away, and waits at most the shutdown timeout for the requests in
+     * progress, which are interrupted afterwards. Closing a stopped server has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (stopped.getCount() == 0) {
+            return;
+        }
+        // The requests are drained by the handler, the HTTP server of Java 17 would wait for the whole delay of its stop even if it was idle
+        boolean drained = false;
+        try {
+            drained = analysisHandler.drain(shutdownTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            httpServer.stop(0);
+            if (drained) {
+                executor.shutdown();
+            } else {
+                LOGGER.warning("The requests still in progress at the end of the shutdown timeout have been interrupted.");
+                executor.shutdownNow();
+            }
+            stopped.countDown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package gscf.task.roomdimension.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.text.MessageFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * Utility class for creating the executors of I/O bound tasks.
+ *
+ * @author krisztian.hathazi
+ */
+public final class ExecutorUtil {
+
+    // Virtual threads are only available from Java 21, the application still runs on Java 17, so the factory method is looked up at runtime
+    private static final MethodHandle VIRTUAL_THREAD_EXECUTOR_FACTORY = findVirtualThreadExecutorFactory();
+
+    private ExecutorUtil() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Returns whether the running JVM supports virtual threads.
+     *
+     * @return {@code true} if {@link #newVirtualThreadExecutor(int)} creates virtual threads.
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_EXECUTOR_FACTORY != null;
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for each task. On JVMs without virtual threads, a fixed pool of platform threads is created
+     * instead, so the caller should limit the number of concurrent tasks either way.
+     *
+     * @param fallbackThreads
+     *            The number of platform threads of the fallback pool, should be positive.
+     * @return A new {@link ExecutorService}, to be shut down by the caller.
+     * @throws InvalidMethodParameterException
+     *             If {@code fallbackThreads} is not positive.
+     */
+    public static ExecutorService newVirtualThreadExecutor(int fallbackThreads) {
+        // Public method, so parameter validation is a must
+        if (fallbackThreads <= 0) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("[fallbackThreads] parameter must be positive, got [{0}].", fallbackThreads));
+        }
+
+        if (VIRTUAL_THREAD_EXECUTOR_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR_FACTORY.invokeExact();
+            } catch (Throwable e) {
+                // Falls back to platform threads below
+            }
+        }
+        return Executors.newFixedThreadPool(fallbackThreads);
+    }
+
+    private static MethodHandle findVirtualThreadExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package gscf.task.roomdimension.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * Utility class for recognising gzip compressed input by its magic bytes, regardless of the name of the file.
+ *
+ * @author krisztian.hathazi
+ */
+public final class GzipUtil {
+
+    /**
+     * The first magic byte of every gzip member.
+     */
+    public static final int MAGIC_1 = 0x1F;
+
+    /**
+     * The second magic byte of every gzip member.
+     */
+    public static final int MAGIC_2 = 0x8B;
+
+    private GzipUtil() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Returns whether the given regular file is gzip compressed, i.e. it starts with the gzip magic bytes.
+     *
+     * @param path
+     *            The path of the regular file to check.
+     * @return {@code true} if the file is gzip compressed.
+     * @throws IOException
+     *             If the file cannot be read.
+     * @throws InvalidMethodParameterException
+     *             If the {@code path} is null.
+     */
+    public static boolean isGzipFile(Path path) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(path, "path");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(2);
+            while (magic.hasRemaining() && channel.read(magic, magic.position()) > 0) {
+                // Keep reading, a single read may return fewer bytes
+            }
+            return !magic.hasRemaining() && isGzipMagic(magic.get(0), magic.get(1));
+        }
+    }
+
+    /**
+     * Returns whether the given stream starts with the gzip magic bytes, without consuming them.
+     *
+     * @param inputStream
+     *            The stream to check, which must support {@link InputStream#mark(int)}.
+     * @return {@code true} if the stream is gzip compressed.
+     * @throws IOException
+     *             If the stream cannot be read.
+     * @throws InvalidMethodParameterException
+     *             If the {@code inputStream} is null or does not support marks.
+     */
+    public static boolean isGzipStream(InputStream inputStream) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(inputStream, "inputStream");
+        if (!inputStream.markSupported()) {
+            throw new InvalidMethodParameterException("[inputStream] parameter does not support marks.");
+        }
+
+        inputStream.mark(2);
+        try {
+            int first = inputStream.read();
+            int second = inputStream.read();
+            return first >= 0 && second >= 0 && isGzipMagic((byte) first, (byte) second);
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    /**
+     * Returns whether the given bytes are the gzip magic bytes.
+     *
+     * @param first
+     *            The first byte.
+     * @param second
+     *            The second byte.
+     * @return {@code true} if the bytes are the gzip magic bytes.
+     */
+    public static boolean isGzipMagic(byte first, byte second) {
+        return (first & 0xFF) == MAGIC_1 && (second & 0xFF) == MAGIC_2;
+    }
+}
@@ -3,9 +3,6 @@ package gscf.task.roomdimension.util;
 import java.text.MessageFormat;
 import java.util.Objects;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.StringUtils;
-
 import gscf.task.roomdimension.exception.InvalidMethodParameterException;
 
 /**
@@ -30,7 +27,7 @@ public final class ParamValidatorUtil {
      *             If the parameter is blank or null.
      */
     public static void requireNonBlank(String parameter, String parameterName) throws InvalidMethodParameterException {
-        if (StringUtils.isBlank(parameter)) {
+        if (parameter == null || parameter.isBlank()) {
             throw new InvalidMethodParameterException(MessageFormat.format("[{0}] parameter is blank.", parameterName));
         }
     }
@@ -62,7 +59,7 @@ public final class ParamValidatorUtil {
      *             If the parameter is null or empty.
      */
     public static void requireNonEmpty(Object[] parameter, String parameterName) throws InvalidMethodParameterException {
-        if (ArrayUtils.isEmpty(parameter)) {
+        if (parameter == null || parameter.length == 0) {
             throw new InvalidMethodParameterException(MessageFormat.format("[{0}] parameter is null or empty.", parameterName));
         }
     }
@@ -3,12 +3,20 @@ package gscf.task.roomdimension.util;
 import java.text.MessageFormat;
 import java.util.logging.Logger;
 
+import gscf.task.roomdimension.dto.BatchResult;
+import gscf.task.roomdimension.dto.FileResult;
+import gscf.task.roomdimension.dto.InvalidLines;
 import gscf.task.roomdimension.dto.Result;
 import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.SketchResult;
 import gscf.task.roomdimension.log.AppLogger;
 
 /**
  * Utility class for printing results related to room dimensions and wallpaper calculations.
+ * <p>
+ * Every list of rooms is logged as a single message, which is built in memory. Large results are streamed room by room through a
+ * {@link gscf.task.roomdimension.output.ResultSink} instead. The messages are only formatted if the logger is enabled for their level.
+ * </p>
  *
  * @author krisztian.hathazi
  */
@@ -33,10 +41,9 @@ public final class ResultPrinterUtil {
     public static void printTotalSquareFeetOfWallpaperNeeded(Result result) {
         // Public method, so parameter validation is a must
         ParamValidatorUtil.requireNonNull(result, RESULT);
-        String message = MessageFormat.format(
+        LOGGER.fine(() -> MessageFormat.format(
                 "The number of total square feet of wallpaper the company should order for all rooms is: [{0}]m2.",
-                result.totalSquareFeetOfWallpaper());
-        LOGGER.fine(message);
+                result.totalSquareFeetOfWallpaper()));
     }
 
     /**
@@ -50,8 +57,7 @@ public final class ResultPrinterUtil {
     public static void printCubicShapedRooms(Result result) {
         // Public method, so parameter validation is a must
         ParamValidatorUtil.requireNonNull(result, RESULT);
-        String message = MessageFormat.format("Cubic shaped room dimensions are: {0}", result.cubicRooms().stream().map(Room::key).toList());
-        LOGGER.fine(message);
+        LOGGER.fine(() -> MessageFormat.format("Cubic shaped room dimensions are: {0}", result.cubicRooms().stream().map(Room::key).toList()));
     }
 
     /**
@@ -65,7 +71,109 @@ public final class ResultPrinterUtil {
     public static void printDuplicatedRooms(Result result) {
         // Public method, so parameter validation is a must
         ParamValidatorUtil.requireNonNull(result, RESULT);
-        String message = MessageFormat.format("Duplicated room dimensions are: {0}", result.duplicateRooms().stream().map(Room::key).toList());
-        LOGGER.fine(message);
+        LOGGER.fine(() -> MessageFormat.format("Duplicated room dimensions are: {0}", result.duplicateRooms().stream().map(Room::key).toList()));
+    }
+
+    /**
+     * Prints the total square feet of wallpaper needed for all rooms of an approximate analysis, which is exact.
+     *
+     * @param result
+     *            The {@link SketchResult} object containing the total wallpaper information.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the result object is null.
+     */
+    public static void printTotalSquareFeetOfWallpaperNeeded(SketchResult result) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(result, RESULT);
+        LOGGER.fine(() -> MessageFormat.format(
+                "The number of total square feet of wallpaper the company should order for all rooms is: [{0}]m2.",
+                result.totalSquareFeetOfWallpaper()));
+    }
+
+    /**
+     * Prints the estimated number of distinct rooms together with its relative standard error.
+     *
+     * @param result
+     *            The {@link SketchResult} object containing the estimated number of distinct rooms.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the result object is null.
+     */
+    public static void printEstimatedDistinctRooms(SketchResult result) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(result, RESULT);
+        LOGGER.fine(() -> MessageFormat.format(
+                "The estimated number of distinct rooms out of [{0}] rooms is: [{1}] (relative standard error: {2,number,percent}).",
+                result.roomCount(),
+                result.estimatedDistinctRooms(),
+                result.distinctRoomsError()));
+    }
+
+    /**
+     * Prints the dimensions of the most repeated rooms together with their estimated counts.
+     *
+     * @param result
+     *            The {@link SketchResult} object containing the most repeated rooms.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the result object is null.
+     */
+    public static void printMostRepeatedRooms(SketchResult result) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(result, RESULT);
+        LOGGER.fine(() -> MessageFormat.format(
+                "The most repeated room dimensions with their estimated counts (overestimated by at most [{0}]) are: {1}",
+                result.frequencyErrorBound(),
+                result.mostRepeatedRooms().stream().map(frequency -> frequency.room().key() + "=" + frequency.estimatedCount()).toList()));
+    }
+
+    /**
+     * Prints the number of invalid lines skipped by the lenient parsing, together with the first ones. Nothing is printed if no line has been
+     * skipped.
+     *
+     * @param invalidLines
+     *            The {@link InvalidLines} object of a result.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the invalid lines object is null.
+     */
+    public static void printInvalidLines(InvalidLines invalidLines) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(invalidLines, "invalidLines");
+        if (invalidLines.count() == 0) {
+            return;
+        }
+        LOGGER.fine(() -> MessageFormat.format(
+                "[{0}] invalid lines have been skipped, the first ones are: {1}",
+                invalidLines.count(),
+                invalidLines.samples()
+                        .stream()
+                        .map(lineError -> "line " + lineError.lineNumber() + " (" + lineError.reason().reportName() + "): " + lineError.line())
+                        .toList()));
+    }
+
+    /**
+     * Prints the header of the results of a single input file of a batch, followed by the results printed by the other methods.
+     *
+     * @param fileResult
+     *            The {@link FileResult} object containing the path of the input file.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the file result object is null.
+     */
+    public static void printFileResultHeader(FileResult<?> fileResult) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(fileResult, "fileResult");
+        LOGGER.fine(() -> MessageFormat.format("The results of the input file [{0}]:", fileResult.inputFilePath()));
+    }
+
+    /**
+     * Prints the header of the aggregated results of a batch, followed by the results printed by the other methods.
+     *
+     * @param batchResult
+     *            The {@link BatchResult} object containing the results of the input files.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the batch result object is null.
+     */
+    public static void printBatchResultHeader(BatchResult<?> batchResult) {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(batchResult, "batchResult");
+        LOGGER.fine(() -> MessageFormat.format("The aggregated results of all the [{0}] input files:", batchResult.fileResults().size()));
     }
 }
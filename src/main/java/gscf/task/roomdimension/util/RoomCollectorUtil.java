@@ -0,0 +1,116 @@
+package gscf.task.roomdimension.util;
+
+import java.text.MessageFormat;
+import java.util.stream.Collector;
+
+import gscf.task.roomdimension.action.process.CubicRoomSelector;
+import gscf.task.roomdimension.action.process.InMemoryDuplicateRoomDetector;
+import gscf.task.roomdimension.action.process.RoomAccumulator;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomDimensions;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * Utility class providing {@link Collector} implementations which analyse rooms coming from any {@link java.util.stream.Stream}, with the same
+ * total wallpaper, cubic room and duplicate room semantics as {@link gscf.task.roomdimension.action.process.InputFileProcessor}.
+ * <p>
+ * Every collector accumulates into a separate {@link RoomAccumulator} per thread and combines them with {@link RoomAccumulator#merge}, which is
+ * associative, so parallel streams scale across cores without any shared lock. The collectors are unordered, the order of the elements does not
+ * affect the {@link Result}.
+ * </p>
+ *
+ * @author krisztian.hathazi
+ */
+public final class RoomCollectorUtil {
+
+    private RoomCollectorUtil() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Returns a {@link Collector} analysing a stream of {@link Room} objects, reporting every cubic room.
+     *
+     * @return A {@link Collector} producing a {@link Result}.
+     */
+    public static Collector<Room, ?, Result> toResult() {
+        return toResult(CubicRoomSelector.UNBOUNDED);
+    }
+
+    /**
+     * Returns a {@link Collector} analysing a stream of {@link Room} objects, reporting only the cubic rooms needing the most wallpaper.
+     *
+     * @param cubicRoomLimit
+     *            The maximum number of cubic rooms reported, or {@link CubicRoomSelector#UNBOUNDED} to report every cubic room.
+     * @return A {@link Collector} producing a {@link Result}.
+     * @throws InvalidMethodParameterException
+     *             If the cubic room limit is not positive.
+     */
+    public static Collector<Room, ?, Result> toResult(int cubicRoomLimit) {
+        // Public method, so parameter validation is a must
+        if (cubicRoomLimit <= 0) {
+            throw new InvalidMethodParameterException(MessageFormat.format("The cubic room limit should be positive, got [{0}].", cubicRoomLimit));
+        }
+
+        RoomConverter roomConverter = new RoomConverter();
+        return Collector.of(
+                () -> new RoomAccumulator(roomConverter, new InMemoryDuplicateRoomDetector(), cubicRoomLimit),
+                (accumulator, room) -> accumulator.accept(room.length(), room.width(), room.height()),
+                RoomAccumulator::merge,
+                RoomCollectorUtil::finish,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Returns a {@link Collector} analysing a stream of room dimension strings in the {@code LxWxH} format, reporting every cubic room. The strings
+     * are parsed by a {@link RoomConverter} without creating a {@link Room} object per element.
+     *
+     * @return A {@link Collector} producing a {@link Result}.
+     * @throws IllegalStateException
+     *             During the collection, if a string does not match the {@code LxWxH} pattern.
+     */
+    public static Collector<String, ?, Result> dimensionsToResult() {
+        RoomConverter roomConverter = new RoomConverter();
+        return Collector.of(
+                () -> new DimensionsAccumulator(roomConverter),
+                DimensionsAccumulator::accept,
+                DimensionsAccumulator::merge,
+                accumulator -> finish(accumulator.roomAccumulator),
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static Result finish(RoomAccumulator accumulator) {
+        try (accumulator) {
+            return accumulator.toResult();
+        }
+    }
+
+    /**
+     * Pairs a {@link RoomAccumulator} with a reusable {@link RoomDimensions} holder, so the strings of a single thread are parsed into the same
+     * holder.
+     */
+    private static final class DimensionsAccumulator {
+
+        private final RoomConverter roomConverter;
+
+        private final RoomAccumulator roomAccumulator;
+
+        private final RoomDimensions dimensions = new RoomDimensions();
+
+        private DimensionsAccumulator(RoomConverter roomConverter) {
+            this.roomConverter = roomConverter;
+            this.roomAccumulator = new RoomAccumulator(roomConverter);
+        }
+
+        private void accept(String roomDimensions) {
+            roomConverter.convert(roomDimensions, dimensions);
+            roomAccumulator.accept(dimensions.length(), dimensions.width(), dimensions.height());
+        }
+
+        private DimensionsAccumulator merge(DimensionsAccumulator other) {
+            roomAccumulator.merge(other.roomAccumulator);
+            return this;
+        }
+    }
+}
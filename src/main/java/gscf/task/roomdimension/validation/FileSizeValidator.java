@@ -1,24 +1,49 @@
 package gscf.task.roomdimension.validation;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.InputStream;
+import java.nio.file.AccessDeniedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.MessageFormat;
+import java.util.zip.GZIPInputStream;
 
+import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
+import gscf.task.roomdimension.jfr.RoomDimensionEvents;
+import gscf.task.roomdimension.jfr.ValidationEvent;
+import gscf.task.roomdimension.metrics.ProcessingMetrics;
+import gscf.task.roomdimension.metrics.Stage;
+import gscf.task.roomdimension.util.GzipUtil;
 import gscf.task.roomdimension.util.ParamValidatorUtil;
 
 /**
  * A utility class that validates the size of a file.
+ * <p>
+ * The size of a regular file is validated through its metadata, without reading the file. The size of other files, like pipes or special files, is
+ * unknown until they are read, so for them the limit is enforced while they are being processed, by the stream returned from
+ * {@link #newInputStream(String, long)}.
+ * </p>
+ * <p>
+ * Gzip compressed files, recognised by their magic bytes, are decompressed by the stream returned from {@link #newInputStream(String, long)}. The
+ * limit applies to their decompressed bytes, so a small compressed file expanding to a huge one is rejected while it is read.
+ * </p>
  * 
  * @author krisztian.hathazi
  */
 public class FileSizeValidator {
 
+    private static final int BUFFER_SIZE_BYTES = 64 * 1024;
+
+    private final ProcessingMetrics processingMetrics = ProcessingMetrics.getInstance();
+
     /**
      * Validates that the file located at the given path does not exceed the specified size.
      * <p>
-     * If the file exceeds the maximum size, a {@link gscf.task.roomdimension.exception.SizeLimitExceededIOException} is thrown.
+     * If the file is a regular file and exceeds the maximum size, a {@link gscf.task.roomdimension.exception.SizeLimitExceededIOException} is thrown.
+     * For any other kind of file, and for gzip compressed files, the size cannot be determined upfront, so only its existence is validated.
      * </p>
      *
      * @param inputFilePath
@@ -26,17 +51,100 @@ public class FileSizeValidator {
      * @param maxSize
      *            The maximum allowed size for the file in bytes.
      * @throws IOException
-     *             If there is an issue reading the file or if the file size exceeds the specified limit.
+     *             If the file does not exist or is not readable, or if the file size exceeds the specified limit.
      * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
      *             If the inputFilePath is blank.
      */
     public void validate(String inputFilePath, long maxSize) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonBlank(inputFilePath, "inputFilePath");
+        ValidationEvent validationEvent = RoomDimensionEvents.beginValidation();
+        try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.VALIDATION)) {
+            Path filePath = Paths.get(inputFilePath);
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            if (attributes.isRegularFile() && !GzipUtil.isGzipFile(filePath)) {
+                validateRegularFile(filePath, attributes.size(), maxSize);
+            }
+
+            RoomDimensionEvents.commitValidation(
+                    validationEvent,
+                    inputFilePath,
+                    attributes.isRegularFile() ? attributes.size() : 0,
+                    attributes.isRegularFile());
+        }
+    }
+
+    /**
+     * Opens an {@link InputStream} to the file located at the given path which does not deliver more than the specified number of bytes.
+     * <p>
+     * The size of a regular file is validated through its metadata before it is opened. Any other kind of file is wrapped into a
+     * {@link LimitedSizeInputStream}, so the limit is enforced while the file is read. Gzip compressed files are decompressed, and the limit is
+     * enforced on the decompressed bytes.
+     * </p>
+     *
+     * @param inputFilePath
+     *            The path to the file to be opened.
+     * @param maxSize
+     *            The maximum allowed size for the file in bytes.
+     * @return An {@link InputStream} reading the file.
+     * @throws IOException
+     *             If the file cannot be opened, or if the size of the regular file exceeds the specified limit.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the inputFilePath is blank.
+     */
+    public InputStream newInputStream(String inputFilePath, long maxSize) throws IOException {
         // Public method, so parameter validation is a must
         ParamValidatorUtil.requireNonBlank(inputFilePath, "inputFilePath");
         Path filePath = Paths.get(inputFilePath);
-        try (LimitedSizeInputStream limitedSizeInputStream = new LimitedSizeInputStream(Files.newInputStream(filePath), maxSize)) {
-            // Consume the input stream to validate file size
-            limitedSizeInputStream.transferTo(OutputStream.nullOutputStream());
+        boolean regularFile = Files.isRegularFile(filePath);
+        if (regularFile && !GzipUtil.isGzipFile(filePath)) {
+            validateRegularFile(filePath, Files.size(filePath), maxSize);
+            return Files.newInputStream(filePath);
+        }
+
+        if (!regularFile) {
+            return limit(Files.newInputStream(filePath), maxSize);
+        }
+        return decompressIfGzip(new BufferedInputStream(Files.newInputStream(filePath), BUFFER_SIZE_BYTES), maxSize);
+    }
+
+    /**
+     * Wraps an {@link InputStream} of unknown size, e.g. the body of a request, into a stream which does not deliver more than the specified number
+     * of bytes. The limit is enforced by a {@link LimitedSizeInputStream} while the stream is read. Gzip compressed streams, recognised by their magic
+     * bytes, are decompressed, and the limit is enforced on both the compressed and the decompressed bytes.
+     *
+     * @param inputStream
+     *            The {@link InputStream} to be limited, closed together with the returned stream.
+     * @param maxSize
+     *            The maximum allowed size for the stream in bytes.
+     * @return A buffered {@link InputStream} reading the given stream.
+     * @throws IOException
+     *             If the magic bytes of the stream cannot be read.
+     * @throws gscf.task.roomdimension.exception.InvalidMethodParameterException
+     *             If the inputStream is null.
+     */
+    public InputStream limit(InputStream inputStream, long maxSize) throws IOException {
+        // Public method, so parameter validation is a must
+        ParamValidatorUtil.requireNonNull(inputStream, "inputStream");
+
+        return decompressIfGzip(new BufferedInputStream(new LimitedSizeInputStream(inputStream, maxSize), BUFFER_SIZE_BYTES), maxSize);
+    }
+
+    private static InputStream decompressIfGzip(BufferedInputStream bufferedInputStream, long maxSize) throws IOException {
+        if (GzipUtil.isGzipStream(bufferedInputStream)) {
+            // Concatenated gzip members are decompressed one after the other
+            return new LimitedSizeInputStream(new GZIPInputStream(bufferedInputStream, BUFFER_SIZE_BYTES), maxSize);
+        }
+        return bufferedInputStream;
+    }
+
+    private void validateRegularFile(Path filePath, long size, long maxSize) throws IOException {
+        if (!Files.isReadable(filePath)) {
+            throw new AccessDeniedException(filePath.toString());
+        }
+        if (size > maxSize) {
+            throw new SizeLimitExceededIOException(
+                    MessageFormat.format("The file [{0}] of [{1}] bytes exceeds the maximum size of [{2}] bytes.", filePath, size, maxSize));
         }
     }
 }
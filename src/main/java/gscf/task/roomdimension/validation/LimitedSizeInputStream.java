@@ -92,6 +92,17 @@ public class LimitedSizeInputStream extends InputStream {
         return i;
     }
 
+    /**
+     * Closes the original {@link InputStream}.
+     *
+     * @throws IOException
+     *             If an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        originalInputStream.close();
+    }
+
     private void incrementCounter(int size) throws IOException {
         totalSize += size;
         if (totalSize > maxSize) {
@@ -0,0 +1,184 @@
+package gscf.task.roomdimension.action;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+
+import gscf.task.roomdimension.action.process.BatchInputProcessor;
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.dto.BatchResult;
+import gscf.task.roomdimension.dto.FileResult;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomDimensions;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
+import gscf.task.roomdimension.generator.RoomInputGenerator;
+
+/**
+ * {@link BatchInputProcessor} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class BatchInputProcessorTest {
+
+    private BatchInputProcessor batchInputProcessor;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void setupObjects() {
+        batchInputProcessor = new BatchInputProcessor(new RoomConverter());
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should provide the result of every file and detect the duplicates across the files in the aggregate")
+    void testProcessDetectsDuplicatesAcrossFiles(IngestionEngine engine) throws IOException {
+        Path first = write("first.txt", "1x2x3\n4x4x4\n");
+        Path second = write("second.txt", "1x2x3\n5x6x7\n5x6x7\n");
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).build();
+
+        BatchResult<Result> batchResult = batchInputProcessor.process(List.of(first, second), options);
+
+        Room room = new Room(1, 2, 3, 24, false);
+        Room otherRoom = new Room(5, 6, 7, 244, false);
+        Room cubicRoom = new Room(4, 4, 4, 112, true);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(first.toString(), second.toString()), batchResult.fileResults().stream().map(FileResult::inputFilePath).toList()),
+                () -> Assertions.assertEquals(new Result(136, List.of(cubicRoom), List.of()), batchResult.fileResults().get(0).result()),
+                () -> Assertions.assertEquals(new Result(512, List.of(), List.of(otherRoom)), batchResult.fileResults().get(1).result()),
+                () -> Assertions.assertEquals(648, batchResult.aggregate().totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(List.of(cubicRoom), batchResult.aggregate().cubicRooms()),
+                () -> Assertions.assertEquals(Set.of(room, otherRoom), Set.copyOf(batchResult.aggregate().duplicateRooms())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 3, 64 })
+    @DisplayName("Should aggregate many files to the same result as a single file of all their rooms, regardless of the concurrency")
+    void testProcessMatchesConcatenatedFile(int concurrency) throws IOException {
+        List<Path> inputFiles = new ArrayList<>();
+        StringBuilder concatenated = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            Path inputFile = tempDir.resolve("input-" + i + ".txt");
+            RoomInputGenerator.builder().seed(i).roomCount(200).duplicateRatio(0.1).cubicRatio(0.05).dimensionRange(1, 30).build().generate(inputFile);
+            inputFiles.add(inputFile);
+            concatenated.append(Files.readString(inputFile));
+        }
+        Path concatenatedFile = write("concatenated.txt", concatenated.toString());
+        ProcessingOptions options = ProcessingOptions.builder().batchConcurrency(concurrency).build();
+
+        BatchResult<Result> batchResult = batchInputProcessor.process(inputFiles, options);
+        Result expected = new InputFileProcessor(new RoomConverter()).process(concatenatedFile.toString(), options);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(40, batchResult.fileResults().size()),
+                () -> Assertions.assertEquals(expected.totalSquareFeetOfWallpaper(), batchResult.aggregate().totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(expected.cubicRooms(), batchResult.aggregate().cubicRooms()),
+                () -> Assertions.assertEquals(Set.copyOf(expected.duplicateRooms()), Set.copyOf(batchResult.aggregate().duplicateRooms())));
+    }
+
+    @Test
+    @DisplayName("Should detect the duplicates across the files with spilling duplicate detection as well")
+    void testProcessWithSpillingDuplicateDetection() throws IOException {
+        Path first = write("first.txt", "1x2x3\n2x3x4\n");
+        Path second = write("second.txt", "3x4x5\n1x2x3\n");
+        ProcessingOptions options = ProcessingOptions.builder().duplicateDetectionMemoryBytes(1).spillDirectory(tempDir).build();
+
+        BatchResult<Result> batchResult = batchInputProcessor.process(List.of(first, second), options);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(new Room(1, 2, 3, 24, false)), batchResult.aggregate().duplicateRooms()),
+                () -> Assertions.assertEquals(Set.of(first, second), Set.copyOf(Files.list(tempDir).toList())));
+    }
+
+    @Test
+    @DisplayName("Should estimate the most repeated rooms across the files in the approximate mode")
+    void testProcessApproximate() throws IOException {
+        Path first = write("first.txt", "1x2x3\n4x5x6\n");
+        Path second = write("second.txt", "1x2x3\n");
+
+        BatchResult<SketchResult> batchResult = batchInputProcessor.processApproximate(List.of(first, second), ProcessingOptions.defaults());
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(batchResult.fileResults().get(0).result().mostRepeatedRooms().isEmpty()),
+                () -> Assertions.assertEquals(3, batchResult.aggregate().roomCount()),
+                () -> Assertions.assertEquals(2, batchResult.aggregate().estimatedDistinctRooms()),
+                () -> Assertions.assertEquals(new Room(1, 2, 3, 24, false), batchResult.aggregate().mostRepeatedRooms().get(0).room()));
+    }
+
+    @Test
+    @DisplayName("Should fail the batch with the error of a missing file")
+    void testProcessThrowsForMissingFile() throws IOException {
+        Path first = write("first.txt", "1x2x3\n");
+        Path missing = tempDir.resolve("missing.txt");
+
+        IOException exception = Assertions.assertThrows(
+                IOException.class,
+                () -> batchInputProcessor.process(List.of(first, missing), ProcessingOptions.defaults()));
+        Assertions.assertTrue(exception.getMessage().contains("missing.txt"));
+    }
+
+    @Test
+    @DisplayName("Should fail the batch with the error thrown while processing a file, instead of hiding it behind the missing result of the file")
+    void testProcessRethrowsError() throws IOException {
+        RoomConverter roomConverter = Mockito.spy(new RoomConverter());
+        Mockito.doThrow(new StackOverflowError("Too deep"))
+                .when(roomConverter)
+                .convert(Mockito.eq("4x5x6"), Mockito.any(RoomDimensions.class), Mockito.any(RoomDimensionsConsumer.class));
+        Path first = write("first.txt", "1x2x3\n");
+        Path failing = write("failing.txt", "4x5x6\n");
+
+        StackOverflowError error = Assertions.assertThrows(
+                StackOverflowError.class,
+                () -> new BatchInputProcessor(roomConverter).process(List.of(first, failing), ProcessingOptions.defaults()));
+        Assertions.assertEquals("Too deep", error.getMessage());
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should fail the batch with SizeLimitExceededIOException if any of the files is too large")
+    void testProcessThrowsForTooLargeFile(IngestionEngine engine) throws IOException {
+        Path small = write("small.txt", "1x2x3\n");
+        Path large = write("large.txt", "1x2x3\n".repeat(10));
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).maxInputSizeBytes(20).build();
+
+        Assertions.assertThrows(SizeLimitExceededIOException.class, () -> batchInputProcessor.process(List.of(small, large), options));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for invalid parameters")
+    void testProcessThrowsForInvalidParameters() throws IOException {
+        Path inputFile = write("input.txt", "1x2x3\n");
+        ProcessingOptions invalidConcurrency = ProcessingOptions.builder().batchConcurrency(0).build();
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> batchInputProcessor.process(null, ProcessingOptions.defaults())),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> batchInputProcessor.process(List.of(), ProcessingOptions.defaults())),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> batchInputProcessor.process(List.of(inputFile), null)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> batchInputProcessor.process(List.of(inputFile), invalidConcurrency)));
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(fileName), content);
+    }
+}
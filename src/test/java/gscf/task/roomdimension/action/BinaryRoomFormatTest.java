@@ -0,0 +1,137 @@
+package gscf.task.roomdimension.action;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gscf.task.roomdimension.action.process.BinaryRoomFormat;
+import gscf.task.roomdimension.action.process.BinaryRoomWriter;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link BinaryRoomFormat} and {@link BinaryRoomWriter} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class BinaryRoomFormatTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Should decode the rooms written by the writer, from the smallest to the largest dimensions")
+    void testWriteAndDecode() throws IOException {
+        Path binaryFile = tempDir.resolve("rooms.rdb");
+        int[][] rooms = { { 1, 2, 3 }, { 127, 128, 129 }, { 16_384, 2_097_152, 268_435_456 }, { Integer.MAX_VALUE, 1, Integer.MAX_VALUE } };
+
+        try (BinaryRoomWriter writer = new BinaryRoomWriter(binaryFile)) {
+            for (int[] room : rooms) {
+                writer.accept(room[0], room[1], room[2]);
+            }
+        }
+
+        byte[] content = Files.readAllBytes(binaryFile);
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        List<int[]> decodedRooms = new ArrayList<>();
+        int consumed = BinaryRoomFormat.decode(
+                buffer,
+                BinaryRoomFormat.HEADER_SIZE_BYTES,
+                content.length,
+                (length, width, height) -> decodedRooms.add(new int[] { length, width, height }));
+
+        long roomCount;
+        try (FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.READ)) {
+            roomCount = BinaryRoomFormat.readRoomCount(channel, binaryFile);
+        }
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(BinaryRoomFormat.isBinaryRoomFile(binaryFile)),
+                () -> Assertions.assertEquals(4, roomCount),
+                () -> Assertions.assertEquals(content.length, consumed),
+                // 7 bits of a dimension per byte, so the rooms take 3, 5, 12 and 11 bytes
+                () -> Assertions.assertEquals(BinaryRoomFormat.HEADER_SIZE_BYTES + 3 + 5 + 12 + 11, content.length),
+                () -> Assertions.assertArrayEquals(rooms, decodedRooms.toArray(int[][]::new)));
+    }
+
+    @Test
+    @DisplayName("Should stop before a room which is incomplete in the range")
+    void testDecodeStopsBeforeIncompleteRoom() {
+        // 1x2x3 followed by 200x1 and the first byte of a height
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 1, 2, 3, (byte) 0xC8, 0x01, 1, (byte) 0x80 });
+        List<int[]> decodedRooms = new ArrayList<>();
+
+        int consumed = BinaryRoomFormat.decode(buffer, 0, 7, (length, width, height) -> decodedRooms.add(new int[] { length, width, height }));
+
+        Assertions.assertAll(() -> Assertions.assertEquals(3, consumed), () -> Assertions.assertEquals(1, decodedRooms.size()));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalStateException for a zero or too large dimension")
+    void testDecodeInvalidDimension() {
+        ByteBuffer zeroDimension = ByteBuffer.wrap(new byte[] { 1, 0, 3 });
+        ByteBuffer tooLargeDimension = ByteBuffer.wrap(new byte[] { 1, 2, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F });
+
+        IllegalStateException zeroException = Assertions
+                .assertThrows(IllegalStateException.class, () -> BinaryRoomFormat.decode(zeroDimension, 0, 3, (length, width, height) -> {
+                }));
+        IllegalStateException tooLargeException = Assertions
+                .assertThrows(IllegalStateException.class, () -> BinaryRoomFormat.decode(tooLargeDimension, 0, 7, (length, width, height) -> {
+                }));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("The binary room data contains an invalid room dimension at index [1].", zeroException.getMessage()),
+                () -> Assertions.assertEquals("The binary room data contains an invalid room dimension at index [2].", tooLargeException.getMessage()));
+    }
+
+    @Test
+    @DisplayName("Should not recognise text input files and unfinished binary room files as binary room files")
+    void testIsBinaryRoomFile() throws IOException {
+        Path textFile = Files.writeString(tempDir.resolve("rooms.txt"), "1x2x3\n");
+        Path shortFile = Files.write(tempDir.resolve("short.rdb"), new byte[] { (byte) 0x89 });
+        Path binaryFile = tempDir.resolve("unfinished.rdb");
+        BinaryRoomWriter unfinishedWriter = new BinaryRoomWriter(binaryFile);
+        unfinishedWriter.accept(1, 2, 3);
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(BinaryRoomFormat.isBinaryRoomFile(textFile)),
+                () -> Assertions.assertFalse(BinaryRoomFormat.isBinaryRoomFile(shortFile)),
+                () -> Assertions.assertFalse(BinaryRoomFormat.isBinaryRoomFile(binaryFile)));
+        unfinishedWriter.close();
+        Assertions.assertTrue(BinaryRoomFormat.isBinaryRoomFile(binaryFile));
+    }
+
+    @Test
+    @DisplayName("Should throw IOException for a header of another version")
+    void testReadRoomCountThrowsForAnotherVersion() throws IOException {
+        Path binaryFile = tempDir.resolve("rooms.rdb");
+        new BinaryRoomWriter(binaryFile).close();
+        byte[] content = Files.readAllBytes(binaryFile);
+        content[Integer.BYTES + 3] = 2;
+        Files.write(binaryFile, content);
+
+        try (FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.READ)) {
+            IOException exception = Assertions.assertThrows(IOException.class, () -> BinaryRoomFormat.readRoomCount(channel, binaryFile));
+            Assertions.assertEquals("The file [" + binaryFile + "] is not a binary room file of version [1].", exception.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for a non-positive dimension")
+    void testWriterThrowsForNonPositiveDimension() throws IOException {
+        try (BinaryRoomWriter writer = new BinaryRoomWriter(tempDir.resolve("rooms.rdb"))) {
+            InvalidMethodParameterException exception = Assertions.assertThrows(InvalidMethodParameterException.class, () -> writer.accept(1, 0, 3));
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals("The room dimensions must be positive, got [1x0x3].", exception.getMessage()),
+                    () -> Assertions.assertEquals(0, writer.roomCount()));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package gscf.task.roomdimension.action;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gscf.task.roomdimension.action.process.CheckpointStore;
+import gscf.task.roomdimension.action.process.InMemoryDuplicateRoomDetector;
+import gscf.task.roomdimension.action.process.RoomAccumulator;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link CheckpointStore} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class CheckpointStoreTest {
+
+    private static final int CUBIC_ROOM_LIMIT = 10;
+
+    @TempDir
+    private Path tempDir;
+
+    private Path inputFile;
+
+    private Path checkpointFile;
+
+    @BeforeEach
+    void setupFiles() throws IOException {
+        inputFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n");
+        checkpointFile = tempDir.resolve("input.ckpt");
+    }
+
+    @Test
+    @DisplayName("Should restore the saved offset, wallpaper total, cubic rooms and duplicate rooms")
+    void testSaveAndRestore() throws IOException {
+        RoomAccumulator savedAccumulator = newRoomAccumulator();
+        savedAccumulator.accept(1, 2, 3);
+        savedAccumulator.accept(4, 4, 4);
+        savedAccumulator.accept(1, 2, 3);
+        savedAccumulator.accept(1, 2, 3);
+        // Too large to be packed into a room key
+        savedAccumulator.accept(3_000_000, 1, 1);
+        savedAccumulator.accept(3_000_000, 1, 1);
+        savedAccumulator.accept(2, 2, 2);
+
+        CheckpointStore checkpointStore = new CheckpointStore(checkpointFile, inputFile, CUBIC_ROOM_LIMIT);
+        checkpointStore.save(savedAccumulator, 42);
+
+        RoomAccumulator restoredAccumulator = newRoomAccumulator();
+        long offset = new CheckpointStore(checkpointFile, inputFile, CUBIC_ROOM_LIMIT).restore(restoredAccumulator);
+        // Rooms processed after the restore must see the restored rooms
+        savedAccumulator.accept(2, 2, 2);
+        restoredAccumulator.accept(2, 2, 2);
+
+        Result savedResult = savedAccumulator.toResult();
+        Result restoredResult = restoredAccumulator.toResult();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(42, offset),
+                () -> Assertions.assertEquals(savedResult, restoredResult),
+                () -> Assertions.assertEquals(3, restoredResult.duplicateRooms().size()),
+                () -> Assertions.assertFalse(Files.exists(tempDir.resolve("input.ckpt.tmp"))));
+    }
+
+    @Test
+    @DisplayName("Should restore nothing when there is no checkpoint file")
+    void testRestoreWithoutCheckpointFile() throws IOException {
+        RoomAccumulator roomAccumulator = newRoomAccumulator();
+
+        long offset = new CheckpointStore(checkpointFile, inputFile, CUBIC_ROOM_LIMIT).restore(roomAccumulator);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, offset),
+                () -> Assertions.assertEquals(new RoomAccumulator(new RoomConverter()).toResult(), roomAccumulator.toResult()));
+    }
+
+    @Test
+    @DisplayName("Should restore nothing when the input file or the cubic room limit has changed since the checkpoint")
+    void testRestoreStartsOverForAnotherRun() throws IOException {
+        RoomAccumulator savedAccumulator = newRoomAccumulator();
+        savedAccumulator.accept(4, 4, 4);
+        new CheckpointStore(checkpointFile, inputFile, CUBIC_ROOM_LIMIT).save(savedAccumulator, 6);
+
+        long otherLimitOffset = new CheckpointStore(checkpointFile, inputFile, CUBIC_ROOM_LIMIT + 1).restore(newRoomAccumulator());
+        Files.writeString(inputFile, "1x2x3\n4x4x4\n");
+        RoomAccumulator roomAccumulator = newRoomAccumulator();
+        long modifiedInputOffset = new CheckpointStore(checkpointFile, inputFile, CUBIC_ROOM_LIMIT).restore(roomAccumulator);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, otherLimitOffset),
+                () -> Assertions.assertEquals(0, modifiedInputOffset),
+                () -> Assertions.assertEquals(0, roomAccumulator.toResult().totalSquareFeetOfWallpaper()));
+    }
+
+    @Test
+    @DisplayName("Should throw IOException for a damaged checkpoint file")
+    void testRestoreDamagedCheckpointFile() throws IOException {
+        RoomAccumulator savedAccumulator = newRoomAccumulator();
+        savedAccumulator.accept(1, 2, 3);
+        CheckpointStore checkpointStore = new CheckpointStore(checkpointFile, inputFile, CUBIC_ROOM_LIMIT);
+        checkpointStore.save(savedAccumulator, 6);
+
+        byte[] checkpoint = Files.readAllBytes(checkpointFile);
+        // Flip a bit of the saved wallpaper total
+        checkpoint[36] ^= 1;
+        Files.write(checkpointFile, checkpoint);
+        IOException corruptedException = Assertions.assertThrows(IOException.class, () -> checkpointStore.restore(newRoomAccumulator()));
+
+        Files.write(checkpointFile, Arrays.copyOf(checkpoint, checkpoint.length - 4));
+        IOException truncatedException = Assertions.assertThrows(IOException.class, () -> checkpointStore.restore(newRoomAccumulator()));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(
+                        "The checkpoint file [" + checkpointFile + "] cannot be resumed, because its checksum does not match. Delete it to start over.",
+                        corruptedException.getMessage()),
+                () -> Assertions.assertEquals(
+                        "The checkpoint file [" + checkpointFile + "] cannot be resumed, because it is truncated. Delete it to start over.",
+                        truncatedException.getMessage()));
+    }
+
+    @Test
+    @DisplayName("Should delete the checkpoint file")
+    void testDelete() throws IOException {
+        CheckpointStore checkpointStore = new CheckpointStore(checkpointFile, inputFile, CUBIC_ROOM_LIMIT);
+        checkpointStore.save(newRoomAccumulator(), 0);
+        boolean savedExists = Files.exists(checkpointFile);
+
+        checkpointStore.delete();
+
+        Assertions.assertAll(() -> Assertions.assertTrue(savedExists), () -> Assertions.assertFalse(Files.exists(checkpointFile)));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for null paths")
+    void testConstructorThrowsForNullPaths() {
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new CheckpointStore(null, inputFile, CUBIC_ROOM_LIMIT)),
+                () -> Assertions
+                        .assertThrows(InvalidMethodParameterException.class, () -> new CheckpointStore(checkpointFile, null, CUBIC_ROOM_LIMIT)));
+    }
+
+    private static RoomAccumulator newRoomAccumulator() {
+        return new RoomAccumulator(new RoomConverter(), new InMemoryDuplicateRoomDetector(), CUBIC_ROOM_LIMIT);
+    }
+}
@@ -0,0 +1,85 @@
+package gscf.task.roomdimension.action;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.action.process.CountMinSketch;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link CountMinSketch} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class CountMinSketchTest {
+
+    private static final int DISTINCT_ITEMS = 10_000;
+
+    @Test
+    @DisplayName("Should never underestimate and stay within the error bound")
+    void testEstimate() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.99);
+        long[] hashes = new SplittableRandom(3).longs(DISTINCT_ITEMS).toArray();
+        int[] counts = new int[DISTINCT_ITEMS];
+        for (int i = 0; i < 100_000; i++) {
+            // Skewed counts, the first items are the most frequent
+            int item = (int) Math.min(DISTINCT_ITEMS - 1L, (long) (i % 97) * (i % 103));
+            counts[item]++;
+            sketch.addAndEstimate(hashes[item]);
+        }
+
+        int withinBound = 0;
+        for (int i = 0; i < DISTINCT_ITEMS; i++) {
+            long estimate = sketch.estimate(hashes[i]);
+            Assertions.assertTrue(estimate >= counts[i], "A Count-Min sketch never underestimates");
+            if (estimate - counts[i] <= sketch.errorBound()) {
+                withinBound++;
+            }
+        }
+        Assertions.assertTrue(withinBound >= 0.99 * DISTINCT_ITEMS, "At least 99% of the estimates should stay within the bound");
+    }
+
+    @Test
+    @DisplayName("Should return the count including the added item")
+    void testAddAndEstimate() {
+        CountMinSketch sketch = new CountMinSketch(0.01, 0.9);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1, sketch.addAndEstimate(42)),
+                () -> Assertions.assertEquals(2, sketch.addAndEstimate(42)),
+                () -> Assertions.assertEquals(2, sketch.estimate(42)));
+    }
+
+    @Test
+    @DisplayName("Should sum the counts of merged sketches")
+    void testMerge() {
+        CountMinSketch first = new CountMinSketch(0.01, 0.9);
+        CountMinSketch second = new CountMinSketch(0.01, 0.9);
+        first.addAndEstimate(42);
+        second.addAndEstimate(42);
+        second.addAndEstimate(42);
+
+        first.merge(second);
+
+        Assertions.assertEquals(3, first.estimate(42));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for invalid error bounds")
+    void testConstructorThrowsForInvalidBounds() {
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new CountMinSketch(0, 0.99)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new CountMinSketch(0.01, 1)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new CountMinSketch(1e-9, 0.99)));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException when merging sketches of different configurations")
+    void testMergeThrowsForDifferentConfiguration() {
+        CountMinSketch sketch = new CountMinSketch(0.01, 0.9);
+        CountMinSketch other = new CountMinSketch(0.001, 0.9);
+        Assertions.assertThrows(InvalidMethodParameterException.class, () -> sketch.merge(other));
+    }
+}
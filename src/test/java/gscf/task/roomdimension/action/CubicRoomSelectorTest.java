@@ -0,0 +1,75 @@
+package gscf.task.roomdimension.action;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import gscf.task.roomdimension.action.process.CubicRoomSelector;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link CubicRoomSelector} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class CubicRoomSelectorTest {
+
+    @Test
+    @DisplayName("Should keep only the largest rooms, in descending order")
+    void testAddWithLimit() {
+        CubicRoomSelector selector = new CubicRoomSelector(3);
+        for (int side : new int[] { 5, 1, 9, 3, 9, 7, 2, 8 }) {
+            selector.add(side);
+        }
+
+        Assertions.assertEquals(List.of(9, 9, 8), collect(selector));
+    }
+
+    @Test
+    @DisplayName("Should keep every room, in descending order, when unbounded")
+    void testAddUnbounded() {
+        CubicRoomSelector selector = new CubicRoomSelector(CubicRoomSelector.UNBOUNDED);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            int side = i * 7919 % 1_000;
+            selector.add(side);
+            expected.add(side);
+        }
+        expected.sort((first, second) -> Integer.compare(second, first));
+
+        Assertions.assertEquals(expected, collect(selector));
+    }
+
+    @Test
+    @DisplayName("Should keep the largest rooms of both selectors after merging")
+    void testMerge() {
+        CubicRoomSelector first = new CubicRoomSelector(2);
+        CubicRoomSelector second = new CubicRoomSelector(2);
+        first.add(4);
+        first.add(6);
+        second.add(5);
+        second.add(10);
+
+        first.merge(second);
+
+        Assertions.assertEquals(List.of(10, 6), collect(first));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, -1 })
+    @DisplayName("Should throw InvalidMethodParameterException for a non-positive limit")
+    void testConstructorThrowsForInvalidLimit(int limit) {
+        Assertions.assertThrows(InvalidMethodParameterException.class, () -> new CubicRoomSelector(limit));
+    }
+
+    private static List<Integer> collect(CubicRoomSelector selector) {
+        List<Integer> sides = new ArrayList<>();
+        selector.forEachDescending(sides::add);
+        return sides;
+    }
+}
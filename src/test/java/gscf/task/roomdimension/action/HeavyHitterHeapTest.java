@@ -0,0 +1,74 @@
+package gscf.task.roomdimension.action;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.action.process.HeavyHitterHeap;
+import gscf.task.roomdimension.action.process.PackedRoomKeySet;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link HeavyHitterHeap} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class HeavyHitterHeapTest {
+
+    @Test
+    @DisplayName("Should keep the rooms with the largest counts and their last counts, also after evicting and readmitting rooms")
+    void testOffer() {
+        HeavyHitterHeap heap = new HeavyHitterHeap(50);
+        Map<List<Integer>, Long> counts = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 200_000; i++) {
+            // Skewed rooms, some of them too large to be packed into a room key
+            int room = (int) Math.min(1_999, (long) random.nextInt(45) * random.nextInt(45));
+            int length = room % 3 == 0 ? PackedRoomKeySet.MAX_PACKABLE_DIMENSION + room : room + 1;
+            List<Integer> dimensions = List.of(length, room % 7 + 1, 1);
+            long count = counts.merge(dimensions, 1L, Long::sum);
+            heap.offer(length, room % 7 + 1, 1, count);
+        }
+
+        List<Long> expectedCounts = counts.values().stream().sorted((first, second) -> Long.compare(second, first)).limit(50).toList();
+        List<Long> keptCounts = new ArrayList<>();
+        heap.forEachDescending((length, width, height, count) -> {
+            Assertions.assertEquals(counts.get(List.of(length, width, height)), count);
+            keptCounts.add(count);
+        });
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(50, heap.size()),
+                () -> Assertions.assertEquals(expectedCounts, keptCounts));
+    }
+
+    @Test
+    @DisplayName("Should find the kept rooms of a large heap, updating their counts instead of adding them again")
+    void testOfferLargeCapacity() {
+        HeavyHitterHeap heap = new HeavyHitterHeap(100_000);
+        for (int count = 1; count <= 3; count++) {
+            for (int i = 1; i <= 100_000; i++) {
+                heap.offer(i, 2, 3, count);
+            }
+        }
+
+        List<Long> keptCounts = new ArrayList<>();
+        heap.forEachDescending((length, width, height, count) -> keptCounts.add(count));
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(100_000, heap.size()),
+                () -> Assertions.assertTrue(keptCounts.stream().allMatch(count -> count == 3)));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for a capacity out of range")
+    void testInvalidCapacity() {
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new HeavyHitterHeap(0)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new HeavyHitterHeap(HeavyHitterHeap.MAX_CAPACITY + 1)));
+    }
+}
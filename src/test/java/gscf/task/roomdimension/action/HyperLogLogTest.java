@@ -0,0 +1,82 @@
+package gscf.task.roomdimension.action;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import gscf.task.roomdimension.action.process.HyperLogLog;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link HyperLogLog} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class HyperLogLogTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 10, 1_000, 100_000, 1_000_000 })
+    @DisplayName("Should estimate the number of distinct items within three standard errors")
+    void testEstimate(int distinctItems) {
+        HyperLogLog hyperLogLog = new HyperLogLog(0.01);
+        SplittableRandom random = new SplittableRandom(distinctItems);
+        for (int i = 0; i < distinctItems; i++) {
+            long hash = random.nextLong();
+            // Repeated items must not change the estimate
+            hyperLogLog.add(hash);
+            hyperLogLog.add(hash);
+        }
+
+        Assertions.assertEquals(distinctItems, hyperLogLog.estimate(), 3 * hyperLogLog.relativeStandardError() * distinctItems);
+    }
+
+    @Test
+    @DisplayName("Should estimate the union of the items after merging two sketches")
+    void testMerge() {
+        HyperLogLog first = new HyperLogLog(0.02);
+        HyperLogLog second = new HyperLogLog(0.02);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] hashes = random.longs(200_000).toArray();
+        for (int i = 0; i < hashes.length; i++) {
+            // The halves overlap in a quarter of the items
+            if (i < 125_000) {
+                first.add(hashes[i]);
+            }
+            if (i >= 75_000) {
+                second.add(hashes[i]);
+            }
+        }
+
+        first.merge(second);
+
+        Assertions.assertEquals(200_000, first.estimate(), 3 * first.relativeStandardError() * 200_000);
+    }
+
+    @Test
+    @DisplayName("Should size the registers for the requested error")
+    void testRelativeStandardError() {
+        HyperLogLog hyperLogLog = new HyperLogLog(0.01);
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(hyperLogLog.relativeStandardError() <= 0.01),
+                () -> Assertions.assertEquals(1 << 14, hyperLogLog.memoryFootprintBytes()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0, -0.1, 1, 0.0001 })
+    @DisplayName("Should throw InvalidMethodParameterException for an unsupported error")
+    void testConstructorThrowsForInvalidError(double relativeStandardError) {
+        Assertions.assertThrows(InvalidMethodParameterException.class, () -> new HyperLogLog(relativeStandardError));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException when merging sketches of different precisions")
+    void testMergeThrowsForDifferentPrecision() {
+        HyperLogLog hyperLogLog = new HyperLogLog(0.01);
+        HyperLogLog other = new HyperLogLog(0.1);
+        Assertions.assertThrows(InvalidMethodParameterException.class, () -> hyperLogLog.merge(other));
+    }
+}
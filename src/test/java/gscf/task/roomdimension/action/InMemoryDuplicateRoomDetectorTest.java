@@ -0,0 +1,93 @@
+package gscf.task.roomdimension.action;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.action.process.InMemoryDuplicateRoomDetector;
+import gscf.task.roomdimension.action.process.PackedRoomKeySet;
+
+/**
+ * {@link InMemoryDuplicateRoomDetector} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class InMemoryDuplicateRoomDetectorTest {
+
+    @Test
+    @DisplayName("Should report only the rooms added more than once, each of them once")
+    void testForEachDuplicate() {
+        InMemoryDuplicateRoomDetector detector = new InMemoryDuplicateRoomDetector();
+        detector.add(4, 4, 4);
+        detector.add(4, 5, 6);
+        detector.add(4, 4, 4);
+        detector.add(4, 4, 4);
+        detector.add(6, 5, 4);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Set.of(List.of(4, 4, 4)), collectDuplicates(detector)),
+                () -> Assertions.assertEquals(3, detector.distinctRoomCount()));
+    }
+
+    @Test
+    @DisplayName("Should detect duplicates of rooms with dimensions too large to be packed")
+    void testForEachDuplicateOversizedRooms() {
+        int oversized = PackedRoomKeySet.MAX_PACKABLE_DIMENSION + 1;
+        InMemoryDuplicateRoomDetector detector = new InMemoryDuplicateRoomDetector();
+        detector.add(oversized, 1, 1);
+        detector.add(1, oversized, 1);
+        detector.add(oversized, 1, 1);
+        detector.add(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        detector.add(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        Assertions.assertEquals(
+                Set.of(List.of(oversized, 1, 1), List.of(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE)),
+                collectDuplicates(detector));
+    }
+
+    @Test
+    @DisplayName("Should detect duplicates spanning merged detectors")
+    void testMerge() {
+        InMemoryDuplicateRoomDetector first = new InMemoryDuplicateRoomDetector();
+        first.add(1, 2, 3);
+        first.add(2, 2, 2);
+        first.add(2, 2, 2);
+        InMemoryDuplicateRoomDetector second = new InMemoryDuplicateRoomDetector();
+        second.add(1, 2, 3);
+        second.add(3, 3, 3);
+
+        first.merge(second);
+
+        Assertions.assertEquals(Set.of(List.of(1, 2, 3), List.of(2, 2, 2)), collectDuplicates(first));
+    }
+
+    @Test
+    @DisplayName("Should keep every key while the packed key set grows far beyond its initial capacity")
+    void testPackedRoomKeySetResize() {
+        PackedRoomKeySet set = new PackedRoomKeySet();
+        for (int i = 1; i <= 100_000; i++) {
+            Assertions.assertTrue(set.add(PackedRoomKeySet.pack(i, i % 7 + 1, 1)));
+        }
+        for (int i = 1; i <= 100_000; i++) {
+            Assertions.assertFalse(set.add(PackedRoomKeySet.pack(i, i % 7 + 1, 1)));
+        }
+
+        long key = PackedRoomKeySet.pack(PackedRoomKeySet.MAX_PACKABLE_DIMENSION, 2, 3);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(100_000, set.size()),
+                () -> Assertions.assertFalse(set.contains(key)),
+                () -> Assertions.assertEquals(PackedRoomKeySet.MAX_PACKABLE_DIMENSION, PackedRoomKeySet.unpackLength(key)),
+                () -> Assertions.assertEquals(2, PackedRoomKeySet.unpackWidth(key)),
+                () -> Assertions.assertEquals(3, PackedRoomKeySet.unpackHeight(key)));
+    }
+
+    private Set<List<Integer>> collectDuplicates(InMemoryDuplicateRoomDetector detector) {
+        Set<List<Integer>> duplicates = new HashSet<>();
+        detector.forEachDuplicate((length, width, height) -> Assertions.assertTrue(duplicates.add(List.of(length, width, height))));
+        return duplicates;
+    }
+}
@@ -1,23 +1,56 @@
 package gscf.task.roomdimension.action;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 
+import gscf.task.roomdimension.action.process.CheckpointStore;
+import gscf.task.roomdimension.action.process.CubicRoomSelector;
+import gscf.task.roomdimension.action.process.InMemoryDuplicateRoomDetector;
 import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.action.process.RoomAccumulator;
+import gscf.task.roomdimension.action.process.RoomColumnStore;
 import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.dto.AnalysisMode;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.InvalidLineReason;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.LineError;
+import gscf.task.roomdimension.dto.ProcessingOptions;
 import gscf.task.roomdimension.dto.Result;
 import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomDimensions;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchOptions;
+import gscf.task.roomdimension.dto.SketchResult;
 import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
+import gscf.task.roomdimension.generator.RoomInputGenerator;
 
 /**
  * {@link InputFileProcessor} unit test class.
@@ -30,25 +63,24 @@ class InputFileProcessorTest {
 
     private InputFileProcessor inputFileProcessor;
 
+    // Processes the large inputs without the overhead of the spy
+    private InputFileProcessor plainInputFileProcessor;
+
     @TempDir
     private Path tempDir;
 
     @BeforeEach
     void setupObjects() {
-        roomConverter = Mockito.mock(RoomConverter.class);
+        roomConverter = Mockito.spy(new RoomConverter());
         inputFileProcessor = new InputFileProcessor(roomConverter);
+        plainInputFileProcessor = new InputFileProcessor(new RoomConverter());
     }
 
     @Test
     @DisplayName("Should process successfully with a valid input file")
     void testProcessValidInputFile() throws IOException {
-        Room room1 = new Room("4x4x4", 112, true);
-        Room room2 = new Room("4x5x6", 168, false);
-        Room room3 = new Room("4x4x4", 112, true);
-
-        Mockito.when(roomConverter.convert("4x4x4")).thenReturn(room1);
-        Mockito.when(roomConverter.convert("4x5x6")).thenReturn(room2);
-        Mockito.when(roomConverter.convert("4x4x4")).thenReturn(room3);
+        Room room1 = new Room(4, 4, 4, 112, true);
+        Room room3 = new Room(4, 4, 4, 112, true);
 
         Path tempFile = tempDir.resolve("test-input.txt");
         Files.write(tempFile, """
@@ -62,10 +94,17 @@ class InputFileProcessorTest {
         Assertions.assertAll(
                 () -> Assertions.assertEquals(392, result.totalSquareFeetOfWallpaper()),
                 () -> Assertions.assertEquals(List.of(room1, room3), result.cubicRooms()),
-                () -> Assertions.assertEquals(Set.of(room1), Set.copyOf(result.duplicateRooms())));
+                () -> Assertions.assertEquals(Set.of(room1), Set.copyOf(result.duplicateRooms())),
+                // Rooms with the same dimensions share a single instance
+                () -> Assertions.assertSame(result.cubicRooms().get(0), result.cubicRooms().get(1)),
+                () -> Assertions.assertSame(result.cubicRooms().get(0), result.duplicateRooms().get(0)));
 
-        Mockito.verify(roomConverter, Mockito.times(2)).convert("4x4x4");
-        Mockito.verify(roomConverter, Mockito.times(1)).convert("4x5x6");
+        Mockito.verify(roomConverter, Mockito.times(2))
+                .convert(Mockito.eq("4x4x4"), Mockito.any(RoomDimensions.class), Mockito.any(RoomDimensionsConsumer.class));
+        Mockito.verify(roomConverter, Mockito.times(1))
+                .convert(Mockito.eq("4x5x6"), Mockito.any(RoomDimensions.class), Mockito.any(RoomDimensionsConsumer.class));
+        // Room objects are only created for the reported rooms
+        Mockito.verify(roomConverter, Mockito.never()).convert(4, 5, 6);
     }
 
     @Test
@@ -99,4 +138,566 @@ class InputFileProcessorTest {
                 () -> Assertions.assertTrue(result.cubicRooms().isEmpty()),
                 () -> Assertions.assertTrue(result.duplicateRooms().isEmpty()));
     }
+
+    @Test
+    @DisplayName("Should process a stream like the input file with the same content, and enforce the size limit while it is read")
+    void testProcessStream() throws IOException {
+        byte[] content = "4x4x4\n4x5x6\n4x4x4\n".getBytes(StandardCharsets.US_ASCII);
+        Path tempFile = Files.write(tempDir.resolve("test-input.txt"), content);
+        ProcessingOptions limited = ProcessingOptions.builder().maxInputSizeBytes(content.length - 1).build();
+
+        Result result = inputFileProcessor.process(new ByteArrayInputStream(content), ProcessingOptions.defaults());
+        SketchResult sketchResult = inputFileProcessor.processApproximate(new ByteArrayInputStream(content), ProcessingOptions.defaults());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(inputFileProcessor.process(tempFile.toString()), result),
+                () -> Assertions.assertEquals(3, sketchResult.roomCount()),
+                () -> Assertions.assertEquals(392, sketchResult.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertThrows(
+                        SizeLimitExceededIOException.class,
+                        () -> inputFileProcessor.process(new ByteArrayInputStream(content), limited)),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> inputFileProcessor.process((InputStream) null, ProcessingOptions.defaults())));
+    }
+
+    @Test
+    @DisplayName("Should produce the same result with the mapped engine as with the reader engine for the sample input")
+    void testProcessMappedEngineMatchesReaderEngine() throws IOException, URISyntaxException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter());
+        String sampleFilePath = Path.of(getClass().getResource("/sample-input.txt").toURI()).toString();
+
+        Result readerResult = processor.process(sampleFilePath, ProcessingOptions.builder().engine(IngestionEngine.READER).build());
+        Result mappedResult = processor.process(sampleFilePath, ProcessingOptions.builder().engine(IngestionEngine.MAPPED).build());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(readerResult.totalSquareFeetOfWallpaper(), mappedResult.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(readerResult.cubicRooms(), mappedResult.cubicRooms()),
+                () -> Assertions.assertEquals(Set.copyOf(readerResult.duplicateRooms()), Set.copyOf(mappedResult.duplicateRooms())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 3, 5, 8, 1024 })
+    @DisplayName("Should handle lines spanning mapping windows and every line terminator with the mapped engine")
+    void testProcessMappedEngineWindowBoundaries(int mappingWindowSizeBytes) throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), mappingWindowSizeBytes);
+
+        Path tempFile = tempDir.resolve("line-terminators.txt");
+        Files.write(tempFile, "4x4x4\r\n4x5x6\r4x4x4\n2x3x4".getBytes());
+
+        Result result = processor.process(tempFile.toString(), ProcessingOptions.builder().engine(IngestionEngine.MAPPED).build());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(392 + 58, result.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(List.of(new Room(4, 4, 4, 112, true), new Room(4, 4, 4, 112, true)), result.cubicRooms()),
+                () -> Assertions.assertEquals(List.of(new Room(4, 4, 4, 112, true)), result.duplicateRooms()));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid line the same way as the reader engine with the mapped engine")
+    void testProcessMappedEngineInvalidLine() throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter());
+
+        Path tempFile = tempDir.resolve("invalid-input.txt");
+        Files.write(tempFile, """
+                4x4x4
+                4x0x6
+                """.getBytes());
+
+        IllegalStateException exception = Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> processor.process(tempFile.toString(), ProcessingOptions.builder().engine(IngestionEngine.MAPPED).build()));
+        Assertions.assertEquals("The given room dimension [4x0x6] does not match the LxWxH pattern.", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 4, 7 })
+    @DisplayName("Should produce the same result with the parallel engine as with the reader engine, including duplicates spanning ranges")
+    void testProcessParallelEngineMatchesReaderEngine(int threads) throws IOException, URISyntaxException {
+        // A tiny mapping window forces many small ranges, so most duplicates are spread across ranges
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), 16);
+        String sampleFilePath = Path.of(getClass().getResource("/sample-input.txt").toURI()).toString();
+
+        Result readerResult = processor.process(sampleFilePath, ProcessingOptions.builder().engine(IngestionEngine.READER).build());
+        Result parallelResult = processor
+                .process(sampleFilePath, ProcessingOptions.builder().engine(IngestionEngine.PARALLEL).threads(threads).build());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(readerResult.totalSquareFeetOfWallpaper(), parallelResult.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(readerResult.cubicRooms(), parallelResult.cubicRooms()),
+                () -> Assertions.assertEquals(Set.copyOf(readerResult.duplicateRooms()), Set.copyOf(parallelResult.duplicateRooms())));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid line with the same exception as the reader engine with the parallel engine")
+    void testProcessParallelEngineInvalidLine() throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), 8);
+
+        Path tempFile = tempDir.resolve("invalid-input.txt");
+        Files.write(tempFile, """
+                4x4x4
+                4x5x6
+                1x2x3
+                4x0x6
+                """.getBytes());
+
+        IllegalStateException exception = Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> processor.process(tempFile.toString(), ProcessingOptions.builder().engine(IngestionEngine.PARALLEL).threads(2).build()));
+        Assertions.assertEquals("The given room dimension [4x0x6] does not match the LxWxH pattern.", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should skip and report the invalid lines in the lenient mode with every engine, keeping the first ones with their line numbers")
+    void testProcessLenient(IngestionEngine engine) throws IOException {
+        // A tiny mapping window forces many small ranges, so the invalid lines are spread across ranges
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), 8);
+        String content = "4x4x4\n4x0x6\n1x2x3\n\n2147483648x1x1\n1x2x3\n4x5\n";
+        Path tempFile = Files.writeString(tempDir.resolve("dirty-input.txt"), content);
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).threads(2).lenient(true).build();
+        InvalidLines expectedInvalidLines = new InvalidLines(
+                4,
+                List.of(
+                        new LineError(2, InvalidLineReason.MALFORMED, "4x0x6"),
+                        new LineError(4, InvalidLineReason.BLANK, ""),
+                        new LineError(5, InvalidLineReason.OVERFLOW, "2147483648x1x1"),
+                        new LineError(7, InvalidLineReason.MALFORMED, "4x5")));
+
+        Result result = processor.process(tempFile.toString(), options);
+        Result streamResult = processor.process(new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII)), options);
+        SketchResult sketchResult = processor.processApproximate(tempFile.toString(), options.toBuilder().errorReservoirSize(2).build());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(160, result.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(List.of(new Room(4, 4, 4, 112, true)), result.cubicRooms()),
+                () -> Assertions.assertEquals(List.of(new Room(1, 2, 3, 24, false)), result.duplicateRooms()),
+                () -> Assertions.assertEquals(expectedInvalidLines, result.invalidLines()),
+                () -> Assertions.assertEquals(expectedInvalidLines, streamResult.invalidLines()),
+                () -> Assertions.assertEquals(3, sketchResult.roomCount()),
+                () -> Assertions.assertEquals(new InvalidLines(4, expectedInvalidLines.samples().subList(0, 2)), sketchResult.invalidLines()));
+    }
+
+    @Test
+    @DisplayName("Should report no invalid lines for a valid input file in the lenient mode, and reject checkpoints in it")
+    void testProcessLenientValidInputAndCheckpoints() throws IOException {
+        Path tempFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n2x2x2\n");
+        ProcessingOptions options = ProcessingOptions.builder().lenient(true).build();
+        ProcessingOptions checkpointedOptions = options.toBuilder().checkpointFile(tempDir.resolve("input.ckpt")).build();
+
+        Result result = inputFileProcessor.process(tempFile.toString(), options);
+
+        Assertions.assertAll(
+                () -> Assertions.assertSame(InvalidLines.NONE, result.invalidLines()),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> inputFileProcessor.process(tempFile.toString(), checkpointedOptions)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should load the rooms of an input file into a column store with every engine, answering the same as the processing")
+    void testLoad(IngestionEngine engine) throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), 8);
+        Path tempFile = Files.writeString(tempDir.resolve("input.txt"), "4x4x4\n1x2x3\n2x2x2\n\n1x2x3\n4x4x4\n");
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).threads(2).lenient(true).build();
+
+        Result processed = processor.process(tempFile.toString(), options);
+        Result topOne = processor.process(tempFile.toString(), options.toBuilder().cubicRoomLimit(1).build());
+        try (RoomColumnStore roomColumnStore = processor.load(tempFile.toString(), options)) {
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(5, roomColumnStore.roomCount()),
+                    () -> Assertions.assertEquals(3, roomColumnStore.cubicRoomCount()),
+                    () -> Assertions.assertEquals(processed, roomColumnStore.toResult(CubicRoomSelector.UNBOUNDED)),
+                    () -> Assertions.assertEquals(topOne, roomColumnStore.toResult(1)));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should throw SizeLimitExceededIOException when the input file exceeds the configured limit with every engine")
+    void testProcessThrowsForTooLargeFile(IngestionEngine engine) throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter());
+
+        Path tempFile = tempDir.resolve("too-large-input.txt");
+        Files.write(tempFile, "1x2x3\n".repeat(100).getBytes());
+
+        ProcessingOptions processingOptions = ProcessingOptions.builder().engine(engine).maxInputSizeBytes(100).build();
+        Assertions.assertThrows(SizeLimitExceededIOException.class, () -> processor.process(tempFile.toString(), processingOptions));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should throw ArithmeticException when the total wallpaper of the rooms exceeds the maximum of a long with every engine")
+    void testProcessThrowsForTotalOverflow(IngestionEngine engine) throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter());
+
+        // Each room needs 7 * 10^18 square feet, which fits into a long, but their total does not
+        Path tempFile = Files.writeString(tempDir.resolve("huge-rooms.txt"), "1000000000x1000000000x1000000000\n".repeat(2));
+
+        ProcessingOptions processingOptions = ProcessingOptions.builder().engine(engine).threads(2).build();
+        Assertions.assertThrows(ArithmeticException.class, () -> processor.process(tempFile.toString(), processingOptions));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should produce the same result with a bounded duplicate detection memory as with the in-memory detection with every engine")
+    void testProcessWithSpillingDuplicateDetection(IngestionEngine engine) throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), 64 * 1024);
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            content.append(i % 700 + 1).append('x').append(i % 300 + 1).append('x').append(i % 11 + 1).append('\n');
+        }
+        Path tempFile = tempDir.resolve("large-input.txt");
+        Files.writeString(tempFile, content);
+        Path spillDirectory = Files.createDirectory(tempDir.resolve("spill"));
+
+        ProcessingOptions inMemoryOptions = ProcessingOptions.builder().engine(engine).threads(3).maxInputSizeBytes(Long.MAX_VALUE).build();
+        ProcessingOptions spillingOptions = inMemoryOptions.toBuilder().duplicateDetectionMemoryBytes(1).spillDirectory(spillDirectory).build();
+
+        Result inMemoryResult = processor.process(tempFile.toString(), inMemoryOptions);
+        Result spillingResult = processor.process(tempFile.toString(), spillingOptions);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(inMemoryResult.totalSquareFeetOfWallpaper(), spillingResult.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(inMemoryResult.cubicRooms(), spillingResult.cubicRooms()),
+                () -> Assertions.assertEquals(Set.copyOf(inMemoryResult.duplicateRooms()), Set.copyOf(spillingResult.duplicateRooms())),
+                () -> Assertions.assertEquals(inMemoryResult.duplicateRooms().size(), spillingResult.duplicateRooms().size()));
+        try (Stream<Path> spilledFiles = Files.list(spillDirectory)) {
+            Assertions.assertEquals(0, spilledFiles.count(), "Every spilled file should have been deleted");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should estimate the distinct and the most repeated rooms in the approximate mode with every engine")
+    void testProcessApproximate(IngestionEngine engine) throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), 64 * 1024);
+
+        StringBuilder content = new StringBuilder();
+        int expectedWallpaper = 0;
+        for (int i = 0; i < 20_000; i++) {
+            // Every tenth room is 4x4x4, every twentieth is 1x2x3, the rest are distinct
+            int length = i % 10 == 0 ? 4 : i % 20 == 5 ? 1 : i + 10;
+            int width = i % 10 == 0 ? 4 : i % 20 == 5 ? 2 : 1;
+            int height = i % 10 == 0 ? 4 : i % 20 == 5 ? 3 : 1;
+            content.append(length).append('x').append(width).append('x').append(height).append('\n');
+            expectedWallpaper += RoomConverter.calculateWallpaperNeeded(length, width, height);
+        }
+        Path tempFile = tempDir.resolve("large-input.txt");
+        Files.writeString(tempFile, content);
+
+        ProcessingOptions options = ProcessingOptions.builder()
+                .engine(engine)
+                .threads(3)
+                .maxInputSizeBytes(Long.MAX_VALUE)
+                .mode(AnalysisMode.APPROXIMATE)
+                .sketchOptions(SketchOptions.builder().mostRepeatedRoomCount(2).build())
+                .build();
+
+        SketchResult result = processor.processApproximate(tempFile.toString(), options);
+
+        int expectedTotalWallpaper = expectedWallpaper;
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expectedTotalWallpaper, result.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(20_000, result.roomCount()),
+                () -> Assertions.assertEquals(17_002, result.estimatedDistinctRooms(), 3 * result.distinctRoomsError() * 17_002),
+                () -> Assertions.assertEquals(
+                        List.of(new Room(4, 4, 4, 112, true), new Room(1, 2, 3, 24, false)),
+                        result.mostRepeatedRooms().stream().map(RoomFrequency::room).toList()),
+                () -> Assertions.assertEquals(2_000, result.mostRepeatedRooms().get(0).estimatedCount(), result.frequencyErrorBound()),
+                () -> Assertions.assertEquals(1_000, result.mostRepeatedRooms().get(1).estimatedCount(), result.frequencyErrorBound()));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException in the approximate mode for invalid sketch options")
+    void testProcessApproximateThrowsForInvalidSketchOptions() throws IOException {
+        Path tempFile = tempDir.resolve("test-input.txt");
+        Files.writeString(tempFile, "1x2x3\n");
+        ProcessingOptions options = ProcessingOptions.builder().sketchOptions(SketchOptions.builder().distinctRoomsError(2).build()).build();
+
+        Assertions.assertThrows(InvalidMethodParameterException.class, () -> inputFileProcessor.processApproximate(tempFile.toString(), options));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should report the cubic rooms in descending order of wallpaper needed, limited to the top ones with every engine")
+    void testProcessWithCubicRoomLimit(IngestionEngine engine) throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), 64 * 1024);
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 30_000; i++) {
+            int side = i % 101 + 1;
+            content.append(side).append('x').append(side).append('x').append(side).append('\n').append("1x2x3\n");
+        }
+        Path tempFile = tempDir.resolve("cubic-input.txt");
+        Files.writeString(tempFile, content);
+
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).threads(3).maxInputSizeBytes(Long.MAX_VALUE).build();
+        Result unlimitedResult = processor.process(tempFile.toString(), options);
+        Result limitedResult = processor.process(tempFile.toString(), options.toBuilder().cubicRoomLimit(3).build());
+
+        Room largestRoom = new Room(101, 101, 101, 7 * 101 * 101, true);
+        List<Room> unlimitedCubicRooms = unlimitedResult.cubicRooms();
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(30_000, unlimitedCubicRooms.size()),
+                () -> Assertions.assertEquals(largestRoom, unlimitedCubicRooms.get(0)),
+                () -> Assertions.assertEquals(new Room(1, 1, 1, 7, true), unlimitedCubicRooms.get(unlimitedCubicRooms.size() - 1)),
+                () -> Assertions.assertTrue(isDescending(unlimitedCubicRooms)),
+                () -> Assertions.assertEquals(List.of(largestRoom, largestRoom, largestRoom), limitedResult.cubicRooms()),
+                () -> Assertions.assertEquals(unlimitedResult.totalSquareFeetOfWallpaper(), limitedResult.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(Set.copyOf(unlimitedResult.duplicateRooms()), Set.copyOf(limitedResult.duplicateRooms())));
+    }
+
+    @Test
+    @DisplayName("Should resume from the checkpoint instead of the start of the input file")
+    void testProcessResumesFromCheckpoint() throws IOException {
+        Path tempFile = Files.writeString(tempDir.resolve("checkpointed-input.txt"), "1x2x3\n4x4x4\n");
+        Path checkpointFile = tempDir.resolve("checkpointed-input.ckpt");
+
+        // The checkpoint claims the first line to be a 5x5x5 room, which is only reported if the first line is skipped
+        RoomAccumulator checkpointedAccumulator = new RoomAccumulator(new RoomConverter(), new InMemoryDuplicateRoomDetector(), Integer.MAX_VALUE);
+        checkpointedAccumulator.accept(5, 5, 5);
+        new CheckpointStore(checkpointFile, tempFile, Integer.MAX_VALUE).save(checkpointedAccumulator, 6);
+
+        Result result = inputFileProcessor.process(tempFile.toString(), ProcessingOptions.builder().checkpointFile(checkpointFile).build());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(175 + 112, result.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(List.of(new Room(5, 5, 5, 175, true), new Room(4, 4, 4, 112, true)), result.cubicRooms()),
+                () -> Assertions.assertFalse(Files.exists(checkpointFile)));
+    }
+
+    @Test
+    @DisplayName("Should give the same result after a failure and a restart as an uninterrupted run")
+    void testProcessRestartMatchesUninterruptedRun() throws IOException {
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter());
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            int side = i % 13 + 1;
+            content.append(side).append('x').append(i % 7 + 1).append('x').append(side).append('\n');
+        }
+        String completeContent = content.toString();
+        // Zeroing the single digit width of a line three quarters into the file makes it invalid without changing the size of the file
+        int invalidLineIndex = completeContent.lastIndexOf('\n', completeContent.length() * 3 / 4) + 1;
+        String invalidContent = completeContent.substring(0, invalidLineIndex) + completeContent.substring(invalidLineIndex).replaceFirst("x\\d+x", "x0x");
+        Path tempFile = Files.writeString(tempDir.resolve("restarted-input.txt"), invalidContent);
+        Path checkpointFile = tempDir.resolve("restarted-input.ckpt");
+        ProcessingOptions options = ProcessingOptions.builder().checkpointFile(checkpointFile).checkpointIntervalBytes(512).build();
+
+        // The invalid line interrupts the run after several checkpoints
+        Assertions.assertThrows(IllegalStateException.class, () -> processor.process(tempFile.toString(), options));
+        boolean checkpointSaved = Files.exists(checkpointFile);
+
+        // Fixing the line without changing the size and the modification time lets the restart resume from the checkpoint
+        FileTime lastModifiedTime = Files.getLastModifiedTime(tempFile);
+        Files.writeString(tempFile, completeContent);
+        Files.setLastModifiedTime(tempFile, lastModifiedTime);
+        Result restartedResult = processor.process(tempFile.toString(), options);
+        Result uninterruptedResult = processor.process(tempFile.toString(), ProcessingOptions.defaults());
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(checkpointSaved),
+                () -> Assertions.assertEquals(uninterruptedResult, restartedResult),
+                () -> Assertions.assertFalse(Files.exists(checkpointFile)));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for checkpoints with spilling duplicate detection or a non-positive interval")
+    void testProcessWithCheckpointsThrowsForInvalidOptions() throws IOException {
+        Path tempFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n");
+        ProcessingOptions options = ProcessingOptions.builder().checkpointFile(tempDir.resolve("input.ckpt")).build();
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> inputFileProcessor.process(tempFile.toString(), options.toBuilder().duplicateDetectionMemoryBytes(1024).build())),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> inputFileProcessor.process(tempFile.toString(), options.toBuilder().checkpointIntervalBytes(0).build())),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> inputFileProcessor.process(tempFile.toString(), options.toBuilder().checkpointInterval(Duration.ZERO).build())));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should give the same results for the converted binary room file as for the text input file with every engine")
+    void testProcessBinaryRoomFileMatchesTextInputFile(IngestionEngine engine) throws IOException, URISyntaxException {
+        // A small mapping window makes the rooms span several windows
+        InputFileProcessor processor = new InputFileProcessor(new RoomConverter(), 7);
+        String sampleFilePath = Path.of(getClass().getResource("/sample-input.txt").toURI()).toString();
+        Path binaryFile = tempDir.resolve("sample-input.rdb");
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).threads(3).build();
+
+        long roomCount = processor.convertToBinary(sampleFilePath, binaryFile.toString(), options);
+        Result textResult = processor.process(sampleFilePath, ProcessingOptions.defaults());
+        Result binaryResult = processor.process(binaryFile.toString(), options);
+        SketchResult textSketchResult = processor.processApproximate(sampleFilePath, ProcessingOptions.defaults());
+        SketchResult binarySketchResult = processor.processApproximate(binaryFile.toString(), options);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Files.readAllLines(Path.of(sampleFilePath)).size(), roomCount),
+                () -> Assertions.assertTrue(Files.size(binaryFile) < Files.size(Path.of(sampleFilePath))),
+                () -> Assertions.assertEquals(textResult, binaryResult),
+                () -> Assertions.assertEquals(textSketchResult, binarySketchResult));
+    }
+
+    @Test
+    @DisplayName("Should throw IOException for a truncated binary room file")
+    void testProcessTruncatedBinaryRoomFile() throws IOException {
+        Path textFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n300x4x5\n4x4x4\n");
+        Path binaryFile = tempDir.resolve("input.rdb");
+        inputFileProcessor.convertToBinary(textFile.toString(), binaryFile.toString(), ProcessingOptions.defaults());
+        byte[] content = Files.readAllBytes(binaryFile);
+
+        // Cut inside and after the second room
+        Files.write(binaryFile, Arrays.copyOf(content, content.length - 4));
+        IOException incompleteException = Assertions.assertThrows(IOException.class, () -> inputFileProcessor.process(binaryFile.toString()));
+        Files.write(binaryFile, Arrays.copyOf(content, content.length - 3));
+        IOException missingException = Assertions.assertThrows(IOException.class, () -> inputFileProcessor.process(binaryFile.toString()));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(
+                        "The binary room file [" + binaryFile + "] ends with an incomplete room.",
+                        incompleteException.getMessage()),
+                () -> Assertions.assertEquals(
+                        "The binary room file [" + binaryFile + "] contains [2] rooms instead of the [3] rooms of its header.",
+                        missingException.getMessage()));
+    }
+
+    @Test
+    @DisplayName("Should not leave a binary room file behind when the conversion fails")
+    void testConvertToBinaryDeletesOutputOnFailure() throws IOException {
+        Path textFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n4x0x6\n");
+        Path binaryFile = tempDir.resolve("input.rdb");
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(
+                        IllegalStateException.class,
+                        () -> inputFileProcessor.convertToBinary(textFile.toString(), binaryFile.toString(), ProcessingOptions.defaults())),
+                () -> Assertions.assertFalse(Files.exists(binaryFile)),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> inputFileProcessor.convertToBinary(textFile.toString(), textFile.toString(), ProcessingOptions.defaults())),
+                () -> Assertions.assertTrue(Files.exists(textFile)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should give the same results for single and multi-member gzip files as for the text input file with every engine")
+    void testProcessGzipFileMatchesTextInputFile(IngestionEngine engine) throws IOException {
+        // Large enough for several ranges of the parallel engine, whose members are split inside lines
+        Path textFile = tempDir.resolve("input.txt");
+        RoomInputGenerator.builder().seed(42).sizeBytes(8L * 1024 * 1024).duplicateRatio(0.2).build().generate(textFile);
+        byte[] content = Files.readAllBytes(textFile);
+        Path singleMemberFile = writeGzipMembers(tempDir.resolve("single.gz"), content, content.length);
+        Path multiMemberFile = writeGzipMembers(tempDir.resolve("multi.gz"), content, 100_003);
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).threads(4).maxInputSizeBytes(content.length).build();
+
+        Result textResult = plainInputFileProcessor.process(textFile.toString(), options);
+        Result singleMemberResult = plainInputFileProcessor.process(singleMemberFile.toString(), options);
+        Result multiMemberResult = plainInputFileProcessor.process(multiMemberFile.toString(), options);
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(Files.size(multiMemberFile) > 2 * 1024 * 1024),
+                () -> Assertions.assertEquals(textResult.totalSquareFeetOfWallpaper(), singleMemberResult.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(textResult.cubicRooms(), singleMemberResult.cubicRooms()),
+                () -> Assertions.assertEquals(Set.copyOf(textResult.duplicateRooms()), Set.copyOf(singleMemberResult.duplicateRooms())),
+                () -> Assertions.assertEquals(textResult.totalSquareFeetOfWallpaper(), multiMemberResult.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(textResult.cubicRooms(), multiMemberResult.cubicRooms()),
+                () -> Assertions.assertEquals(Set.copyOf(textResult.duplicateRooms()), Set.copyOf(multiMemberResult.duplicateRooms())));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should throw SizeLimitExceededIOException when the decompressed content of a gzip file exceeds the limit with every engine")
+    void testProcessThrowsForTooLargeDecompressedGzipFile(IngestionEngine engine) throws IOException {
+        byte[] content = "1x2x3\n".repeat(100_000).getBytes();
+        Path gzipFile = writeGzipMembers(tempDir.resolve("bomb.gz"), content, 1000);
+
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).threads(4).maxInputSizeBytes(content.length - 1).build();
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(Files.size(gzipFile) < content.length / 10),
+                () -> Assertions.assertThrows(
+                        SizeLimitExceededIOException.class, () -> plainInputFileProcessor.process(gzipFile.toString(), options)));
+    }
+
+    @Test
+    @DisplayName("Should not count a false member header decompressing past the limit against the decompressed size of a gzip file")
+    void testProcessGzipFileWithFalseMemberHeader() throws IOException {
+        // A gzip bomb stored uncompressed in the middle of a single member looks like a member header to the parallel engine
+        byte[] bomb = compress("1x2x3\n".repeat(2_000_000).getBytes(StandardCharsets.US_ASCII));
+        // The bomb is stored past the middle of the file, so it is in the second of the two ranges
+        byte[] leadingRooms = "1x2x3\n".repeat(400_000).getBytes(StandardCharsets.US_ASCII);
+        byte[] trailingRooms = "1x2x3\n".repeat(100_000).getBytes(StandardCharsets.US_ASCII);
+        Path gzipFile = tempDir.resolve("stored.gz");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(gzipFile), true) {
+            {
+                def.setLevel(Deflater.NO_COMPRESSION);
+            }
+        }) {
+            outputStream.write(leadingRooms);
+            // Flushing around the bomb stores it in a block of its own, so its bytes are not split by a block header
+            outputStream.flush();
+            outputStream.write(bomb);
+            outputStream.flush();
+            outputStream.write('\n');
+            outputStream.write(trailingRooms);
+        }
+        long contentSize = leadingRooms.length + bomb.length + 1 + trailingRooms.length;
+
+        ProcessingOptions options = ProcessingOptions.builder().engine(IngestionEngine.PARALLEL).threads(4).maxInputSizeBytes(contentSize)
+                .lenient(true).build();
+        Result result = plainInputFileProcessor.process(gzipFile.toString(), options);
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(Files.size(gzipFile) > 2 * 1024 * 1024),
+                () -> Assertions.assertEquals(List.of(new Room(1, 2, 3, 0, false)), result.duplicateRooms()),
+                () -> Assertions.assertTrue(result.invalidLines().count() > 0));
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should throw IOException for a gzip member failing its CRC32 check with every engine")
+    void testProcessCorruptGzipFile(IngestionEngine engine) throws IOException {
+        byte[] content = "1x2x3\n4x4x4\n".repeat(1000).getBytes();
+        Path gzipFile = writeGzipMembers(tempDir.resolve("corrupt.gz"), content, 5000);
+        byte[] compressed = Files.readAllBytes(gzipFile);
+        // The CRC32 of the last member
+        compressed[compressed.length - 8] ^= 1;
+        Files.write(gzipFile, compressed);
+
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).threads(4).build();
+        Assertions.assertThrows(IOException.class, () -> plainInputFileProcessor.process(gzipFile.toString(), options));
+    }
+
+    private static byte[] compress(byte[] content) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(content);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static Path writeGzipMembers(Path file, byte[] content, int memberSizeBytes) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            for (int from = 0; from < content.length; from += memberSizeBytes) {
+                GZIPOutputStream memberOutputStream = new GZIPOutputStream(outputStream);
+                memberOutputStream.write(content, from, Math.min(memberSizeBytes, content.length - from));
+                // Finishing instead of closing keeps the underlying stream open for the next member
+                memberOutputStream.finish();
+            }
+        }
+        return file;
+    }
+
+    private static boolean isDescending(List<Room> rooms) {
+        for (int i = 1; i < rooms.size(); i++) {
+            if (rooms.get(i - 1).wallpaperNeeded() < rooms.get(i).wallpaperNeeded()) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
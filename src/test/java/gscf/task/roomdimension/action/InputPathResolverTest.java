@@ -0,0 +1,89 @@
+package gscf.task.roomdimension.action;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gscf.task.roomdimension.action.process.InputPathResolver;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link InputPathResolver} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class InputPathResolverTest {
+
+    private InputPathResolver inputPathResolver;
+
+    @TempDir
+    private Path tempDir;
+
+    private Path first;
+
+    private Path second;
+
+    private Path nested;
+
+    @BeforeEach
+    void setupFiles() throws IOException {
+        inputPathResolver = new InputPathResolver();
+        first = Files.createFile(tempDir.resolve("a.txt"));
+        second = Files.createFile(tempDir.resolve("b.csv"));
+        nested = Files.createFile(Files.createDirectory(tempDir.resolve("nested")).resolve("c.txt"));
+    }
+
+    @Test
+    @DisplayName("Should keep plain paths as they are, even if they do not exist")
+    void testResolvePlainPaths() throws IOException {
+        Assertions.assertEquals(List.of(Path.of("missing.txt"), first), inputPathResolver.resolve(List.of("missing.txt", first.toString())));
+    }
+
+    @Test
+    @DisplayName("Should resolve a directory to every regular file under it, recursively and sorted")
+    void testResolveDirectory() throws IOException {
+        Assertions.assertEquals(List.of(first, second, nested), inputPathResolver.resolve(List.of(tempDir.toString())));
+    }
+
+    @Test
+    @DisplayName("Should resolve glob patterns to the matching regular files")
+    void testResolveGlobPatterns() throws IOException {
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of(first), inputPathResolver.resolve(List.of(tempDir + "/*.txt"))),
+                () -> Assertions.assertEquals(List.of(nested), inputPathResolver.resolve(List.of(tempDir + "/**/*.txt"))),
+                () -> Assertions.assertEquals(List.of(first, second), inputPathResolver.resolve(List.of(tempDir + "/{a,b}.*"))));
+    }
+
+    @Test
+    @DisplayName("Should list a file only once even if several arguments stand for it")
+    void testResolveRemovesRepeatedFiles() throws IOException {
+        List<Path> inputFiles = inputPathResolver.resolve(List.of(first.toString(), tempDir + "/*.txt", tempDir.toString()));
+
+        Assertions.assertEquals(List.of(first, second, nested), inputFiles);
+    }
+
+    @Test
+    @DisplayName("Should throw NoSuchFileException for a glob pattern matching no file")
+    void testResolveThrowsForUnmatchedPattern() {
+        String pattern = tempDir + "/*.json";
+
+        NoSuchFileException exception = Assertions.assertThrows(NoSuchFileException.class, () -> inputPathResolver.resolve(List.of(pattern)));
+        Assertions.assertEquals(pattern, exception.getFile());
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for null or blank arguments")
+    void testResolveThrowsForInvalidArguments() {
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> inputPathResolver.resolve(null)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> inputPathResolver.resolve(List.of(" "))));
+    }
+}
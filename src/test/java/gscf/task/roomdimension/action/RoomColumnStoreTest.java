@@ -0,0 +1,138 @@
+package gscf.task.roomdimension.action;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.action.process.CubicRoomSelector;
+import gscf.task.roomdimension.action.process.InMemoryDuplicateRoomDetector;
+import gscf.task.roomdimension.action.process.RoomAccumulator;
+import gscf.task.roomdimension.action.process.RoomColumnStore;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.converter.RoomDimensionsConsumer;
+import gscf.task.roomdimension.dto.InvalidLineReason;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.LineError;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link RoomColumnStore} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class RoomColumnStoreTest {
+
+    // More than two chunks, so the last chunk is only partially filled
+    private static final int ROOM_COUNT = 2 * RoomColumnStore.CHUNK_SIZE + 1_000;
+
+    private final RoomConverter roomConverter = new RoomConverter();
+
+    @Test
+    @DisplayName("Should answer repeated questions about the stored rooms the same way as an accumulator of the same rooms")
+    void testAnalyses() {
+        try (RoomColumnStore roomColumnStore = new RoomColumnStore(roomConverter)) {
+            acceptRooms(roomColumnStore, 0, ROOM_COUNT);
+
+            Result expected;
+            long expectedDistinctRooms;
+            try (RoomAccumulator roomAccumulator = new RoomAccumulator(roomConverter)) {
+                acceptRooms(roomAccumulator, 0, ROOM_COUNT);
+                expected = roomAccumulator.toResult();
+                expectedDistinctRooms = roomAccumulator.distinctRoomCount();
+            }
+            Result expectedTopThree = accumulate(0, ROOM_COUNT, 3);
+            Result result = roomColumnStore.toResult(CubicRoomSelector.UNBOUNDED);
+            Result topThree = roomColumnStore.toResult(3);
+
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(ROOM_COUNT, roomColumnStore.roomCount()),
+                    () -> Assertions.assertEquals(expected.totalSquareFeetOfWallpaper(), roomColumnStore.totalWallpaperNeeded()),
+                    () -> Assertions.assertEquals(expected.cubicRooms().size(), roomColumnStore.cubicRoomCount()),
+                    () -> Assertions.assertEquals(expected, result),
+                    () -> Assertions.assertEquals(expectedTopThree, topThree),
+                    () -> Assertions.assertEquals(expectedDistinctRooms, roomColumnStore.distinctRoomCount()),
+                    () -> Assertions.assertEquals(InvalidLines.NONE, roomColumnStore.invalidLines()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay the rooms in input order, and keep about 20 bytes per room")
+    void testForEachAndMemoryFootprint() {
+        try (RoomColumnStore roomColumnStore = new RoomColumnStore(roomConverter)) {
+            acceptRooms(roomColumnStore, 0, ROOM_COUNT);
+            List<String> replayed = new ArrayList<>();
+
+            roomColumnStore.forEach((length, width, height) -> replayed.add(length + "x" + width + "x" + height));
+
+            List<String> expected = new ArrayList<>();
+            acceptRooms((length, width, height) -> expected.add(length + "x" + width + "x" + height), 0, ROOM_COUNT);
+            double bytesPerRoom = (double) roomColumnStore.memoryFootprintBytes() / (3 * RoomColumnStore.CHUNK_SIZE);
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(expected, replayed),
+                    () -> Assertions.assertEquals(20.125, bytesPerRoom));
+        }
+    }
+
+    @Test
+    @DisplayName("Should append the rooms and shift the line numbers of the skipped lines of a merged store")
+    void testMerge() {
+        try (RoomColumnStore first = new RoomColumnStore(roomConverter, 10);
+                RoomColumnStore second = new RoomColumnStore(roomConverter, 10)) {
+            acceptRooms(first, 0, 5_000);
+            first.skipInvalidLine(InvalidLineReason.MALFORMED, "1x2");
+            acceptRooms(second, 5_000, ROOM_COUNT);
+            second.skipInvalidLine(InvalidLineReason.BLANK, "");
+
+            RoomColumnStore merged = first.merge(second);
+
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(ROOM_COUNT, merged.roomCount()),
+                    () -> Assertions.assertEquals(0, second.roomCount()),
+                    () -> Assertions.assertEquals(accumulate(0, ROOM_COUNT, CubicRoomSelector.UNBOUNDED).cubicRooms(),
+                            merged.toResult(CubicRoomSelector.UNBOUNDED).cubicRooms()),
+                    () -> Assertions.assertEquals(
+                            new InvalidLines(
+                                    2,
+                                    List.of(
+                                            new LineError(5_001, InvalidLineReason.MALFORMED, "1x2"),
+                                            new LineError(ROOM_COUNT + 2, InvalidLineReason.BLANK, ""))),
+                            merged.invalidLines()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject the invalid lines without an error reservoir, and a non-positive cubic room limit")
+    void testStrictParsingAndInvalidLimit() {
+        try (RoomColumnStore roomColumnStore = new RoomColumnStore(roomConverter)) {
+            Assertions.assertAll(
+                    () -> Assertions.assertFalse(roomColumnStore.skipInvalidLine(InvalidLineReason.MALFORMED, "1x2")),
+                    () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> roomColumnStore.toResult(0)));
+        }
+    }
+
+    private Result accumulate(int from, int to, int cubicRoomLimit) {
+        try (RoomAccumulator roomAccumulator = new RoomAccumulator(roomConverter, new InMemoryDuplicateRoomDetector(), cubicRoomLimit)) {
+            acceptRooms(roomAccumulator, from, to);
+            return roomAccumulator.toResult();
+        }
+    }
+
+    /**
+     * Accepts rooms of which every 10th is cubic and every 7th repeats an earlier room.
+     */
+    private static void acceptRooms(RoomDimensionsConsumer consumer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (i % 10 == 0) {
+                consumer.accept(i % 500 + 1, i % 500 + 1, i % 500 + 1);
+            } else if (i % 7 == 0) {
+                consumer.accept(1, 2, i % 50 + 1);
+            } else {
+                consumer.accept(i + 1, 2, 3);
+            }
+        }
+    }
+}
@@ -2,8 +2,12 @@ package gscf.task.roomdimension.action;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
+import java.util.List;
 import java.util.logging.Handler;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.junit.jupiter.api.AfterEach;
@@ -12,15 +16,26 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
+import gscf.task.roomdimension.action.process.BatchInputProcessor;
 import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.dto.AnalysisMode;
+import gscf.task.roomdimension.dto.BatchResult;
+import gscf.task.roomdimension.dto.FileResult;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.OutputFormat;
+import gscf.task.roomdimension.dto.ProcessingOptions;
 import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchResult;
 import gscf.task.roomdimension.exception.InvalidMethodParameterException;
 import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
 import gscf.task.roomdimension.log.AppLogger;
 import gscf.task.roomdimension.util.ResultPrinterUtil;
-import gscf.task.roomdimension.validation.FileSizeValidator;
 
 /**
  * {@link RoomDimensionAction} unit test class.
@@ -29,18 +44,16 @@ import gscf.task.roomdimension.validation.FileSizeValidator;
  */
 class RoomDimensionActionTest {
 
-    private static final long MAX_SIZE_BYTES = 5L * 1024 * 1024;
-
     private static final Logger LOGGER = AppLogger.getLogger();
 
     private static final Handler MOCK_HANDLER = Mockito.mock(Handler.class);
 
     private RoomDimensionAction roomDimensionAction;
 
-    private FileSizeValidator mockFileSizeValidator;
-
     private InputFileProcessor mockInputFileProcessor;
 
+    private BatchInputProcessor mockBatchInputProcessor;
+
     @BeforeAll
     static void setupLogger() {
         LOGGER.setUseParentHandlers(false);
@@ -51,11 +64,11 @@ class RoomDimensionActionTest {
     void setupObjects() throws NoSuchFieldException, IllegalAccessException {
         roomDimensionAction = new RoomDimensionAction();
 
-        mockFileSizeValidator = Mockito.mock(FileSizeValidator.class);
         mockInputFileProcessor = Mockito.mock(InputFileProcessor.class);
+        mockBatchInputProcessor = Mockito.mock(BatchInputProcessor.class);
 
-        injectPrivateField(roomDimensionAction, "fileSizeValidator", mockFileSizeValidator);
         injectPrivateField(roomDimensionAction, "inputFileProcessor", mockInputFileProcessor);
+        injectPrivateField(roomDimensionAction, "batchInputProcessor", mockBatchInputProcessor);
     }
 
     @AfterEach
@@ -70,17 +83,16 @@ class RoomDimensionActionTest {
         String[] args = { validFilePath };
         Result mockResult = Mockito.mock(Result.class);
 
-        Mockito.when(mockResult.totalSquareFeetOfWallpaper()).thenReturn(100);
+        Mockito.when(mockResult.totalSquareFeetOfWallpaper()).thenReturn(100L);
         Mockito.when(mockResult.cubicRooms()).thenReturn(Collections.emptyList());
         Mockito.when(mockResult.duplicateRooms()).thenReturn(Collections.emptyList());
+        Mockito.when(mockResult.invalidLines()).thenReturn(InvalidLines.NONE);
 
-        Mockito.doNothing().when(mockFileSizeValidator).validate(validFilePath, MAX_SIZE_BYTES);
-        Mockito.when(mockInputFileProcessor.process(validFilePath)).thenReturn(mockResult);
+        Mockito.when(mockInputFileProcessor.process(validFilePath, ProcessingOptions.defaults())).thenReturn(mockResult);
 
         roomDimensionAction.process(args);
 
-        Mockito.verify(mockFileSizeValidator).validate(validFilePath, MAX_SIZE_BYTES);
-        Mockito.verify(mockInputFileProcessor).process(validFilePath);
+        Mockito.verify(mockInputFileProcessor).process(validFilePath, ProcessingOptions.defaults());
 
         Mockito.verify(MOCK_HANDLER)
                 .publish(
@@ -105,25 +117,193 @@ class RoomDimensionActionTest {
     }
 
     @Test
-    @DisplayName("Should throw InvalidMethodParameterException and no interaction after - when called with two-element array")
-    void testProcessWithMultipleArguments() {
-        String[] args = { "test-input1.txt", "test-input2.txt" };
+    @DisplayName("Should process several input files as a batch and print the results of every file and the aggregate")
+    void testProcessWithMultipleArguments() throws Exception {
+        String[] args = { "test-input1.txt", "test-input2.txt", "--concurrency=2" };
+        List<Path> inputFiles = List.of(Path.of("test-input1.txt"), Path.of("test-input2.txt"));
+        ProcessingOptions expectedOptions = ProcessingOptions.builder().batchConcurrency(2).build();
+        Result fileResult = new Result(10, List.of(), List.of());
+        BatchResult<Result> batchResult = new BatchResult<>(
+                List.of(new FileResult<>("test-input1.txt", fileResult), new FileResult<>("test-input2.txt", fileResult)),
+                new Result(20, List.of(), List.of()));
+
+        Mockito.when(mockBatchInputProcessor.process(inputFiles, expectedOptions)).thenReturn(batchResult);
+
+        roomDimensionAction.process(args);
+
+        Mockito.verify(mockBatchInputProcessor).process(inputFiles, expectedOptions);
+        Mockito.verifyNoInteractions(mockInputFileProcessor);
+        Mockito.verify(MOCK_HANDLER).publish(Mockito.argThat(arg -> arg.getMessage().contains("The results of the input file [test-input2.txt]:")));
+        Mockito.verify(MOCK_HANDLER).publish(Mockito.argThat(arg -> arg.getMessage().contains("The aggregated results of all the [2] input files:")));
+        Mockito.verify(MOCK_HANDLER, Mockito.times(2)).publish(Mockito.argThat(arg -> arg.getMessage().contains("is: [10]m2.")));
+        Mockito.verify(MOCK_HANDLER).publish(Mockito.argThat(arg -> arg.getMessage().contains("is: [20]m2.")));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException and no interaction after - when watching several input files")
+    void testProcessWatchWithMultipleArguments() {
+        String[] args = { "--watch", "test-input1.txt", "test-input2.txt" };
+        InvalidMethodParameterException exception = Assertions
+                .assertThrows(InvalidMethodParameterException.class, () -> roomDimensionAction.process(args));
+        Assertions.assertEquals("The watch mode requires exactly one input file.", exception.getMessage());
+        Mockito.verifyNoInteractions(mockInputFileProcessor, mockBatchInputProcessor);
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException and no interaction after - when asking for checkpoints of several input files")
+    void testProcessCheckpointWithMultipleArguments() {
+        String[] args = { "--checkpoint=run.ckpt", "test-input1.txt", "test-input2.txt" };
         Assertions.assertThrows(InvalidMethodParameterException.class, () -> roomDimensionAction.process(args));
-        Mockito.verifyNoInteractions(mockFileSizeValidator, mockInputFileProcessor);
+        Mockito.verifyNoInteractions(mockInputFileProcessor, mockBatchInputProcessor);
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException and no interaction after - when called without an input file path")
+    void testProcessWithoutInputFilePath() {
+        String[] args = { "--engine=mapped" };
+        Assertions.assertThrows(InvalidMethodParameterException.class, () -> roomDimensionAction.process(args));
+        Mockito.verifyNoInteractions(mockInputFileProcessor, mockBatchInputProcessor);
+    }
+
+    @Test
+    @DisplayName("Should pass the selected ingestion engine to the input file processor")
+    void testProcessWithEngineOption() throws Exception {
+        String filePath = "test-input.txt";
+        String[] args = { "--engine=mapped", filePath };
+        ProcessingOptions expectedOptions = ProcessingOptions.builder().engine(IngestionEngine.MAPPED).build();
+
+        Mockito.when(mockInputFileProcessor.process(filePath, expectedOptions)).thenReturn(new Result(0, List.of(), List.of()));
+
+        roomDimensionAction.process(args);
+
+        Mockito.verify(mockInputFileProcessor).process(filePath, expectedOptions);
     }
 
     @Test
-    @DisplayName("Should be no interactions after validation - when provided with a too large input file")
+    @DisplayName("Should convert the input file into a binary room file instead of analysing it")
+    void testProcessWithToBinaryOption() throws Exception {
+        String filePath = "test-input.txt";
+        String[] args = { "--to-binary=test-input.rdb", filePath };
+        ProcessingOptions expectedOptions = ProcessingOptions.builder().binaryOutputFile(Path.of("test-input.rdb")).build();
+
+        Mockito.when(mockInputFileProcessor.convertToBinary(filePath, "test-input.rdb", expectedOptions)).thenReturn(3L);
+
+        roomDimensionAction.process(args);
+
+        Mockito.verify(mockInputFileProcessor).convertToBinary(filePath, "test-input.rdb", expectedOptions);
+        Mockito.verify(mockInputFileProcessor, Mockito.never()).process(Mockito.anyString(), Mockito.any());
+        Mockito.verify(MOCK_HANDLER)
+                .publish(
+                        Mockito.argThat(
+                                arg -> arg.getMessage()
+                                        .contains("The [3] rooms of the input file [test-input.txt] have been converted into the binary room file [test-input.rdb].")));
+    }
+
+    @Test
+    @DisplayName("Should stream the results into the output file in the selected format instead of logging them")
+    void testProcessWithOutputOptions(@TempDir Path tempDir) throws Exception {
+        String filePath = "test-input.txt";
+        Path outputFile = tempDir.resolve("results.csv");
+        String[] args = { "--format=csv", "--output=" + outputFile, filePath };
+        ProcessingOptions expectedOptions = ProcessingOptions.builder().outputFormat(OutputFormat.CSV).outputFile(outputFile).build();
+        Result result = new Result(
+                100,
+                List.of(new Room(2, 2, 2, 28, true)),
+                List.of(new Room(1, 2, 3, 24, false)));
+
+        Mockito.when(mockInputFileProcessor.process(filePath, expectedOptions)).thenReturn(result);
+
+        roomDimensionAction.process(args);
+
+        Assertions.assertEquals(
+                List.of(
+                        "source,type,room,value",
+                        "test-input.txt,total_wallpaper,,100",
+                        "test-input.txt,cubic,2x2x2,28",
+                        "test-input.txt,duplicate,1x2x3,24"),
+                Files.readAllLines(outputFile));
+        Mockito.verify(MOCK_HANDLER, Mockito.never()).publish(Mockito.argThat(arg -> arg.getMessage().contains("room dimensions are")));
+    }
+
+    @Test
+    @DisplayName("Should write the JSON report of the processing metrics into the stats file at the end of the run")
+    void testProcessWithStatsOption(@TempDir Path tempDir) throws Exception {
+        String filePath = "test-input.txt";
+        Path statsFile = tempDir.resolve("stats.json");
+        String[] args = { "--stats=" + statsFile, filePath };
+        ProcessingOptions expectedOptions = ProcessingOptions.builder().statsReport(true).statsFile(statsFile).build();
+
+        Mockito.when(mockInputFileProcessor.process(filePath, expectedOptions)).thenReturn(new Result(100, List.of(), List.of()));
+
+        roomDimensionAction.process(args);
+
+        String report = Files.readString(statsFile).strip();
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(report.startsWith("{\"elapsed_ms\":"), report),
+                () -> Assertions.assertTrue(report.contains("\"lines\":0,\"bytes\":0,"), report),
+                () -> Assertions.assertTrue(report.contains("\"output\":{\"wall_time_ms\":"), report),
+                () -> Assertions.assertTrue(report.endsWith("}}"), report));
+        Mockito.verify(mockInputFileProcessor).process(filePath, expectedOptions);
+    }
+
+    @Test
+    @DisplayName("Should print the estimated analytics in the approximate mode")
+    void testProcessWithApproximateMode() throws Exception {
+        String filePath = "test-input.txt";
+        String[] args = { "--mode=approximate", filePath };
+        ProcessingOptions expectedOptions = ProcessingOptions.builder().mode(AnalysisMode.APPROXIMATE).build();
+        SketchResult sketchResult = new SketchResult(100, 3, 2, 0.01, List.of(new RoomFrequency(new Room(1, 2, 3, 24, false), 2)), 0);
+
+        Mockito.when(mockInputFileProcessor.processApproximate(filePath, expectedOptions)).thenReturn(sketchResult);
+
+        roomDimensionAction.process(args);
+
+        Mockito.verify(mockInputFileProcessor).processApproximate(filePath, expectedOptions);
+        Mockito.verify(mockInputFileProcessor, Mockito.never()).process(Mockito.anyString(), Mockito.any());
+        Mockito.verify(MOCK_HANDLER)
+                .publish(Mockito.argThat(arg -> arg.getMessage().contains("The estimated number of distinct rooms out of [3] rooms is: [2]")));
+        Mockito.verify(MOCK_HANDLER).publish(Mockito.argThat(arg -> arg.getMessage().contains("are: [1x2x3=2]")));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException and no interaction after - when called with an unknown option")
+    void testProcessWithUnknownOption() {
+        String[] args = { "--unknown=value", "test-input.txt" };
+        Assertions.assertThrows(InvalidMethodParameterException.class, () -> roomDimensionAction.process(args));
+        Mockito.verifyNoInteractions(mockInputFileProcessor);
+    }
+
+    @Test
+    @DisplayName("Should leave the size validation to the input file processor, and log its rejection of a too large input file")
     void testProcessWithFileSizeExceedingLimit() throws Exception {
         String filePath = "large-input.txt";
         String[] args = { filePath };
 
-        Mockito.doThrow(SizeLimitExceededIOException.class).when(mockFileSizeValidator).validate(filePath, MAX_SIZE_BYTES);
+        Mockito.doThrow(SizeLimitExceededIOException.class).when(mockInputFileProcessor).process(filePath, ProcessingOptions.defaults());
 
         roomDimensionAction.process(args);
 
-        Mockito.verify(mockFileSizeValidator).validate(filePath, MAX_SIZE_BYTES);
-        Mockito.verifyNoInteractions(mockInputFileProcessor);
+        Mockito.verify(mockInputFileProcessor).process(filePath, ProcessingOptions.defaults());
+        Mockito.verify(MOCK_HANDLER)
+                .publish(
+                        Mockito.argThat(arg -> arg.getLevel() == Level.SEVERE && arg.getMessage().contains("failed due to a providing a too large file")));
+    }
+
+    @Test
+    @DisplayName("Should log a severe error when the total wallpaper of the rooms exceeds the maximum of a long")
+    void testProcessWithTotalOverflow() throws Exception {
+        String filePath = "huge-rooms.txt";
+        String[] args = { filePath };
+
+        Mockito.doThrow(ArithmeticException.class).when(mockInputFileProcessor).process(filePath, ProcessingOptions.defaults());
+
+        roomDimensionAction.process(args);
+
+        Mockito.verify(MOCK_HANDLER)
+                .publish(
+                        Mockito.argThat(
+                                arg -> arg.getLevel() == Level.SEVERE
+                                        && arg.getMessage().contains("the total wallpaper needed by the rooms exceeds the maximum of a long")));
     }
 
     @Test
@@ -132,13 +312,11 @@ class RoomDimensionActionTest {
         String filePath = "valid-input.txt";
         String[] args = { filePath };
 
-        Mockito.doNothing().when(mockFileSizeValidator).validate(filePath, MAX_SIZE_BYTES);
-        Mockito.doThrow(IOException.class).when(mockInputFileProcessor).process(filePath);
+        Mockito.doThrow(IOException.class).when(mockInputFileProcessor).process(filePath, ProcessingOptions.defaults());
 
         roomDimensionAction.process(args);
 
-        Mockito.verify(mockFileSizeValidator).validate(filePath, MAX_SIZE_BYTES);
-        Mockito.verify(mockInputFileProcessor).process(filePath);
+        Mockito.verify(mockInputFileProcessor).process(filePath, ProcessingOptions.defaults());
         Mockito.verifyNoInteractions(Mockito.mock(ResultPrinterUtil.class));
     }
 
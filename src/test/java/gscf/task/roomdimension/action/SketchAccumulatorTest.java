@@ -0,0 +1,121 @@
+package gscf.task.roomdimension.action;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.action.process.SketchAccumulator;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchOptions;
+import gscf.task.roomdimension.dto.SketchResult;
+
+/**
+ * {@link SketchAccumulator} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class SketchAccumulatorTest {
+
+    private static final SketchOptions SKETCH_OPTIONS = SketchOptions.builder().mostRepeatedRoomCount(3).build();
+
+    private final RoomConverter roomConverter = new RoomConverter();
+
+    @Test
+    @DisplayName("Should report the exact wallpaper and the most repeated rooms in descending order")
+    void testToResult() {
+        SketchResult result;
+        try (SketchAccumulator accumulator = new SketchAccumulator(roomConverter, SKETCH_OPTIONS)) {
+            acceptRooms(accumulator, 0, 10_000);
+            result = accumulator.toResult();
+        }
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expectedWallpaper(0, 10_000), result.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(10_000, result.roomCount()),
+                () -> Assertions.assertEquals(8_003, result.estimatedDistinctRooms(), 3 * result.distinctRoomsError() * 8_003),
+                () -> assertMostRepeatedRooms(1, result));
+    }
+
+    @Test
+    @DisplayName("Should not report rooms occurring only once")
+    void testToResultWithoutRepeatedRooms() {
+        try (SketchAccumulator accumulator = new SketchAccumulator(roomConverter, SKETCH_OPTIONS)) {
+            accumulator.accept(1, 2, 3);
+            accumulator.accept(4, 5, 6);
+
+            Assertions.assertEquals(List.of(), accumulator.toResult().mostRepeatedRooms());
+        }
+    }
+
+    @Test
+    @DisplayName("Should produce the same result when merging partial accumulators")
+    void testMerge() {
+        try (SketchAccumulator first = new SketchAccumulator(roomConverter, SKETCH_OPTIONS);
+                SketchAccumulator second = new SketchAccumulator(roomConverter, SKETCH_OPTIONS)) {
+            acceptRooms(first, 0, 4_000);
+            acceptRooms(second, 4_000, 20_000);
+
+            SketchResult result = first.merge(second).toResult();
+
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(expectedWallpaper(0, 20_000), result.totalSquareFeetOfWallpaper()),
+                    () -> Assertions.assertEquals(20_000, result.roomCount()),
+                    () -> assertMostRepeatedRooms(2, result));
+        }
+    }
+
+    /**
+     * Accepts distinct rooms, mixed with three rooms repeated 1000, 700 and 300 times per 10 000 rooms.
+     */
+    private static void acceptRooms(SketchAccumulator accumulator, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int[] room = room(i);
+            accumulator.accept(room[0], room[1], room[2]);
+        }
+    }
+
+    private static int expectedWallpaper(int from, int to) {
+        int wallpaper = 0;
+        for (int i = from; i < to; i++) {
+            int[] room = room(i);
+            wallpaper += RoomConverter.calculateWallpaperNeeded(room[0], room[1], room[2]);
+        }
+        return wallpaper;
+    }
+
+    private static int[] room(int index) {
+        int slot = index % 100;
+        if (slot < 10) {
+            return new int[] { 2, 3, 4 };
+        }
+        if (slot < 17) {
+            return new int[] { 5, 5, 5 };
+        }
+        if (slot < 20) {
+            return new int[] { 6, 7, 8 };
+        }
+        return new int[] { index + 10, 1, 1 };
+    }
+
+    /**
+     * The counts are estimates, so they may exceed the real counts by at most the error bound.
+     */
+    private void assertMostRepeatedRooms(int multiplier, SketchResult result) {
+        List<Room> expectedRooms = List.of(toRoom(2, 3, 4), toRoom(5, 5, 5), toRoom(6, 7, 8));
+        long[] expectedCounts = { 1_000L * multiplier, 700L * multiplier, 300L * multiplier };
+
+        Assertions.assertEquals(expectedRooms, result.mostRepeatedRooms().stream().map(RoomFrequency::room).toList());
+        for (int i = 0; i < expectedCounts.length; i++) {
+            long estimatedCount = result.mostRepeatedRooms().get(i).estimatedCount();
+            Assertions.assertTrue(estimatedCount >= expectedCounts[i] && estimatedCount <= expectedCounts[i] + result.frequencyErrorBound());
+        }
+    }
+
+    private Room toRoom(int length, int width, int height) {
+        return roomConverter.convert(length, width, height);
+    }
+}
@@ -0,0 +1,136 @@
+package gscf.task.roomdimension.action;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gscf.task.roomdimension.action.process.DuplicateRoomDetector;
+import gscf.task.roomdimension.action.process.InMemoryDuplicateRoomDetector;
+import gscf.task.roomdimension.action.process.PackedRoomKeySet;
+import gscf.task.roomdimension.action.process.SpillingDuplicateRoomDetector;
+
+/**
+ * {@link SpillingDuplicateRoomDetector} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class SpillingDuplicateRoomDetectorTest {
+
+    // Far more rooms than fit into the minimal budget, so the detector spills many times
+    private static final int ROOM_COUNT = 200_000;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Should report the same duplicates as the in-memory detector after spilling to disk")
+    void testForEachDuplicateMatchesInMemoryDetector() throws IOException {
+        try (SpillingDuplicateRoomDetector spillingDetector = new SpillingDuplicateRoomDetector(1, tempDir);
+                InMemoryDuplicateRoomDetector inMemoryDetector = new InMemoryDuplicateRoomDetector()) {
+            addRandomRooms(new Random(42), spillingDetector, inMemoryDetector);
+
+            Assertions.assertTrue(countFiles() > 0, "Rooms should have been spilled to disk");
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(collectDuplicates(inMemoryDetector), collectDuplicates(spillingDetector)),
+                    () -> Assertions.assertEquals(inMemoryDetector.distinctRoomCount(), spillingDetector.distinctRoomCount()));
+        }
+        Assertions.assertEquals(0, countFiles(), "Every spilled file should have been deleted");
+    }
+
+    @Test
+    @DisplayName("Should resolve partitions exceeding the budget by splitting them into sub-partitions")
+    void testForEachDuplicateWithOversizedPartitions() throws IOException {
+        try (SpillingDuplicateRoomDetector spillingDetector = new SpillingDuplicateRoomDetector(1, tempDir);
+                InMemoryDuplicateRoomDetector inMemoryDetector = new InMemoryDuplicateRoomDetector()) {
+            // About twice as many distinct rooms as sixteen budgets hold, so the partitions do not fit into the budget and have to be split
+            for (int i = 1; i <= ROOM_COUNT; i++) {
+                int length = i % 2_000 + 1;
+                int width = i / 2_000 + 1;
+                int height = i % 3 == 0 ? 1 : 2;
+                spillingDetector.add(length, width, height);
+                inMemoryDetector.add(length, width, height);
+            }
+
+            Assertions.assertEquals(collectDuplicates(inMemoryDetector), collectDuplicates(spillingDetector));
+        }
+    }
+
+    @Test
+    @DisplayName("Should count the distinct rooms while resolving the duplicates, and count them again once a room has been added")
+    void testDistinctRoomCountAfterForEachDuplicate() throws IOException {
+        try (SpillingDuplicateRoomDetector spillingDetector = new SpillingDuplicateRoomDetector(1, tempDir);
+                InMemoryDuplicateRoomDetector inMemoryDetector = new InMemoryDuplicateRoomDetector()) {
+            addRandomRooms(new Random(11), spillingDetector, inMemoryDetector);
+            collectDuplicates(spillingDetector);
+            spillingDetector.add(500, 500, 5);
+            inMemoryDetector.add(500, 500, 5);
+            long recountedDistinctRoomCount = spillingDetector.distinctRoomCount();
+
+            collectDuplicates(spillingDetector);
+            // Counting the distinct rooms would fail if it read the spilled rooms once more
+            deleteFiles();
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(inMemoryDetector.distinctRoomCount(), recountedDistinctRoomCount),
+                    () -> Assertions.assertEquals(inMemoryDetector.distinctRoomCount(), spillingDetector.distinctRoomCount()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should detect duplicates spanning merged detectors which have both spilled")
+    void testMerge() throws IOException {
+        Random random = new Random(7);
+        try (SpillingDuplicateRoomDetector first = new SpillingDuplicateRoomDetector(1, tempDir);
+                SpillingDuplicateRoomDetector second = new SpillingDuplicateRoomDetector(1, tempDir);
+                InMemoryDuplicateRoomDetector inMemoryDetector = new InMemoryDuplicateRoomDetector()) {
+            addRandomRooms(random, first, inMemoryDetector);
+            addRandomRooms(random, second, inMemoryDetector);
+
+            first.merge(second);
+
+            Assertions.assertEquals(collectDuplicates(inMemoryDetector), collectDuplicates(first));
+        }
+        Assertions.assertEquals(0, countFiles(), "Every spilled file should have been deleted");
+    }
+
+    private void addRandomRooms(Random random, DuplicateRoomDetector... detectors) {
+        for (int i = 0; i < ROOM_COUNT; i++) {
+            // Mostly packable rooms, with a few rooms too large to be packed
+            int length = i % 1_000 == 0 ? PackedRoomKeySet.MAX_PACKABLE_DIMENSION + 1 + random.nextInt(3) : 1 + random.nextInt(400);
+            int width = 1 + random.nextInt(400);
+            int height = 1 + random.nextInt(4);
+            for (DuplicateRoomDetector detector : detectors) {
+                detector.add(length, width, height);
+            }
+        }
+    }
+
+    private Set<List<Integer>> collectDuplicates(DuplicateRoomDetector detector) {
+        Set<List<Integer>> duplicates = new HashSet<>();
+        detector.forEachDuplicate((length, width, height) -> Assertions.assertTrue(duplicates.add(List.of(length, width, height))));
+        return duplicates;
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            return paths.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private void deleteFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
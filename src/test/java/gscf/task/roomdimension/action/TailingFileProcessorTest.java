@@ -0,0 +1,211 @@
+package gscf.task.roomdimension.action;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.action.process.TailingFileProcessor;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+import gscf.task.roomdimension.exception.SizeLimitExceededIOException;
+import gscf.task.roomdimension.generator.RoomInputGenerator;
+
+/**
+ * {@link TailingFileProcessor} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class TailingFileProcessorTest {
+
+    private static final Room ROOM = new Room(1, 2, 3, 24, false);
+
+    private static final Room CUBIC_ROOM = new Room(4, 4, 4, 112, true);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Should process only the complete lines appended since the previous update")
+    void testUpdateProcessesAppendedLines() throws IOException {
+        Path inputFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n4x4");
+
+        try (TailingFileProcessor<Result> processor = TailingFileProcessor.exact(new RoomConverter(), inputFile.toString(), ProcessingOptions.defaults())) {
+            boolean firstUpdated = processor.update();
+            Result firstResult = processor.result();
+            long firstProcessedBytes = processor.processedBytes();
+
+            append(inputFile, "x4\n1x2x3\r");
+            boolean secondUpdated = processor.update();
+            Result secondResult = processor.result();
+
+            append(inputFile, "\n");
+            boolean thirdUpdated = processor.update();
+            boolean fourthUpdated = processor.update();
+
+            Assertions.assertAll(
+                    () -> Assertions.assertTrue(firstUpdated),
+                    () -> Assertions.assertEquals(new Result(24, List.of(), List.of()), firstResult),
+                    () -> Assertions.assertEquals(6, firstProcessedBytes),
+                    () -> Assertions.assertTrue(secondUpdated),
+                    // The last line may still be terminated by "\r\n", so it waits for the next update
+                    () -> Assertions.assertEquals(new Result(136, List.of(CUBIC_ROOM), List.of()), secondResult),
+                    () -> Assertions.assertTrue(thirdUpdated),
+                    () -> Assertions.assertFalse(fourthUpdated),
+                    () -> Assertions.assertEquals(new Result(160, List.of(CUBIC_ROOM), List.of(ROOM)), processor.result()),
+                    () -> Assertions.assertEquals(Files.size(inputFile), processor.processedBytes()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should give the same result after many small updates as processing the whole file at once")
+    void testUpdateMatchesFullProcessing() throws IOException {
+        Path completeFile = tempDir.resolve("complete.txt");
+        RoomInputGenerator.builder().seed(7).roomCount(5_000).duplicateRatio(0.2).cubicRatio(0.05).build().generate(completeFile);
+        byte[] content = Files.readAllBytes(completeFile);
+        Path inputFile = Files.createFile(tempDir.resolve("input.txt"));
+
+        try (TailingFileProcessor<Result> processor = TailingFileProcessor.exact(new RoomConverter(), inputFile.toString(), ProcessingOptions.defaults())) {
+            // Appending chunks of an odd size splits many lines between two updates
+            for (int offset = 0; offset < content.length; offset += 997) {
+                Files.write(inputFile, Arrays.copyOfRange(content, offset, Math.min(content.length, offset + 997)), StandardOpenOption.APPEND);
+                processor.update();
+            }
+            Result expected = new InputFileProcessor(new RoomConverter()).process(completeFile.toString());
+            Result result = processor.result();
+
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(expected.totalSquareFeetOfWallpaper(), result.totalSquareFeetOfWallpaper()),
+                    () -> Assertions.assertEquals(expected.cubicRooms(), result.cubicRooms()),
+                    () -> Assertions.assertEquals(expected.duplicateRooms(), result.duplicateRooms()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should start over when the file is truncated or replaced")
+    void testUpdateStartsOverAfterTruncationAndReplacement() throws IOException {
+        Path inputFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n1x2x3\n");
+
+        try (TailingFileProcessor<Result> processor = TailingFileProcessor.exact(new RoomConverter(), inputFile.toString(), ProcessingOptions.defaults())) {
+            processor.update();
+
+            Files.writeString(inputFile, "4x4x4\n");
+            boolean truncatedUpdated = processor.update();
+            Result truncatedResult = processor.result();
+
+            // A rotated file larger than the previous one is detected through its file key
+            Path rotatedFile = Files.writeString(tempDir.resolve("rotated.txt"), "1x2x3\n1x2x3\n4x4x4\n");
+            Files.move(rotatedFile, inputFile, StandardCopyOption.REPLACE_EXISTING);
+            processor.update();
+
+            Assertions.assertAll(
+                    () -> Assertions.assertTrue(truncatedUpdated),
+                    () -> Assertions.assertEquals(new Result(112, List.of(CUBIC_ROOM), List.of()), truncatedResult),
+                    () -> Assertions.assertEquals(new Result(160, List.of(CUBIC_ROOM), List.of(ROOM)), processor.result()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should estimate the analytics incrementally in the approximate mode")
+    void testUpdateApproximate() throws IOException {
+        Path inputFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n");
+
+        try (TailingFileProcessor<SketchResult> processor = TailingFileProcessor
+                .approximate(new RoomConverter(), inputFile.toString(), ProcessingOptions.defaults())) {
+            processor.update();
+            append(inputFile, "1x2x3\n4x4x4\n");
+            processor.update();
+            SketchResult result = processor.result();
+
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(3, result.roomCount()),
+                    () -> Assertions.assertEquals(2, result.estimatedDistinctRooms()),
+                    () -> Assertions.assertEquals(ROOM, result.mostRepeatedRooms().get(0).room()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw SizeLimitExceededIOException once the file grows larger than the limit")
+    void testUpdateThrowsForTooLargeFile() throws IOException {
+        Path inputFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n");
+        ProcessingOptions options = ProcessingOptions.builder().maxInputSizeBytes(10).build();
+
+        try (TailingFileProcessor<Result> processor = TailingFileProcessor.exact(new RoomConverter(), inputFile.toString(), options)) {
+            processor.update();
+            append(inputFile, "1x2x3\n");
+
+            Assertions.assertThrows(SizeLimitExceededIOException.class, processor::update);
+        }
+    }
+
+    @Test
+    @DisplayName("Should notify the listener with the initial and the refreshed results until interrupted")
+    void testWatch() throws Exception {
+        Path inputFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n");
+        BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        try (TailingFileProcessor<Result> processor = TailingFileProcessor.exact(new RoomConverter(), inputFile.toString(), ProcessingOptions.defaults())) {
+            Thread watcher = new Thread(() -> {
+                try {
+                    processor.watch(Duration.ofMillis(20), results::add);
+                } catch (Exception e) {
+                    failure.set(e);
+                }
+            });
+            watcher.start();
+
+            Result initialResult = results.poll(10, TimeUnit.SECONDS);
+            append(inputFile, "1x2x3\n");
+            Result refreshedResult = results.poll(10, TimeUnit.SECONDS);
+
+            watcher.interrupt();
+            watcher.join(TimeUnit.SECONDS.toMillis(10));
+
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(new Result(24, List.of(), List.of()), initialResult),
+                    () -> Assertions.assertEquals(new Result(48, List.of(), List.of(ROOM)), refreshedResult),
+                    () -> Assertions.assertFalse(watcher.isAlive()),
+                    () -> Assertions.assertInstanceOf(InterruptedException.class, failure.get()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for invalid parameters")
+    void testThrowsForInvalidParameters() throws IOException {
+        Path inputFile = Files.writeString(tempDir.resolve("input.txt"), "");
+        RoomConverter roomConverter = new RoomConverter();
+
+        try (TailingFileProcessor<Result> processor = TailingFileProcessor.exact(roomConverter, inputFile.toString(), ProcessingOptions.defaults())) {
+            Assertions.assertAll(
+                    () -> Assertions.assertThrows(
+                            InvalidMethodParameterException.class,
+                            () -> TailingFileProcessor.exact(roomConverter, " ", ProcessingOptions.defaults())),
+                    () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> TailingFileProcessor.approximate(roomConverter, "input.txt", null)),
+                    () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> processor.watch(Duration.ZERO, result -> {})),
+                    () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> processor.watch(Duration.ofSeconds(1), null)));
+        }
+    }
+
+    private static void append(Path inputFile, String content) throws IOException {
+        Files.writeString(inputFile, content, StandardOpenOption.APPEND);
+    }
+}
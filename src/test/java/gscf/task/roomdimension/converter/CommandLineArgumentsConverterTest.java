@@ -0,0 +1,259 @@
+package gscf.task.roomdimension.converter;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import gscf.task.roomdimension.dto.AnalysisMode;
+import gscf.task.roomdimension.dto.CommandLineArguments;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.OutputFormat;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.SketchOptions;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link CommandLineArgumentsConverter} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class CommandLineArgumentsConverterTest {
+
+    private final CommandLineArgumentsConverter commandLineArgumentsConverter = new CommandLineArgumentsConverter();
+
+    @Test
+    @DisplayName("Should convert successfully a single file path with default options")
+    void testConvertFilePathOnly() {
+        CommandLineArguments arguments = commandLineArgumentsConverter.convert(new String[] { "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("input.txt"), arguments.inputFilePaths()),
+                () -> Assertions.assertEquals(ProcessingOptions.defaults(), arguments.processingOptions()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the engine option regardless of its position and case")
+    void testConvertEngineOption() {
+        CommandLineArguments arguments = commandLineArgumentsConverter.convert(new String[] { "input.txt", "--engine=MAPPED" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("input.txt"), arguments.inputFilePaths()),
+                () -> Assertions.assertEquals(IngestionEngine.MAPPED, arguments.processingOptions().engine()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the threads option")
+    void testConvertThreadsOption() {
+        CommandLineArguments arguments = commandLineArgumentsConverter.convert(new String[] { "--engine=parallel", "--threads=3", "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(IngestionEngine.PARALLEL, arguments.processingOptions().engine()),
+                () -> Assertions.assertEquals(3, arguments.processingOptions().threads()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the max input size option, including the unlimited value")
+    void testConvertMaxInputSizeOption() {
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(
+                        1024L,
+                        commandLineArgumentsConverter.convert(new String[] { "--max-input-size=1024", "input.txt" })
+                                .processingOptions()
+                                .maxInputSizeBytes()),
+                () -> Assertions.assertEquals(
+                        Long.MAX_VALUE,
+                        commandLineArgumentsConverter.convert(new String[] { "--max-input-size=unlimited", "input.txt" })
+                                .processingOptions()
+                                .maxInputSizeBytes()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the duplicate detection memory and spill directory options")
+    void testConvertDuplicateDetectionOptions() {
+        CommandLineArguments arguments = commandLineArgumentsConverter
+                .convert(new String[] { "--dedupe-memory=1048576", "--spill-directory=/tmp/spill", "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(1_048_576L, arguments.processingOptions().duplicateDetectionMemoryBytes()),
+                () -> Assertions.assertEquals(Path.of("/tmp/spill"), arguments.processingOptions().spillDirectory()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the cubic room limit option")
+    void testConvertCubicRoomLimit() {
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(
+                        10,
+                        commandLineArgumentsConverter.convert(new String[] { "--top-cubic=10", "input.txt" }).processingOptions().cubicRoomLimit()),
+                () -> Assertions.assertEquals(
+                        Integer.MAX_VALUE,
+                        commandLineArgumentsConverter.convert(new String[] { "--top-cubic=unlimited", "input.txt" })
+                                .processingOptions()
+                                .cubicRoomLimit()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the approximate mode and sketch options")
+    void testConvertSketchOptions() {
+        CommandLineArguments arguments = commandLineArgumentsConverter.convert(
+                new String[] { "--mode=Approximate", "--distinct-error=0.02", "--frequency-error=0.001", "--frequency-confidence=0.95",
+                        "--top-repeated=5", "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(AnalysisMode.APPROXIMATE, arguments.processingOptions().mode()),
+                () -> Assertions.assertEquals(new SketchOptions(0.02, 0.001, 0.95, 5), arguments.processingOptions().sketchOptions()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the batch concurrency option and keep every input path")
+    void testConvertConcurrencyOption() {
+        CommandLineArguments arguments = commandLineArgumentsConverter.convert(new String[] { "first.txt", "--concurrency=8", "inputs/*.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("first.txt", "inputs/*.txt"), arguments.inputFilePaths()),
+                () -> Assertions.assertEquals(8, arguments.processingOptions().batchConcurrency()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the watch option with and without an interval")
+    void testConvertWatchOption() {
+        CommandLineArguments defaultInterval = commandLineArgumentsConverter.convert(new String[] { "--watch", "input.txt" });
+        CommandLineArguments customInterval = commandLineArgumentsConverter.convert(new String[] { "--watch=250", "input.txt" });
+        CommandLineArguments noWatch = commandLineArgumentsConverter.convert(new String[] { "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(ProcessingOptions.DEFAULT_WATCH_INTERVAL, defaultInterval.processingOptions().watchInterval()),
+                () -> Assertions.assertEquals(Duration.ofMillis(250), customInterval.processingOptions().watchInterval()),
+                () -> Assertions.assertNull(noWatch.processingOptions().watchInterval()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the checkpoint options")
+    void testConvertCheckpointOptions() {
+        CommandLineArguments checkpoints = commandLineArgumentsConverter
+                .convert(new String[] { "--checkpoint=run.ckpt", "--checkpoint-bytes=1048576", "--checkpoint-interval=5000", "input.txt" });
+        CommandLineArguments unlimitedBytes = commandLineArgumentsConverter
+                .convert(new String[] { "--checkpoint=run.ckpt", "--checkpoint-bytes=unlimited", "input.txt" });
+        CommandLineArguments noCheckpoints = commandLineArgumentsConverter.convert(new String[] { "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Path.of("run.ckpt"), checkpoints.processingOptions().checkpointFile()),
+                () -> Assertions.assertEquals(1048576L, checkpoints.processingOptions().checkpointIntervalBytes()),
+                () -> Assertions.assertEquals(Duration.ofSeconds(5), checkpoints.processingOptions().checkpointInterval()),
+                () -> Assertions.assertEquals(Long.MAX_VALUE, unlimitedBytes.processingOptions().checkpointIntervalBytes()),
+                () -> Assertions.assertEquals(ProcessingOptions.DEFAULT_CHECKPOINT_INTERVAL, unlimitedBytes.processingOptions().checkpointInterval()),
+                () -> Assertions.assertNull(noCheckpoints.processingOptions().checkpointFile()),
+                () -> Assertions.assertEquals(
+                        ProcessingOptions.DEFAULT_CHECKPOINT_INTERVAL_BYTES,
+                        noCheckpoints.processingOptions().checkpointIntervalBytes()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the binary conversion option")
+    void testConvertToBinaryOption() {
+        CommandLineArguments conversion = commandLineArgumentsConverter.convert(new String[] { "--to-binary=input.rdb", "input.txt" });
+        CommandLineArguments noConversion = commandLineArgumentsConverter.convert(new String[] { "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(Path.of("input.rdb"), conversion.processingOptions().binaryOutputFile()),
+                () -> Assertions.assertNull(noConversion.processingOptions().binaryOutputFile()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the output format and output file options")
+    void testConvertOutputOptions() {
+        CommandLineArguments output = commandLineArgumentsConverter.convert(new String[] { "--format=JSONL", "--output=results.jsonl", "input.txt" });
+        CommandLineArguments noOutput = commandLineArgumentsConverter.convert(new String[] { "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(OutputFormat.JSONL, output.processingOptions().outputFormat()),
+                () -> Assertions.assertEquals(Path.of("results.jsonl"), output.processingOptions().outputFile()),
+                () -> Assertions.assertNull(noOutput.processingOptions().outputFormat()),
+                () -> Assertions.assertNull(noOutput.processingOptions().outputFile()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the stats option, with and without a report file")
+    void testConvertStatsOption() {
+        CommandLineArguments logged = commandLineArgumentsConverter.convert(new String[] { "--stats", "input.txt" });
+        CommandLineArguments written = commandLineArgumentsConverter.convert(new String[] { "--stats=stats.json", "input.txt" });
+        CommandLineArguments noStats = commandLineArgumentsConverter.convert(new String[] { "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(logged.processingOptions().statsReport()),
+                () -> Assertions.assertNull(logged.processingOptions().statsFile()),
+                () -> Assertions.assertTrue(written.processingOptions().statsReport()),
+                () -> Assertions.assertEquals(Path.of("stats.json"), written.processingOptions().statsFile()),
+                () -> Assertions.assertFalse(noStats.processingOptions().statsReport()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the lenient option, with and without an error reservoir size")
+    void testConvertLenientOption() {
+        CommandLineArguments defaultSize = commandLineArgumentsConverter.convert(new String[] { "--lenient", "input.txt" });
+        CommandLineArguments configured = commandLineArgumentsConverter.convert(new String[] { "--lenient=5", "input.txt" });
+        CommandLineArguments strict = commandLineArgumentsConverter.convert(new String[] { "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(defaultSize.processingOptions().lenient()),
+                () -> Assertions.assertEquals(ProcessingOptions.DEFAULT_ERROR_RESERVOIR_SIZE, defaultSize.processingOptions().errorReservoirSize()),
+                () -> Assertions.assertTrue(configured.processingOptions().lenient()),
+                () -> Assertions.assertEquals(5, configured.processingOptions().errorReservoirSize()),
+                () -> Assertions.assertFalse(strict.processingOptions().lenient()));
+    }
+
+    @Test
+    @DisplayName("Should convert successfully the server options, with and without an address")
+    void testConvertServerOptions() {
+        CommandLineArguments defaultPort = commandLineArgumentsConverter.convert(new String[] { "--serve" });
+        CommandLineArguments configured = commandLineArgumentsConverter
+                .convert(new String[] { "--serve=localhost:9090", "--max-requests=4", "--shutdown-timeout=5000" });
+        CommandLineArguments noServer = commandLineArgumentsConverter.convert(new String[] { "input.txt" });
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(new InetSocketAddress(8080), defaultPort.processingOptions().serverAddress()),
+                () -> Assertions.assertTrue(defaultPort.inputFilePaths().isEmpty()),
+                () -> Assertions.assertEquals(new InetSocketAddress("localhost", 9090), configured.processingOptions().serverAddress()),
+                () -> Assertions.assertEquals(4, configured.processingOptions().maxConcurrentRequests()),
+                () -> Assertions.assertEquals(Duration.ofSeconds(5), configured.processingOptions().shutdownTimeout()),
+                () -> Assertions.assertNull(noServer.processingOptions().serverAddress()),
+                () -> Assertions.assertEquals(ProcessingOptions.DEFAULT_MAX_CONCURRENT_REQUESTS, noServer.processingOptions().maxConcurrentRequests()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "--serve=", "--serve=port", "--serve=70000", "--serve=:80", "--max-requests=0", "--shutdown-timeout=later", "--stats=", "--lenient=", "--lenient=0", "--lenient=all", "--format=xml", "--format=", "--output=", "--to-binary=", "--checkpoint=", "--checkpoint-bytes=0", "--checkpoint-bytes=often", "--checkpoint-interval=0", "--watch=", "--watch=0", "--watch=soon", "--concurrency=0", "--concurrency=all", "--top-cubic=0", "--top-cubic=many", "--mode=guess", "--distinct-error=1", "--frequency-error=0", "--frequency-confidence=high", "--top-repeated=0",
+            "--dedupe-memory=-5", "--spill-directory=", "--max-input-size=0", "--max-input-size=big", "--engine", "--engine=", "--engine=unknown", "--unknown=value", "--threads=0", "--threads=-1", "--threads=many" })
+    @DisplayName("Should throw InvalidMethodParameterException for invalid options")
+    void testConvertInvalidOption(String option) {
+        Assertions.assertThrows(
+                InvalidMethodParameterException.class,
+                () -> commandLineArgumentsConverter.convert(new String[] { option, "input.txt" }));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for empty arguments")
+    void testConvertEmptyArguments() {
+        InvalidMethodParameterException exception = Assertions
+                .assertThrows(InvalidMethodParameterException.class, () -> commandLineArgumentsConverter.convert(new String[] {}));
+        Assertions.assertEquals("[args] parameter is null or empty.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for a null or blank argument")
+    void testConvertBlankArgument() {
+        InvalidMethodParameterException nullArgument = Assertions
+                .assertThrows(InvalidMethodParameterException.class, () -> commandLineArgumentsConverter.convert(new String[] { "input.txt", null }));
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("[arg] parameter is blank.", nullArgument.getMessage()),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> commandLineArgumentsConverter.convert(new String[] { "--threads=2", " " })));
+    }
+}
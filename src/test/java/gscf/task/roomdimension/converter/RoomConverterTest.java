@@ -1,15 +1,21 @@
 package gscf.task.roomdimension.converter;
 
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import gscf.task.roomdimension.dto.InvalidLineReason;
 import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomDimensions;
 import gscf.task.roomdimension.exception.InvalidMethodParameterException;
 
 /**
@@ -49,6 +55,21 @@ class RoomConverterTest {
                 () -> Assertions.assertTrue(room.isCubic(), "Room should be cubic"));
     }
 
+    @Test
+    @DisplayName("Should create a room from parsed dimensions, equal to the room converted from its key")
+    void testConvertParsedDimensions() {
+        Room room = roomConverter.convert(3, 4, 5);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals("3x4x5", room.key()),
+                () -> Assertions.assertEquals(106, room.wallpaperNeeded()),
+                () -> Assertions.assertFalse(room.isCubic()),
+                () -> Assertions.assertEquals(roomConverter.convert("3x4x5"), room),
+                () -> Assertions.assertEquals(roomConverter.convert("3x4x5").hashCode(), room.hashCode()),
+                () -> Assertions.assertEquals(new Room(3, 4, 5, 0, true), room),
+                () -> Assertions.assertNotEquals(roomConverter.convert(5, 4, 3), room));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = { "0x5x6", "-3x4x5", "1-2-3" })
     @DisplayName("Should throw IllegalStateException for invalid room dimensions")
@@ -72,4 +93,98 @@ class RoomConverterTest {
                 "Expected exception for blank input");
         Assertions.assertEquals("[roomDimensions] parameter is blank.", exception.getMessage());
     }
+
+    @ParameterizedTest
+    @CsvSource(value = { "3x4x5,", "2147483647x1x10,", "'',BLANK", "'  \t',BLANK", "0x5x6,MALFORMED", "3x4,MALFORMED", "3x4x5x,MALFORMED",
+            "' 3x4x5',MALFORMED", "3X4X5,MALFORMED", "3x\u0664x5,MALFORMED", "2147483648x1x1,OVERFLOW", "1x1x99999999999999999999,OVERFLOW",
+            "99999999999x1x,MALFORMED", "1000000000x1000000000x1000000000,", "1500000000x1500000000x1500000000,OVERFLOW" })
+    @DisplayName("Should try to convert a line or its bytes without throwing, telling why an invalid line is not a room")
+    void testTryConvert(String line, InvalidLineReason expectedReason) {
+        RoomDimensions target = new RoomDimensions();
+        RoomDimensions byteTarget = new RoomDimensions();
+        byte[] paddedBytes = ("#" + line + "\n").getBytes(StandardCharsets.UTF_8);
+
+        InvalidLineReason reason = roomConverter.tryConvert(line, target);
+        InvalidLineReason byteReason = RoomConverter.tryConvert(paddedBytes, 1, paddedBytes.length - 1, byteTarget);
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expectedReason, reason),
+                () -> Assertions.assertEquals(expectedReason, byteReason));
+        if (reason == null) {
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(line, target.length() + "x" + target.width() + "x" + target.height()),
+                    () -> Assertions.assertEquals(roomConverter.convert(line).wallpaperNeeded(), target.wallpaperNeeded()),
+                    () -> Assertions.assertEquals(target.wallpaperNeeded(), byteTarget.wallpaperNeeded()),
+                    () -> Assertions.assertEquals(line, byteTarget.length() + "x" + byteTarget.width() + "x" + byteTarget.height()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should calculate the wallpaper of large rooms without overflow, and reject the rooms whose wallpaper does not fit into a long")
+    void testLargeRooms() {
+        RoomDimensions target = roomConverter.convert("100000x100000x1", new RoomDimensions());
+        String tooLarge = "2147483647x2147483647x2147483647";
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(20_000_500_000L, target.wallpaperNeeded()),
+                () -> Assertions.assertFalse(target.isCubic()),
+                () -> Assertions.assertEquals(
+                        7_000_000_000_000_000_000L,
+                        roomConverter.convert("1000000000x1000000000x1000000000").wallpaperNeeded()),
+                () -> Assertions.assertEquals(
+                        MessageFormat.format("The given room dimension [{0}] is too large to be processed.", tooLarge),
+                        Assertions.assertThrows(NumberFormatException.class, () -> roomConverter.convert(tooLarge)).getMessage()),
+                () -> Assertions.assertThrows(
+                        ArithmeticException.class,
+                        () -> RoomConverter.calculateWallpaperNeeded(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for a null line or target, or a range out of the bounds of the line")
+    void testTryConvertBytesInvalidParameters() {
+        byte[] line = "1x2x3".getBytes(StandardCharsets.US_ASCII);
+        RoomDimensions target = new RoomDimensions();
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> RoomConverter.tryConvert(null, 0, 0, target)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> RoomConverter.tryConvert(line, 0, 5, null)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> RoomConverter.tryConvert(line, -1, 5, target)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> RoomConverter.tryConvert(line, 3, 2, target)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> RoomConverter.tryConvert(line, 0, 6, target)));
+    }
+
+    @Test
+    @DisplayName("Should accept the lines of the strict conversion, and reject the others with its exceptions unless they are skipped")
+    void testConvertIntoConsumer() {
+        List<String> lines = List.of("1x2x3", "", "4x0x6", "9999999999x1x1", "2x2x2");
+        List<String> accepted = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        RoomDimensionsConsumer lenientConsumer = new RoomDimensionsConsumer() {
+
+            @Override
+            public void accept(int length, int width, int height) {
+                accepted.add(length + "x" + width + "x" + height);
+            }
+
+            @Override
+            public boolean skipInvalidLine(InvalidLineReason reason, String line) {
+                skipped.add(reason + ":" + line);
+                return true;
+            }
+        };
+        RoomDimensionsConsumer strictConsumer = (length, width, height) -> accepted.add(length + "x" + width + "x" + height);
+        RoomDimensions target = new RoomDimensions();
+
+        for (String line : lines) {
+            roomConverter.convert(line, target, lenientConsumer);
+        }
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("1x2x3", "2x2x2"), accepted),
+                () -> Assertions.assertEquals(List.of("BLANK:", "MALFORMED:4x0x6", "OVERFLOW:9999999999x1x1"), skipped),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> roomConverter.convert("", target, strictConsumer)),
+                () -> Assertions.assertThrows(IllegalStateException.class, () -> roomConverter.convert("4x0x6", target, strictConsumer)),
+                () -> Assertions.assertThrows(NumberFormatException.class, () -> roomConverter.convert("9999999999x1x1", target, strictConsumer)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> roomConverter.tryConvert(null, target)));
+    }
 }
@@ -0,0 +1,128 @@
+package gscf.task.roomdimension.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.RoomDimensions;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link RoomInputGenerator} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class RoomInputGeneratorTest {
+
+    private final RoomConverter roomConverter = new RoomConverter();
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Should generate the same valid rooms for the same seed")
+    void testGenerateIsDeterministic() throws IOException {
+        RoomInputGenerator generator = RoomInputGenerator.builder().seed(7).roomCount(10_000).duplicateRatio(0.3).cubicRatio(0.1).build();
+
+        Path first = tempDir.resolve("first.txt");
+        Path second = tempDir.resolve("second.txt");
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(10_000, generator.generate(first)),
+                () -> Assertions.assertEquals(10_000, generator.generate(second)),
+                () -> Assertions.assertEquals(-1, Files.mismatch(first, second)),
+                () -> Assertions.assertEquals(10_000, Files.readAllLines(first).size()));
+    }
+
+    @Test
+    @DisplayName("Should generate rooms within the dimension range, with the requested cubic and duplicate ratios")
+    void testGenerateRatios() throws IOException {
+        RoomInputGenerator generator = RoomInputGenerator.builder()
+                .seed(11)
+                .roomCount(100_000)
+                .duplicateRatio(0.4)
+                .cubicRatio(0.2)
+                .dimensionRange(1_000, 100_000)
+                .duplicatePoolSize(10)
+                .build();
+
+        List<String> lines = generate(generator).lines().toList();
+
+        RoomDimensions dimensions = new RoomDimensions();
+        Map<String, Integer> counts = new HashMap<>();
+        int cubicRooms = 0;
+        for (String line : lines) {
+            roomConverter.convert(line, dimensions);
+            Assertions.assertTrue(isInRange(dimensions.length()) && isInRange(dimensions.width()) && isInRange(dimensions.height()), line);
+            if (RoomConverter.isCubic(dimensions.length(), dimensions.width(), dimensions.height())) {
+                cubicRooms++;
+            }
+            counts.merge(line, 1, Integer::sum);
+        }
+        // The repeating rooms are the ten rooms of the pool, every other room is practically unique
+        int pooledRooms = counts.values().stream().filter(count -> count > 100).mapToInt(Integer::intValue).sum();
+
+        int cubicCount = cubicRooms;
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0.2, cubicCount / 100_000.0, 0.01),
+                () -> Assertions.assertEquals(0.4, pooledRooms / 100_000.0, 0.01));
+    }
+
+    @Test
+    @DisplayName("Should stop generating at the size limit")
+    void testGenerateWithSizeLimit() throws IOException {
+        RoomInputGenerator generator = RoomInputGenerator.builder().seed(3).sizeBytes(1_000_000).build();
+
+        String content = generate(generator);
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(content.length() >= 1_000_000),
+                () -> Assertions.assertTrue(content.length() < 1_000_000 + 20),
+                () -> Assertions.assertTrue(content.endsWith("\n")));
+    }
+
+    @Test
+    @DisplayName("Should generate the largest dimensions without overflow")
+    void testGenerateLargestDimensions() throws IOException {
+        RoomInputGenerator generator = RoomInputGenerator.builder().roomCount(100).dimensionRange(Integer.MAX_VALUE, Integer.MAX_VALUE).build();
+
+        Assertions.assertEquals(("2147483647x2147483647x2147483647\n").repeat(100), generate(generator));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for invalid settings")
+    void testBuildThrowsForInvalidSettings() {
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> RoomInputGenerator.builder().build()),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> RoomInputGenerator.builder().roomCount(1).duplicateRatio(0.6).cubicRatio(0.6).build()),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> RoomInputGenerator.builder().roomCount(1).dimensionRange(0, 10).build()),
+                () -> Assertions.assertThrows(
+                        InvalidMethodParameterException.class,
+                        () -> RoomInputGenerator.builder().roomCount(1).duplicatePoolSize(0).build()));
+    }
+
+    private static boolean isInRange(int dimension) {
+        return dimension >= 1_000 && dimension <= 100_000;
+    }
+
+    private static String generate(RoomInputGenerator generator) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        generator.generate(outputStream);
+        return outputStream.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,95 @@
+package gscf.task.roomdimension.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.validation.FileSizeValidator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit test class of the Java Flight Recorder events, see {@link RoomDimensionEvents}.
+ *
+ * @author krisztian.hathazi
+ */
+class RoomDimensionEventsTest {
+
+    private static final int ROOM_COUNT = 2000;
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(value = IngestionEngine.class, names = { "READER", "MAPPED" })
+    @DisplayName("Should record the validation, the chunks, the dedupe table resizes and the result of a processed input file")
+    void testProcessingEvents(IngestionEngine engine) throws IOException {
+        Path inputFile = tempDir.resolve("input.txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 1; i <= ROOM_COUNT; i++) {
+            content.append(i).append("x2x3\n");
+        }
+        Files.writeString(inputFile, content);
+
+        List<RecordedEvent> events = record(() -> {
+            new FileSizeValidator().validate(inputFile.toString(), Long.MAX_VALUE);
+            new InputFileProcessor(new RoomConverter()).process(inputFile.toString(), ProcessingOptions.builder().engine(engine).build());
+        });
+
+        List<RecordedEvent> chunkEvents = eventsOf(events, ChunkEvent.NAME);
+        List<RecordedEvent> validationEvents = eventsOf(events, ValidationEvent.NAME);
+        List<RecordedEvent> resultEvents = eventsOf(events, ResultEvent.NAME);
+        Assertions.assertAll(
+                // The mapped engine validates the size of the input file once more before it is mapped
+                () -> Assertions.assertEquals(engine == IngestionEngine.MAPPED ? 2 : 1, validationEvents.size()),
+                () -> Assertions.assertEquals(inputFile.toString(), validationEvents.get(0).getString("path")),
+                () -> Assertions.assertEquals(Files.size(inputFile), validationEvents.get(0).getLong("size")),
+                () -> Assertions.assertEquals(ROOM_COUNT, chunkEvents.stream().mapToLong(event -> event.getLong("lines")).sum()),
+                () -> Assertions.assertEquals(Files.size(inputFile), chunkEvents.stream().mapToLong(event -> event.getLong("bytes")).sum()),
+                () -> Assertions.assertEquals("text", chunkEvents.get(0).getString("format")),
+                () -> Assertions.assertFalse(eventsOf(events, DedupeTableResizeEvent.NAME).isEmpty()),
+                () -> Assertions.assertEquals(1, resultEvents.size()),
+                () -> Assertions.assertEquals("exact", resultEvents.get(0).getString("mode")),
+                () -> Assertions.assertEquals(ROOM_COUNT, resultEvents.get(0).getLong("rooms")));
+    }
+
+    private List<RecordedEvent> record(RecordedTask task) throws IOException {
+        Path recordingFile = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of(ValidationEvent.NAME, ChunkEvent.NAME, DedupeTableResizeEvent.NAME, ResultEvent.NAME, OutputEvent.NAME)) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            task.run();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+        return RecordingFile.readAllEvents(recordingFile);
+    }
+
+    private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> name.equals(event.getEventType().getName())).toList();
+    }
+
+    /**
+     * The processing recorded by a test.
+     */
+    @FunctionalInterface
+    private interface RecordedTask {
+
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,168 @@
+package gscf.task.roomdimension.log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link AsyncLogHandler} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class AsyncLogHandlerTest {
+
+    @Test
+    @DisplayName("Should pass every record to the delegate in order on the writer thread, and wait for them on flush")
+    void testPublishAndFlush() {
+        RecordingHandler delegate = new RecordingHandler();
+        AsyncLogHandler asyncLogHandler = new AsyncLogHandler(delegate, 4, OverflowPolicy.BLOCK);
+
+        List<String> expectedMessages = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            asyncLogHandler.publish(new LogRecord(Level.INFO, "message " + i));
+            expectedMessages.add("message " + i);
+        }
+        asyncLogHandler.flush();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expectedMessages, delegate.messages()),
+                () -> Assertions.assertFalse(delegate.threads().contains(Thread.currentThread().getName())));
+        asyncLogHandler.close();
+    }
+
+    @Test
+    @DisplayName("Should drop the published record when the buffer is full with the DROP_NEWEST policy, and report it")
+    void testDropNewest() throws InterruptedException {
+        RecordingHandler delegate = new RecordingHandler();
+        AsyncLogHandler asyncLogHandler = fillWhileWriterIsBlocked(delegate, OverflowPolicy.DROP_NEWEST);
+
+        Assertions.assertEquals(
+                List.of("first", "[1] log records have been dropped, because the log buffer was full.", "second", "third"),
+                delegate.messages());
+        asyncLogHandler.close();
+    }
+
+    @Test
+    @DisplayName("Should drop the oldest buffered record when the buffer is full with the DROP_OLDEST policy, and report it")
+    void testDropOldest() throws InterruptedException {
+        RecordingHandler delegate = new RecordingHandler();
+        AsyncLogHandler asyncLogHandler = fillWhileWriterIsBlocked(delegate, OverflowPolicy.DROP_OLDEST);
+
+        Assertions.assertEquals(
+                List.of("first", "[1] log records have been dropped, because the log buffer was full.", "third", "fourth"),
+                delegate.messages());
+        asyncLogHandler.close();
+    }
+
+    @Test
+    @DisplayName("Should write the buffered records and close the delegate on close, and write later records directly")
+    void testClose() {
+        RecordingHandler delegate = new RecordingHandler();
+        AsyncLogHandler asyncLogHandler = new AsyncLogHandler(delegate, 16, OverflowPolicy.BLOCK);
+
+        asyncLogHandler.publish(new LogRecord(Level.INFO, "before close"));
+        asyncLogHandler.close();
+        asyncLogHandler.close();
+        asyncLogHandler.publish(new LogRecord(Level.INFO, "after close"));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(List.of("before close", "after close"), delegate.messages()),
+                () -> Assertions.assertEquals(1, delegate.closeCount));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for invalid parameters")
+    void testInvalidParameters() {
+        RecordingHandler delegate = new RecordingHandler();
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new AsyncLogHandler(null, 1, OverflowPolicy.BLOCK)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new AsyncLogHandler(delegate, 0, OverflowPolicy.BLOCK)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> new AsyncLogHandler(delegate, 1, null)),
+                () -> Assertions.assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.fromName(" drop-oldest ")));
+    }
+
+    /**
+     * Publishes four records into a buffer of two while the writer is blocked in the first one, so one of the other three is dropped.
+     */
+    private static AsyncLogHandler fillWhileWriterIsBlocked(RecordingHandler delegate, OverflowPolicy overflowPolicy) throws InterruptedException {
+        delegate.block();
+        AsyncLogHandler asyncLogHandler = new AsyncLogHandler(delegate, 2, overflowPolicy);
+
+        asyncLogHandler.publish(new LogRecord(Level.INFO, "first"));
+        Assertions.assertTrue(delegate.writerBlocked.await(5, TimeUnit.SECONDS));
+        asyncLogHandler.publish(new LogRecord(Level.INFO, "second"));
+        asyncLogHandler.publish(new LogRecord(Level.INFO, "third"));
+        asyncLogHandler.publish(new LogRecord(Level.INFO, "fourth"));
+
+        delegate.release.countDown();
+        asyncLogHandler.flush();
+        return asyncLogHandler;
+    }
+
+    /**
+     * A {@link Handler} recording the messages and the threads of the published records, which can block the writer in its first record.
+     */
+    private static final class RecordingHandler extends Handler {
+
+        private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        private final CountDownLatch writerBlocked = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private volatile boolean blocking;
+
+        private volatile int closeCount;
+
+        void block() {
+            blocking = true;
+        }
+
+        List<String> messages() {
+            return List.copyOf(messages);
+        }
+
+        List<String> threads() {
+            return List.copyOf(threads);
+        }
+
+        @Override
+        public void publish(LogRecord logRecord) {
+            if (blocking) {
+                blocking = false;
+                writerBlocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            messages.add(logRecord.getMessage());
+            threads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void flush() {
+            // Nothing is buffered
+        }
+
+        @Override
+        public void close() {
+            closeCount++;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package gscf.task.roomdimension.log;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link CustomConsoleLogFormatter} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class CustomConsoleLogFormatterTest {
+
+    private final CustomConsoleLogFormatter formatter = new CustomConsoleLogFormatter();
+
+    @Test
+    @DisplayName("Should format the records with the timestamp of their own second, the level and the message")
+    void testFormat() {
+        Instant instant = Instant.parse("2024-03-01T10:15:30.250Z");
+        String timestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault()).format(instant);
+        String nextTimestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault()).format(instant.plusSeconds(1));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(timestamp + " [INFO] - first\n", formatter.format(record(Level.INFO, "first", instant))),
+                () -> Assertions.assertEquals(
+                        timestamp + " [FINE] - second with [1]\n",
+                        formatter.format(record(Level.FINE, "second with [{0}]", instant.plusMillis(700), 1))),
+                () -> Assertions.assertEquals(
+                        nextTimestamp + " [SEVERE] - third\n",
+                        formatter.format(record(Level.SEVERE, "third", instant.plusMillis(750)))));
+    }
+
+    private static LogRecord record(Level level, String message, Instant instant, Object... parameters) {
+        LogRecord logRecord = new LogRecord(level, message);
+        logRecord.setInstant(instant);
+        logRecord.setParameters(parameters);
+        return logRecord;
+    }
+}
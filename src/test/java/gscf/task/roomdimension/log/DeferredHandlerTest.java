@@ -0,0 +1,63 @@
+package gscf.task.roomdimension.log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * {@link DeferredHandler} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class DeferredHandlerTest {
+
+    @Test
+    @DisplayName("Should create the delegate once, when the first record is published, and pass every record to it")
+    void testDeferredCreation() {
+        Handler delegate = Mockito.mock(Handler.class);
+        AtomicInteger creations = new AtomicInteger();
+        DeferredHandler deferredHandler = new DeferredHandler(() -> {
+            creations.incrementAndGet();
+            return delegate;
+        });
+
+        deferredHandler.flush();
+        boolean initializedBeforePublish = deferredHandler.isInitialized();
+        LogRecord first = new LogRecord(Level.INFO, "first");
+        LogRecord second = new LogRecord(Level.INFO, "second");
+        deferredHandler.publish(first);
+        deferredHandler.publish(second);
+        deferredHandler.close();
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(initializedBeforePublish),
+                () -> Assertions.assertTrue(deferredHandler.isInitialized()),
+                () -> Assertions.assertEquals(1, creations.get()),
+                () -> Mockito.verify(delegate).publish(first),
+                () -> Mockito.verify(delegate).publish(second),
+                () -> Mockito.verify(delegate).close());
+    }
+
+    @Test
+    @DisplayName("Should never create the delegate once it has been closed before the first record")
+    void testClosedBeforeFirstRecord() {
+        AtomicInteger creations = new AtomicInteger();
+        DeferredHandler deferredHandler = new DeferredHandler(() -> {
+            creations.incrementAndGet();
+            return Mockito.mock(Handler.class);
+        });
+
+        deferredHandler.close();
+        deferredHandler.publish(new LogRecord(Level.INFO, "dropped"));
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(deferredHandler.isInitialized()),
+                () -> Assertions.assertEquals(0, creations.get()));
+    }
+}
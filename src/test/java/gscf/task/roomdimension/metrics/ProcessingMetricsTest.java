@@ -0,0 +1,154 @@
+package gscf.task.roomdimension.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link ProcessingMetrics} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class ProcessingMetricsTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Should measure nothing while the metrics are disabled")
+    void testDisabled() {
+        ProcessingMetrics processingMetrics = new ProcessingMetrics();
+
+        try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.INGESTION)) {
+            processingMetrics.recordInput(10, 100);
+            processingMetrics.recordDistinctRooms(5);
+        }
+        processingMetrics.recordFirstResult();
+
+        Assertions.assertAll(
+                () -> Assertions.assertFalse(processingMetrics.isEnabled()),
+                () -> Assertions.assertEquals(-1, processingMetrics.getTimeToFirstResultMillis()),
+                () -> Assertions.assertSame(processingMetrics.start(Stage.OUTPUT), processingMetrics.start(Stage.RESULT)),
+                () -> Assertions.assertEquals(0, processingMetrics.getLines()),
+                () -> Assertions.assertEquals(0, processingMetrics.getBytes()),
+                () -> Assertions.assertEquals(0, processingMetrics.getDistinctRooms()),
+                () -> Assertions.assertEquals(0.0, processingMetrics.getStageTimeMillis().get("ingestion")));
+    }
+
+    @Test
+    @DisplayName("Should sum the stage times and the inputs of a run, report them with the time to the first result, and reset them for a new run")
+    void testEnabled() throws InterruptedException {
+        ProcessingMetrics processingMetrics = new ProcessingMetrics();
+        processingMetrics.enable();
+        processingMetrics.startRun();
+
+        try (ProcessingMetrics.StageTimer stageTimer = processingMetrics.start(Stage.INGESTION)) {
+            Thread.sleep(5);
+        }
+        processingMetrics.recordInput(10, 100);
+        processingMetrics.recordInput(5, 50);
+        processingMetrics.recordDistinctRooms(7);
+        processingMetrics.recordDistinctRooms(3);
+        processingMetrics.recordFirstResult();
+        long timeToFirstResultMillis = processingMetrics.getTimeToFirstResultMillis();
+        processingMetrics.recordFirstResult();
+        String report = processingMetrics.toJson();
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(processingMetrics.getStageTimeMillis().get("ingestion") >= 5),
+                () -> Assertions.assertEquals(0.0, processingMetrics.getStageTimeMillis().get("validation")),
+                () -> Assertions.assertEquals(List.of("validation", "ingestion", "result", "output"),
+                        List.copyOf(processingMetrics.getStageAllocatedBytes().keySet())),
+                () -> Assertions.assertEquals(15, processingMetrics.getLines()),
+                () -> Assertions.assertEquals(150, processingMetrics.getBytes()),
+                () -> Assertions.assertEquals(3, processingMetrics.getDistinctRooms()),
+                () -> Assertions.assertTrue(processingMetrics.getLinesPerSecond() > 0),
+                () -> Assertions.assertTrue(report.contains(",\"lines\":15,\"bytes\":150,"), report),
+                () -> Assertions.assertTrue(report.contains(",\"distinct_rooms\":3,"), report),
+                () -> Assertions.assertTrue(timeToFirstResultMillis >= 0),
+                () -> Assertions.assertEquals(timeToFirstResultMillis, processingMetrics.getTimeToFirstResultMillis()),
+                () -> Assertions.assertTrue(report.contains(",\"time_to_first_result_ms\":" + timeToFirstResultMillis + ","), report),
+                () -> Assertions.assertTrue(report.contains("\"stages\":{\"validation\":{\"wall_time_ms\":0.000,\"allocated_bytes\":0},"), report));
+
+        processingMetrics.startRun();
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(0, processingMetrics.getLines()),
+                () -> Assertions.assertEquals(0, processingMetrics.getDistinctRooms()),
+                () -> Assertions.assertEquals(0.0, processingMetrics.getStageTimeMillis().get("ingestion")),
+                () -> Assertions.assertEquals(timeToFirstResultMillis, processingMetrics.getTimeToFirstResultMillis()));
+    }
+
+    @Test
+    @DisplayName("Should count the lines, the bytes and the distinct rooms of a processed input file, and publish the metrics over JMX")
+    void testInstrumentedProcessing() throws IOException {
+        Path inputFile = Files.writeString(tempDir.resolve("input.txt"), "1x2x3\n2x2x2\n1x2x3\n3x3x3\n");
+        ProcessingMetrics processingMetrics = ProcessingMetrics.getInstance();
+        processingMetrics.enable();
+        processingMetrics.startRun();
+
+        new InputFileProcessor(new RoomConverter()).process(inputFile.toString(), ProcessingOptions.builder().engine(IngestionEngine.MAPPED).build());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(4, processingMetrics.getLines()),
+                () -> Assertions.assertEquals(Files.size(inputFile), processingMetrics.getBytes()),
+                () -> Assertions.assertEquals(3, processingMetrics.getDistinctRooms()),
+                () -> Assertions.assertTrue(processingMetrics.getStageTimeMillis().get("ingestion") > 0),
+                () -> Assertions.assertTrue(
+                        ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(ProcessingMetrics.OBJECT_NAME))));
+    }
+
+    @Test
+    @DisplayName("Should add the heap memory allocated by the tracked worker threads to the stage")
+    void testTrackWorkerThreads() throws Exception {
+        ProcessingMetrics processingMetrics = new ProcessingMetrics();
+        processingMetrics.enable();
+        processingMetrics.startRun();
+
+        ProcessingMetrics.WorkerThreads workerThreads = processingMetrics.trackWorkerThreads(Stage.INGESTION);
+        ExecutorService executor = Executors.newFixedThreadPool(2, workerThreads.threadFactory());
+        try {
+            Callable<byte[]> task = () -> new byte[1_000_000];
+            for (Future<byte[]> future : executor.invokeAll(List.of(task, task))) {
+                Assertions.assertEquals(1_000_000, future.get().length);
+            }
+        } finally {
+            workerThreads.close();
+            executor.shutdown();
+        }
+
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(processingMetrics.getStageAllocatedBytes().get("ingestion") >= 2_000_000),
+                () -> Assertions.assertEquals(0.0, processingMetrics.getStageTimeMillis().get("ingestion")),
+                () -> Assertions.assertEquals(0, processingMetrics.getStageAllocatedBytes().get("result")));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for a null stage")
+    void testInvalidParameters() {
+        ProcessingMetrics processingMetrics = new ProcessingMetrics();
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> processingMetrics.start(null)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> processingMetrics.trackWorkerThreads(null)));
+    }
+}
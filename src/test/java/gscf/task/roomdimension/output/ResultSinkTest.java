@@ -0,0 +1,185 @@
+package gscf.task.roomdimension.output;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gscf.task.roomdimension.dto.InvalidLineReason;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.LineError;
+import gscf.task.roomdimension.dto.OutputFormat;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link ResultSink} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class ResultSinkTest {
+
+    private static final Result RESULT = new Result(
+            100,
+            List.of(new Room(3, 3, 3, 63, true), new Room(2, 2, 2, 28, true)),
+            List.of(new Room(1, 2, 3, 24, false)));
+
+    private static final SketchResult SKETCH_RESULT = new SketchResult(
+            100,
+            3,
+            2,
+            0.01,
+            List.of(new RoomFrequency(new Room(1, 2, 3, 24, false), 2)),
+            1);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Should write every room of a result on its own line in the text format")
+    void testTextFormat() throws IOException {
+        String output = write(OutputFormat.TEXT, "input.txt");
+
+        Assertions.assertEquals(String.join(System.lineSeparator(), """
+                The results of the input file [input.txt]:
+                The number of total square feet of wallpaper the company should order for all rooms is: [100]m2.
+                Cubic shaped room dimensions are ([2] rooms):
+                  3x3x3
+                  2x2x2
+                Duplicated room dimensions are ([1] rooms):
+                  1x2x3
+                The results of the input file [input.txt]:
+                The number of total square feet of wallpaper the company should order for all rooms is: [100]m2.
+                The estimated number of distinct rooms out of [3] rooms is: [2] (relative standard error: 1%).
+                The most repeated room dimensions with their estimated counts (overestimated by at most [1]) are:
+                  1x2x3=2
+                """.lines().toList()) + System.lineSeparator(), output);
+    }
+
+    @Test
+    @DisplayName("Should write a header row and a single record per row in the CSV format, quoting the source when needed")
+    void testCsvFormat() throws IOException {
+        String output = write(OutputFormat.CSV, "dir,1/input \"a\".txt");
+
+        Assertions.assertEquals("""
+                source,type,room,value\r
+                "dir,1/input ""a"".txt",total_wallpaper,,100\r
+                "dir,1/input ""a"".txt",cubic,3x3x3,63\r
+                "dir,1/input ""a"".txt",cubic,2x2x2,28\r
+                "dir,1/input ""a"".txt",duplicate,1x2x3,24\r
+                "dir,1/input ""a"".txt",total_wallpaper,,100\r
+                "dir,1/input ""a"".txt",distinct_estimate,,2\r
+                "dir,1/input ""a"".txt",repeated,1x2x3,2\r
+                """, output);
+    }
+
+    @Test
+    @DisplayName("Should write a single JSON object per record and line in the JSON Lines format, with a null source for a batch aggregate")
+    void testJsonLinesFormat() throws IOException {
+        String output = write(OutputFormat.JSONL, null);
+
+        Assertions.assertEquals("""
+                {"source":null,"type":"total_wallpaper","value":100}
+                {"source":null,"type":"cubic","room":"3x3x3","length":3,"width":3,"height":3,"wallpaper":63}
+                {"source":null,"type":"cubic","room":"2x2x2","length":2,"width":2,"height":2,"wallpaper":28}
+                {"source":null,"type":"duplicate","room":"1x2x3","length":1,"width":2,"height":3,"wallpaper":24}
+                {"source":null,"type":"total_wallpaper","value":100}
+                {"source":null,"type":"distinct_estimate","value":2,"room_count":3,"relative_error":0.01}
+                {"source":null,"type":"repeated","room":"1x2x3","estimated_count":2,"error_bound":1}
+                """, output);
+    }
+
+    @Test
+    @DisplayName("Should escape the source of the JSON Lines format")
+    void testJsonLinesFormatEscapesSource() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (ResultSink resultSink = ResultSink.of(OutputFormat.JSONL, writer, true)) {
+            resultSink.write("C:\\rooms\t\"1\".txt", new Result(0, List.of(), List.of()));
+        }
+
+        Assertions.assertEquals("{\"source\":\"C:\\\\rooms\\t\\\"1\\\".txt\",\"type\":\"total_wallpaper\",\"value\":0}\n", writer.toString());
+    }
+
+    @Test
+    @DisplayName("Should write the invalid lines skipped by the lenient parsing after the rest of a result in every format")
+    void testInvalidLines() throws IOException {
+        Result result = new Result(
+                0,
+                List.of(),
+                List.of(),
+                new InvalidLines(3, List.of(new LineError(2, InvalidLineReason.MALFORMED, "2,x\"2"), new LineError(5, InvalidLineReason.BLANK, ""))));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(String.join(System.lineSeparator(), """
+                        The results of the input file [input.txt]:
+                        The number of total square feet of wallpaper the company should order for all rooms is: [0]m2.
+                        Cubic shaped room dimensions are ([0] rooms):
+                        Duplicated room dimensions are ([0] rooms):
+                        [3] invalid lines have been skipped, the first [2] are:
+                          line 2 (malformed): 2,x"2
+                          line 5 (blank):\s
+                        """.lines().toList()) + System.lineSeparator(), writeResult(OutputFormat.TEXT, result)),
+                () -> Assertions.assertEquals("""
+                        source,type,room,value\r
+                        input.txt,total_wallpaper,,0\r
+                        input.txt,invalid_lines,,3\r
+                        input.txt,invalid_malformed,"2,x""2",2\r
+                        input.txt,invalid_blank,,5\r
+                        """, writeResult(OutputFormat.CSV, result)),
+                () -> Assertions.assertEquals("""
+                        {"source":"input.txt","type":"total_wallpaper","value":0}
+                        {"source":"input.txt","type":"invalid_lines","value":3}
+                        {"source":"input.txt","type":"invalid_line","line_number":2,"reason":"malformed","line":"2,x\\"2"}
+                        {"source":"input.txt","type":"invalid_line","line_number":5,"reason":"blank","line":""}
+                        """, writeResult(OutputFormat.JSONL, result)));
+    }
+
+    @Test
+    @DisplayName("Should write the results into the output file, overwriting it")
+    void testOpenOutputFile() throws IOException {
+        Path outputFile = Files.writeString(tempDir.resolve("results.csv"), "previous content\n");
+
+        try (ResultSink resultSink = ResultSink.open(OutputFormat.CSV, outputFile)) {
+            resultSink.write("input.txt", new Result(10, List.of(), List.of()));
+        }
+
+        Assertions.assertEquals(List.of(CsvResultSink.HEADER, "input.txt,total_wallpaper,,10"), Files.readAllLines(outputFile));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for a null format or result")
+    void testInvalidParameters() {
+        ResultSink resultSink = ResultSink.of(OutputFormat.TEXT, new StringWriter(), true);
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> ResultSink.open(null, null)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> resultSink.write("input.txt", (Result) null)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> resultSink.write("input.txt", (SketchResult) null)));
+    }
+
+    private static String write(OutputFormat outputFormat, String source) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (ResultSink resultSink = ResultSink.of(outputFormat, writer, true)) {
+            resultSink.write(source, RESULT);
+            resultSink.write(source, SKETCH_RESULT);
+        }
+        return writer.toString();
+    }
+
+    private static String writeResult(OutputFormat outputFormat, Result result) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (ResultSink resultSink = ResultSink.of(outputFormat, writer, true)) {
+            resultSink.write("input.txt", result);
+        }
+        return writer.toString();
+    }
+}
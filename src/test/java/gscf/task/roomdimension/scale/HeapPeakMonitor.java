@@ -0,0 +1,98 @@
+package gscf.task.roomdimension.scale;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Tracks the peak of the live heap while it is open, i.e. the largest heap usage observed right after a garbage collection, relative to the live
+ * heap at the time the monitor was opened. Unlike the raw heap usage, it does not depend on how much garbage the collector lets accumulate, so it
+ * is a stable measure of the memory retained by the code under test.
+ *
+ * @author krisztian.hathazi
+ */
+class HeapPeakMonitor implements AutoCloseable {
+
+    private final Set<String> heapPoolNames = ManagementFactory.getMemoryPoolMXBeans()
+            .stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+
+    private final AtomicLong peakLiveHeapBytes = new AtomicLong();
+
+    private final long baselineLiveHeapBytes;
+
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+    private final NotificationListener listener = this::handleNotification;
+
+    /**
+     * Starts monitoring the garbage collections, after a full collection measuring the baseline.
+     */
+    HeapPeakMonitor() {
+        this.baselineLiveHeapBytes = collectAndMeasure();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    /**
+     * Returns the peak of the live heap observed so far, above the baseline. A full collection is requested first, so the heap retained at the time
+     * of the call is included as well.
+     *
+     * @return The peak retained heap in bytes.
+     */
+    long peakRetainedHeapBytes() {
+        peakLiveHeapBytes.accumulateAndGet(collectAndMeasure(), Math::max);
+        return Math.max(0, peakLiveHeapBytes.get() - baselineLiveHeapBytes);
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // Already removed
+            }
+        }
+    }
+
+    private static long collectAndMeasure() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long usedAfterCollection = info.getGcInfo()
+                .getMemoryUsageAfterGc()
+                .entrySet()
+                .stream()
+                .filter(pool -> heapPoolNames.contains(pool.getKey()))
+                .mapToLong(pool -> pool.getValue().getUsed())
+                .sum();
+        peakLiveHeapBytes.accumulateAndGet(usedAfterCollection, Math::max);
+    }
+}
@@ -0,0 +1,191 @@
+package gscf.task.roomdimension.scale;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import gscf.task.roomdimension.action.RoomDimensionAction;
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.AnalysisMode;
+import gscf.task.roomdimension.dto.IngestionEngine;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.SketchResult;
+import gscf.task.roomdimension.generator.RoomInputGenerator;
+import gscf.task.roomdimension.log.AppLogger;
+
+/**
+ * Scale test class, processing a generated multi-gigabyte input file and failing if the throughput drops below a floor or the retained heap grows
+ * above a ceiling. It only runs in the {@code scale-tests} Maven profile, the limits can be tuned through system properties:
+ * <ul>
+ * <li>{@code scale.sizeBytes}: the size of the generated input file</li>
+ * <li>{@code scale.directory}: the directory of the generated input file</li>
+ * <li>{@code scale.minMegabytesPerSecond.<engine>}: the throughput floor of an engine, e.g. {@code scale.minMegabytesPerSecond.parallel}; the
+ * default is a fraction of the throughput of the engine on a single core, and the parallel engine is expected to scale with the available
+ * processors up to eight cores, CI machines should raise it to their own baseline</li>
+ * <li>{@code scale.maxRetainedHeapBytes}: the heap ceiling of the exact analysis</li>
+ * <li>{@code scale.maxRetainedHeapBytes.approximate}: the heap ceiling of the approximate analysis</li>
+ * </ul>
+ *
+ * @author krisztian.hathazi
+ */
+@Tag("scale")
+class ScaleTest {
+
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    // The default throughput floor of a single core, well below the throughput of every engine even on a slow core
+    private static final double DEFAULT_MIN_MEGABYTES_PER_SECOND_PER_CORE = 10;
+
+    // The parallel engine becomes bound by the memory bandwidth beyond a few cores, so the default floor stops scaling there
+    private static final int MAX_SCALING_CORES = 8;
+
+    private static final Logger LOGGER = AppLogger.getLogger();
+
+    private static Path inputDirectory;
+
+    private static Path inputFile;
+
+    private static long inputSizeBytes;
+
+    private final InputFileProcessor inputFileProcessor = new InputFileProcessor(new RoomConverter());
+
+    @BeforeAll
+    static void generateInput() throws IOException {
+        Path directory = Path.of(System.getProperty("scale.directory", System.getProperty("java.io.tmpdir")));
+        inputDirectory = Files.createTempDirectory(directory, "room-scale-");
+        inputFile = inputDirectory.resolve("scale-input.txt");
+
+        // The narrow dimension range bounds the number of distinct rooms, so the heap needed by the exact analysis is bounded as well
+        RoomInputGenerator.builder()
+                .seed(42)
+                .sizeBytes(Long.getLong("scale.sizeBytes", 2L * 1024 * 1024 * 1024))
+                .duplicateRatio(0.2)
+                .cubicRatio(0.01)
+                .dimensionRange(1, 100)
+                .build()
+                .generate(inputFile);
+        inputSizeBytes = Files.size(inputFile);
+    }
+
+    @AfterAll
+    static void deleteInput() throws IOException {
+        Files.deleteIfExists(inputFile);
+        Files.deleteIfExists(inputDirectory);
+    }
+
+    @ParameterizedTest
+    @EnumSource(IngestionEngine.class)
+    @DisplayName("Should process the large input above the throughput floor and below the heap ceiling with every engine")
+    void testProcessLargeInput(IngestionEngine engine) throws IOException {
+        ProcessingOptions options = ProcessingOptions.builder().engine(engine).maxInputSizeBytes(Long.MAX_VALUE).build();
+
+        try (HeapPeakMonitor heapPeakMonitor = new HeapPeakMonitor()) {
+            long start = System.nanoTime();
+            Result result = inputFileProcessor.process(inputFile.toString(), options);
+            double megabytesPerSecond = megabytesPerSecond(start);
+
+            Assertions.assertAll(
+                    () -> Assertions.assertFalse(result.cubicRooms().isEmpty()),
+                    () -> Assertions.assertFalse(result.duplicateRooms().isEmpty()),
+                    () -> assertThroughput(engine, megabytesPerSecond),
+                    () -> assertRetainedHeap("scale.maxRetainedHeapBytes", 256L * 1024 * 1024, heapPeakMonitor.peakRetainedHeapBytes()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should analyse the large input approximately in constant memory")
+    void testProcessApproximateLargeInput() throws IOException {
+        ProcessingOptions options = ProcessingOptions.builder()
+                .engine(IngestionEngine.PARALLEL)
+                .maxInputSizeBytes(Long.MAX_VALUE)
+                .mode(AnalysisMode.APPROXIMATE)
+                .build();
+
+        try (HeapPeakMonitor heapPeakMonitor = new HeapPeakMonitor()) {
+            long start = System.nanoTime();
+            SketchResult result = inputFileProcessor.processApproximate(inputFile.toString(), options);
+            double megabytesPerSecond = megabytesPerSecond(start);
+
+            Assertions.assertAll(
+                    () -> Assertions.assertFalse(result.mostRepeatedRooms().isEmpty()),
+                    () -> assertThroughput(IngestionEngine.PARALLEL, megabytesPerSecond),
+                    () -> assertRetainedHeap("scale.maxRetainedHeapBytes.approximate", 64L * 1024 * 1024, heapPeakMonitor.peakRetainedHeapBytes()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should process the large input end to end without reporting an error")
+    void testRoomDimensionActionLargeInput() {
+        List<LogRecord> errors = new ArrayList<>();
+        Handler errorCollector = new Handler() {
+
+            @Override
+            public void publish(LogRecord logRecord) {
+                if (logRecord.getLevel().intValue() >= Level.SEVERE.intValue()) {
+                    errors.add(logRecord);
+                }
+            }
+
+            @Override
+            public void flush() {
+                // Nothing to flush
+            }
+
+            @Override
+            public void close() {
+                // Nothing to close
+            }
+        };
+
+        LOGGER.addHandler(errorCollector);
+        try {
+            new RoomDimensionAction().process(new String[] { "--engine=parallel", "--max-input-size=unlimited", "--top-cubic=10", inputFile.toString() });
+        } finally {
+            LOGGER.removeHandler(errorCollector);
+        }
+
+        Assertions.assertEquals(List.of(), errors.stream().map(LogRecord::getMessage).toList());
+    }
+
+    private static double megabytesPerSecond(long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return inputSizeBytes / BYTES_PER_MEGABYTE / seconds;
+    }
+
+    private static void assertThroughput(IngestionEngine engine, double megabytesPerSecond) {
+        String property = "scale.minMegabytesPerSecond." + engine.name().toLowerCase(Locale.ROOT);
+        double defaultFloor = engine == IngestionEngine.PARALLEL
+                ? DEFAULT_MIN_MEGABYTES_PER_SECOND_PER_CORE * Math.min(Runtime.getRuntime().availableProcessors(), MAX_SCALING_CORES)
+                : DEFAULT_MIN_MEGABYTES_PER_SECOND_PER_CORE;
+        double floor = Double.parseDouble(System.getProperty(property, Double.toString(defaultFloor)));
+        Assertions.assertTrue(
+                megabytesPerSecond >= floor,
+                MessageFormat.format("The throughput [{0,number,#.#}] MB/s is below the floor [{1}] MB/s set by [{2}].", megabytesPerSecond, floor, property));
+    }
+
+    private static void assertRetainedHeap(String property, long defaultCeiling, long retainedHeapBytes) {
+        long ceiling = Long.getLong(property, defaultCeiling);
+        Assertions.assertTrue(
+                retainedHeapBytes <= ceiling,
+                MessageFormat.format("The retained heap [{0}] bytes is above the ceiling [{1}] bytes set by [{2}].", retainedHeapBytes, ceiling, property));
+    }
+}
@@ -0,0 +1,189 @@
+package gscf.task.roomdimension.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.action.process.InputFileProcessor;
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.ProcessingOptions;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link AnalysisServer} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class AnalysisServerTest {
+
+    private static final String ROOMS = "1x2x3\n2x2x2\n1x2x3\n";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private AnalysisServer analysisServer;
+
+    @AfterEach
+    void tearDown() {
+        if (analysisServer != null) {
+            analysisServer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should analyse the posted room file and stream the result back as JSON Lines")
+    void testAnalysis() throws IOException, InterruptedException {
+        start(ProcessingOptions.builder());
+
+        HttpResponse<String> response = post("?source=rooms.txt", HttpRequest.BodyPublishers.ofString(ROOMS));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(200, response.statusCode()),
+                () -> Assertions.assertEquals("application/jsonl; charset=utf-8", response.headers().firstValue("Content-Type").orElse(null)),
+                () -> Assertions.assertEquals("""
+                        {"source":"rooms.txt","type":"total_wallpaper","value":76}
+                        {"source":"rooms.txt","type":"cubic","room":"2x2x2","length":2,"width":2,"height":2,"wallpaper":28}
+                        {"source":"rooms.txt","type":"duplicate","room":"1x2x3","length":1,"width":2,"height":3,"wallpaper":24}
+                        """, response.body()));
+    }
+
+    @Test
+    @DisplayName("Should analyse a gzip compressed room file approximately and in the requested format")
+    void testApproximateAnalysisOfCompressedFile() throws IOException, InterruptedException {
+        start(ProcessingOptions.builder());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(ROOMS.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        HttpResponse<String> response = post("?mode=approximate&format=csv", HttpRequest.BodyPublishers.ofByteArray(compressed.toByteArray()));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(200, response.statusCode()),
+                () -> Assertions.assertEquals("text/csv; charset=utf-8", response.headers().firstValue("Content-Type").orElse(null)),
+                () -> Assertions.assertTrue(response.body().contains(",total_wallpaper,") && response.body().contains(",distinct_estimate,"),
+                        response.body()));
+    }
+
+    @Test
+    @DisplayName("Should reject the requests with a wrong method, an invalid query, a malformed room or a too large body")
+    void testRejectedRequests() throws IOException, InterruptedException {
+        start(ProcessingOptions.builder().maxInputSizeBytes(ROOMS.length()));
+
+        HttpResponse<String> get = httpClient.send(
+                HttpRequest.newBuilder(uri("")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> invalidQuery = post("?mode=guess", HttpRequest.BodyPublishers.ofString(ROOMS));
+        HttpResponse<String> malformed = post("", HttpRequest.BodyPublishers.ofString("1x2x3\n2x2\n"));
+        HttpResponse<String> tooLarge = post("", HttpRequest.BodyPublishers.ofString(ROOMS + "3x3x3\n"));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(405, get.statusCode()),
+                () -> Assertions.assertEquals("POST", get.headers().firstValue("Allow").orElse(null)),
+                () -> Assertions.assertEquals(400, invalidQuery.statusCode()),
+                () -> Assertions.assertEquals(400, malformed.statusCode()),
+                () -> Assertions.assertEquals("The given room dimension [2x2] does not match the LxWxH pattern.\n", malformed.body()),
+                () -> Assertions.assertEquals(413, tooLarge.statusCode()),
+                () -> Assertions.assertEquals(0, analysisServer.activeRequests()));
+    }
+
+    @Test
+    @DisplayName("Should reject the request whose rooms need more wallpaper in total than the maximum of a long")
+    void testRejectedTotalOverflow() throws IOException, InterruptedException {
+        start(ProcessingOptions.builder());
+
+        // Each room needs 7 * 10^18 square feet, which fits into a long, but their total does not
+        HttpResponse<String> response = post("", HttpRequest.BodyPublishers.ofString("1000000000x1000000000x1000000000\n".repeat(2)));
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(400, response.statusCode()),
+                () -> Assertions.assertEquals("The total wallpaper needed by the rooms exceeds the maximum of a long.\n", response.body()),
+                () -> Assertions.assertEquals(0, analysisServer.activeRequests()));
+    }
+
+    @Test
+    @DisplayName("Should reject the requests over the concurrency limit, and complete the request in progress when it is stopped")
+    void testConcurrencyLimitAndGracefulShutdown() throws Exception {
+        start(ProcessingOptions.builder().maxConcurrentRequests(1));
+        InetSocketAddress address = analysisServer.address();
+
+        try (Socket socket = new Socket(address.getAddress(), address.getPort())) {
+            // The body of the first request is uploaded in two parts, so it holds the only slot of the server in between
+            OutputStream requestStream = socket.getOutputStream();
+            requestStream.write(
+                    ("POST " + AnalysisServer.ANALYSIS_PATH + " HTTP/1.1\r\nHost: localhost\r\nContent-Length: 12\r\n\r\n1x1x1\n")
+                            .getBytes(StandardCharsets.US_ASCII));
+            requestStream.flush();
+            awaitActiveRequests(1);
+
+            HttpResponse<String> rejected = post("", HttpRequest.BodyPublishers.ofString(ROOMS));
+
+            CompletableFuture<Void> stopped = CompletableFuture.runAsync(analysisServer::close);
+            HttpResponse<String> rejectedWhileStopping = post("", HttpRequest.BodyPublishers.ofString(ROOMS));
+            requestStream.write("1x1x1\n".getBytes(StandardCharsets.US_ASCII));
+            requestStream.flush();
+            String completed = new String(socket.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+            stopped.get(1, TimeUnit.MINUTES);
+
+            Assertions.assertAll(
+                    () -> Assertions.assertEquals(503, rejected.statusCode()),
+                    () -> Assertions.assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(null)),
+                    () -> Assertions.assertEquals(503, rejectedWhileStopping.statusCode()),
+                    () -> Assertions.assertTrue(completed.startsWith("HTTP/1.1 200 OK"), completed),
+                    () -> Assertions.assertTrue(completed.contains("\"type\":\"duplicate\",\"room\":\"1x1x1\""), completed));
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for invalid parameters")
+    void testInvalidParameters() {
+        InputFileProcessor inputFileProcessor = new InputFileProcessor(new RoomConverter());
+        ProcessingOptions withoutAddress = ProcessingOptions.defaults();
+        ProcessingOptions withoutSlots = ProcessingOptions.builder().serverAddress(new InetSocketAddress(0)).maxConcurrentRequests(0).build();
+
+        Assertions.assertAll(
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> AnalysisServer.start(null, withoutAddress)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> AnalysisServer.start(inputFileProcessor, withoutAddress)),
+                () -> Assertions.assertThrows(InvalidMethodParameterException.class, () -> AnalysisServer.start(inputFileProcessor, withoutSlots)));
+    }
+
+    private void start(ProcessingOptions.Builder processingOptionsBuilder) throws IOException {
+        analysisServer = AnalysisServer.start(
+                new InputFileProcessor(new RoomConverter()),
+                processingOptionsBuilder.serverAddress(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))
+                        .shutdownTimeout(Duration.ofSeconds(30))
+                        .build());
+    }
+
+    private HttpResponse<String> post(String query, HttpRequest.BodyPublisher bodyPublisher) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(uri(query)).POST(bodyPublisher).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String query) {
+        InetSocketAddress address = analysisServer.address();
+        return URI.create("http://" + address.getHostString() + ":" + address.getPort() + AnalysisServer.ANALYSIS_PATH + query);
+    }
+
+    private void awaitActiveRequests(int activeRequests) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (analysisServer.activeRequests() != activeRequests && System.nanoTime() < deadlineNanos) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package gscf.task.roomdimension.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link ExecutorUtil} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class ExecutorUtilTest {
+
+    @Test
+    @DisplayName("Should create an executor running the tasks on virtual threads if they are supported, on platform threads otherwise")
+    void testNewVirtualThreadExecutor() throws InterruptedException, ExecutionException {
+        ExecutorService executor = ExecutorUtil.newVirtualThreadExecutor(2);
+        try {
+            String threadDescription = executor.submit(() -> Thread.currentThread().toString()).get();
+
+            Assertions.assertEquals(ExecutorUtil.isVirtualThreadSupported(), threadDescription.startsWith("VirtualThread"));
+        } finally {
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for a non-positive number of fallback threads")
+    void testNewVirtualThreadExecutorThrowsForInvalidFallbackThreads() {
+        InvalidMethodParameterException exception = Assertions
+                .assertThrows(InvalidMethodParameterException.class, () -> ExecutorUtil.newVirtualThreadExecutor(0));
+        Assertions.assertEquals("[fallbackThreads] parameter must be positive, got [0].", exception.getMessage());
+    }
+}
@@ -10,8 +10,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import gscf.task.roomdimension.dto.BatchResult;
+import gscf.task.roomdimension.dto.FileResult;
+import gscf.task.roomdimension.dto.InvalidLineReason;
+import gscf.task.roomdimension.dto.InvalidLines;
+import gscf.task.roomdimension.dto.LineError;
 import gscf.task.roomdimension.dto.Result;
 import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.dto.RoomFrequency;
+import gscf.task.roomdimension.dto.SketchResult;
 import gscf.task.roomdimension.log.AppLogger;
 
 /**
@@ -52,8 +59,8 @@ class ResultPrinterUtilTest {
     @Test
     @DisplayName("Should log cubic shaped room dimensions")
     void testPrintCubicShapedRooms() {
-        Room room1 = new Room("3x3x3", 63, true);
-        Room room2 = new Room("4x4x4", 112, true);
+        Room room1 = new Room(3, 3, 3, 63, true);
+        Room room2 = new Room(4, 4, 4, 112, true);
         Result result = new Result(0, List.of(room1, room2), List.of());
         ResultPrinterUtil.printCubicShapedRooms(result);
         Mockito.verify(MOCK_HANDLER).publish(Mockito.argThat(arg -> arg.getMessage().contains("Cubic shaped room dimensions are: [3x3x3, 4x4x4]")));
@@ -62,10 +69,70 @@ class ResultPrinterUtilTest {
     @Test
     @DisplayName("Should log duplicated room dimensions")
     void testPrintDuplicatedRooms() {
-        Room room1 = new Room("3x4x5", 106, false);
-        Room room2 = new Room("6x7x8", 334, false);
+        Room room1 = new Room(3, 4, 5, 106, false);
+        Room room2 = new Room(6, 7, 8, 334, false);
         Result result = new Result(0, List.of(), List.of(room1, room2));
         ResultPrinterUtil.printDuplicatedRooms(result);
         Mockito.verify(MOCK_HANDLER).publish(Mockito.argThat(arg -> arg.getMessage().contains("Duplicated room dimensions are: [3x4x5, 6x7x8]")));
     }
+
+    @Test
+    @DisplayName("Should log the estimated number of distinct rooms")
+    void testPrintEstimatedDistinctRooms() {
+        SketchResult result = new SketchResult(0, 1_000, 990, 0.01, List.of(), 0);
+        ResultPrinterUtil.printEstimatedDistinctRooms(result);
+        Mockito.verify(MOCK_HANDLER)
+                .publish(
+                        Mockito.argThat(
+                                arg -> arg.getMessage()
+                                        .contains("The estimated number of distinct rooms out of [1,000] rooms is: [990] (relative standard error: 1%).")));
+    }
+
+    @Test
+    @DisplayName("Should log the most repeated room dimensions with their estimated counts")
+    void testPrintMostRepeatedRooms() {
+        RoomFrequency frequency1 = new RoomFrequency(new Room(3, 4, 5, 106, false), 7);
+        RoomFrequency frequency2 = new RoomFrequency(new Room(4, 4, 4, 112, true), 3);
+        SketchResult result = new SketchResult(0, 10, 5, 0.01, List.of(frequency1, frequency2), 1);
+        ResultPrinterUtil.printMostRepeatedRooms(result);
+        Mockito.verify(MOCK_HANDLER)
+                .publish(
+                        Mockito.argThat(
+                                arg -> arg.getMessage()
+                                        .contains(
+                                                "The most repeated room dimensions with their estimated counts (overestimated by at most [1]) are: [3x4x5=7, 4x4x4=3]")));
+    }
+
+    @Test
+    @DisplayName("Should log the skipped invalid lines, and nothing if no line has been skipped")
+    void testPrintInvalidLines() {
+        InvalidLines invalidLines = new InvalidLines(
+                3,
+                List.of(new LineError(2, InvalidLineReason.MALFORMED, "2x2"), new LineError(5, InvalidLineReason.OVERFLOW, "9999999999x1x1")));
+
+        ResultPrinterUtil.printInvalidLines(InvalidLines.NONE);
+        Mockito.verifyNoInteractions(MOCK_HANDLER);
+
+        ResultPrinterUtil.printInvalidLines(invalidLines);
+        Mockito.verify(MOCK_HANDLER)
+                .publish(
+                        Mockito.argThat(
+                                arg -> arg.getMessage()
+                                        .equals(
+                                                "[3] invalid lines have been skipped, the first ones are: [line 2 (malformed): 2x2, line 5 (overflow): 9999999999x1x1]")));
+    }
+
+    @Test
+    @DisplayName("Should log the headers of the file and aggregated results of a batch")
+    void testPrintBatchResultHeaders() {
+        Result result = new Result(0, List.of(), List.of());
+        FileResult<Result> fileResult = new FileResult<>("input-1.txt", result);
+        BatchResult<Result> batchResult = new BatchResult<>(List.of(fileResult, new FileResult<>("input-2.txt", result)), result);
+
+        ResultPrinterUtil.printFileResultHeader(fileResult);
+        ResultPrinterUtil.printBatchResultHeader(batchResult);
+
+        Mockito.verify(MOCK_HANDLER).publish(Mockito.argThat(arg -> arg.getMessage().equals("The results of the input file [input-1.txt]:")));
+        Mockito.verify(MOCK_HANDLER).publish(Mockito.argThat(arg -> arg.getMessage().equals("The aggregated results of all the [2] input files:")));
+    }
 }
@@ -0,0 +1,91 @@
+package gscf.task.roomdimension.util;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import gscf.task.roomdimension.converter.RoomConverter;
+import gscf.task.roomdimension.dto.Result;
+import gscf.task.roomdimension.dto.Room;
+import gscf.task.roomdimension.exception.InvalidMethodParameterException;
+
+/**
+ * {@link RoomCollectorUtil} unit test class.
+ *
+ * @author krisztian.hathazi
+ */
+class RoomCollectorUtilTest {
+
+    private final RoomConverter roomConverter = new RoomConverter();
+
+    @Test
+    @DisplayName("Should collect the total wallpaper, the cubic rooms and the duplicate rooms of a stream of rooms")
+    void testToResult() {
+        Result result = List.of(roomConverter.convert("4x4x4"), roomConverter.convert("4x5x6"), roomConverter.convert("4x4x4"))
+                .stream()
+                .collect(RoomCollectorUtil.toResult());
+
+        Room cubicRoom = new Room(4, 4, 4, 112, true);
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(392, result.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(List.of(cubicRoom, cubicRoom), result.cubicRooms()),
+                () -> Assertions.assertEquals(List.of(cubicRoom), result.duplicateRooms()));
+    }
+
+    @Test
+    @DisplayName("Should produce the same result with a parallel stream as with a sequential one")
+    void testToResultWithParallelStream() {
+        List<Room> rooms = IntStream.range(0, 100_000).mapToObj(i -> roomConverter.convert(i % 97 + 1, i % 89 + 1, i % 83 + 1)).toList();
+
+        Result sequentialResult = rooms.stream().collect(RoomCollectorUtil.toResult());
+        Result parallelResult = rooms.parallelStream().collect(RoomCollectorUtil.toResult());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(sequentialResult.totalSquareFeetOfWallpaper(), parallelResult.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(sequentialResult.cubicRooms(), parallelResult.cubicRooms()),
+                () -> Assertions.assertEquals(Set.copyOf(sequentialResult.duplicateRooms()), Set.copyOf(parallelResult.duplicateRooms())),
+                () -> Assertions.assertEquals(sequentialResult.duplicateRooms().size(), parallelResult.duplicateRooms().size()));
+    }
+
+    @Test
+    @DisplayName("Should report only the cubic rooms needing the most wallpaper when limited")
+    void testToResultWithCubicRoomLimit() {
+        Result result = IntStream.rangeClosed(1, 1_000)
+                .parallel()
+                .mapToObj(side -> roomConverter.convert(side, side, side))
+                .collect(RoomCollectorUtil.toResult(2));
+
+        Assertions.assertEquals(List.of(roomConverter.convert(1_000, 1_000, 1_000), roomConverter.convert(999, 999, 999)), result.cubicRooms());
+    }
+
+    @Test
+    @DisplayName("Should collect a parallel stream of room dimension strings")
+    void testDimensionsToResult() {
+        List<String> lines = IntStream.range(0, 10_000).mapToObj(i -> (i % 50 + 1) + "x" + (i % 50 + 1) + "x" + (i % 7 + 1)).toList();
+
+        Result expected = lines.stream().map(roomConverter::convert).collect(RoomCollectorUtil.toResult());
+        Result result = lines.parallelStream().collect(RoomCollectorUtil.dimensionsToResult());
+
+        Assertions.assertAll(
+                () -> Assertions.assertEquals(expected.totalSquareFeetOfWallpaper(), result.totalSquareFeetOfWallpaper()),
+                () -> Assertions.assertEquals(expected.cubicRooms(), result.cubicRooms()),
+                () -> Assertions.assertEquals(Set.copyOf(expected.duplicateRooms()), Set.copyOf(result.duplicateRooms())));
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalStateException for a malformed room dimension string")
+    void testDimensionsToResultThrowsForMalformedString() {
+        List<String> lines = List.of("1x2x3", "1-2-3");
+        Assertions.assertThrows(IllegalStateException.class, () -> lines.stream().collect(RoomCollectorUtil.dimensionsToResult()));
+    }
+
+    @Test
+    @DisplayName("Should throw InvalidMethodParameterException for a non-positive cubic room limit")
+    void testToResultThrowsForInvalidLimit() {
+        Assertions.assertThrows(InvalidMethodParameterException.class, () -> RoomCollectorUtil.toResult(0));
+    }
+}
@@ -1,9 +1,12 @@
 package gscf.task.roomdimension.validation;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -71,4 +74,45 @@ class FileSizeValidatorTest {
                 .assertThrows(IOException.class, () -> fileSizeValidator.validate(unreadableFile.toString(), MAX_SIZE_BYTES));
         Assertions.assertTrue(exception.getMessage().contains("unreadable-file.txt"));
     }
+
+    @Test
+    @DisplayName("Should open a stream delivering the whole file when file size is within the limit")
+    void testNewInputStreamWithinLimit() throws IOException {
+        Path tempFile = tempDir.resolve("test-input.txt");
+        byte[] content = "13x29x10\n28x18x6\n".getBytes();
+        Files.write(tempFile, content);
+        try (InputStream inputStream = fileSizeValidator.newInputStream(tempFile.toString(), MAX_SIZE_BYTES)) {
+            Assertions.assertArrayEquals(content, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw SizeLimitExceededIOException before opening a regular file exceeding the limit")
+    void testNewInputStreamFileExceedsSizeLimit() throws IOException {
+        Path tempFile = tempDir.resolve("too-large-input.txt");
+        Files.write(tempFile, "1x2x3".repeat(2048).getBytes());
+        Assertions.assertThrows(SizeLimitExceededIOException.class, () -> fileSizeValidator.newInputStream(tempFile.toString(), MAX_SIZE_BYTES));
+    }
+
+    @Test
+    @DisplayName("Should decompress a gzip file, validating its decompressed size instead of its compressed size")
+    void testNewInputStreamDecompressesGzipFile() throws IOException {
+        Path tempFile = tempDir.resolve("test-input.gz");
+        byte[] content = "1x2x3\n".repeat(200).getBytes();
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+            outputStream.write(content);
+        }
+
+        try (InputStream inputStream = fileSizeValidator.newInputStream(tempFile.toString(), content.length)) {
+            Assertions.assertArrayEquals(content, inputStream.readAllBytes());
+        }
+        Assertions.assertAll(
+                () -> Assertions.assertTrue(Files.size(tempFile) < MAX_SIZE_BYTES),
+                () -> Assertions.assertDoesNotThrow(() -> fileSizeValidator.validate(tempFile.toString(), 1)),
+                () -> Assertions.assertThrows(SizeLimitExceededIOException.class, () -> {
+                    try (InputStream inputStream = fileSizeValidator.newInputStream(tempFile.toString(), MAX_SIZE_BYTES)) {
+                        inputStream.readAllBytes();
+                    }
+                }));
+    }
 }